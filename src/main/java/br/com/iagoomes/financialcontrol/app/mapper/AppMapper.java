@@ -2,19 +2,42 @@ package br.com.iagoomes.financialcontrol.app.mapper;
 
 import br.com.iagoomes.financialcontrol.domain.entity.Category;
 import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractCursor;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractDetail;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractDetail.CategoryTotal;
+import br.com.iagoomes.financialcontrol.domain.entity.ImportJob;
+import br.com.iagoomes.financialcontrol.domain.entity.KeysetPage;
+import br.com.iagoomes.financialcontrol.domain.entity.RecategorizationJob;
+import br.com.iagoomes.financialcontrol.domain.entity.RuleEvaluationJob;
+import br.com.iagoomes.financialcontrol.domain.entity.RuleSetEvaluation;
 import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionCursor;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import br.com.iagoomes.financialcontrol.domain.usecase.ProcessExtractBatchUseCase;
+import br.com.iagoomes.financialcontrol.infra.categorization.CategorizationRules;
+import br.com.iagoomes.financialcontrol.model.CategorizationRuleSet;
 import br.com.iagoomes.financialcontrol.model.CategoryDTO;
+import br.com.iagoomes.financialcontrol.model.CategoryRule;
 import br.com.iagoomes.financialcontrol.model.CategorySummary;
+import br.com.iagoomes.financialcontrol.model.ConfusionMatrixCell;
 import br.com.iagoomes.financialcontrol.model.ExtractAnalysisResponse;
+import br.com.iagoomes.financialcontrol.model.ExtractBatchItemResult;
+import br.com.iagoomes.financialcontrol.model.ExtractBatchResult;
+import br.com.iagoomes.financialcontrol.model.ExtractImportJob;
 import br.com.iagoomes.financialcontrol.model.ExtractSummary;
+import br.com.iagoomes.financialcontrol.model.ExtractSummaryPage;
 import br.com.iagoomes.financialcontrol.model.FinancialSummary;
+import br.com.iagoomes.financialcontrol.model.ManualLabelAgreement;
 import br.com.iagoomes.financialcontrol.model.Period;
+import br.com.iagoomes.financialcontrol.model.RuleSetThroughput;
 import br.com.iagoomes.financialcontrol.model.TransactionDTO;
+import br.com.iagoomes.financialcontrol.model.TransactionPage;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +67,64 @@ public class AppMapper {
         return response;
     }
 
+    /**
+     * Convert an extract read a page at a time to ExtractAnalysisResponse DTO: the transactions are the first page
+     * and the category breakdown comes from totals over all of them
+     */
+    public ExtractAnalysisResponse toExtractAnalysisResponse(ExtractDetail detail) {
+        ExtractAnalysisResponse response = toExtractAnalysisResponse(detail.extract(), detail.categoryTotals());
+
+        response.setTransactions(mapTransactions(detail.transactions().items()));
+        if (detail.transactions().hasMore()) {
+            response.setNextTransactionsCursor(CursorCodec.encode(TransactionCursor.after(detail.transactions().last())));
+        }
+
+        return response;
+    }
+
+    /**
+     * Convert an extract summary to ExtractAnalysisResponse DTO: header, totals and category breakdown, with no
+     * transactions; they are read a page at a time from the extract's transactions endpoint
+     */
+    public ExtractAnalysisResponse toExtractAnalysisResponse(Extract extract, List<CategoryTotal> categoryTotals) {
+        ExtractAnalysisResponse response = new ExtractAnalysisResponse();
+
+        response.setId(UUID.fromString(extract.getId()));
+        response.setBank(ExtractAnalysisResponse.BankEnum.fromValue(extract.getBank().name()));
+        response.setPeriod(createPeriod(extract.getReferenceMonth(), extract.getReferenceYear()));
+        response.setSummary(createFinancialSummary(extract));
+        response.setTransactions(new ArrayList<>());
+        response.setCategoryBreakdown(categoryTotals.stream()
+                .map(total -> toCategorySummary(total.category(), total.totalAmount().doubleValue(),
+                        (int) total.transactionCount(), extract.getTotalExpenses().doubleValue()))
+                .toList());
+        response.setProcessedAt(Date.from(extract.getProcessedAt().atZone(ZoneId.systemDefault()).toInstant()));
+
+        return response;
+    }
+
+    public ExtractSummaryPage toExtractSummaryPage(KeysetPage<Extract> page) {
+        ExtractSummaryPage dto = new ExtractSummaryPage();
+
+        dto.setItems(page.items().stream().map(this::toExtractSummary).toList());
+        if (page.hasMore()) {
+            dto.setNextCursor(CursorCodec.encode(ExtractCursor.after(page.last())));
+        }
+
+        return dto;
+    }
+
+    public TransactionPage toTransactionPage(KeysetPage<Transaction> page) {
+        TransactionPage dto = new TransactionPage();
+
+        dto.setItems(mapTransactions(page.items()));
+        if (page.hasMore()) {
+            dto.setNextCursor(CursorCodec.encode(TransactionCursor.after(page.last())));
+        }
+
+        return dto;
+    }
+
     /**
      * Convert Extract entity to ExtractSummary DTO
      */
@@ -61,6 +142,192 @@ public class AppMapper {
         return summary;
     }
 
+    /**
+     * Convert ImportJob entity to ExtractImportJob DTO
+     */
+    public ExtractImportJob toExtractImportJob(ImportJob job) {
+        ExtractImportJob dto = new ExtractImportJob();
+
+        dto.setId(UUID.fromString(job.getId()));
+        dto.setStatus(ExtractImportJob.StatusEnum.fromValue(job.getStage().name()));
+        dto.setBank(ExtractImportJob.BankEnum.fromValue(job.getBank().name()));
+        dto.setMonth(job.getReferenceMonth());
+        dto.setYear(job.getReferenceYear());
+        dto.setFileName(job.getFileName());
+        dto.setRowsParsed(job.getRowsParsed());
+        dto.setRowsCategorized(job.getRowsCategorized());
+        dto.setRowsPersisted(job.getRowsPersisted());
+        dto.setCreatedAt(Date.from(job.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant()));
+
+        if (job.getExtractId() != null) {
+            dto.setExtractId(UUID.fromString(job.getExtractId()));
+        }
+        if (job.getErrorMessage() != null) {
+            dto.setError(job.getErrorMessage());
+        }
+        if (job.getFinishedAt() != null) {
+            dto.setFinishedAt(Date.from(job.getFinishedAt().atZone(ZoneId.systemDefault()).toInstant()));
+        }
+
+        return dto;
+    }
+
+    /**
+     * Convert RecategorizationJob entity to its DTO
+     */
+    public br.com.iagoomes.financialcontrol.model.RecategorizationJob toRecategorizationJob(RecategorizationJob job) {
+        br.com.iagoomes.financialcontrol.model.RecategorizationJob dto = new br.com.iagoomes.financialcontrol.model.RecategorizationJob();
+
+        dto.setId(UUID.fromString(job.getId()));
+        dto.setStatus(br.com.iagoomes.financialcontrol.model.RecategorizationJob.StatusEnum.fromValue(job.getStatus().name()));
+        dto.setMaxConfidence(job.getMaxConfidence());
+        dto.setTotalCandidates(job.getTotalCandidates());
+        dto.setProcessed(job.getProcessed());
+        dto.setUpdated(job.getUpdated());
+        dto.setSkipped(job.getSkipped());
+        dto.setCreatedAt(Date.from(job.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant()));
+
+        if (job.getErrorMessage() != null) {
+            dto.setError(job.getErrorMessage());
+        }
+        if (job.getFinishedAt() != null) {
+            dto.setFinishedAt(Date.from(job.getFinishedAt().atZone(ZoneId.systemDefault()).toInstant()));
+        }
+
+        return dto;
+    }
+
+    /**
+     * Convert the candidate rule set of an evaluation request to categorization rules
+     */
+    public CategorizationRules toCategorizationRules(CategorizationRuleSet ruleSet) {
+        CategorizationRules rules = new CategorizationRules();
+
+        rules.setTransactionTypes(ruleSet.getTransactionTypes().stream()
+                .map(typeRule -> {
+                    CategorizationRules.TypeRule rule = new CategorizationRules.TypeRule();
+                    rule.setType(TransactionType.valueOf(typeRule.getType().getValue()));
+                    rule.setKeywords(typeRule.getKeywords());
+                    return rule;
+                })
+                .toList());
+        rules.setCategories(ruleSet.getCategories().stream().map(this::toCategoryRule).toList());
+        if (ruleSet.getDefaultCategory() != null) {
+            rules.setDefaultCategory(toCategoryRule(ruleSet.getDefaultCategory()));
+        }
+
+        return rules;
+    }
+
+    private CategorizationRules.CategoryRule toCategoryRule(CategoryRule categoryRule) {
+        CategorizationRules.CategoryRule rule = new CategorizationRules.CategoryRule();
+        rule.setName(categoryRule.getName());
+        rule.setColor(categoryRule.getColor());
+        rule.setIcon(categoryRule.getIcon());
+        rule.setPriority(categoryRule.getPriority());
+        rule.setKeywords(categoryRule.getKeywords());
+        rule.setRegexes(categoryRule.getRegexes());
+        rule.setMinAmount(categoryRule.getMinAmount());
+        rule.setMaxAmount(categoryRule.getMaxAmount());
+        return rule;
+    }
+
+    /**
+     * Convert RuleEvaluationJob entity to its DTO
+     */
+    public br.com.iagoomes.financialcontrol.model.RuleEvaluationJob toRuleEvaluationJob(RuleEvaluationJob job) {
+        br.com.iagoomes.financialcontrol.model.RuleEvaluationJob dto = new br.com.iagoomes.financialcontrol.model.RuleEvaluationJob();
+
+        dto.setId(UUID.fromString(job.getId()));
+        dto.setStatus(br.com.iagoomes.financialcontrol.model.RuleEvaluationJob.StatusEnum.fromValue(job.getStatus().name()));
+        dto.setProcessed(job.getProcessed());
+        dto.setCreatedAt(Date.from(job.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant()));
+
+        if (job.getResult() != null) {
+            dto.setResult(toRuleSetEvaluation(job.getResult()));
+        }
+        if (job.getErrorMessage() != null) {
+            dto.setError(job.getErrorMessage());
+        }
+        if (job.getFinishedAt() != null) {
+            dto.setFinishedAt(Date.from(job.getFinishedAt().atZone(ZoneId.systemDefault()).toInstant()));
+        }
+
+        return dto;
+    }
+
+    /**
+     * Convert a rule set evaluation to its DTO
+     */
+    public br.com.iagoomes.financialcontrol.model.RuleSetEvaluation toRuleSetEvaluation(RuleSetEvaluation evaluation) {
+        br.com.iagoomes.financialcontrol.model.RuleSetEvaluation dto = new br.com.iagoomes.financialcontrol.model.RuleSetEvaluation();
+
+        dto.setTransactionsEvaluated(evaluation.transactionsEvaluated());
+        dto.setChangedFromCurrent(evaluation.changedFromCurrent());
+        dto.setChangedFromActive(evaluation.changedFromActive());
+        dto.setConfusionMatrix(evaluation.confusionMatrix().stream()
+                .map(cell -> new ConfusionMatrixCell()
+                        .currentCategory(cell.currentCategory())
+                        .candidateCategory(cell.candidateCategory())
+                        .count(cell.count()))
+                .toList());
+
+        RuleSetEvaluation.ManualLabelAgreement manualLabels = evaluation.manualLabels();
+        dto.setManualLabels(new ManualLabelAgreement()
+                .labeled(manualLabels.labeled())
+                .activeMatches(manualLabels.activeMatches())
+                .candidateMatches(manualLabels.candidateMatches())
+                .activeAgreement(manualLabels.activeAgreement())
+                .candidateAgreement(manualLabels.candidateAgreement()));
+
+        dto.setActiveRules(toRuleSetThroughput(evaluation.activeRules()));
+        dto.setCandidateRules(toRuleSetThroughput(evaluation.candidateRules()));
+
+        return dto;
+    }
+
+    private RuleSetThroughput toRuleSetThroughput(RuleSetEvaluation.Throughput throughput) {
+        return new RuleSetThroughput()
+                .elapsedMillis(throughput.elapsedMillis())
+                .transactionsPerSecond(throughput.transactionsPerSecond());
+    }
+
+    /**
+     * Convert batch item results to the batch response DTO
+     */
+    public ExtractBatchResult toExtractBatchResult(List<ProcessExtractBatchUseCase.BatchItemResult> results) {
+        ExtractBatchResult dto = new ExtractBatchResult();
+
+        int succeeded = (int) results.stream().filter(ProcessExtractBatchUseCase.BatchItemResult::isSuccess).count();
+        int rejected = (int) results.stream().filter(ProcessExtractBatchUseCase.BatchItemResult::isRejected).count();
+        dto.setSucceeded(succeeded);
+        dto.setFailed(results.size() - succeeded - rejected);
+        dto.setRejected(rejected);
+        dto.setResults(results.stream().map(this::toExtractBatchItemResult).toList());
+
+        return dto;
+    }
+
+    private ExtractBatchItemResult toExtractBatchItemResult(ProcessExtractBatchUseCase.BatchItemResult result) {
+        ExtractBatchItemResult dto = new ExtractBatchItemResult();
+
+        dto.setFileName(result.getFileName());
+        dto.setBank(result.getBank() != null ? result.getBank().name() : null);
+        dto.setMonth(result.getMonth());
+        dto.setYear(result.getYear());
+        dto.setStatus(result.isSuccess() ? ExtractBatchItemResult.StatusEnum.SUCCESS
+                : result.isRejected() ? ExtractBatchItemResult.StatusEnum.REJECTED
+                : ExtractBatchItemResult.StatusEnum.FAILED);
+        dto.setTransactionCount(result.getTransactionCount());
+        dto.setError(result.getError());
+
+        if (result.getExtractId() != null) {
+            dto.setExtractId(UUID.fromString(result.getExtractId()));
+        }
+
+        return dto;
+    }
+
     /**
      * Create Period DTO
      */
@@ -180,19 +447,23 @@ public class AppMapper {
                             .mapToDouble(t -> t.getAmount().doubleValue())
                             .sum();
 
-                    int transactionCount = transactions.size();
-                    double percentage = totalExpenses > 0 ? (totalAmount / totalExpenses) * 100 : 0;
-                    double averageAmount = transactionCount > 0 ? totalAmount / transactionCount : 0;
-
-                    CategorySummary summary = new CategorySummary();
-                    summary.setCategory(toCategoryDTO(category));
-                    summary.setTotalAmount(totalAmount);
-                    summary.setTransactionCount(transactionCount);
-                    summary.setPercentage(percentage);
-                    summary.setAverageAmount(averageAmount);
-
-                    return summary;
+                    return toCategorySummary(category, totalAmount, transactions.size(), totalExpenses);
                 })
                 .toList();
     }
+
+    private CategorySummary toCategorySummary(Category category, double totalAmount, int transactionCount,
+                                              double totalExpenses) {
+        double percentage = totalExpenses > 0 ? (totalAmount / totalExpenses) * 100 : 0;
+        double averageAmount = transactionCount > 0 ? totalAmount / transactionCount : 0;
+
+        CategorySummary summary = new CategorySummary();
+        summary.setCategory(toCategoryDTO(category));
+        summary.setTotalAmount(totalAmount);
+        summary.setTransactionCount(transactionCount);
+        summary.setPercentage(percentage);
+        summary.setAverageAmount(averageAmount);
+
+        return summary;
+    }
 }
\ No newline at end of file
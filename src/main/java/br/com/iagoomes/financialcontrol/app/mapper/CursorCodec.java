@@ -0,0 +1,87 @@
+package br.com.iagoomes.financialcontrol.app.mapper;
+
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractCursor;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque page cursors for the API: the key of the last item of a page, tagged with what it pages over and
+ * Base64url-encoded so clients pass it back without depending on its contents
+ */
+public final class CursorCodec {
+
+    private static final String EXTRACT_TAG = "e1";
+    private static final String TRANSACTION_TAG = "t1";
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(ExtractCursor cursor) {
+        return encode(EXTRACT_TAG, cursor.referenceYear(), cursor.referenceMonth(), cursor.id());
+    }
+
+    public static String encode(TransactionCursor cursor) {
+        return encode(TRANSACTION_TAG, cursor.date().toEpochMilli(), cursor.id());
+    }
+
+    /**
+     * @return null for a null cursor, i.e. the first page
+     * @throws IllegalArgumentException when the cursor was not produced by {@link #encode(ExtractCursor)}
+     */
+    public static ExtractCursor decodeExtractCursor(String token) {
+        if (token == null) {
+            return null;
+        }
+        String[] fields = decode(token, EXTRACT_TAG, 4);
+        try {
+            return new ExtractCursor(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), fields[3]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * @return null for a null cursor, i.e. the first page
+     * @throws IllegalArgumentException when the cursor was not produced by {@link #encode(TransactionCursor)}
+     */
+    public static TransactionCursor decodeTransactionCursor(String token) {
+        if (token == null) {
+            return null;
+        }
+        String[] fields = decode(token, TRANSACTION_TAG, 3);
+        try {
+            return new TransactionCursor(Instant.ofEpochMilli(Long.parseLong(fields[1])), fields[2]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static String encode(Object... fields) {
+        StringBuilder key = new StringBuilder();
+        for (Object field : fields) {
+            if (!key.isEmpty()) {
+                key.append(SEPARATOR);
+            }
+            key.append(field);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String token, String tag, int fieldCount) {
+        String key;
+        try {
+            key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String[] fields = key.split("\\" + SEPARATOR, -1);
+        if (fields.length != fieldCount || !fields[0].equals(tag) || fields[fieldCount - 1].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return fields;
+    }
+}
@@ -2,14 +2,23 @@ package br.com.iagoomes.financialcontrol.app.resource;
 
 import br.com.iagoomes.financialcontrol.api.CategoriesApiDelegate;
 import br.com.iagoomes.financialcontrol.app.service.CategoryService;
+import br.com.iagoomes.financialcontrol.model.CategorizationRuleSet;
 import br.com.iagoomes.financialcontrol.model.CategoryDTO;
+import br.com.iagoomes.financialcontrol.model.RuleEvaluationJob;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class CategoriesResource implements CategoriesApiDelegate {
@@ -23,4 +32,36 @@ public class CategoriesResource implements CategoriesApiDelegate {
             return ResponseEntity.ok(categories);
         });
     }
+
+    @Override
+    public CompletableFuture<ResponseEntity<RuleEvaluationJob>> evaluateCategorizationRules(
+            CategorizationRuleSet categorizationRuleSet) {
+
+        try {
+            RuleEvaluationJob job = categoryService.submitRuleEvaluation(categorizationRuleSet);
+            URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                    .path("/{jobId}")
+                    .buildAndExpand(job.getId())
+                    .toUri();
+
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().location(location).body(job));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Resource: Invalid candidate rule set: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+
+        } catch (RejectedExecutionException e) {
+            log.warn("Resource: Rule evaluation queue is full, rejecting evaluation");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<RuleEvaluationJob>> getRuleEvaluationJob(UUID jobId) {
+        log.debug("Resource: Fetching rule evaluation job by ID: {}", jobId);
+
+        return CompletableFuture.completedFuture(categoryService.getRuleEvaluationJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
 }
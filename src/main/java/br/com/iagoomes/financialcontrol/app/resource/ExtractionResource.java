@@ -2,18 +2,27 @@ package br.com.iagoomes.financialcontrol.app.resource;
 
 import br.com.iagoomes.financialcontrol.api.ExtractsApiDelegate;
 import br.com.iagoomes.financialcontrol.app.service.ExtractService;
+import br.com.iagoomes.financialcontrol.infra.exception.IdempotencyKeyReusedException;
+import br.com.iagoomes.financialcontrol.infra.exception.ImportInProgressException;
 import br.com.iagoomes.financialcontrol.model.ExtractAnalysisResponse;
-import br.com.iagoomes.financialcontrol.model.ExtractSummary;
+import br.com.iagoomes.financialcontrol.model.ExtractBatchResult;
+import br.com.iagoomes.financialcontrol.model.ExtractImportJob;
+import br.com.iagoomes.financialcontrol.model.ExtractSummaryPage;
+import br.com.iagoomes.financialcontrol.model.TransactionPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Resource implementation for Extracts API - calls Application Service
@@ -26,14 +35,18 @@ public class ExtractionResource implements ExtractsApiDelegate {
     private final ExtractService extractService; // ✅ Chama Application Service
 
     @Override
-    public CompletableFuture<ResponseEntity<ExtractAnalysisResponse>> getExtractById(UUID extractId) {
+    public CompletableFuture<ResponseEntity<ExtractAnalysisResponse>> getExtractById(UUID extractId, Integer limit) {
         try {
             log.info("Resource: Fetching extract by ID: {}", extractId);
 
-            Optional<ExtractAnalysisResponse> response = extractService.getExtractById(extractId);
+            Optional<ExtractAnalysisResponse> response = extractService.getExtractById(extractId, limit);
 
             return response.map(extractAnalysisResponse -> CompletableFuture.completedFuture(ResponseEntity.ok(extractAnalysisResponse))).orElseGet(() -> CompletableFuture.completedFuture(ResponseEntity.notFound().build()));
 
+        } catch (IllegalArgumentException e) {
+            log.warn("Resource: Invalid parameters: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+
         } catch (Exception e) {
             log.error("Resource: Error fetching extract by ID: {}", extractId, e);
             return CompletableFuture.completedFuture(ResponseEntity.internalServerError().build());
@@ -41,13 +54,35 @@ public class ExtractionResource implements ExtractsApiDelegate {
     }
 
     @Override
-    public CompletableFuture<ResponseEntity<List<ExtractSummary>>> listExtracts(String bank, Integer year, Integer month) {
+    public CompletableFuture<ResponseEntity<TransactionPage>> listExtractTransactions(UUID extractId, String cursor,
+                                                                                      Integer limit) {
+        try {
+            log.info("Resource: Listing transactions of extract {}", extractId);
+
+            Optional<TransactionPage> page = extractService.listExtractTransactions(extractId, cursor, limit);
+
+            return CompletableFuture.completedFuture(page.map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build()));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Resource: Invalid parameters: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+
+        } catch (Exception e) {
+            log.error("Resource: Error listing transactions of extract {}", extractId, e);
+            return CompletableFuture.completedFuture(ResponseEntity.internalServerError().build());
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<ExtractSummaryPage>> listExtracts(String bank, Integer year, Integer month,
+                                                                              String cursor, Integer limit) {
         try {
             log.info("Resource: Listing extracts with filters - bank: {}, year: {}, month: {}", bank, year, month);
 
-            List<ExtractSummary> summaries = extractService.listExtracts(bank, year, month);
+            ExtractSummaryPage page = extractService.listExtracts(bank, year, month, cursor, limit);
 
-            return CompletableFuture.completedFuture(ResponseEntity.ok(summaries));
+            return CompletableFuture.completedFuture(ResponseEntity.ok(page));
 
         } catch (IllegalArgumentException e) {
             log.warn("Resource: Invalid parameters: {}", e.getMessage());
@@ -61,12 +96,12 @@ public class ExtractionResource implements ExtractsApiDelegate {
 
     @Override
     public CompletableFuture<ResponseEntity<ExtractAnalysisResponse>> uploadExtract(
-            MultipartFile file, String bank, Integer month, Integer year) {
+            String idempotencyKey, MultipartFile file, String bank, Integer month, Integer year) {
 
         try {
             log.info("Resource: Processing extract upload - bank: {}, month: {}, year: {}", bank, month, year);
 
-            ExtractAnalysisResponse response = extractService.processExtractFile(file, bank, month, year);
+            ExtractAnalysisResponse response = extractService.processExtractFile(file, bank, month, year, idempotencyKey);
 
             return CompletableFuture.completedFuture(ResponseEntity.ok(response));
 
@@ -74,9 +109,84 @@ public class ExtractionResource implements ExtractsApiDelegate {
             log.warn("Resource: Invalid request: {}", e.getMessage());
             return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
 
+        } catch (ImportInProgressException e) {
+            log.warn("Resource: Import already running for {} {}/{}", bank, month, year);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT).build());
+
+        } catch (IdempotencyKeyReusedException e) {
+            log.warn("Resource: Idempotency key {} reused for a different upload", idempotencyKey);
+            return CompletableFuture.completedFuture(ResponseEntity.unprocessableEntity().build());
+
+        } catch (RejectedExecutionException e) {
+            log.warn("Resource: No import pipeline threads available, rejecting upload");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+
         } catch (Exception e) {
             log.error("Resource: Error processing extract upload", e);
             return CompletableFuture.completedFuture(ResponseEntity.internalServerError().build());
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public CompletableFuture<ResponseEntity<ExtractBatchResult>> uploadExtractBatch(
+            List<MultipartFile> files, String banks, String months, String years, MultipartFile archive) {
+
+        try {
+            log.info("Resource: Processing extract batch upload - files: {}", files != null ? files.size() : 0);
+
+            ExtractBatchResult result = extractService.processExtractBatch(files, banks, months, years, archive);
+
+            return CompletableFuture.completedFuture(ResponseEntity.ok(result));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Resource: Invalid batch request: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+
+        } catch (RejectedExecutionException e) {
+            log.warn("Resource: Batch executor is full, rejecting batch");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+
+        } catch (Exception e) {
+            log.error("Resource: Error processing extract batch upload", e);
+            return CompletableFuture.completedFuture(ResponseEntity.internalServerError().build());
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<ExtractImportJob>> submitExtractImportJob(
+            String idempotencyKey, MultipartFile file, String bank, Integer month, Integer year) {
+
+        try {
+            log.info("Resource: Submitting extract import job - bank: {}, month: {}, year: {}", bank, month, year);
+
+            ExtractImportJob job = extractService.submitExtractFile(file, bank, month, year, idempotencyKey);
+            URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                    .path("/{jobId}")
+                    .buildAndExpand(job.getId())
+                    .toUri();
+
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().location(location).body(job));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Resource: Invalid request: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+
+        } catch (RejectedExecutionException e) {
+            log.warn("Resource: Import queue is full, rejecting job");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+
+        } catch (Exception e) {
+            log.error("Resource: Error submitting extract import job", e);
+            return CompletableFuture.completedFuture(ResponseEntity.internalServerError().build());
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<ExtractImportJob>> getExtractImportJob(UUID jobId) {
+        log.debug("Resource: Fetching import job by ID: {}", jobId);
+
+        return CompletableFuture.completedFuture(extractService.getImportJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+}
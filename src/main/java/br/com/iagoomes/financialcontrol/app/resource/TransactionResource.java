@@ -4,12 +4,18 @@ import br.com.iagoomes.financialcontrol.api.TransactionsApiDelegate;
 import br.com.iagoomes.financialcontrol.app.service.TransactionService;
 import br.com.iagoomes.financialcontrol.infra.exception.BusinessException;
 import br.com.iagoomes.financialcontrol.model.CategoryUpdateRequest;
+import br.com.iagoomes.financialcontrol.model.RecategorizationJob;
 import br.com.iagoomes.financialcontrol.model.TransactionDTO;
+import br.com.iagoomes.financialcontrol.model.TransactionPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.Date;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -53,4 +59,57 @@ public class TransactionResource implements TransactionsApiDelegate {
             }
         });
     }
+
+    @Override
+    public CompletableFuture<ResponseEntity<TransactionPage>> searchTransactions(Date from, Date to, UUID categoryId,
+                                                                                 String type, BigDecimal minAmount,
+                                                                                 BigDecimal maxAmount, String cursor,
+                                                                                 Integer limit) {
+        try {
+            log.debug("Resource: Searching transactions after cursor {}", cursor);
+
+            return CompletableFuture.completedFuture(ResponseEntity.ok(transactionService.searchTransactions(
+                    from, to, categoryId, type, minAmount, maxAmount, cursor, limit)));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Resource: Invalid search: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+
+        } catch (Exception e) {
+            log.error("Resource: Error searching transactions", e);
+            return CompletableFuture.completedFuture(ResponseEntity.internalServerError().build());
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<RecategorizationJob>> submitRecategorizationJob(BigDecimal maxConfidence) {
+        try {
+            log.info("Resource: Submitting recategorization job - maxConfidence: {}", maxConfidence);
+
+            RecategorizationJob job = transactionService.submitRecategorization(maxConfidence);
+            URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                    .path("/{jobId}")
+                    .buildAndExpand(job.getId())
+                    .toUri();
+
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().location(location).body(job));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Resource: Invalid request: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+
+        } catch (Exception e) {
+            log.error("Resource: Error submitting recategorization job", e);
+            return CompletableFuture.completedFuture(ResponseEntity.internalServerError().build());
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<RecategorizationJob>> getRecategorizationJob(UUID jobId) {
+        log.debug("Resource: Fetching recategorization job by ID: {}", jobId);
+
+        return CompletableFuture.completedFuture(transactionService.getRecategorizationJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
 }
@@ -4,7 +4,10 @@ import br.com.iagoomes.financialcontrol.app.mapper.AppMapper;
 import br.com.iagoomes.financialcontrol.domain.entity.Category;
 import br.com.iagoomes.financialcontrol.domain.usecase.CategorizeTransactionUseCase;
 import br.com.iagoomes.financialcontrol.domain.usecase.ListCategoriesUseCase;
+import br.com.iagoomes.financialcontrol.infra.job.RuleEvaluationJobManager;
+import br.com.iagoomes.financialcontrol.model.CategorizationRuleSet;
 import br.com.iagoomes.financialcontrol.model.CategoryDTO;
+import br.com.iagoomes.financialcontrol.model.RuleEvaluationJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,6 +15,7 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Application Service for Category operations
@@ -24,8 +28,30 @@ public class CategoryService {
 
     private final AppMapper appMapper;
     private final ListCategoriesUseCase listCategoriesUseCase;
+    private final RuleEvaluationJobManager ruleEvaluationJobManager;
 
     public List<CategoryDTO> listCategories() {
         return listCategoriesUseCase.execute().stream().map(appMapper::toCategoryDTO).toList();
     }
+
+    /**
+     * Queue a dry run of a candidate rule set against the persisted transactions
+     */
+    public RuleEvaluationJob submitRuleEvaluation(CategorizationRuleSet ruleSet) {
+        log.info("Service: Submitting evaluation of candidate rule set with {} category rules",
+                ruleSet.getCategories().size());
+
+        return appMapper.toRuleEvaluationJob(
+                ruleEvaluationJobManager.submit(appMapper.toCategorizationRules(ruleSet)));
+    }
+
+    /**
+     * Get rule evaluation job by ID
+     */
+    public Optional<RuleEvaluationJob> getRuleEvaluationJob(UUID jobId) {
+        log.debug("Getting rule evaluation job by ID: {}", jobId);
+
+        return ruleEvaluationJobManager.findById(jobId.toString())
+                .map(appMapper::toRuleEvaluationJob);
+    }
 }
\ No newline at end of file
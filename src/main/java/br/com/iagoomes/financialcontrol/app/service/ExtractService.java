@@ -1,21 +1,37 @@
 package br.com.iagoomes.financialcontrol.app.service;
 
 import br.com.iagoomes.financialcontrol.app.mapper.AppMapper;
+import br.com.iagoomes.financialcontrol.app.mapper.CursorCodec;
 import br.com.iagoomes.financialcontrol.domain.entity.BankType;
 import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractDetail.CategoryTotal;
+import br.com.iagoomes.financialcontrol.domain.entity.ImportJob;
+import br.com.iagoomes.financialcontrol.domain.entity.KeysetPage;
+import br.com.iagoomes.financialcontrol.domain.usecase.ProcessExtractBatchUseCase;
+import br.com.iagoomes.financialcontrol.domain.usecase.ProcessExtractBatchUseCase.BatchItem;
 import br.com.iagoomes.financialcontrol.domain.usecase.ProcessExtractFileUseCase;
-import br.com.iagoomes.financialcontrol.domain.usecase.GetExtractByIdUseCase;
+import br.com.iagoomes.financialcontrol.domain.usecase.GetExtractDetailUseCase;
 import br.com.iagoomes.financialcontrol.domain.usecase.ListExtractsUseCase;
+import br.com.iagoomes.financialcontrol.infra.file.SpooledMultipartFile;
+import br.com.iagoomes.financialcontrol.infra.file.UploadSpooler;
+import br.com.iagoomes.financialcontrol.infra.job.ImportJobManager;
 import br.com.iagoomes.financialcontrol.model.ExtractAnalysisResponse;
-import br.com.iagoomes.financialcontrol.model.ExtractSummary;
+import br.com.iagoomes.financialcontrol.model.ExtractBatchResult;
+import br.com.iagoomes.financialcontrol.model.ExtractImportJob;
+import br.com.iagoomes.financialcontrol.model.ExtractSummaryPage;
+import br.com.iagoomes.financialcontrol.model.TransactionPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Application Service - Orchestrates Use Cases and handles DTOs
@@ -25,47 +41,199 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ExtractService {
 
+    /**
+     * Archive entries are tagged by name, e.g. nubank-2025-07.csv or itau_2025_7.ofx
+     */
+    private static final Pattern ARCHIVE_ENTRY_NAME =
+            Pattern.compile("(?i)(?:^|[^a-z])([a-z]+)[-_](\\d{4})[-_](\\d{1,2})\\.[a-z0-9]+$");
+
     private final ProcessExtractFileUseCase processExtractFileUseCase;
-    private final GetExtractByIdUseCase getExtractByIdUseCase;
+    private final GetExtractDetailUseCase getExtractDetailUseCase;
     private final ListExtractsUseCase listExtractsUseCase;
+    private final ImportJobManager importJobManager;
+    private final ProcessExtractBatchUseCase processExtractBatchUseCase;
+    private final UploadSpooler uploadSpooler;
     private final AppMapper appMapper;
 
     /**
-     * Process extract file upload
+     * Process extract file upload, at most once per idempotency key when one is given
      */
-    public ExtractAnalysisResponse processExtractFile(MultipartFile file, String bank, Integer month, Integer year) {
+    public ExtractAnalysisResponse processExtractFile(MultipartFile file, String bank, Integer month, Integer year,
+                                                      String idempotencyKey) {
         log.info("Processing extract file: bank={}, month={}, year={}", bank, month, year);
 
         validateUploadParameters(file, bank, month, year);
 
         BankType bankType = BankType.valueOf(bank.toUpperCase());
-        Extract extract = processExtractFileUseCase.execute(file, bankType, month, year);
 
-        return appMapper.toExtractAnalysisResponse(extract);
+        // Spooling hashes the upload on the way, so the import reads it only once more, to parse it
+        Extract extract;
+        try (SpooledMultipartFile spooledFile = uploadSpooler.spool(file)) {
+            extract = processExtractFileUseCase.executeOnce(idempotencyKey, spooledFile, bankType, month, year);
+        }
+
+        // The import returns the header and the totals it accumulated, so the transactions are not read back;
+        // a repeated upload gets the same extract from memory. Only an import that resumed, or a file found already
+        // imported, lacks its per-category totals, which are then aggregated once in the database and kept.
+        List<CategoryTotal> categoryTotals = extract.getCategoryTotals().orElseGet(() -> {
+            List<CategoryTotal> totals = getExtractDetailUseCase.categoryTotals(extract.getId());
+            extract.setCategoryTotals(totals);
+            return totals;
+        });
+
+        return appMapper.toExtractAnalysisResponse(extract, categoryTotals);
+    }
+
+    /**
+     * Queue extract file upload for asynchronous processing; repeating the idempotency key returns the same job
+     */
+    public ExtractImportJob submitExtractFile(MultipartFile file, String bank, Integer month, Integer year,
+                                              String idempotencyKey) {
+        log.info("Submitting extract import job: bank={}, month={}, year={}", bank, month, year);
+
+        validateUploadParameters(file, bank, month, year);
+
+        BankType bankType = BankType.valueOf(bank.toUpperCase());
+        ImportJob job = importJobManager.submit(file, bankType, month, year, idempotencyKey);
+
+        return appMapper.toExtractImportJob(job);
+    }
+
+    /**
+     * Process several extract files, given as parallel lists and/or a ZIP archive, in one request
+     */
+    public ExtractBatchResult processExtractBatch(List<MultipartFile> files, String banks,
+                                                  String months, String years, MultipartFile archive) {
+        List<MultipartFile> uploadedFiles = files != null ? files : List.of();
+        log.info("Processing extract batch: files={}, archive={}", uploadedFiles.size(),
+                archive != null ? archive.getOriginalFilename() : null);
+
+        List<String> bankList = splitList(banks);
+        List<Integer> monthList = splitList(months).stream().map(ExtractService::parseInteger).toList();
+        List<Integer> yearList = splitList(years).stream().map(ExtractService::parseInteger).toList();
+
+        if (bankList.size() != uploadedFiles.size() || monthList.size() != uploadedFiles.size()
+                || yearList.size() != uploadedFiles.size()) {
+            throw new IllegalArgumentException("banks, months and years must have one entry per file");
+        }
+
+        List<SpooledMultipartFile> archiveEntries = List.of();
+        try {
+            List<BatchItem> items = new ArrayList<>();
+            for (int i = 0; i < uploadedFiles.size(); i++) {
+                items.add(toBatchItem(uploadedFiles.get(i), uploadedFiles.get(i).getOriginalFilename(),
+                        bankList.get(i), monthList.get(i), yearList.get(i)));
+            }
+
+            if (archive != null && !archive.isEmpty()) {
+                archiveEntries = uploadSpooler.spoolArchiveEntries(archive);
+                archiveEntries.forEach(entry -> items.add(toArchiveBatchItem(entry)));
+            }
+
+            if (items.isEmpty()) {
+                throw new IllegalArgumentException("At least one file or a ZIP archive is required");
+            }
+
+            return appMapper.toExtractBatchResult(processExtractBatchUseCase.execute(items));
+
+        } finally {
+            archiveEntries.forEach(SpooledMultipartFile::close);
+        }
+    }
+
+    /**
+     * Get asynchronous import job by ID
+     */
+    public Optional<ExtractImportJob> getImportJob(UUID jobId) {
+        log.debug("Getting import job by ID: {}", jobId);
+
+        return importJobManager.findById(jobId.toString())
+                .map(appMapper::toExtractImportJob);
     }
 
     /**
-     * Get extract by ID
+     * Get extract by ID with its newest transactions, up to limit
+     *
+     * @throws IllegalArgumentException when the limit is out of range
      */
-    public Optional<ExtractAnalysisResponse> getExtractById(UUID extractId) {
+    public Optional<ExtractAnalysisResponse> getExtractById(UUID extractId, Integer limit) {
         log.info("Getting extract by ID: {}", extractId);
 
-        Optional<Extract> extract = getExtractByIdUseCase.execute(extractId.toString());
-        return extract.map(appMapper::toExtractAnalysisResponse);
+        return getExtractDetailUseCase.execute(extractId.toString(), limit)
+                .map(appMapper::toExtractAnalysisResponse);
     }
 
     /**
-     * List extracts with filters
+     * Page of an extract's transactions, newest first
+     *
+     * @throws IllegalArgumentException when the cursor or limit is invalid
      */
-    public List<ExtractSummary> listExtracts(String bank, Integer year, Integer month) {
+    public Optional<TransactionPage> listExtractTransactions(UUID extractId, String cursor, Integer limit) {
+        log.info("Listing transactions of extract {} after cursor {}", extractId, cursor);
+
+        return getExtractDetailUseCase.transactions(extractId.toString(), CursorCodec.decodeTransactionCursor(cursor), limit)
+                .map(appMapper::toTransactionPage);
+    }
+
+    /**
+     * Page of extracts matching the filters, newest first
+     *
+     * @throws IllegalArgumentException when a filter, the cursor or the limit is invalid
+     */
+    public ExtractSummaryPage listExtracts(String bank, Integer year, Integer month, String cursor, Integer limit) {
         log.info("Listing extracts with filters - bank: {}, year: {}, month: {}", bank, year, month);
 
         BankType bankType = bank != null ? BankType.valueOf(bank.toUpperCase()) : null;
-        List<Extract> extracts = listExtractsUseCase.execute(bankType, year, month);
+        KeysetPage<Extract> page = listExtractsUseCase.execute(bankType, year, month,
+                CursorCodec.decodeExtractCursor(cursor), limit);
+
+        return appMapper.toExtractSummaryPage(page);
+    }
+
+    private static List<String> splitList(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(",")).map(String::trim).toList();
+    }
 
-        return extracts.stream()
-                .map(appMapper::toExtractSummary)
-                .toList();
+    private static Integer parseInteger(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+    }
+
+    private BatchItem toArchiveBatchItem(MultipartFile entry) {
+        Matcher matcher = ARCHIVE_ENTRY_NAME.matcher(entry.getOriginalFilename());
+        if (!matcher.find()) {
+            return BatchItem.builder()
+                    .fileName(entry.getOriginalFilename())
+                    .rejectionReason("Archive entry name must follow <bank>-<year>-<month>.<ext>")
+                    .build();
+        }
+
+        return toBatchItem(entry, entry.getOriginalFilename(), matcher.group(1),
+                Integer.valueOf(matcher.group(3)), Integer.valueOf(matcher.group(2)));
+    }
+
+    /**
+     * Build a batch item, turning invalid parameters into a rejected item instead of failing the whole batch
+     */
+    private BatchItem toBatchItem(MultipartFile file, String fileName, String bank, Integer month, Integer year) {
+        BatchItem.BatchItemBuilder item = BatchItem.builder()
+                .fileName(fileName)
+                .file(file)
+                .month(month)
+                .year(year);
+
+        try {
+            validateUploadParameters(file, bank, month, year);
+            return item.bank(BankType.valueOf(bank.toUpperCase())).build();
+        } catch (IllegalArgumentException e) {
+            return item.rejectionReason(e.getMessage()).build();
+        }
     }
 
     /**
@@ -1,13 +1,25 @@
 package br.com.iagoomes.financialcontrol.app.service;
 
 import br.com.iagoomes.financialcontrol.app.mapper.AppMapper;
+import br.com.iagoomes.financialcontrol.app.mapper.CursorCodec;
 import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionFilter;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import br.com.iagoomes.financialcontrol.domain.usecase.SearchTransactionsUseCase;
 import br.com.iagoomes.financialcontrol.domain.usecase.UpdateTransactionCategoryUseCase;
+import br.com.iagoomes.financialcontrol.infra.job.RecategorizationJobManager;
+import br.com.iagoomes.financialcontrol.model.RecategorizationJob;
 import br.com.iagoomes.financialcontrol.model.TransactionDTO;
+import br.com.iagoomes.financialcontrol.model.TransactionPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -19,7 +31,9 @@ import java.util.UUID;
 public class TransactionService {
 
     private final UpdateTransactionCategoryUseCase updateTransactionCategoryUseCase;
+    private final SearchTransactionsUseCase searchTransactionsUseCase;
     private final AppMapper appMapper;
+    private final RecategorizationJobManager recategorizationJobManager;
 
     /**
      * Updates the category of a transaction
@@ -34,4 +48,55 @@ public class TransactionService {
 
         return appMapper.mapTransaction(updatedTransaction);
     }
+
+    /**
+     * Page of transactions across extracts matching every filter that is given, newest first
+     *
+     * @throws IllegalArgumentException when a filter, the cursor or the limit is invalid
+     */
+    public TransactionPage searchTransactions(Date from, Date to, UUID categoryId, String type,
+                                              BigDecimal minAmount, BigDecimal maxAmount,
+                                              String cursor, Integer limit) {
+        log.info("Service: Searching transactions - from: {}, to: {}, category: {}, type: {}, amount: {}..{}",
+                from, to, categoryId, type, minAmount, maxAmount);
+
+        TransactionFilter filter = new TransactionFilter(
+                toLocalDate(from),
+                toLocalDate(to),
+                categoryId != null ? categoryId.toString() : null,
+                type != null ? TransactionType.valueOf(type.toUpperCase()) : null,
+                minAmount,
+                maxAmount);
+
+        return appMapper.toTransactionPage(searchTransactionsUseCase.execute(filter,
+                CursorCodec.decodeTransactionCursor(cursor), limit));
+    }
+
+    /**
+     * Queue the recategorization of transactions with confidence below maxConfidence (all but manual ones by default)
+     */
+    public RecategorizationJob submitRecategorization(BigDecimal maxConfidence) {
+        BigDecimal threshold = maxConfidence != null ? maxConfidence : BigDecimal.ONE;
+        if (threshold.signum() < 0 || threshold.compareTo(BigDecimal.ONE) > 0) {
+            throw new IllegalArgumentException("maxConfidence must be between 0 and 1");
+        }
+
+        log.info("Service: Submitting recategorization of transactions with confidence below {}", threshold);
+
+        return appMapper.toRecategorizationJob(recategorizationJobManager.submit(threshold));
+    }
+
+    /**
+     * Get recategorization job by ID
+     */
+    public Optional<RecategorizationJob> getRecategorizationJob(UUID jobId) {
+        log.debug("Getting recategorization job by ID: {}", jobId);
+
+        return recategorizationJobManager.findById(jobId.toString())
+                .map(appMapper::toRecategorizationJob);
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate() : null;
+    }
 }
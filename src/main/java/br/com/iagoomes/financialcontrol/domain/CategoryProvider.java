@@ -15,6 +15,12 @@ public interface CategoryProvider {
      */
     Category save(Category category);
 
+    /**
+     * Get the category with the name of the given one, creating it from the given one when it does not exist.
+     * Safe to call concurrently for the same name: all callers get the same category.
+     */
+    Category findOrCreate(Category category);
+
     /**
      * Find category by ID
      */
@@ -2,18 +2,75 @@ package br.com.iagoomes.financialcontrol.domain;
 
 import br.com.iagoomes.financialcontrol.domain.entity.BankType;
 import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractCursor;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Reads only see COMPLETE extracts; an extract whose import has not committed its last transaction is
+ * reachable through {@link #findReservation} alone.
+ * findByBankAndPeriod, findById and findPage return extracts without their transactions, in one query each
+ * whatever the history size.
+ */
 public interface ExtractProvider {
     Optional<Extract> findByBankAndPeriod(BankType bankType, Integer month, Integer year);
-    List<Extract> findByBank(BankType bankType);
-    List<Extract> findByYear(Integer year);
-    List<Extract> findAll();
+    Optional<Extract> findById(String extractId);
+
+    /**
+     * Up to limit extracts matching the filters that are not null, newest first, starting after the cursor
+     * or from the newest when it is null
+     */
+    List<Extract> findPage(BankType bankType, Integer year, Integer month, ExtractCursor after, int limit);
+
+
     Optional<Extract> findByIdWithTransactions(String extractId);
     Extract save(Extract extract);
 
+    /**
+     * Atomically claim the extract's (bank, month, year) slot by saving its header.
+     * Returns empty when another extract already holds that period.
+     */
+    Optional<Extract> reservePeriod(Extract extract);
+
+    /**
+     * The extract holding the (bank, month, year) slot, complete or not
+     */
+    Optional<Extract> findReservation(BankType bankType, Integer month, Integer year);
+
+    /**
+     * Take over an IMPORTING extract for the lease owner and expiry set on it, provided the lease held by the
+     * import that left it behind has expired. Returns false when that import still holds it.
+     */
+    boolean claimLease(Extract extract, LocalDateTime now);
+
+    /**
+     * Give up the lease of an IMPORTING extract, if its lease owner still holds it, so another import can take
+     * it over without waiting for it to expire
+     */
+    void releaseLease(Extract extract);
+
+    /**
+     * Append a batch of transactions to an extract that is already saved, committing them together with
+     * the extract's totals, transaction count and source position, which must already include them, and
+     * renewing its lease to the expiry set on the extract.
+     * Fails without saving anything when the extract's lease owner no longer holds the lease.
+     */
+    void saveTransactions(Extract extract, List<Transaction> transactions);
+
+    /**
+     * Write the final totals and transaction count of a saved extract, release its lease and make it visible
+     * to reads. Fails like {@link #saveTransactions} when the lease was lost.
+     */
+    void complete(Extract extract);
+
+    /**
+     * Delete an extract and its transactions
+     */
+    void deleteById(String extractId);
+
     /**
      * Find all extracts for a specific period (month/year)
      */
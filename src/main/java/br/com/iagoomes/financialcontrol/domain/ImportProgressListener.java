@@ -0,0 +1,27 @@
+package br.com.iagoomes.financialcontrol.domain;
+
+import br.com.iagoomes.financialcontrol.domain.entity.ImportStage;
+
+/**
+ * Receives progress notifications while an extract file is imported
+ */
+public interface ImportProgressListener {
+
+    /**
+     * Listener for synchronous imports nobody is watching
+     */
+    ImportProgressListener NONE = new ImportProgressListener() {
+    };
+
+    default void onStageChanged(ImportStage stage) {
+    }
+
+    default void onTransactionParsed() {
+    }
+
+    default void onTransactionCategorized() {
+    }
+
+    default void onTransactionsPersisted(int count) {
+    }
+}
@@ -1,7 +1,12 @@
 package br.com.iagoomes.financialcontrol.domain;
 
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractDetail.CategoryTotal;
 import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionCursor;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionFilter;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -18,4 +23,55 @@ public interface TransactionProvider {
      * Save or update transaction
      */
     Transaction save(Transaction transaction);
+
+    /**
+     * Visit the title, amount and category id of every manually categorized transaction, oldest first
+     */
+    void forEachManualCategorization(ManualCategorizationConsumer consumer);
+
+    /**
+     * Count transactions without category or with confidence below maxConfidence
+     */
+    long countRecategorizationCandidates(BigDecimal maxConfidence);
+
+    /**
+     * Next page of transactions without category or with confidence below maxConfidence, ordered by ID
+     * and starting after afterId
+     */
+    List<Transaction> findRecategorizationCandidates(BigDecimal maxConfidence, String afterId, int limit);
+
+    /**
+     * Next page of all transactions with their category, ordered by ID and starting after afterId
+     */
+    List<Transaction> findPage(String afterId, int limit);
+
+    /**
+     * Up to limit transactions of the extract with their category, newest first, starting after the cursor
+     * or from the newest when it is null
+     */
+    List<Transaction> findByExtract(String extractId, TransactionCursor after, int limit);
+
+    /**
+     * Up to limit transactions of any extract matching the filter, with their category, newest first,
+     * starting after the cursor or from the newest when it is null
+     */
+    List<Transaction> search(TransactionFilter filter, TransactionCursor after, int limit);
+
+    /**
+     * Count and amount of the extract's categorized transactions, per category
+     */
+    List<CategoryTotal> sumByCategory(String extractId);
+
+    /**
+     * Write back category, confidence and type of already saved transactions in one batch, skipping those
+     * that stopped being candidates for maxConfidence since they were read, e.g. categorized by hand
+     *
+     * @return number of transactions written
+     */
+    int updateCategorization(List<Transaction> transactions, BigDecimal maxConfidence);
+
+    @FunctionalInterface
+    interface ManualCategorizationConsumer {
+        void accept(String title, BigDecimal amount, String categoryId);
+    }
 }
@@ -1,9 +1,14 @@
 package br.com.iagoomes.financialcontrol.domain.entity;
 
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractDetail.CategoryTotal;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public class Extract {
 
@@ -23,33 +28,95 @@ public class Extract {
 
     private LocalDateTime processedAt;
 
+    private String contentHash;
+
+    private ExtractStatus status = ExtractStatus.COMPLETE;
+
+    // Source position just past the last accumulated transaction, where a resumed import seeks to
+    private Long sourcePosition;
+
+    // Import holding the extract while it is IMPORTING, and until when, unless renewed
+    private String leaseOwner;
+
+    private LocalDateTime leaseExpiresAt;
+
     private List<Transaction> transactions = new ArrayList<>();
 
-    public static Extract create(List<Transaction> transactions, Integer month, Integer year) {
-        BigDecimal totalIncome = BigDecimal.ZERO;
-        BigDecimal totalExpenses = BigDecimal.ZERO;
+    // Per-category totals of the transactions accumulated into this extract; null when not known
+    private volatile Map<String, CategoryTotal> categoryTotals;
 
-        for (Transaction transaction : transactions) {
-            if (transaction.isIncome()) {
-                totalIncome = totalIncome.add(transaction.getAbsoluteAmount());
-            } else {
-                totalExpenses = totalExpenses.add(transaction.getAbsoluteAmount());
-            }
-        }
+    public static Extract create(List<Transaction> transactions, BankType bank, Integer month, Integer year) {
+        Extract extract = open(bank, month, year);
+        transactions.forEach(extract::addTransaction);
+        extract.setStatus(ExtractStatus.COMPLETE);
+        return extract;
+    }
 
+    /**
+     * Factory method to start an empty extract whose transactions are appended while the file is parsed.
+     * It stays IMPORTING until the last of them is committed.
+     */
+    public static Extract open(BankType bank, Integer month, Integer year) {
         Extract extract = new Extract();
-        extract.setBank(BankType.NUBANK);
+        extract.setBank(bank);
         extract.setReferenceMonth(month);
         extract.setReferenceYear(year);
-        extract.setTotalIncome(totalIncome);
-        extract.setTotalExpenses(totalExpenses);
-        extract.setTransactionCount(transactions.size());
+        extract.setTotalIncome(BigDecimal.ZERO);
+        extract.setTotalExpenses(BigDecimal.ZERO);
+        extract.setTransactionCount(0);
         extract.setProcessedAt(LocalDateTime.now());
-        extract.setTransactions(transactions);
+        extract.setStatus(ExtractStatus.IMPORTING);
+        extract.categoryTotals = new LinkedHashMap<>();
+        return extract;
+    }
 
-        transactions.forEach(transaction -> transaction.setExtract(extract));
+    /**
+     * Appends a transaction and updates the running totals
+     */
+    public void addTransaction(Transaction transaction) {
+        transactions.add(transaction);
+        accumulate(transaction);
+    }
 
-        return extract;
+    /**
+     * Updates the running totals and count with a transaction that is persisted separately instead of being kept
+     */
+    public void accumulate(Transaction transaction) {
+        if (transaction.isIncome()) {
+            totalIncome = totalIncome.add(transaction.getAbsoluteAmount());
+        } else {
+            totalExpenses = totalExpenses.add(transaction.getAbsoluteAmount());
+        }
+
+        transactionCount++;
+        transaction.setExtract(this);
+        if (transaction.getSourcePosition() != null) {
+            sourcePosition = transaction.getSourcePosition();
+        }
+
+        if (categoryTotals != null && transaction.getCategory() != null) {
+            categoryTotals.merge(transaction.getCategory().getId(),
+                    new CategoryTotal(transaction.getCategory(), 1, transaction.getAmount()),
+                    (total, added) -> new CategoryTotal(total.category(), total.transactionCount() + 1,
+                            total.totalAmount().add(added.totalAmount())));
+        }
+    }
+
+    /**
+     * Per-category totals of every transaction accumulated since the extract was opened; empty when they are not
+     * known, as for an extract read back from the database or one whose import resumed after earlier batches
+     */
+    public Optional<List<CategoryTotal>> getCategoryTotals() {
+        return Optional.ofNullable(categoryTotals).map(totals -> List.copyOf(totals.values()));
+    }
+
+    /**
+     * Record the per-category totals of an extract whose totals were not accumulated here
+     */
+    public void setCategoryTotals(List<CategoryTotal> totals) {
+        Map<String, CategoryTotal> byCategory = new LinkedHashMap<>();
+        totals.forEach(total -> byCategory.put(total.category().getId(), total));
+        this.categoryTotals = byCategory;
     }
 
     public String getId() {
@@ -116,6 +183,50 @@ public class Extract {
         this.processedAt = processedAt;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public ExtractStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ExtractStatus status) {
+        this.status = status;
+    }
+
+    public Long getSourcePosition() {
+        return sourcePosition;
+    }
+
+    public void setSourcePosition(Long sourcePosition) {
+        this.sourcePosition = sourcePosition;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public boolean isComplete() {
+        return status == ExtractStatus.COMPLETE;
+    }
+
     public List<Transaction> getTransactions() {
         return transactions;
     }
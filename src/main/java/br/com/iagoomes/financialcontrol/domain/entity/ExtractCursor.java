@@ -0,0 +1,11 @@
+package br.com.iagoomes.financialcontrol.domain.entity;
+
+/**
+ * Position in the extract listing, which is ordered by reference year, reference month and id, newest first
+ */
+public record ExtractCursor(int referenceYear, int referenceMonth, String id) {
+
+    public static ExtractCursor after(Extract extract) {
+        return new ExtractCursor(extract.getReferenceYear(), extract.getReferenceMonth(), extract.getId());
+    }
+}
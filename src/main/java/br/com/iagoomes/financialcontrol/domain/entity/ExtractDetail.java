@@ -0,0 +1,18 @@
+package br.com.iagoomes.financialcontrol.domain.entity;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * An extract with the first page of its transactions and per-category totals over all of them
+ */
+public record ExtractDetail(Extract extract,
+                            KeysetPage<Transaction> transactions,
+                            List<CategoryTotal> categoryTotals) {
+
+    /**
+     * @param totalAmount sum of the signed amounts: expenses positive, income negative
+     */
+    public record CategoryTotal(Category category, long transactionCount, BigDecimal totalAmount) {
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.iagoomes.financialcontrol.domain.entity;
+
+/**
+ * Whether an extract's transactions have all been committed.
+ * An IMPORTING extract is hidden from reads; its totals and transaction count are the checkpoint an
+ * interrupted import of the same file resumes from.
+ */
+public enum ExtractStatus {
+    IMPORTING,
+    COMPLETE
+}
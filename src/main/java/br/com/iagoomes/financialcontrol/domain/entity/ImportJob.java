@@ -0,0 +1,136 @@
+package br.com.iagoomes.financialcontrol.domain.entity;
+
+import br.com.iagoomes.financialcontrol.domain.ImportProgressListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous extract import job.
+ * Updated by the worker running the import and read concurrently by status requests.
+ */
+public class ImportJob implements ImportProgressListener {
+
+    private final String id;
+    private final BankType bank;
+    private final Integer referenceMonth;
+    private final Integer referenceYear;
+    private final String fileName;
+    private final LocalDateTime createdAt;
+
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsCategorized = new AtomicLong();
+    private final AtomicLong rowsPersisted = new AtomicLong();
+
+    private volatile ImportStage stage = ImportStage.QUEUED;
+    private volatile String extractId;
+    private volatile String errorMessage;
+    private volatile LocalDateTime finishedAt;
+
+    private ImportJob(BankType bank, Integer referenceMonth, Integer referenceYear, String fileName) {
+        this.id = UUID.randomUUID().toString();
+        this.bank = bank;
+        this.referenceMonth = referenceMonth;
+        this.referenceYear = referenceYear;
+        this.fileName = fileName;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Factory method to create a queued job
+     */
+    public static ImportJob queue(BankType bank, Integer month, Integer year, String fileName) {
+        return new ImportJob(bank, month, year, fileName);
+    }
+
+    @Override
+    public void onStageChanged(ImportStage stage) {
+        this.stage = stage;
+    }
+
+    @Override
+    public void onTransactionParsed() {
+        rowsParsed.incrementAndGet();
+    }
+
+    @Override
+    public void onTransactionCategorized() {
+        rowsCategorized.incrementAndGet();
+    }
+
+    @Override
+    public void onTransactionsPersisted(int count) {
+        rowsPersisted.addAndGet(count);
+    }
+
+    /**
+     * Marks the job as done with the extract it produced
+     */
+    public void complete(String extractId) {
+        this.extractId = extractId;
+        this.finishedAt = LocalDateTime.now();
+        this.stage = ImportStage.DONE;
+    }
+
+    /**
+     * Marks the job as failed
+     */
+    public void fail(String errorMessage) {
+        this.errorMessage = errorMessage;
+        this.finishedAt = LocalDateTime.now();
+        this.stage = ImportStage.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public BankType getBank() {
+        return bank;
+    }
+
+    public Integer getReferenceMonth() {
+        return referenceMonth;
+    }
+
+    public Integer getReferenceYear() {
+        return referenceYear;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public ImportStage getStage() {
+        return stage;
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed.get();
+    }
+
+    public long getRowsCategorized() {
+        return rowsCategorized.get();
+    }
+
+    public long getRowsPersisted() {
+        return rowsPersisted.get();
+    }
+
+    public String getExtractId() {
+        return extractId;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.iagoomes.financialcontrol.domain.entity;
+
+/**
+ * Stages an extract import goes through.
+ * Parsing, categorization and persistence run concurrently, so each stage is reported when the one before it
+ * has finished: PARSING until the whole file has been read, CATEGORIZING until the last row is categorized
+ * and persisted, and PERSISTING while the extract totals are written.
+ */
+public enum ImportStage {
+    QUEUED,
+    PARSING,
+    CATEGORIZING,
+    PERSISTING,
+    DONE,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == DONE || this == FAILED;
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.iagoomes.financialcontrol.domain.entity;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated read; the next page starts after the key of its last item
+ *
+ * @param hasMore whether rows follow the last item
+ */
+public record KeysetPage<T>(List<T> items, boolean hasMore) {
+
+    /**
+     * Page from rows read with one row of lookahead, i.e. up to limit + 1 of them
+     */
+    public static <T> KeysetPage<T> fromLookahead(List<T> rows, int limit) {
+        if (rows.size() > limit) {
+            return new KeysetPage<>(rows.subList(0, limit), true);
+        }
+        return new KeysetPage<>(rows, false);
+    }
+
+    /**
+     * The requested page size, or the default when none was given
+     *
+     * @throws IllegalArgumentException when it is not between 1 and maxLimit
+     */
+    public static int checkLimit(Integer limit, int defaultLimit, int maxLimit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+        return limit;
+    }
+
+    public T last() {
+        return items.isEmpty() ? null : items.getLast();
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.iagoomes.financialcontrol.domain.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job re-running categorization over stored transactions.
+ * Updated by the worker running it and read concurrently by status requests.
+ */
+public class RecategorizationJob {
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    private final String id;
+    private final BigDecimal maxConfidence;
+    private final LocalDateTime createdAt;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long totalCandidates;
+    private volatile String errorMessage;
+    private volatile LocalDateTime finishedAt;
+
+    private RecategorizationJob(BigDecimal maxConfidence) {
+        this.id = UUID.randomUUID().toString();
+        this.maxConfidence = maxConfidence;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Factory method to create a queued job over transactions without category or with confidence
+     * below {@code maxConfidence}
+     */
+    public static RecategorizationJob queue(BigDecimal maxConfidence) {
+        return new RecategorizationJob(maxConfidence);
+    }
+
+    public void start(long totalCandidates) {
+        this.totalCandidates = totalCandidates;
+        this.status = Status.RUNNING;
+    }
+
+    /**
+     * @param skippedCount changed transactions left untouched because they stopped being candidates meanwhile
+     */
+    public void onBatchProcessed(int processedCount, int updatedCount, int skippedCount) {
+        processed.addAndGet(processedCount);
+        updated.addAndGet(updatedCount);
+        skipped.addAndGet(skippedCount);
+    }
+
+    public void complete() {
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.DONE;
+    }
+
+    public void fail(String errorMessage) {
+        this.errorMessage = errorMessage;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public BigDecimal getMaxConfidence() {
+        return maxConfidence;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getTotalCandidates() {
+        return totalCandidates;
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getUpdated() {
+        return updated.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.iagoomes.financialcontrol.domain.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background dry run of a candidate rule set over the stored transactions.
+ * Updated by the worker running it and read concurrently by status requests.
+ */
+public class RuleEvaluationJob {
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    private final String id;
+    private final LocalDateTime createdAt;
+
+    private final AtomicLong processed = new AtomicLong();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile RuleSetEvaluation result;
+    private volatile String errorMessage;
+    private volatile LocalDateTime finishedAt;
+
+    private RuleEvaluationJob() {
+        this.id = UUID.randomUUID().toString();
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Factory method to create a queued job
+     */
+    public static RuleEvaluationJob queue() {
+        return new RuleEvaluationJob();
+    }
+
+    public void start() {
+        this.status = Status.RUNNING;
+    }
+
+    public void onPageEvaluated(int transactionCount) {
+        processed.addAndGet(transactionCount);
+    }
+
+    public void complete(RuleSetEvaluation result) {
+        this.result = result;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.DONE;
+    }
+
+    public void fail(String errorMessage) {
+        this.errorMessage = errorMessage;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    /**
+     * The evaluation, once the job is done
+     */
+    public RuleSetEvaluation getResult() {
+        return result;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
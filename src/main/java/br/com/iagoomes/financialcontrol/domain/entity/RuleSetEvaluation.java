@@ -0,0 +1,50 @@
+package br.com.iagoomes.financialcontrol.domain.entity;
+
+import java.util.List;
+
+/**
+ * Outcome of classifying the persisted transactions with a candidate rule set next to the active one
+ *
+ * @param changedFromCurrent transactions whose candidate category differs from the stored one
+ * @param changedFromActive  transactions whose candidate category differs from the one the active rules give
+ * @param confusionMatrix    transactions per (stored category, candidate category) pair, largest first
+ */
+public record RuleSetEvaluation(long transactionsEvaluated,
+                                long changedFromCurrent,
+                                long changedFromActive,
+                                List<ConfusionCell> confusionMatrix,
+                                ManualLabelAgreement manualLabels,
+                                Throughput activeRules,
+                                Throughput candidateRules) {
+
+    /**
+     * @param currentCategory stored category name, null for uncategorized transactions
+     */
+    public record ConfusionCell(String currentCategory, String candidateCategory, long count) {
+    }
+
+    /**
+     * How many manual categorizations (confidence 1.0) each rule set reproduces
+     */
+    public record ManualLabelAgreement(long labeled, long activeMatches, long candidateMatches) {
+
+        public Double activeAgreement() {
+            return labeled > 0 ? (double) activeMatches / labeled : null;
+        }
+
+        public Double candidateAgreement() {
+            return labeled > 0 ? (double) candidateMatches / labeled : null;
+        }
+    }
+
+    public record Throughput(long transactions, long elapsedNanos) {
+
+        public double elapsedMillis() {
+            return elapsedNanos / 1_000_000.0;
+        }
+
+        public double transactionsPerSecond() {
+            return elapsedNanos > 0 ? transactions * 1_000_000_000.0 / elapsedNanos : 0;
+        }
+    }
+}
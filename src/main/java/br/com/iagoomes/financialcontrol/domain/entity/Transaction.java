@@ -16,6 +16,9 @@ public class Transaction {
     private Category category;
     private BigDecimal confidence;
 
+    // Position in the source file just past this record, in the unit of the processor that parsed it; not persisted
+    private Long sourcePosition;
+
     public static Transaction create(LocalDate date, String title, BigDecimal amount, String originalDescription, TransactionType transactionType) {
         Transaction transaction = new Transaction();
         transaction.setDate(Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant()));
@@ -118,4 +121,12 @@ public class Transaction {
     public void setConfidence(BigDecimal confidence) {
         this.confidence = confidence;
     }
+
+    public Long getSourcePosition() {
+        return sourcePosition;
+    }
+
+    public void setSourcePosition(Long sourcePosition) {
+        this.sourcePosition = sourcePosition;
+    }
 }
@@ -0,0 +1,13 @@
+package br.com.iagoomes.financialcontrol.domain.entity;
+
+import java.time.Instant;
+
+/**
+ * Position in the transactions of an extract, which are ordered by date and id, newest first
+ */
+public record TransactionCursor(Instant date, String id) {
+
+    public static TransactionCursor after(Transaction transaction) {
+        return new TransactionCursor(transaction.getDate().toInstant(), transaction.getId());
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.iagoomes.financialcontrol.domain.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Criteria of a transaction search across extracts; null fields do not filter.
+ * Dates are inclusive; amounts are signed as stored (expenses positive, income negative) and inclusive.
+ */
+public record TransactionFilter(LocalDate from,
+                                LocalDate to,
+                                String categoryId,
+                                TransactionType type,
+                                BigDecimal minAmount,
+                                BigDecimal maxAmount) {
+
+    /**
+     * @throws IllegalArgumentException when a range is reversed
+     */
+    public TransactionFilter {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0) {
+            throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package br.com.iagoomes.financialcontrol.domain.mapper;
 
 import br.com.iagoomes.financialcontrol.domain.entity.Category;
 import br.com.iagoomes.financialcontrol.infra.repository.entity.CategoryData;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.EntityIds;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -16,11 +17,11 @@ public class CategoryMapper {
         }
 
         return CategoryData.builder()
-                .id(category.getId())
+                .id(EntityIds.toUuid(category.getId()))
                 .name(category.getName())
                 .color(category.getColor())
                 .icon(category.getIcon())
-                .parentCategoryId(category.getParentCategoryId())
+                .parentCategoryId(EntityIds.toUuid(category.getParentCategoryId()))
                 .createdAt(category.getCreatedAt())
                 .updatedAt(category.getUpdatedAt())
                 .build();
@@ -35,11 +36,11 @@ public class CategoryMapper {
         }
 
         Category category = new Category();
-        category.setId(categoryData.getId());
+        category.setId(EntityIds.toString(categoryData.getId()));
         category.setName(categoryData.getName());
         category.setColor(categoryData.getColor());
         category.setIcon(categoryData.getIcon());
-        category.setParentCategoryId(categoryData.getParentCategoryId());
+        category.setParentCategoryId(EntityIds.toString(categoryData.getParentCategoryId()));
         category.setCreatedAt(categoryData.getCreatedAt());
         category.setUpdatedAt(categoryData.getUpdatedAt());
 
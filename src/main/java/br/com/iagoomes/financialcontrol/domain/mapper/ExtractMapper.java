@@ -2,6 +2,8 @@ package br.com.iagoomes.financialcontrol.domain.mapper;
 
 import br.com.iagoomes.financialcontrol.domain.entity.Extract;
 import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.infra.repository.ExtractDataRepository.ExtractSummaryView;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.EntityIds;
 import br.com.iagoomes.financialcontrol.infra.repository.entity.ExtractData;
 import br.com.iagoomes.financialcontrol.infra.repository.entity.TransactionData;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,11 +22,26 @@ public class ExtractMapper {
     }
 
     public Extract toExtractDomain(ExtractData extractData) {
+        Extract extract = toExtractHeader(extractData);
+        if (extract != null && extractData.getTransactions() != null) {
+            List<Transaction> transactions = extractData.getTransactions()
+                    .stream()
+                    .map(transactionMapper::toTransactionDomain)
+                    .toList();
+            extract.setTransactions(transactions);
+        }
+        return extract;
+    }
+
+    /**
+     * Maps the extract without touching its transactions, so they are not loaded
+     */
+    public Extract toExtractHeader(ExtractData extractData) {
         if (extractData == null) {
             return null;
         }
         Extract extract = new Extract();
-        extract.setId(extractData.getId());
+        extract.setId(EntityIds.toString(extractData.getId()));
         extract.setBank(extractData.getBank());
         extract.setReferenceMonth(extractData.getReferenceMonth());
         extract.setReferenceYear(extractData.getReferenceYear());
@@ -32,13 +49,28 @@ public class ExtractMapper {
         extract.setTotalExpenses(extractData.getTotalExpenses());
         extract.setTransactionCount(extractData.getTransactionCount());
         extract.setProcessedAt(extractData.getProcessedAt());
-        if (extractData.getTransactions() != null) {
-            List<Transaction> transactions = extractData.getTransactions()
-                    .stream()
-                    .map(transactionMapper::toTransactionDomain)
-                    .toList();
-            extract.setTransactions(transactions);
+        extract.setContentHash(extractData.getContentHash());
+        extract.setStatus(extractData.getStatus());
+        extract.setSourcePosition(extractData.getSourcePosition());
+        extract.setLeaseOwner(extractData.getLeaseOwner());
+        extract.setLeaseExpiresAt(extractData.getLeaseExpiresAt());
+        return extract;
+    }
+
+    public Extract toExtractHeader(ExtractSummaryView summary) {
+        if (summary == null) {
+            return null;
         }
+        Extract extract = new Extract();
+        extract.setId(EntityIds.toString(summary.getId()));
+        extract.setBank(summary.getBank());
+        extract.setReferenceMonth(summary.getReferenceMonth());
+        extract.setReferenceYear(summary.getReferenceYear());
+        extract.setTotalIncome(summary.getTotalIncome());
+        extract.setTotalExpenses(summary.getTotalExpenses());
+        extract.setTransactionCount(summary.getTransactionCount());
+        extract.setProcessedAt(summary.getProcessedAt());
+        extract.setContentHash(summary.getContentHash());
         return extract;
     }
 
@@ -47,7 +79,7 @@ public class ExtractMapper {
             return null;
         }
         ExtractData extractData = ExtractData.builder()
-                .id(extract.getId())
+                .id(EntityIds.toUuid(extract.getId()))
                 .bank(extract.getBank())
                 .referenceMonth(extract.getReferenceMonth())
                 .referenceYear(extract.getReferenceYear())
@@ -55,6 +87,11 @@ public class ExtractMapper {
                 .totalExpenses(extract.getTotalExpenses())
                 .transactionCount(extract.getTransactionCount())
                 .processedAt(extract.getProcessedAt())
+                .contentHash(extract.getContentHash())
+                .status(extract.getStatus())
+                .sourcePosition(extract.getSourcePosition())
+                .leaseOwner(extract.getLeaseOwner())
+                .leaseExpiresAt(extract.getLeaseExpiresAt())
                 .build();
         if (extract.getTransactions() != null) {
             List<TransactionData> transactions = extract.getTransactions()
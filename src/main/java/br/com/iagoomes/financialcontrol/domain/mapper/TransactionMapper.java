@@ -1,6 +1,7 @@
 package br.com.iagoomes.financialcontrol.domain.mapper;
 
 import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.EntityIds;
 import br.com.iagoomes.financialcontrol.infra.repository.entity.TransactionData;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -20,7 +21,7 @@ public class TransactionMapper {
             return null;
         }
         Transaction transaction = new Transaction();
-        transaction.setId(transactionData.getId());
+        transaction.setId(EntityIds.toString(transactionData.getId()));
         transaction.setDate(transactionData.getDate());
         transaction.setTitle(transactionData.getTitle());
         transaction.setAmount(transactionData.getAmount());
@@ -36,7 +37,7 @@ public class TransactionMapper {
             return null;
         }
         return TransactionData.builder()
-                .id(transaction.getId())
+                .id(EntityIds.toUuid(transaction.getId()))
                 .date(transaction.getDate())
                 .title(transaction.getTitle())
                 .amount(transaction.getAmount())
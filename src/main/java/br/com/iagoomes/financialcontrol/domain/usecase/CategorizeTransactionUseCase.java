@@ -2,11 +2,19 @@ package br.com.iagoomes.financialcontrol.domain.usecase;
 
 import br.com.iagoomes.financialcontrol.domain.CategoryProvider;
 import br.com.iagoomes.financialcontrol.domain.entity.Category;
-import lombok.RequiredArgsConstructor;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.infra.categorization.CategorizationRules.CategoryRule;
+import br.com.iagoomes.financialcontrol.infra.categorization.MerchantCategoryMemo;
+import br.com.iagoomes.financialcontrol.infra.categorization.MerchantCategoryMemo.LearnedCategory;
+import br.com.iagoomes.financialcontrol.infra.categorization.NaiveBayesCategorizer;
+import br.com.iagoomes.financialcontrol.infra.categorization.TransactionClassifier;
+import br.com.iagoomes.financialcontrol.infra.categorization.TransactionClassifier.Classification;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Optional;
 
 /**
@@ -15,10 +23,31 @@ import java.util.Optional;
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class CategorizeTransactionUseCase {
 
+    // Confidence of a rule match while the model has not been trained on enough manual categorizations to score it
+    private static final BigDecimal RULE_CONFIDENCE = BigDecimal.valueOf(0.85);
+    private static final BigDecimal NO_CONFIDENCE = BigDecimal.valueOf(0.0);
+    // Derived confidences stay below 1.0, which marks manual categorizations the memo and model learn from
+    private static final BigDecimal MAX_DERIVED_CONFIDENCE = BigDecimal.valueOf(0.99);
+
     private final CategoryProvider categoryProvider;
+    private final TransactionClassifier transactionClassifier;
+    private final MerchantCategoryMemo merchantCategoryMemo;
+    private final NaiveBayesCategorizer naiveBayesCategorizer;
+    private final double confidenceThreshold;
+
+    public CategorizeTransactionUseCase(CategoryProvider categoryProvider,
+                                        TransactionClassifier transactionClassifier,
+                                        MerchantCategoryMemo merchantCategoryMemo,
+                                        NaiveBayesCategorizer naiveBayesCategorizer,
+                                        @Value("${app.categories.confidence-threshold:0.7}") double confidenceThreshold) {
+        this.categoryProvider = categoryProvider;
+        this.transactionClassifier = transactionClassifier;
+        this.merchantCategoryMemo = merchantCategoryMemo;
+        this.naiveBayesCategorizer = naiveBayesCategorizer;
+        this.confidenceThreshold = confidenceThreshold;
+    }
 
     /**
      * Categorize a transaction based on title and amount
@@ -26,131 +55,103 @@ public class CategorizeTransactionUseCase {
     public Optional<Category> execute(String title, BigDecimal amount) {
         log.debug("Executing CategorizeTransactionUseCase for transaction: {}", title);
 
-        // 1. Determine category name based on business rules (inline)
-        String categoryName = determineCategoryName(title.toLowerCase(), amount);
-
-        // 2. Try to find existing category
-        Optional<Category> existingCategory = categoryProvider.findByName(categoryName);
-        if (existingCategory.isPresent()) {
-            log.debug("Found existing category '{}' for transaction '{}'", categoryName, title);
-            return existingCategory;
-        }
-
-        // 3. Create new category if it doesn't exist
-        CategoryDetails details = getCategoryDetails(categoryName);
-        Category newCategory = Category.create(details.name(), details.color(), details.icon());
-
-        Category savedCategory = categoryProvider.save(newCategory);
-        log.info("Created new category '{}' for transaction '{}'", categoryName, title);
-
-        return Optional.of(savedCategory);
+        return findOrCreate(transactionClassifier.classify(title, amount).category(), title);
     }
 
     /**
-     * Business rules for determining category name (moved from CategoryService)
+     * Categorize a parsed transaction, setting its category and confidence.
+     * The category users chose by hand for the same merchant wins when its confidence reaches the threshold.
+     * Otherwise a keyword rule decides, scored by the model trained on manual categorizations; when no rule
+     * matches, the model's prediction replaces the default category if it reaches the threshold.
+     * The same pass over the title that applies the rules also refines the transaction type when the title
+     * carries a type keyword.
      */
-    private String determineCategoryName(String titleLower, BigDecimal amount) {
-        // Food & Restaurants
-        if (isFood(titleLower)) {
-            return "Alimentação";
-        }
+    public Optional<Category> execute(Transaction transaction) {
+        log.debug("Executing CategorizeTransactionUseCase for transaction: {}", transaction.getTitle());
 
-        // Transportation
-        if (isTransportation(titleLower)) {
-            return "Transporte";
-        }
+        Optional<LearnedCategory> learned = merchantCategoryMemo.find(transaction.getTitle())
+                .filter(mapping -> mapping.confidence() >= confidenceThreshold);
 
-        // Shopping
-        if (isShopping(titleLower)) {
-            return "Compras";
+        Classification classification = transactionClassifier.classify(transaction.getTitle(), transaction.getAmount());
+        if (classification.transactionType() != null) {
+            transaction.setTransactionType(classification.transactionType());
         }
 
-        // Healthcare
-        if (isHealthcare(titleLower)) {
-            return "Saúde";
+        Optional<Category> learnedCategory = learned.flatMap(mapping -> categoryProvider.findById(mapping.categoryId()));
+        if (learnedCategory.isPresent()) {
+            transaction.setCategory(learnedCategory.get());
+            transaction.setConfidence(derivedConfidence(learned.get().confidence()));
+            return learnedCategory;
         }
 
-        // Entertainment
-        if (isEntertainment(titleLower)) {
-            return "Entretenimento";
+        if (!classification.ruleMatched()) {
+            Optional<Category> predicted = predict(transaction);
+            if (predicted.isPresent()) {
+                return predicted;
+            }
         }
 
-        // Bills & Utilities
-        if (isBill(titleLower)) {
-            return "Contas";
-        }
-
-        // Default category for unmatched transactions
-        return "Outros";
+        Optional<Category> category = findOrCreate(classification.category(), transaction.getTitle());
+        category.ifPresent(transaction::setCategory);
+        transaction.setConfidence(category
+                .map(found -> modelConfidence(transaction, found, classification.ruleMatched()))
+                .orElse(NO_CONFIDENCE));
+        return category;
     }
 
     /**
-     * Get category details for a given category name
+     * Category the model predicts for a transaction no rule matched, when its confidence reaches the threshold
      */
-    private CategoryDetails getCategoryDetails(String categoryName) {
-        return switch (categoryName) {
-            case "Alimentação" -> new CategoryDetails("Alimentação", "#FF6B6B", "🍽️");
-            case "Transporte" -> new CategoryDetails("Transporte", "#4ECDC4", "🚗");
-            case "Compras" -> new CategoryDetails("Compras", "#45B7D1", "🛍️");
-            case "Saúde" -> new CategoryDetails("Saúde", "#96CEB4", "🏥");
-            case "Entretenimento" -> new CategoryDetails("Entretenimento", "#FFEAA7", "🎬");
-            case "Contas" -> new CategoryDetails("Contas", "#DDA0DD", "📄");
-            default -> new CategoryDetails("Outros", "#95A5A6", "❓");
-        };
-    }
+    private Optional<Category> predict(Transaction transaction) {
+        String categoryId = naiveBayesCategorizer.mostLikelyCategory(transaction.getTitle(), transaction.getAmount());
+        if (categoryId == null) {
+            return Optional.empty();
+        }
 
-    private boolean isFood(String title) {
-        return title.contains("restaurante") || title.contains("lanchonete") ||
-                title.contains("pizzaria") || title.contains("mercado") ||
-                title.contains("supermercado") || title.contains("padaria") ||
-                title.contains("ifood") || title.contains("uber eats") ||
-                title.contains("delivery") || title.contains("hamburgueria") ||
-                title.contains("sushi") || title.contains("gratin") ||
-                title.contains("au gratin");
-    }
+        double confidence = naiveBayesCategorizer.confidence(transaction.getTitle(), transaction.getAmount(), categoryId);
+        if (!(confidence >= confidenceThreshold)) {
+            return Optional.empty();
+        }
 
-    private boolean isTransportation(String title) {
-        return title.contains("uber") || title.contains("99") ||
-                title.contains("taxi") || title.contains("metro") ||
-                title.contains("ônibus") || title.contains("combustível") ||
-                title.contains("posto") || title.contains("gasolina") ||
-                title.contains("álcool") || title.contains("estacionamento");
+        Optional<Category> category = categoryProvider.findById(categoryId);
+        category.ifPresent(predicted -> {
+            transaction.setCategory(predicted);
+            transaction.setConfidence(derivedConfidence(confidence));
+        });
+        return category;
     }
 
-    private boolean isShopping(String title) {
-        return title.contains("americanas") || title.contains("magazine") ||
-                title.contains("casas bahia") || title.contains("shopee") ||
-                title.contains("mercado livre") || title.contains("amazon") ||
-                title.contains("zara") || title.contains("c&a") ||
-                title.contains("renner") || title.contains("shopping") ||
-                title.contains("lojas americanas");
+    private BigDecimal modelConfidence(Transaction transaction, Category category, boolean ruleMatched) {
+        double confidence = naiveBayesCategorizer.confidence(transaction.getTitle(), transaction.getAmount(),
+                category.getId());
+        if (Double.isNaN(confidence)) {
+            return ruleMatched ? RULE_CONFIDENCE : NO_CONFIDENCE;
+        }
+        return derivedConfidence(confidence);
     }
 
-    private boolean isHealthcare(String title) {
-        return title.contains("farmácia") || title.contains("drogaria") ||
-                title.contains("hospital") || title.contains("clínica") ||
-                title.contains("médico") || title.contains("dentista") ||
-                title.contains("laboratório") || title.contains("exame");
+    private static BigDecimal derivedConfidence(double confidence) {
+        return BigDecimal.valueOf(confidence)
+                .setScale(2, RoundingMode.DOWN)
+                .min(MAX_DERIVED_CONFIDENCE);
     }
 
-    private boolean isEntertainment(String title) {
-        return title.contains("cinema") || title.contains("netflix") ||
-                title.contains("spotify") || title.contains("youtube") ||
-                title.contains("steam") || title.contains("psn") ||
-                title.contains("xbox") || title.contains("bar") ||
-                title.contains("balada") || title.contains("show");
-    }
+    private Optional<Category> findOrCreate(CategoryRule rule, String title) {
+        if (rule == null) {
+            return Optional.empty();
+        }
 
-    private boolean isBill(String title) {
-        return title.contains("energia") || title.contains("água") ||
-                title.contains("internet") || title.contains("telefone") ||
-                title.contains("aluguel") || title.contains("condomínio") ||
-                title.contains("seguro") || title.contains("financiamento") ||
-                title.contains("empréstimo") || title.contains("cartão");
-    }
+        // 1. Try to find existing category
+        Optional<Category> existingCategory = categoryProvider.findByName(rule.getName());
+        if (existingCategory.isPresent()) {
+            log.debug("Found existing category '{}' for transaction '{}'", rule.getName(), title);
+            return existingCategory;
+        }
 
-    /**
-     * Value object for category details
-     */
-    private record CategoryDetails(String name, String color, String icon) {}
-}
\ No newline at end of file
+        // 2. Create new category if it doesn't exist; concurrent imports meeting it get the same one
+        Category category = categoryProvider.findOrCreate(Category.create(rule.getName(), rule.getColor(), rule.getIcon()));
+        log.debug("Resolved new category '{}' for transaction '{}'", rule.getName(), title);
+
+        return Optional.of(category);
+    }
+}
@@ -0,0 +1,164 @@
+package br.com.iagoomes.financialcontrol.domain.usecase;
+
+import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
+import br.com.iagoomes.financialcontrol.domain.entity.RuleEvaluationJob;
+import br.com.iagoomes.financialcontrol.domain.entity.RuleSetEvaluation;
+import br.com.iagoomes.financialcontrol.domain.entity.RuleSetEvaluation.ConfusionCell;
+import br.com.iagoomes.financialcontrol.domain.entity.RuleSetEvaluation.ManualLabelAgreement;
+import br.com.iagoomes.financialcontrol.domain.entity.RuleSetEvaluation.Throughput;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.infra.categorization.CategorizationRules.CategoryRule;
+import br.com.iagoomes.financialcontrol.infra.categorization.TransactionClassifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Use case for a dry run of a candidate rule set: every persisted transaction is classified by the active
+ * rules and by the candidate rules, and nothing is written. It runs as a background job, reading keyset pages
+ * of the transactions and classifying them on the categorization job pool, apart from upload parsing.
+ * Only the rule layer of {@link CategorizeTransactionUseCase} is compared; the learned merchant categories and
+ * the model are left out of both sides, as they do not depend on the rules and are trained on the very manual
+ * categorizations the agreement is measured against.
+ */
+@Slf4j
+@Component
+public class EvaluateCategorizationRulesUseCase {
+
+    private final TransactionProvider transactionProvider;
+    private final TransactionClassifier transactionClassifier;
+    private final ForkJoinPool categorizationPool;
+    private final int batchSize;
+
+    public EvaluateCategorizationRulesUseCase(TransactionProvider transactionProvider,
+                                              TransactionClassifier transactionClassifier,
+                                              @Qualifier("categorizationJobPool") ForkJoinPool categorizationPool,
+                                              @Value("${app.categories.evaluation.batch-size:5000}") int batchSize) {
+        this.transactionProvider = transactionProvider;
+        this.transactionClassifier = transactionClassifier;
+        this.categorizationPool = categorizationPool;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param candidate classifier compiled from the candidate rules when the job was submitted
+     */
+    public void execute(RuleEvaluationJob job, TransactionClassifier candidate) {
+        job.start();
+        log.info("Rule evaluation job {} started", job.getId());
+
+        Tally tally = new Tally();
+        long activeNanos = 0;
+        long candidateNanos = 0;
+
+        String lastId = "";
+        List<Transaction> page;
+        for (int pageNumber = 0; !(page = transactionProvider.findPage(lastId, batchSize)).isEmpty(); pageNumber++) {
+            String[] active = new String[page.size()];
+            String[] proposed = new String[page.size()];
+
+            // Alternate which rule set runs first, so neither one always gets the warmer caches
+            if (pageNumber % 2 == 0) {
+                activeNanos += classify(transactionClassifier, page, active);
+                candidateNanos += classify(candidate, page, proposed);
+            } else {
+                candidateNanos += classify(candidate, page, proposed);
+                activeNanos += classify(transactionClassifier, page, active);
+            }
+
+            tally.add(page, active, proposed);
+            job.onPageEvaluated(page.size());
+            lastId = page.getLast().getId();
+        }
+
+        RuleSetEvaluation evaluation = tally.toEvaluation(activeNanos, candidateNanos);
+        job.complete(evaluation);
+        log.info("Rule evaluation job {} evaluated candidate rules on {} transactions: {} would change category, "
+                        + "{} differ from the active rules", job.getId(), evaluation.transactionsEvaluated(),
+                evaluation.changedFromCurrent(), evaluation.changedFromActive());
+    }
+
+    /**
+     * Classify the page in parallel, writing each transaction's category name at its index
+     *
+     * @return elapsed time in nanoseconds
+     */
+    private long classify(TransactionClassifier classifier, List<Transaction> page, String[] categoryNames) {
+        long start = System.nanoTime();
+        categorizationPool.submit(() -> IntStream.range(0, page.size()).parallel().forEach(i -> {
+            Transaction transaction = page.get(i);
+            CategoryRule rule = classifier.classify(transaction.getTitle(), transaction.getAmount()).category();
+            categoryNames[i] = rule != null ? rule.getName() : null;
+        })).join();
+        return System.nanoTime() - start;
+    }
+
+    private static boolean sameCategory(String first, String second) {
+        return first == null ? second == null : second != null && first.trim().equalsIgnoreCase(second.trim());
+    }
+
+    private static final class Tally {
+
+        private final Map<ConfusionCell, Long> confusion = new HashMap<>();
+        private long evaluated;
+        private long changedFromCurrent;
+        private long changedFromActive;
+        private long labeled;
+        private long activeMatches;
+        private long candidateMatches;
+
+        void add(List<Transaction> page, String[] active, String[] proposed) {
+            for (int i = 0; i < page.size(); i++) {
+                Transaction transaction = page.get(i);
+                String current = transaction.getCategory() != null ? transaction.getCategory().getName() : null;
+
+                evaluated++;
+                if (!sameCategory(current, proposed[i])) {
+                    changedFromCurrent++;
+                }
+                if (!sameCategory(active[i], proposed[i])) {
+                    changedFromActive++;
+                }
+                confusion.merge(new ConfusionCell(current, proposed[i], 0), 1L, Long::sum);
+
+                if (current != null && isManual(transaction.getConfidence())) {
+                    labeled++;
+                    if (sameCategory(current, active[i])) {
+                        activeMatches++;
+                    }
+                    if (sameCategory(current, proposed[i])) {
+                        candidateMatches++;
+                    }
+                }
+            }
+        }
+
+        RuleSetEvaluation toEvaluation(long activeNanos, long candidateNanos) {
+            List<ConfusionCell> cells = new ArrayList<>(confusion.size());
+            confusion.forEach((pair, count) ->
+                    cells.add(new ConfusionCell(pair.currentCategory(), pair.candidateCategory(), count)));
+            cells.sort(Comparator.comparingLong(ConfusionCell::count).reversed()
+                    .thenComparing(ConfusionCell::currentCategory, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(ConfusionCell::candidateCategory, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+            return new RuleSetEvaluation(evaluated, changedFromCurrent, changedFromActive, cells,
+                    new ManualLabelAgreement(labeled, activeMatches, candidateMatches),
+                    new Throughput(evaluated, activeNanos),
+                    new Throughput(evaluated, candidateNanos));
+        }
+
+        private static boolean isManual(BigDecimal confidence) {
+            return confidence != null && confidence.compareTo(BigDecimal.ONE) >= 0;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.iagoomes.financialcontrol.domain.usecase;
+
+import br.com.iagoomes.financialcontrol.domain.ExtractProvider;
+import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractDetail;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractDetail.CategoryTotal;
+import br.com.iagoomes.financialcontrol.domain.entity.KeysetPage;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Use case for reading an extract and its transactions a page at a time, so the cost of a read does not grow
+ * with the size of the extract
+ */
+@Slf4j
+@Component
+public class GetExtractDetailUseCase {
+
+    private final ExtractProvider extractProvider;
+    private final TransactionProvider transactionProvider;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public GetExtractDetailUseCase(ExtractProvider extractProvider,
+                                   TransactionProvider transactionProvider,
+                                   @Value("${app.pagination.default-limit:50}") int defaultLimit,
+                                   @Value("${app.pagination.max-limit:500}") int maxLimit) {
+        this.extractProvider = extractProvider;
+        this.transactionProvider = transactionProvider;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * The extract with its newest transactions and the per-category totals over all of them
+     *
+     * @throws IllegalArgumentException when the limit is out of range
+     */
+    public Optional<ExtractDetail> execute(String extractId, Integer limit) {
+        log.debug("Executing GetExtractDetailUseCase for ID: {}", extractId);
+
+        int pageSize = KeysetPage.checkLimit(limit, defaultLimit, maxLimit);
+        return extractProvider.findById(extractId)
+                .map(extract -> new ExtractDetail(extract,
+                        page(extractId, null, pageSize),
+                        transactionProvider.sumByCategory(extractId)));
+    }
+
+    /**
+     * A page of the extract's transactions, newest first, starting after the cursor
+     *
+     * @throws IllegalArgumentException when the limit is out of range
+     */
+    public Optional<KeysetPage<Transaction>> transactions(String extractId, TransactionCursor after, Integer limit) {
+        int pageSize = KeysetPage.checkLimit(limit, defaultLimit, maxLimit);
+        return extractProvider.findById(extractId)
+                .map(extract -> page(extractId, after, pageSize));
+    }
+
+    /**
+     * Per-category totals over all the transactions of the extract, aggregated in the database without loading them
+     */
+    public List<CategoryTotal> categoryTotals(String extractId) {
+        return transactionProvider.sumByCategory(extractId);
+    }
+
+    private KeysetPage<Transaction> page(String extractId, TransactionCursor after, int pageSize) {
+        return KeysetPage.fromLookahead(transactionProvider.findByExtract(extractId, after, pageSize + 1), pageSize);
+    }
+}
@@ -0,0 +1,297 @@
+package br.com.iagoomes.financialcontrol.domain.usecase;
+
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.infra.job.ImportPipelineMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Parse -> categorize -> persist pipeline for one import.
+ * Parsing and categorization run on threads of the stage executor and the persist stage runs on the calling
+ * thread, connected by bounded queues so a slow stage holds back the ones before it.
+ * If any stage fails the others stop and the first failure is rethrown to the caller.
+ * The stage executor must start both stages right away or reject them, never queue them: a parse stage
+ * waiting on a full queue for a categorize stage that never starts would block its thread for good.
+ */
+@Slf4j
+final class ImportPipeline {
+
+    private static final Transaction END_OF_INPUT = new Transaction();
+    private static final long POLL_MILLIS = 100;
+
+    private final int batchSize;
+    private final TaskExecutor stageExecutor;
+    private final ImportPipelineMetrics metrics;
+    private final BlockingQueue<Transaction> parsed;
+    private final BlockingQueue<Transaction> categorized;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    ImportPipeline(int queueCapacity, int batchSize, TaskExecutor stageExecutor, ImportPipelineMetrics metrics) {
+        this.batchSize = batchSize;
+        this.stageExecutor = stageExecutor;
+        this.metrics = metrics;
+        this.parsed = new ArrayBlockingQueue<>(queueCapacity);
+        this.categorized = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * @param source      emits every parsed transaction to the consumer it is given
+     * @param categorizer categorizes one transaction
+     * @param sink        persists one batch of categorized transactions
+     * @throws RejectedExecutionException when the stage executor has no free thread for a stage
+     */
+    void run(String name, Consumer<Consumer<Transaction>> source, UnaryOperator<Transaction> categorizer,
+             Consumer<List<Transaction>> sink) {
+        metrics.trackInputQueue(ImportPipelineMetrics.CATEGORIZE, parsed);
+        metrics.trackInputQueue(ImportPipelineMetrics.PERSIST, categorized);
+
+        Stage parseStage = new Stage(name + "-parse", () -> parse(source));
+        Stage categorizeStage = new Stage(name + "-categorize", () -> categorize(categorizer));
+
+        try {
+            parseStage.start();
+            categorizeStage.start();
+            persist(sink);
+        } catch (Throwable e) {
+            fail(e);
+        } finally {
+            if (failure.get() != null) {
+                parseStage.interrupt();
+                categorizeStage.interrupt();
+            }
+            parseStage.await();
+            categorizeStage.await();
+            metrics.releaseInputQueue(ImportPipelineMetrics.CATEGORIZE, parsed);
+            metrics.releaseInputQueue(ImportPipelineMetrics.PERSIST, categorized);
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        if (error != null) {
+            throw new IllegalStateException("Import pipeline failed: " + error.getMessage(), error);
+        }
+    }
+
+    private void parse(Consumer<Consumer<Transaction>> source) {
+        StageClock clock = new StageClock(ImportPipelineMetrics.PARSE);
+
+        source.accept(transaction -> {
+            put(parsed, transaction, clock);
+            clock.processed(1);
+        });
+        put(parsed, END_OF_INPUT, clock);
+
+        clock.report();
+    }
+
+    private void categorize(UnaryOperator<Transaction> categorizer) {
+        StageClock clock = new StageClock(ImportPipelineMetrics.CATEGORIZE);
+
+        for (Transaction transaction = take(parsed, clock); transaction != END_OF_INPUT; transaction = take(parsed, clock)) {
+            put(categorized, categorizer.apply(transaction), clock);
+            clock.processed(1);
+        }
+        put(categorized, END_OF_INPUT, clock);
+
+        clock.report();
+    }
+
+    private void persist(Consumer<List<Transaction>> sink) {
+        StageClock clock = new StageClock(ImportPipelineMetrics.PERSIST);
+        List<Transaction> batch = new ArrayList<>(batchSize);
+
+        for (Transaction transaction = take(categorized, clock); transaction != END_OF_INPUT; transaction = take(categorized, clock)) {
+            batch.add(transaction);
+            if (batch.size() == batchSize) {
+                sink.accept(batch);
+                clock.processed(batch.size());
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            sink.accept(batch);
+            clock.processed(batch.size());
+        }
+
+        clock.report();
+    }
+
+    private void fail(Throwable e) {
+        if (!(e instanceof PipelineAbortedException)) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private void put(BlockingQueue<Transaction> queue, Transaction transaction, StageClock clock) {
+        if (queue.offer(transaction)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            while (!queue.offer(transaction, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                abortIfFailed();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PipelineAbortedException();
+        } finally {
+            clock.blockedOnOutput += System.nanoTime() - start;
+        }
+    }
+
+    private Transaction take(BlockingQueue<Transaction> queue, StageClock clock) {
+        Transaction transaction = queue.poll();
+        if (transaction != null) {
+            return transaction;
+        }
+
+        long start = System.nanoTime();
+        try {
+            while ((transaction = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                abortIfFailed();
+            }
+            return transaction;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PipelineAbortedException();
+        } finally {
+            clock.waitingForInput += System.nanoTime() - start;
+        }
+    }
+
+    private void abortIfFailed() {
+        if (failure.get() != null) {
+            throw new PipelineAbortedException();
+        }
+    }
+
+    /**
+     * A parse or categorize stage running on a pooled thread, renamed after the stage while it runs
+     */
+    private final class Stage implements Runnable {
+        private final String name;
+        private final Runnable body;
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private boolean started;
+        private Thread thread;
+
+        private Stage(String name, Runnable body) {
+            this.name = name;
+            this.body = body;
+        }
+
+        private void start() {
+            stageExecutor.execute(this);
+            started = true;
+        }
+
+        @Override
+        public void run() {
+            Thread current = Thread.currentThread();
+            String poolName = current.getName();
+            synchronized (this) {
+                thread = current;
+            }
+            current.setName(name);
+
+            try {
+                if (failure.get() == null) {
+                    body.run();
+                }
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                // Once detached, an interrupt meant for this stage can no longer reach the next task of the thread
+                synchronized (this) {
+                    thread = null;
+                    Thread.interrupted();
+                }
+                current.setName(poolName);
+                finished.countDown();
+            }
+        }
+
+        private synchronized void interrupt() {
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+
+        private void await() {
+            if (!started) {
+                return;
+            }
+            try {
+                finished.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Row count, wall time and queue waits of one stage.
+     * Rows are published to the metrics every 1024 rows, waits once when the stage ends.
+     */
+    private final class StageClock {
+        private static final int PUBLISH_EVERY = 1024;
+
+        private final String stage;
+        private final long startedAt = System.nanoTime();
+        private long rows;
+        private int unpublishedRows;
+        private long waitingForInput;
+        private long blockedOnOutput;
+
+        private StageClock(String stage) {
+            this.stage = stage;
+        }
+
+        private void processed(int count) {
+            rows += count;
+            unpublishedRows += count;
+            if (unpublishedRows >= PUBLISH_EVERY) {
+                metrics.rowsProcessed(stage, unpublishedRows);
+                unpublishedRows = 0;
+            }
+        }
+
+        private void report() {
+            long elapsed = System.nanoTime() - startedAt;
+            metrics.rowsProcessed(stage, unpublishedRows);
+            metrics.waited(stage, "input", waitingForInput);
+            metrics.waited(stage, "output", blockedOnOutput);
+
+            log.debug("Stage {}: {} rows in {} ms ({} rows/s), waited {} ms for input, {} ms on output",
+                    stage, rows, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    elapsed > 0 ? rows * 1_000_000_000L / elapsed : rows,
+                    TimeUnit.NANOSECONDS.toMillis(waitingForInput), TimeUnit.NANOSECONDS.toMillis(blockedOnOutput));
+        }
+    }
+
+    /**
+     * Thrown inside a stage that stops because another stage failed
+     */
+    private static final class PipelineAbortedException extends RuntimeException {
+        private PipelineAbortedException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -3,44 +3,43 @@ package br.com.iagoomes.financialcontrol.domain.usecase;
 import br.com.iagoomes.financialcontrol.domain.ExtractProvider;
 import br.com.iagoomes.financialcontrol.domain.entity.BankType;
 import br.com.iagoomes.financialcontrol.domain.entity.Extract;
-import lombok.RequiredArgsConstructor;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractCursor;
+import br.com.iagoomes.financialcontrol.domain.entity.KeysetPage;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 /**
- * Use case for listing extracts with filters
+ * Use case for listing extracts a page at a time, newest first
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class ListExtractsUseCase {
 
     private final ExtractProvider extractProvider;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public ListExtractsUseCase(ExtractProvider extractProvider,
+                               @Value("${app.pagination.default-limit:50}") int defaultLimit,
+                               @Value("${app.pagination.max-limit:500}") int maxLimit) {
+        this.extractProvider = extractProvider;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
 
-    public List<Extract> execute(BankType bankType, Integer year, Integer month) {
-        log.debug("Executing ListExtractsUseCase with filters - bank: {}, year: {}, month: {}",
-                bankType, year, month);
-
-        // Apply filters based on parameters
-        if (bankType != null && year != null && month != null) {
-            // Find specific extract
-            return extractProvider.findByBankAndPeriod(bankType, month, year)
-                    .map(List::of)
-                    .orElse(List.of());
-
-        } else if (bankType != null) {
-            // Filter by bank
-            return extractProvider.findByBank(bankType);
-
-        } else if (year != null) {
-            // Filter by year
-            return extractProvider.findByYear(year);
-
-        } else {
-            // No filters - get all
-            return extractProvider.findAll();
-        }
+    /**
+     * Extracts matching every filter that is given, starting after the cursor or from the newest when it is null
+     *
+     * @throws IllegalArgumentException when the limit is out of range
+     */
+    public KeysetPage<Extract> execute(BankType bankType, Integer year, Integer month, ExtractCursor after,
+                                       Integer limit) {
+        log.debug("Executing ListExtractsUseCase with filters - bank: {}, year: {}, month: {}, after: {}",
+                bankType, year, month, after);
+
+        int pageSize = KeysetPage.checkLimit(limit, defaultLimit, maxLimit);
+        return KeysetPage.fromLookahead(
+                extractProvider.findPage(bankType, year, month, after, pageSize + 1), pageSize);
     }
-}
\ No newline at end of file
+}
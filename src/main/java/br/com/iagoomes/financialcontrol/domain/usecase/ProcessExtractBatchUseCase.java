@@ -0,0 +1,146 @@
+package br.com.iagoomes.financialcontrol.domain.usecase;
+
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Use case for processing several extract files at once, each one parsed, categorized and persisted independently
+ */
+@Slf4j
+@Component
+public class ProcessExtractBatchUseCase {
+
+    private final ProcessExtractFileUseCase processExtractFileUseCase;
+    private final TaskExecutor extractBatchExecutor;
+
+    public ProcessExtractBatchUseCase(ProcessExtractFileUseCase processExtractFileUseCase,
+                                      @Qualifier("extractBatchExecutor") TaskExecutor extractBatchExecutor) {
+        this.processExtractFileUseCase = processExtractFileUseCase;
+        this.extractBatchExecutor = extractBatchExecutor;
+    }
+
+    /**
+     * Process all items in parallel; a failing file never affects the others.
+     * Results are returned in the same order as the items. Once some items are queued, the ones the batch executor
+     * has no room for are reported as rejected, without being processed, next to the results of the others.
+     *
+     * @throws RejectedExecutionException when the batch executor has no room for any item, so nothing was queued
+     */
+    public List<BatchItemResult> execute(List<BatchItem> items) {
+        log.info("Processing extract batch with {} files", items.size());
+
+        List<CompletableFuture<BatchItemResult>> futures = new ArrayList<>(items.size());
+        int queued = 0;
+        boolean executorFull = false;
+        for (BatchItem item : items) {
+            if (!executorFull) {
+                try {
+                    futures.add(CompletableFuture.supplyAsync(() -> process(item), extractBatchExecutor));
+                    queued++;
+                    continue;
+                } catch (RejectedExecutionException e) {
+                    if (queued == 0) {
+                        throw e;
+                    }
+                    log.warn("Extract batch executor is full after queuing {} of {} files", queued, items.size());
+                    executorFull = true;
+                }
+            }
+            futures.add(CompletableFuture.completedFuture(rejected(item)));
+        }
+
+        List<BatchItemResult> results = futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        int rejected = items.size() - queued;
+        long succeeded = results.stream().filter(BatchItemResult::isSuccess).count();
+        log.info("Extract batch finished: {} succeeded, {} failed, {} rejected", succeeded,
+                results.size() - succeeded - rejected, rejected);
+
+        return results;
+    }
+
+    /**
+     * Result of an item left out because the batch executor was full; the client can send that file again
+     */
+    private static BatchItemResult rejected(BatchItem item) {
+        return BatchItemResult.builder()
+                .fileName(item.getFileName())
+                .bank(item.getBank())
+                .month(item.getMonth())
+                .year(item.getYear())
+                .success(false)
+                .rejected(true)
+                .error("Not processed: the batch queue is full, send this file again later")
+                .build();
+    }
+
+    private BatchItemResult process(BatchItem item) {
+        BatchItemResult.BatchItemResultBuilder result = BatchItemResult.builder()
+                .fileName(item.getFileName())
+                .bank(item.getBank())
+                .month(item.getMonth())
+                .year(item.getYear());
+
+        if (item.getRejectionReason() != null) {
+            return result.success(false).error(item.getRejectionReason()).build();
+        }
+
+        try {
+            Extract extract = processExtractFileUseCase.execute(item.getFile(), item.getBank(), item.getMonth(), item.getYear());
+
+            return result.success(true)
+                    .extractId(extract.getId())
+                    .transactionCount(extract.getTransactionCount())
+                    .build();
+
+        } catch (Exception e) {
+            log.warn("Failed to process batch file {}: {}", item.getFileName(), e.getMessage());
+            return result.success(false).error(e.getMessage()).build();
+        }
+    }
+
+    /**
+     * One file of the batch; items with a rejection reason are reported as failed without being processed
+     */
+    @Builder
+    @Data
+    public static class BatchItem {
+        private String fileName;
+        private MultipartFile file;
+        private BankType bank;
+        private Integer month;
+        private Integer year;
+        private String rejectionReason;
+    }
+
+    /**
+     * Outcome of a single batch file; a rejected file was never processed and can be sent again
+     */
+    @Builder
+    @Data
+    public static class BatchItemResult {
+        private String fileName;
+        private BankType bank;
+        private Integer month;
+        private Integer year;
+        private boolean success;
+        private boolean rejected;
+        private String extractId;
+        private Integer transactionCount;
+        private String error;
+    }
+}
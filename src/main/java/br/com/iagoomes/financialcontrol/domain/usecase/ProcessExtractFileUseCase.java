@@ -1,52 +1,257 @@
 package br.com.iagoomes.financialcontrol.domain.usecase;
 
 import br.com.iagoomes.financialcontrol.domain.ExtractProvider;
+import br.com.iagoomes.financialcontrol.domain.ImportProgressListener;
 import br.com.iagoomes.financialcontrol.domain.entity.BankType;
-import br.com.iagoomes.financialcontrol.domain.entity.Category;
 import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.ImportStage;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
 import br.com.iagoomes.financialcontrol.infra.exception.BusinessException;
+import br.com.iagoomes.financialcontrol.infra.exception.IdempotencyKeyReusedException;
+import br.com.iagoomes.financialcontrol.infra.exception.ImportInProgressException;
+import br.com.iagoomes.financialcontrol.infra.file.ContentHash;
+import br.com.iagoomes.financialcontrol.infra.job.ImportDeduplicator;
+import br.com.iagoomes.financialcontrol.infra.job.ImportPipelineMetrics;
 import br.com.iagoomes.financialcontrol.infra.strategy.FileProcessorStrategy;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ProcessExtractFileUseCase {
 
     private final Map<BankType, FileProcessorStrategy> fileProcessors;
     private final ExtractProvider extractProvider;
     private final CategorizeTransactionUseCase categorizeTransactionUseCase;
+    private final ImportDeduplicator importDeduplicator;
+    private final TaskExecutor pipelineExecutor;
+    private final ImportPipelineMetrics pipelineMetrics;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final Duration lease;
+
+    public ProcessExtractFileUseCase(Map<BankType, FileProcessorStrategy> fileProcessors,
+                                     ExtractProvider extractProvider,
+                                     CategorizeTransactionUseCase categorizeTransactionUseCase,
+                                     ImportDeduplicator importDeduplicator,
+                                     @Qualifier("importPipelineExecutor") TaskExecutor pipelineExecutor,
+                                     ImportPipelineMetrics pipelineMetrics,
+                                     @Value("${app.imports.pipeline.queue-capacity:1000}") int queueCapacity,
+                                     @Value("${app.imports.pipeline.batch-size:500}") int batchSize,
+                                     @Value("${app.imports.lease:2m}") Duration lease) {
+        this.fileProcessors = fileProcessors;
+        this.extractProvider = extractProvider;
+        this.categorizeTransactionUseCase = categorizeTransactionUseCase;
+        this.importDeduplicator = importDeduplicator;
+        this.pipelineExecutor = pipelineExecutor;
+        this.pipelineMetrics = pipelineMetrics;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.lease = lease;
+    }
 
     public Extract execute(MultipartFile file, BankType bankType, Integer month, Integer year) {
+        return execute(file, bankType, month, year, ImportProgressListener.NONE);
+    }
+
+    /**
+     * Process the file at most once per client-supplied idempotency key; repeating the key returns the
+     * extract produced by the first request, waiting for it if that import is still running.
+     * The key is bound to the bank, period and content of that first request, and reusing it for another
+     * file or period is refused with {@link IdempotencyKeyReusedException}.
+     */
+    public Extract executeOnce(String idempotencyKey, MultipartFile file, BankType bankType,
+                               Integer month, Integer year) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return execute(file, bankType, month, year);
+        }
+
+        FileProcessorStrategy processor = processorFor(bankType, file);
+        String contentHash = ContentHash.of(file);
+        return importDeduplicator.importOnce("key:" + idempotencyKey, fingerprint(bankType, month, year, contentHash),
+                () -> importOnce(processor, file, contentHash, bankType, month, year, ImportProgressListener.NONE));
+    }
+
+    /**
+     * Process the file reporting each stage and row count to the listener.
+     * Rows are parsed, categorized and persisted in batches concurrently; the returned extract carries
+     * the totals but not the transactions, which are only kept in the database.
+     * A file identical to the one already imported for the same bank and period returns that extract
+     * without being parsed again; if that import failed or was interrupted, it resumes after the last
+     * committed batch. The extract is hidden from reads until its last batch is committed.
+     */
+    public Extract execute(MultipartFile file, BankType bankType, Integer month, Integer year,
+                           ImportProgressListener listener) {
+        FileProcessorStrategy processor = processorFor(bankType, file);
+        String contentHash = ContentHash.of(file);
+        return importOnce(processor, file, contentHash, bankType, month, year, listener);
+    }
+
+    private FileProcessorStrategy processorFor(BankType bankType, MultipartFile file) {
         FileProcessorStrategy processor = fileProcessors.get(bankType);
         if (processor == null) {
             throw new UnsupportedOperationException("Bank not supported: " + bankType);
         }
 
-        Extract extract = processor.processFile(file, month, year);
-        extract.getTransactions().forEach(tx -> {
-            Optional<Category> optionalCategory = categorizeTransactionUseCase.execute(tx.getTitle(), tx.getAmount());
-            if (optionalCategory.isPresent()) {
-                tx.setCategory(optionalCategory.get());
-                tx.setConfidence(BigDecimal.valueOf(0.85)); // 85% confidence for auto-categorization
-                log.debug("Auto-categorized '{}' as '{}'", tx.getTitle(), optionalCategory.get().getName());
-            } else {
-                tx.setConfidence(BigDecimal.valueOf(0.0)); // No categorization
-            }
-        });
-
-        Optional<Extract> existingExtract = extractProvider.findByBankAndPeriod(bankType, month, year);
-        if (existingExtract.isPresent()) {
+        processor.validateFile(file);
+        return processor;
+    }
+
+    private Extract importOnce(FileProcessorStrategy processor, MultipartFile file, String contentHash,
+                               BankType bankType, Integer month, Integer year, ImportProgressListener listener) {
+        return importDeduplicator.importOnce("content:" + fingerprint(bankType, month, year, contentHash),
+                () -> importFile(processor, file, contentHash, bankType, month, year, listener));
+    }
+
+    private static String fingerprint(BankType bankType, Integer month, Integer year, String contentHash) {
+        return bankType + ":" + year + "-" + month + ":" + contentHash;
+    }
+
+    private Extract importFile(FileProcessorStrategy processor, MultipartFile file, String contentHash,
+                               BankType bankType, Integer month, Integer year, ImportProgressListener listener) {
+        Optional<Extract> extract = reserveOrResume(contentHash, bankType, month, year);
+        if (extract.isEmpty()) {
+            return existingImport(contentHash, bankType, month, year);
+        }
+        return importTransactions(processor, file, extract.get(), listener);
+    }
+
+    /**
+     * The extract to import into: a new one claiming the period, or the incomplete extract a previous import
+     * of the same file left behind. Empty when a complete extract already holds the period.
+     * <p>
+     * An IMPORTING extract is held by a lease in the database that its import renews with every committed batch,
+     * whichever instance runs it. Another import only resumes or discards the extract after taking over an
+     * expired lease, and is refused while the lease is live.
+     */
+    private Optional<Extract> reserveOrResume(String contentHash, BankType bankType, Integer month, Integer year) {
+        // The header is saved before any parsing: it claims the period under a unique constraint, so duplicates
+        // and concurrent uploads for the same period are rejected up front, and transaction batches can
+        // reference it. Totals are filled in as batches are committed.
+        Extract header = Extract.open(bankType, month, year);
+        header.setContentHash(contentHash);
+        header.setLeaseOwner(UUID.randomUUID().toString());
+        renewLease(header);
+        Optional<Extract> reserved = extractProvider.reservePeriod(header);
+        if (reserved.isPresent()) {
+            return reserved;
+        }
+
+        Optional<Extract> existing = extractProvider.findReservation(bankType, month, year);
+        if (existing.isEmpty() || existing.get().isComplete()) {
+            return Optional.empty();
+        }
+
+        Extract incomplete = existing.get();
+        incomplete.setLeaseOwner(header.getLeaseOwner());
+        renewLease(incomplete);
+        if (!extractProvider.claimLease(incomplete, now())) {
+            throw new ImportInProgressException("An import is already running for this period");
+        }
+
+        // Checkpoints written before source positions were recorded cannot be resumed from
+        boolean resumable = incomplete.getTransactionCount() == 0 || incomplete.getSourcePosition() != null;
+        if (resumable && contentHash.equals(incomplete.getContentHash())) {
+            log.info("Resuming import of extract {} after {} committed transactions, from source position {}",
+                    incomplete.getId(), incomplete.getTransactionCount(), incomplete.getSourcePosition());
+            return existing;
+        }
+
+        log.info("Discarding incomplete extract {} left by an earlier import for {} {}/{}",
+                incomplete.getId(), bankType, month, year);
+        extractProvider.deleteById(incomplete.getId());
+        return extractProvider.reservePeriod(header);
+    }
+
+    private void renewLease(Extract extract) {
+        extract.setLeaseExpiresAt(now().plus(lease));
+    }
+
+    private static LocalDateTime now() {
+        // Truncated to what the column stores, so the value read back compares equal
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    /**
+     * Rows are parsed, categorized and persisted in batches concurrently. Each batch commits together with the
+     * extract's running totals and the source position just past its last record, which is the checkpoint:
+     * records are handed over in file order, so a resumed import has the processor start right after it.
+     * Every commit also renews the lease.
+     */
+    private Extract importTransactions(FileProcessorStrategy processor, MultipartFile file, Extract extract,
+                                       ImportProgressListener listener) {
+        BankType bankType = extract.getBank();
+        Integer month = extract.getReferenceMonth();
+        Integer year = extract.getReferenceYear();
+        long committedPosition = extract.getSourcePosition() != null ? extract.getSourcePosition() : 0;
+
+        try {
+            listener.onStageChanged(ImportStage.PARSING);
+            new ImportPipeline(queueCapacity, batchSize, pipelineExecutor, pipelineMetrics).run(
+                    "extract-" + bankType.name().toLowerCase() + "-" + year + "-" + month,
+                    consumer -> {
+                        processor.streamTransactions(file, committedPosition, tx -> {
+                            listener.onTransactionParsed();
+                            consumer.accept(tx);
+                        });
+                        listener.onStageChanged(ImportStage.CATEGORIZING);
+                    },
+                    tx -> {
+                        categorize(tx);
+                        listener.onTransactionCategorized();
+                        return tx;
+                    },
+                    batch -> {
+                        batch.forEach(extract::accumulate);
+                        renewLease(extract);
+                        extractProvider.saveTransactions(extract, batch);
+                        listener.onTransactionsPersisted(batch.size());
+                    });
+
+            listener.onStageChanged(ImportStage.PERSISTING);
+            renewLease(extract);
+            extractProvider.complete(extract);
+
+        } catch (RuntimeException e) {
+            log.warn("Import of {} {}/{} failed; extract {} keeps its committed transactions and is resumed "
+                    + "when the same file is imported again", bankType, month, year, extract.getId());
+            // A crashed import keeps its lease until it expires; one that failed here can be resumed right away
+            extractProvider.releaseLease(extract);
+            throw e;
+        }
+
+        log.info("Imported {} transactions for {} {}/{}", extract.getTransactionCount(), bankType, month, year);
+        return extract;
+    }
+
+    /**
+     * Resolve a lost period reservation: the same file imported again returns the existing extract
+     */
+    private Extract existingImport(String contentHash, BankType bankType, Integer month, Integer year) {
+        Extract existing = extractProvider.findByBankAndPeriod(bankType, month, year)
+                .orElseThrow(() -> new BusinessException("Extract already exists for this period"));
+
+        if (!contentHash.equals(existing.getContentHash())) {
             throw new BusinessException("Extract already exists for this period");
         }
 
-        return extractProvider.save(extract);
+        log.info("File already imported as extract {}, skipping", existing.getId());
+        return existing;
+    }
+
+    private void categorize(Transaction tx) {
+        categorizeTransactionUseCase.execute(tx).ifPresent(category ->
+                log.debug("Auto-categorized '{}' as '{}'", tx.getTitle(), category.getName()));
     }
-}
\ No newline at end of file
+}
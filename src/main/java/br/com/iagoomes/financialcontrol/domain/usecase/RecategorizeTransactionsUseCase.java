@@ -0,0 +1,93 @@
+package br.com.iagoomes.financialcontrol.domain.usecase;
+
+import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
+import br.com.iagoomes.financialcontrol.domain.entity.Category;
+import br.com.iagoomes.financialcontrol.domain.entity.RecategorizationJob;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Use case for re-running categorization over stored transactions, e.g. after the rules changed.
+ * Candidates are read in keyset-paged batches, so memory stays bounded by the batch size however many rows
+ * match; each batch is categorized in parallel and only rows whose result changed are written back, with
+ * one batched UPDATE per batch. Rows categorized by hand while the job runs are skipped by that UPDATE and
+ * counted apart. Categorization runs on its own pool, so a long job does not compete with uploads for the
+ * parse workers.
+ */
+@Slf4j
+@Component
+public class RecategorizeTransactionsUseCase {
+
+    private final TransactionProvider transactionProvider;
+    private final CategorizeTransactionUseCase categorizeTransactionUseCase;
+    private final ForkJoinPool categorizationPool;
+    private final int batchSize;
+
+    public RecategorizeTransactionsUseCase(TransactionProvider transactionProvider,
+                                           CategorizeTransactionUseCase categorizeTransactionUseCase,
+                                           @Qualifier("categorizationJobPool") ForkJoinPool categorizationPool,
+                                           @Value("${app.categories.recategorization.batch-size:1000}") int batchSize) {
+        this.transactionProvider = transactionProvider;
+        this.categorizeTransactionUseCase = categorizeTransactionUseCase;
+        this.categorizationPool = categorizationPool;
+        this.batchSize = batchSize;
+    }
+
+    public void execute(RecategorizationJob job) {
+        BigDecimal maxConfidence = job.getMaxConfidence();
+        job.start(transactionProvider.countRecategorizationCandidates(maxConfidence));
+        log.info("Recategorization job {} started for {} transactions", job.getId(), job.getTotalCandidates());
+
+        String lastId = "";
+        List<Transaction> batch;
+        while (!(batch = transactionProvider.findRecategorizationCandidates(maxConfidence, lastId, batchSize)).isEmpty()) {
+            List<Transaction> candidates = batch;
+            List<Transaction> changed = categorizationPool.submit(() -> candidates.parallelStream()
+                    .filter(this::recategorize)
+                    .toList()).join();
+
+            int written = changed.isEmpty() ? 0 : transactionProvider.updateCategorization(changed, maxConfidence);
+            job.onBatchProcessed(batch.size(), written, changed.size() - written);
+            lastId = batch.getLast().getId();
+
+            log.debug("Recategorization job {}: {}/{} processed, {} updated, {} skipped", job.getId(),
+                    job.getProcessed(), job.getTotalCandidates(), job.getUpdated(), job.getSkipped());
+        }
+
+        job.complete();
+        log.info("Recategorization job {} finished: {} processed, {} updated, {} skipped",
+                job.getId(), job.getProcessed(), job.getUpdated(), job.getSkipped());
+    }
+
+    /**
+     * @return whether the category, confidence or type of the transaction changed
+     */
+    private boolean recategorize(Transaction transaction) {
+        String previousCategoryId = categoryId(transaction.getCategory());
+        BigDecimal previousConfidence = transaction.getConfidence();
+        TransactionType previousType = transaction.getTransactionType();
+
+        categorizeTransactionUseCase.execute(transaction);
+
+        return !Objects.equals(previousCategoryId, categoryId(transaction.getCategory()))
+                || !sameConfidence(previousConfidence, transaction.getConfidence())
+                || previousType != transaction.getTransactionType();
+    }
+
+    private static String categoryId(Category category) {
+        return category != null ? category.getId() : null;
+    }
+
+    private static boolean sameConfidence(BigDecimal previous, BigDecimal current) {
+        return previous == null ? current == null : current != null && previous.compareTo(current) == 0;
+    }
+}
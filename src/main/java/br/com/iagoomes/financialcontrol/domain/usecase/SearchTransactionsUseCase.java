@@ -0,0 +1,42 @@
+package br.com.iagoomes.financialcontrol.domain.usecase;
+
+import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
+import br.com.iagoomes.financialcontrol.domain.entity.KeysetPage;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionCursor;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Use case for searching transactions across extracts a page at a time, newest first
+ */
+@Slf4j
+@Component
+public class SearchTransactionsUseCase {
+
+    private final TransactionProvider transactionProvider;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public SearchTransactionsUseCase(TransactionProvider transactionProvider,
+                                     @Value("${app.pagination.default-limit:50}") int defaultLimit,
+                                     @Value("${app.pagination.max-limit:500}") int maxLimit) {
+        this.transactionProvider = transactionProvider;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Transactions matching the filter, starting after the cursor or from the newest when it is null
+     *
+     * @throws IllegalArgumentException when the limit is out of range
+     */
+    public KeysetPage<Transaction> execute(TransactionFilter filter, TransactionCursor after, Integer limit) {
+        log.debug("Executing SearchTransactionsUseCase with filter {} after {}", filter, after);
+
+        int pageSize = KeysetPage.checkLimit(limit, defaultLimit, maxLimit);
+        return KeysetPage.fromLookahead(transactionProvider.search(filter, after, pageSize + 1), pageSize);
+    }
+}
@@ -4,6 +4,8 @@ import br.com.iagoomes.financialcontrol.domain.CategoryProvider;
 import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
 import br.com.iagoomes.financialcontrol.domain.entity.Category;
 import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.infra.categorization.MerchantCategoryMemo;
+import br.com.iagoomes.financialcontrol.infra.categorization.NaiveBayesCategorizer;
 import br.com.iagoomes.financialcontrol.infra.exception.BusinessException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +24,8 @@ public class UpdateTransactionCategoryUseCase {
 
     private final TransactionProvider transactionProvider;
     private final CategoryProvider categoryProvider;
+    private final MerchantCategoryMemo merchantCategoryMemo;
+    private final NaiveBayesCategorizer naiveBayesCategorizer;
 
     /**
      * Updates the category of a transaction
@@ -43,6 +47,7 @@ public class UpdateTransactionCategoryUseCase {
 
         Transaction transaction = transactionOpt.get();
         Category category = categoryOpt.get();
+        Category previousManualCategory = isManual(transaction) ? transaction.getCategory() : null;
 
         // 3. Update transaction category
         transaction.setCategory(category);
@@ -51,9 +56,26 @@ public class UpdateTransactionCategoryUseCase {
         // 4. Save updated transaction
         Transaction updatedTransaction = transactionProvider.save(transaction);
 
+        // 5. Remember the choice for future imports of the same merchant and train the model on it,
+        // taking back an earlier manual choice of this transaction, which was learned when it was made
+        if (previousManualCategory != null) {
+            merchantCategoryMemo.forget(transaction.getTitle(), previousManualCategory.getId());
+            naiveBayesCategorizer.forget(transaction.getTitle(), transaction.getAmount(), previousManualCategory.getId());
+        }
+        merchantCategoryMemo.learn(transaction.getTitle(), category.getId());
+        naiveBayesCategorizer.train(transaction.getTitle(), transaction.getAmount(), category.getId());
+
         log.info("Successfully updated transaction {} with category '{}'",
                 transactionId, category.getName());
 
         return updatedTransaction;
     }
+
+    /**
+     * Categorized by hand: manual categorizations are the ones saved with 100% confidence
+     */
+    private static boolean isManual(Transaction transaction) {
+        return transaction.getCategory() != null && transaction.getConfidence() != null
+                && transaction.getConfidence().compareTo(BigDecimal.ONE) == 0;
+    }
 }
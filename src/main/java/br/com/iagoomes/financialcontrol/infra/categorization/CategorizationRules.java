@@ -0,0 +1,48 @@
+package br.com.iagoomes.financialcontrol.infra.categorization;
+
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rule tables used to detect transaction types and categories from transaction titles.
+ * Type rules are listed in priority order. Category rules are ordered by {@code priority} (lower first),
+ * then by their position in the list; the first category rule that matches a transaction wins.
+ */
+@Data
+public class CategorizationRules {
+
+    private List<TypeRule> transactionTypes = new ArrayList<>();
+    private List<CategoryRule> categories = new ArrayList<>();
+
+    /**
+     * Category given to titles that match no category keyword
+     */
+    private CategoryRule defaultCategory;
+
+    @Data
+    public static class TypeRule {
+        private TransactionType type;
+        private List<String> keywords = new ArrayList<>();
+    }
+
+    /**
+     * A category rule matches when one of its keywords occurs in the title or one of its regexes is found in it
+     * (a rule with neither matches any title), and the amount lies within the optional inclusive range.
+     * Amounts are positive for expenses and negative for income.
+     */
+    @Data
+    public static class CategoryRule {
+        private String name;
+        private String color;
+        private String icon;
+        private Integer priority;
+        private List<String> keywords = new ArrayList<>();
+        private List<String> regexes = new ArrayList<>();
+        private BigDecimal minAmount;
+        private BigDecimal maxAmount;
+    }
+}
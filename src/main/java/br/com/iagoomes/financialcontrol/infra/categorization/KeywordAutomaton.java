@@ -0,0 +1,143 @@
+package br.com.iagoomes.financialcontrol.infra.categorization;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Aho-Corasick automaton matching many keywords in one case-insensitive pass over a text.
+ * Each keyword is registered with an int id; scanning reports the id of every keyword occurrence.
+ * The automaton is immutable once built and safe to share between threads.
+ */
+public final class KeywordAutomaton {
+
+    private static final int[] NO_MATCHES = new int[0];
+
+    // Per state: sorted transition chars and their target states, failure link and ids matched on arrival
+    private final char[][] transitionChars;
+    private final int[][] transitionTargets;
+    private final int[] failure;
+    private final int[][] matches;
+
+    private KeywordAutomaton(char[][] transitionChars, int[][] transitionTargets, int[] failure, int[][] matches) {
+        this.transitionChars = transitionChars;
+        this.transitionTargets = transitionTargets;
+        this.failure = failure;
+        this.matches = matches;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Report the id of every keyword found in the text, in order of the position where it ends
+     */
+    public void scan(CharSequence text, IntConsumer onMatch) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+
+            int next = transition(state, c);
+            while (next < 0 && state != 0) {
+                state = failure[state];
+                next = transition(state, c);
+            }
+            state = Math.max(next, 0);
+
+            for (int id : matches[state]) {
+                onMatch.accept(id);
+            }
+        }
+    }
+
+    private int transition(int state, char c) {
+        int index = Arrays.binarySearch(transitionChars[state], c);
+        return index >= 0 ? transitionTargets[state][index] : -1;
+    }
+
+    public static final class Builder {
+
+        private final List<Map<Character, Integer>> children = new ArrayList<>();
+        private final List<List<Integer>> outputs = new ArrayList<>();
+
+        private Builder() {
+            newState();
+        }
+
+        /**
+         * Register a keyword; blank keywords are ignored
+         */
+        public Builder add(String keyword, int id) {
+            if (keyword == null || keyword.isBlank()) {
+                return this;
+            }
+
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = Character.toLowerCase(keyword.charAt(i));
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = newState();
+                    children.get(state).put(c, next);
+                }
+                state = next;
+            }
+            outputs.get(state).add(id);
+            return this;
+        }
+
+        public KeywordAutomaton build() {
+            int size = children.size();
+            char[][] transitionChars = new char[size][];
+            int[][] transitionTargets = new int[size][];
+            for (int state = 0; state < size; state++) {
+                Map<Character, Integer> edges = children.get(state);
+                transitionChars[state] = new char[edges.size()];
+                transitionTargets[state] = new int[edges.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                    transitionChars[state][i] = edge.getKey();
+                    transitionTargets[state][i] = edge.getValue();
+                    i++;
+                }
+            }
+
+            // Breadth-first so a state's failure target is complete before its children are visited
+            int[] failure = new int[size];
+            Queue<Integer> queue = new ArrayDeque<>(children.get(0).values());
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (Map.Entry<Character, Integer> edge : children.get(state).entrySet()) {
+                    int child = edge.getValue();
+                    int fallback = failure[state];
+                    while (fallback != 0 && !children.get(fallback).containsKey(edge.getKey())) {
+                        fallback = failure[fallback];
+                    }
+                    Integer target = children.get(fallback).get(edge.getKey());
+                    failure[child] = target != null && target != child ? target : 0;
+                    outputs.get(child).addAll(outputs.get(failure[child]));
+                    queue.add(child);
+                }
+            }
+
+            int[][] matches = new int[size][];
+            for (int state = 0; state < size; state++) {
+                List<Integer> ids = outputs.get(state);
+                matches[state] = ids.isEmpty() ? NO_MATCHES : ids.stream().mapToInt(Integer::intValue).toArray();
+            }
+            return new KeywordAutomaton(transitionChars, transitionTargets, failure, matches);
+        }
+
+        private int newState() {
+            children.add(new TreeMap<>());
+            outputs.add(new ArrayList<>());
+            return children.size() - 1;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package br.com.iagoomes.financialcontrol.infra.categorization;
+
+import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded LRU index from normalized merchant title to the category users last chose for it by hand.
+ * Each entry also tracks how consistently users picked that category for the merchant, with older choices
+ * weighing less than recent ones; that ratio is the confidence of the learned mapping. Correcting a transaction
+ * categorized by hand takes its earlier choice back, as the database keeps only the latest one. Rebuilt from
+ * manual categorizations when the application starts.
+ * <p>
+ * Lookups run on every categorization and take no lock: they read the published map and stamp the entry's
+ * last use. Learning is rare and serialized, and a rebuild fills a new map before publishing it.
+ */
+@Slf4j
+@Component
+public class MerchantCategoryMemo {
+
+    /**
+     * Weight kept by the earlier history at each new choice. A single correction after any number of
+     * disagreeing choices starts at a confidence of 1 - HISTORY_WEIGHT, above the default threshold.
+     */
+    static final double HISTORY_WEIGHT = 0.25;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_LETTERS = Pattern.compile("[^\\p{L}]+");
+
+    private final TransactionProvider transactionProvider;
+    private final int maxSize;
+    private final Object learnLock = new Object();
+
+    private volatile Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Choices learned while a rebuild streams the database, replayed into the rebuilt map; null otherwise
+     */
+    private List<Choice> learnedDuringRebuild;
+
+    public MerchantCategoryMemo(TransactionProvider transactionProvider,
+                                @Value("${app.categories.learned-merchants.max-size:10000}") int maxSize) {
+        this.transactionProvider = transactionProvider;
+        this.maxSize = maxSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        synchronized (learnLock) {
+            learnedDuringRebuild = new ArrayList<>();
+        }
+
+        // Lookups keep reading the current map until the rebuilt one is complete
+        Map<String, Entry> rebuilt = new ConcurrentHashMap<>();
+        try {
+            transactionProvider.forEachManualCategorization(
+                    (title, amount, categoryId) -> record(rebuilt, title, categoryId));
+        } catch (RuntimeException e) {
+            synchronized (learnLock) {
+                learnedDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        synchronized (learnLock) {
+            // A choice committed before the stream passed it is counted twice, which only reinforces it; a correction
+            // committed before it takes back the earlier choice although the stream never counted it
+            learnedDuringRebuild.forEach(choice -> {
+                if (choice.withdrawn()) {
+                    withdraw(rebuilt, choice.title(), choice.categoryId());
+                } else {
+                    record(rebuilt, choice.title(), choice.categoryId());
+                }
+            });
+            learnedDuringRebuild = null;
+            entries = rebuilt;
+        }
+        log.info("Learned categories for {} merchants from manual categorizations", size());
+    }
+
+    /**
+     * Record that a user put a transaction with this title in the category
+     */
+    public void learn(String title, String categoryId) {
+        synchronized (learnLock) {
+            record(entries, title, categoryId);
+            if (learnedDuringRebuild != null) {
+                learnedDuringRebuild.add(new Choice(title, categoryId, false));
+            }
+        }
+    }
+
+    /**
+     * Take back a choice recorded by {@link #learn}, when a user moves the same transaction to another category
+     */
+    public void forget(String title, String categoryId) {
+        synchronized (learnLock) {
+            withdraw(entries, title, categoryId);
+            if (learnedDuringRebuild != null) {
+                learnedDuringRebuild.add(new Choice(title, categoryId, true));
+            }
+        }
+    }
+
+    /**
+     * Category learned for the merchant of this title, if any
+     */
+    public Optional<LearnedCategory> find(String title) {
+        Entry entry = entries.get(normalize(title));
+        if (entry == null) {
+            return Optional.empty();
+        }
+        entry.lastUsed = System.nanoTime();
+        return Optional.of(new LearnedCategory(entry.categoryId, entry.agreeing / entry.total));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void record(Map<String, Entry> map, String title, String categoryId) {
+        String merchant = normalize(title);
+        if (merchant.isEmpty() || categoryId == null) {
+            return;
+        }
+
+        map.compute(merchant, (key, entry) -> entry == null ? new Entry(categoryId, 1, 1) : entry.record(categoryId));
+        if (map.size() > maxSize) {
+            evictLeastRecentlyUsed(map);
+        }
+    }
+
+    private void withdraw(Map<String, Entry> map, String title, String categoryId) {
+        String merchant = normalize(title);
+        if (merchant.isEmpty() || categoryId == null) {
+            return;
+        }
+
+        map.computeIfPresent(merchant, (key, entry) -> entry.withdraw(categoryId));
+    }
+
+    /**
+     * Drop the least recently used merchants, a tenth of the capacity at a time so that a full memo scans its
+     * entries once per batch of new merchants rather than once per merchant
+     */
+    private void evictLeastRecentlyUsed(Map<String, Entry> map) {
+        int excess = map.size() - maxSize + maxSize / 10;
+        map.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().lastUsed))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(map::remove);
+    }
+
+    /**
+     * Merchant key of a title: accents, digits and punctuation removed, so "Uber *Trip 12/07" and
+     * "UBER TRIP" share one entry
+     */
+    static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        String withoutAccents = DIACRITICS.matcher(Normalizer.normalize(title, Normalizer.Form.NFD)).replaceAll("");
+        return NON_LETTERS.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * @param confidence weighted share of the merchant's manual categorizations that agree with the category,
+     *                   0 to 1
+     */
+    public record LearnedCategory(String categoryId, double confidence) {
+    }
+
+    private record Choice(String title, String categoryId, boolean withdrawn) {
+    }
+
+    /**
+     * Immutable choice history of one merchant, replaced on every new choice; only the last use is updated in place
+     */
+    private static final class Entry {
+
+        private final String categoryId;
+        private final double agreeing;
+        private final double total;
+        private volatile long lastUsed = System.nanoTime();
+
+        private Entry(String categoryId, double agreeing, double total) {
+            this.categoryId = categoryId;
+            this.agreeing = agreeing;
+            this.total = total;
+        }
+
+        /**
+         * The latest choice always becomes the learned category; earlier disagreeing choices lower its confidence,
+         * less and less as newer choices pile up
+         */
+        private Entry record(String chosenCategoryId) {
+            double history = total * HISTORY_WEIGHT;
+            if (chosenCategoryId.equals(categoryId)) {
+                return new Entry(categoryId, agreeing * HISTORY_WEIGHT + 1, history + 1);
+            }
+            return new Entry(chosenCategoryId, 1, history + 1);
+        }
+
+        /**
+         * Take back one choice of the learned category at the full weight of the latest choice, or drop the entry
+         * when no other choice is left. A choice of another category already weighs less and stays in the history.
+         */
+        private Entry withdraw(String chosenCategoryId) {
+            if (!chosenCategoryId.equals(categoryId)) {
+                return this;
+            }
+            double remaining = total - 1;
+            if (remaining <= 0) {
+                return null;
+            }
+            return new Entry(categoryId, Math.max(agreeing - 1, 0), remaining);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package br.com.iagoomes.financialcontrol.infra.categorization;
+
+import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Multinomial naive-Bayes model over hashed title tokens and an amount bucket, trained incrementally from
+ * manual categorizations. Counts live in primitive arrays indexed by category and feature hash, so training
+ * and scoring allocate nothing; tokens are hashed straight from the title without building strings.
+ * Correcting a transaction categorized by hand takes its earlier example back, so the counts match what a rebuild
+ * would read. Rebuilt from manual categorizations when the application starts.
+ */
+@Slf4j
+@Component
+public class NaiveBayesCategorizer {
+
+    private static final int FNV_OFFSET = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final int AMOUNT_SEED = 0x5BD1E995;
+    private static final int MAX_AMOUNT_BUCKET = 24;
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private final TransactionProvider transactionProvider;
+    private final int featureMask;
+    private final StampedLock lock = new StampedLock();
+
+    // Feature occurrences across all categories, to tell apart titles the model has never seen a token of
+    private final int[] seenFeatures;
+
+    private String[] categoryIds = new String[0];
+    private int[] exampleCounts = new int[0];
+    private long[] featureTotals = new long[0];
+    private int[][] featureCounts = new int[0][];
+    private int categoryCount;
+
+    // Categories with at least one example; one whose examples were all taken back keeps its slot but is not scored
+    private int trainedCategories;
+
+    public NaiveBayesCategorizer(TransactionProvider transactionProvider,
+                                 @Value("${app.categories.bayes.feature-buckets:16384}") int featureBuckets) {
+        int buckets = Integer.highestOneBit(Math.max(featureBuckets, 2));
+        if (buckets < featureBuckets) {
+            buckets <<= 1;
+        }
+        this.transactionProvider = transactionProvider;
+        this.featureMask = buckets - 1;
+        this.seenFeatures = new int[buckets];
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long stamp = lock.writeLock();
+        try {
+            Arrays.fill(seenFeatures, 0);
+            categoryIds = new String[0];
+            exampleCounts = new int[0];
+            featureTotals = new long[0];
+            featureCounts = new int[0][];
+            categoryCount = 0;
+            trainedCategories = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        transactionProvider.forEachManualCategorization(this::train);
+        log.info("Trained categorization model on {} categories", categoryCount());
+    }
+
+    /**
+     * Count a transaction a user put in the category
+     */
+    public void train(String title, BigDecimal amount, String categoryId) {
+        count(title, amount, categoryId, 1);
+    }
+
+    /**
+     * Take back a transaction counted by {@link #train}, when a user moves it to another category
+     */
+    public void forget(String title, BigDecimal amount, String categoryId) {
+        count(title, amount, categoryId, -1);
+    }
+
+    /**
+     * Add or remove one example. Counts never go below zero, so taking back an example the model never counted,
+     * e.g. one trained while a rebuild was clearing the model, only removes what is there.
+     */
+    private void count(String title, BigDecimal amount, String categoryId, int delta) {
+        if (title == null || categoryId == null) {
+            return;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            int category = indexOf(categoryId);
+            if (category < 0) {
+                if (delta < 0) {
+                    return;
+                }
+                category = addCategory(categoryId);
+            }
+            if (exampleCounts[category] + delta < 0) {
+                return;
+            }
+            int[] counts = featureCounts[category];
+
+            int features = 0;
+            for (long token = nextToken(title, 0); token != -1; token = nextToken(title, (int) token)) {
+                int feature = feature(token);
+                if (counts[feature] + delta >= 0) {
+                    counts[feature] += delta;
+                    seenFeatures[feature] += delta;
+                    features++;
+                }
+            }
+            int amountFeature = amountFeature(amount) & featureMask;
+            if (counts[amountFeature] + delta >= 0) {
+                counts[amountFeature] += delta;
+                features++;
+            }
+
+            if (exampleCounts[category] == 0) {
+                trainedCategories++;
+            }
+            exampleCounts[category] += delta;
+            if (exampleCounts[category] == 0) {
+                trainedCategories--;
+            }
+            featureTotals[category] += (long) delta * features;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Most probable category for the title and amount, or null while the model cannot tell:
+     * fewer than two categories trained, or none of the title's tokens seen in training
+     */
+    public String mostLikelyCategory(CharSequence title, BigDecimal amount) {
+        if (title == null) {
+            return null;
+        }
+        int amountFeature = amountFeature(amount) & featureMask;
+
+        long stamp = lock.readLock();
+        try {
+            if (!canScore(title)) {
+                return null;
+            }
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int category = 0; category < categoryCount; category++) {
+                if (exampleCounts[category] == 0) {
+                    continue;
+                }
+                double score = score(category, title, amountFeature);
+                if (score > bestScore) {
+                    best = category;
+                    bestScore = score;
+                }
+            }
+            return categoryIds[best];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Posterior probability, from 0 to 1, that the transaction belongs to the category;
+     * NaN when the model cannot tell (see {@link #mostLikelyCategory}) or has never seen the category
+     */
+    public double confidence(CharSequence title, BigDecimal amount, String categoryId) {
+        if (title == null || categoryId == null) {
+            return Double.NaN;
+        }
+        int amountFeature = amountFeature(amount) & featureMask;
+
+        long stamp = lock.readLock();
+        try {
+            int target = indexOf(categoryId);
+            if (target < 0 || exampleCounts[target] == 0 || !canScore(title)) {
+                return Double.NaN;
+            }
+
+            // Running log-sum-exp over the category scores, to normalize without keeping them all
+            double max = Double.NEGATIVE_INFINITY;
+            double sum = 0;
+            double targetScore = 0;
+            for (int category = 0; category < categoryCount; category++) {
+                if (exampleCounts[category] == 0) {
+                    continue;
+                }
+                double score = score(category, title, amountFeature);
+                if (category == target) {
+                    targetScore = score;
+                }
+                if (score > max) {
+                    sum = sum * Math.exp(max - score) + 1;
+                    max = score;
+                } else {
+                    sum += Math.exp(score - max);
+                }
+            }
+            return Math.exp(targetScore - max) / sum;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int categoryCount() {
+        long stamp = lock.readLock();
+        try {
+            return trainedCategories;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Log of the unnormalized posterior, with Laplace smoothing over all feature buckets
+     */
+    private double score(int category, CharSequence title, int amountFeature) {
+        int[] counts = featureCounts[category];
+        double logDenominator = Math.log(featureTotals[category] + featureMask + 1);
+
+        double score = Math.log(exampleCounts[category]);
+        for (long token = nextToken(title, 0); token != -1; token = nextToken(title, (int) token)) {
+            score += Math.log(counts[feature(token)] + 1) - logDenominator;
+        }
+        return score + Math.log(counts[amountFeature] + 1) - logDenominator;
+    }
+
+    private boolean canScore(CharSequence title) {
+        if (trainedCategories < 2) {
+            return false;
+        }
+        for (long token = nextToken(title, 0); token != -1; token = nextToken(title, (int) token)) {
+            if (seenFeatures[feature(token)] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int indexOf(String categoryId) {
+        for (int category = 0; category < categoryCount; category++) {
+            if (categoryIds[category].equals(categoryId)) {
+                return category;
+            }
+        }
+        return -1;
+    }
+
+    private int addCategory(String categoryId) {
+        if (categoryCount == categoryIds.length) {
+            int capacity = Math.max(8, categoryCount * 2);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            exampleCounts = Arrays.copyOf(exampleCounts, capacity);
+            featureTotals = Arrays.copyOf(featureTotals, capacity);
+            featureCounts = Arrays.copyOf(featureCounts, capacity);
+        }
+        categoryIds[categoryCount] = categoryId;
+        featureCounts[categoryCount] = new int[featureMask + 1];
+        return categoryCount++;
+    }
+
+    private int feature(long token) {
+        return mix((int) (token >>> 32)) & featureMask;
+    }
+
+    /**
+     * Order of magnitude and sign of the amount, so that e.g. rent and coffee fall in different buckets
+     */
+    static int amountFeature(BigDecimal amount) {
+        if (amount == null) {
+            return mix(AMOUNT_SEED);
+        }
+        double value = amount.doubleValue();
+        int bucket = Math.min(MAX_AMOUNT_BUCKET, 64 - Long.numberOfLeadingZeros((long) Math.abs(value)));
+        return mix(AMOUNT_SEED + 2 * bucket + (value < 0 ? 1 : 0));
+    }
+
+    /**
+     * Hash of the next token of the title at or after from, packed with the position that follows it,
+     * or -1 when there are no more. Tokens are runs of letters and digits, lower-cased and without accents;
+     * tokens shorter than two chars or without letters (dates, installment and document numbers) are skipped.
+     */
+    static long nextToken(CharSequence title, int from) {
+        int length = title.length();
+        int position = from;
+        while (position < length) {
+            int hash = FNV_OFFSET;
+            int tokenLength = 0;
+            boolean hasLetter = false;
+            char c;
+            while (position < length && Character.isLetterOrDigit(c = title.charAt(position))) {
+                char folded = fold(Character.toLowerCase(c));
+                hasLetter |= Character.isLetter(folded);
+                hash = (hash ^ folded) * FNV_PRIME;
+                tokenLength++;
+                position++;
+            }
+            if (tokenLength >= MIN_TOKEN_LENGTH && hasLetter) {
+                return ((long) hash << 32) | position;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    /**
+     * Accented Latin letters common in Portuguese to their base letter
+     */
+    private static char fold(char c) {
+        if (c < 'à') {
+            return c;
+        }
+        return switch (c) {
+            case 'à', 'á', 'â', 'ã', 'ä' -> 'a';
+            case 'è', 'é', 'ê', 'ë' -> 'e';
+            case 'ì', 'í', 'î', 'ï' -> 'i';
+            case 'ò', 'ó', 'ô', 'õ', 'ö' -> 'o';
+            case 'ù', 'ú', 'û', 'ü' -> 'u';
+            case 'ç' -> 'c';
+            default -> c;
+        };
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+}
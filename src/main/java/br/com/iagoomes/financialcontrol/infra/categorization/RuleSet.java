@@ -0,0 +1,142 @@
+package br.com.iagoomes.financialcontrol.infra.categorization;
+
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import br.com.iagoomes.financialcontrol.infra.categorization.CategorizationRules.CategoryRule;
+import br.com.iagoomes.financialcontrol.infra.categorization.CategorizationRules.TypeRule;
+import br.com.iagoomes.financialcontrol.infra.categorization.TransactionClassifier.Classification;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, compiled form of {@link CategorizationRules}. Built completely before it is published,
+ * so a classification always sees one consistent version of the rules.
+ */
+final class RuleSet {
+
+    private final List<TypeRule> typeRules;
+    private final List<CompiledCategoryRule> categoryRules;
+    private final CategoryRule defaultCategory;
+    private final KeywordAutomaton automaton;
+
+    private RuleSet(List<TypeRule> typeRules, List<CompiledCategoryRule> categoryRules,
+                    CategoryRule defaultCategory, KeywordAutomaton automaton) {
+        this.typeRules = typeRules;
+        this.categoryRules = categoryRules;
+        this.defaultCategory = defaultCategory;
+        this.automaton = automaton;
+    }
+
+    /**
+     * @throws IllegalArgumentException when a rule has no category name or an invalid regex
+     */
+    static RuleSet compile(CategorizationRules rules) {
+        List<TypeRule> typeRules = List.copyOf(rules.getTransactionTypes());
+
+        List<CategoryRule> declared = rules.getCategories();
+        List<CompiledCategoryRule> categoryRules = IntStream.range(0, declared.size())
+                .mapToObj(position -> CompiledCategoryRule.of(declared.get(position), position))
+                .sorted(Comparator.comparingInt(CompiledCategoryRule::priority)
+                        .thenComparingInt(CompiledCategoryRule::position))
+                .toList();
+
+        // Keyword ids are rule indexes: type rules first, then category rules in priority order
+        KeywordAutomaton.Builder builder = KeywordAutomaton.builder();
+        for (int i = 0; i < typeRules.size(); i++) {
+            for (String keyword : typeRules.get(i).getKeywords()) {
+                builder.add(keyword, i);
+            }
+        }
+        for (int i = 0; i < categoryRules.size(); i++) {
+            for (String keyword : categoryRules.get(i).rule().getKeywords()) {
+                builder.add(keyword, typeRules.size() + i);
+            }
+        }
+
+        return new RuleSet(typeRules, categoryRules, rules.getDefaultCategory(), builder.build());
+    }
+
+    int typeRuleCount() {
+        return typeRules.size();
+    }
+
+    int categoryRuleCount() {
+        return categoryRules.size();
+    }
+
+    Classification classify(String title, BigDecimal amount) {
+        KeywordHits hits = new KeywordHits(typeRules.size(), categoryRules.size());
+        automaton.scan(title, hits);
+
+        TransactionType type = hits.typeRule < Integer.MAX_VALUE ? typeRules.get(hits.typeRule).getType() : null;
+
+        // Rules are in priority order, so regexes of rules ranked after the first match are never evaluated
+        for (int i = 0; i < categoryRules.size(); i++) {
+            CompiledCategoryRule candidate = categoryRules.get(i);
+            if (candidate.matches(title, amount, hits.categoryRules[i])) {
+                return new Classification(type, candidate.rule(), true);
+            }
+        }
+        return new Classification(type, defaultCategory, false);
+    }
+
+    /**
+     * Collects the best type rule and every category rule whose keywords occur in the title
+     */
+    private static final class KeywordHits implements IntConsumer {
+
+        private final int typeRuleCount;
+        private final boolean[] categoryRules;
+        private int typeRule = Integer.MAX_VALUE;
+
+        private KeywordHits(int typeRuleCount, int categoryRuleCount) {
+            this.typeRuleCount = typeRuleCount;
+            this.categoryRules = new boolean[categoryRuleCount];
+        }
+
+        @Override
+        public void accept(int id) {
+            if (id < typeRuleCount) {
+                typeRule = Math.min(typeRule, id);
+            } else {
+                categoryRules[id - typeRuleCount] = true;
+            }
+        }
+    }
+
+    private record CompiledCategoryRule(CategoryRule rule, int priority, int position, List<Pattern> regexes) {
+
+        static CompiledCategoryRule of(CategoryRule rule, int position) {
+            if (rule.getName() == null || rule.getName().isBlank()) {
+                throw new IllegalArgumentException("Category rule " + position + " has no name");
+            }
+            List<Pattern> regexes = rule.getRegexes().stream()
+                    .map(regex -> Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE))
+                    .toList();
+            int priority = rule.getPriority() != null ? rule.getPriority() : Integer.MAX_VALUE;
+            return new CompiledCategoryRule(rule, priority, position, regexes);
+        }
+
+        boolean matches(String title, BigDecimal amount, boolean keywordHit) {
+            boolean hasPatterns = !rule.getKeywords().isEmpty() || !regexes.isEmpty();
+            boolean titleMatches = !hasPatterns || keywordHit
+                    || regexes.stream().anyMatch(regex -> regex.matcher(title).find());
+            return titleMatches && inRange(amount);
+        }
+
+        private boolean inRange(BigDecimal amount) {
+            if (rule.getMinAmount() == null && rule.getMaxAmount() == null) {
+                return true;
+            }
+            if (amount == null) {
+                return false;
+            }
+            return (rule.getMinAmount() == null || amount.compareTo(rule.getMinAmount()) >= 0)
+                    && (rule.getMaxAmount() == null || amount.compareTo(rule.getMaxAmount()) <= 0);
+        }
+    }
+}
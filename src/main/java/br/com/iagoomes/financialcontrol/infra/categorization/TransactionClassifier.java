@@ -0,0 +1,156 @@
+package br.com.iagoomes.financialcontrol.infra.categorization;
+
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import br.com.iagoomes.financialcontrol.infra.categorization.CategorizationRules.CategoryRule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+
+/**
+ * Detects the transaction type and the category of a transaction in a single pass over its title.
+ * All type and category keywords are compiled into one {@link KeywordAutomaton}, so the cost of classifying
+ * a title depends on its length, not on how many keywords the rules contain.
+ * <p>
+ * The rules file is checked for changes periodically and a new {@link RuleSet} is compiled on the scheduler
+ * thread, then published through a volatile reference. Classifications already running keep the version
+ * they started with and never wait for a reload; a rules file that fails to load leaves the current
+ * version in place.
+ */
+@Slf4j
+@Component
+public class TransactionClassifier {
+
+    static final String BUILT_IN_RULES = "categorization-rules.json";
+
+    private final Resource rulesResource;
+    private final ObjectMapper objectMapper;
+
+    private volatile RuleSet ruleSet;
+    private long rulesLastModified;
+
+    @Autowired
+    public TransactionClassifier(ResourceLoader resourceLoader, ObjectMapper objectMapper,
+                                 @Value("${app.categories.rules-location:classpath:" + BUILT_IN_RULES + "}")
+                                 String rulesLocation) {
+        this.rulesResource = resourceLoader.getResource(rulesLocation);
+        this.objectMapper = objectMapper;
+        this.rulesLastModified = lastModified(rulesResource);
+        this.ruleSet = RuleSet.compile(load(rulesResource, objectMapper));
+        log.info("Loaded categorization rules from {}: {} type rules, {} category rules",
+                rulesResource.getDescription(), ruleSet.typeRuleCount(), ruleSet.categoryRuleCount());
+    }
+
+    /**
+     * Classifier for fixed rules, without reloading
+     */
+    public TransactionClassifier(CategorizationRules rules) {
+        this.rulesResource = null;
+        this.objectMapper = null;
+        this.ruleSet = RuleSet.compile(rules);
+    }
+
+    /**
+     * Classifier for the rules bundled with the application, for code that runs outside the Spring context
+     */
+    public static TransactionClassifier builtIn() {
+        return BuiltIn.INSTANCE;
+    }
+
+    /**
+     * Find the highest priority type and category matching the title, ignoring amount ranges.
+     * The type is null when no type keyword occurs; the category falls back to the default category.
+     */
+    public Classification classify(String title) {
+        return classify(title, null);
+    }
+
+    /**
+     * Find the highest priority type and category matching the title and amount
+     */
+    public Classification classify(String title, BigDecimal amount) {
+        return ruleSet.classify(title, amount);
+    }
+
+    /**
+     * Reload the rules when the rules file changed since it was last read
+     */
+    @Scheduled(initialDelayString = "${app.categories.rules-reload-interval:30s}",
+            fixedDelayString = "${app.categories.rules-reload-interval:30s}")
+    public synchronized void reloadIfModified() {
+        if (rulesResource == null) {
+            return;
+        }
+        long lastModified = lastModified(rulesResource);
+        if (lastModified != rulesLastModified) {
+            reload();
+        }
+    }
+
+    /**
+     * Compile the rules file again and swap the new version in
+     *
+     * @return whether the new rules were applied
+     */
+    public synchronized boolean reload() {
+        if (rulesResource == null) {
+            return false;
+        }
+
+        long lastModified = lastModified(rulesResource);
+        try {
+            RuleSet reloaded = RuleSet.compile(load(rulesResource, objectMapper));
+            ruleSet = reloaded;
+            log.info("Reloaded categorization rules from {}: {} type rules, {} category rules",
+                    rulesResource.getDescription(), reloaded.typeRuleCount(), reloaded.categoryRuleCount());
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Could not reload categorization rules from {}, keeping the current rules",
+                    rulesResource.getDescription(), e);
+            return false;
+        } finally {
+            // A broken file is not retried until it changes again
+            rulesLastModified = lastModified;
+        }
+    }
+
+    private static CategorizationRules load(Resource resource, ObjectMapper objectMapper) {
+        try (InputStream in = resource.getInputStream()) {
+            return objectMapper.readValue(in, CategorizationRules.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read categorization rules from " + resource, e);
+        }
+    }
+
+    /**
+     * Modification time of the rules file, or 0 for resources without one (e.g. inside the application jar)
+     */
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @param ruleMatched false when no rule matched and category is the default category
+     */
+    public record Classification(TransactionType transactionType, CategoryRule category, boolean ruleMatched) {
+    }
+
+    private static final class BuiltIn {
+        private static final TransactionClassifier INSTANCE =
+                new TransactionClassifier(load(new ClassPathResource(BUILT_IN_RULES), new ObjectMapper()));
+    }
+}
@@ -2,21 +2,59 @@ package br.com.iagoomes.financialcontrol.infra.config;
 
 import br.com.iagoomes.financialcontrol.domain.entity.BankType;
 import br.com.iagoomes.financialcontrol.infra.strategy.FileProcessorStrategy;
+import br.com.iagoomes.financialcontrol.infra.strategy.NubankByteCsvProcessor;
 import br.com.iagoomes.financialcontrol.infra.strategy.NubankCsvProcessor;
+import br.com.iagoomes.financialcontrol.infra.strategy.OfxFileProcessor;
+import br.com.iagoomes.financialcontrol.infra.strategy.SantanderPdfProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
+@Slf4j
 @Configuration
 public class FileProcessorConfig {
 
+    /**
+     * Pool that parses chunks of large CSV files and pages of PDF statements, kept apart from the common pool
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool fileParsePool(@Value("${app.imports.parse-parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
     @Bean
     public Map<BankType, FileProcessorStrategy> fileProcessors(
-            NubankCsvProcessor nubankProcessor) {
+            NubankCsvProcessor nubankProcessor,
+            NubankByteCsvProcessor nubankByteProcessor,
+            SantanderPdfProcessor santanderProcessor,
+            @Value("${app.banks.nubank.parser:byte}") String nubankParser,
+            @Value("${app.banks.santander.pdf-processing-enabled:false}") boolean santanderPdfEnabled) {
+
+        FileProcessorStrategy nubank = switch (nubankParser.toLowerCase()) {
+            case "byte" -> nubankByteProcessor;
+            case "opencsv" -> nubankProcessor;
+            default -> throw new IllegalStateException(
+                    "Unknown app.banks.nubank.parser '" + nubankParser + "' (expected 'byte' or 'opencsv')");
+        };
+        log.info("Using {} for Nubank CSV files", nubank.getClass().getSimpleName());
+
+        Map<BankType, FileProcessorStrategy> processors = new EnumMap<>(BankType.class);
+        processors.put(BankType.NUBANK, nubank);
+
+        if (santanderPdfEnabled) {
+            processors.put(BankType.SANTANDER, santanderProcessor);
+        }
+
+        for (BankType bank : List.of(BankType.ITAU, BankType.BRADESCO, BankType.CAIXA, BankType.BB)) {
+            processors.put(bank, new OfxFileProcessor(bank));
+        }
 
-        return Map.of(
-                BankType.NUBANK, nubankProcessor
-        );
+        return processors;
     }
-}
\ No newline at end of file
+}
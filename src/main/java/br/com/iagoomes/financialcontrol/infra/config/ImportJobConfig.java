@@ -0,0 +1,132 @@
+package br.com.iagoomes.financialcontrol.infra.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ImportJobConfig {
+
+    /**
+     * Bounded executor for asynchronous extract imports; submissions beyond the queue capacity are rejected
+     */
+    @Bean
+    public ThreadPoolTaskExecutor extractImportExecutor(
+            @Value("${app.imports.async.pool-size:2}") int poolSize,
+            @Value("${app.imports.async.queue-capacity:20}") int queueCapacity) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("extract-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Executor for batch uploads; each file of a batch runs on its own worker, one per core by default.
+     * Files beyond the queue capacity are rejected, which turns the whole batch away.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor extractBatchExecutor(
+            @Value("${app.imports.batch.parallelism:0}") int parallelism,
+            @Value("${app.imports.batch.queue-capacity:500}") int queueCapacity) {
+
+        int poolSize = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("extract-batch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Threads for the parse and categorize stages of running imports, two per import. Stages are never queued:
+     * with every thread taken, a stage waits up to the start timeout for one to free up and the import is then
+     * rejected, instead of waiting on a stage that can't start. Idle threads are released after a minute.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor importPipelineExecutor(
+            @Value("${app.imports.pipeline.max-stage-threads:64}") int maxStageThreads,
+            @Value("${app.imports.pipeline.stage-start-timeout:1s}") Duration stageStartTimeout) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxStageThreads);
+        executor.setMaxPoolSize(maxStageThreads);
+        executor.setQueueCapacity(0);
+        executor.setKeepAliveSeconds(60);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler((stage, pool) -> {
+            // The queue holds no task: the offer succeeds only when an idle thread takes the stage in time
+            try {
+                if (!pool.isShutdown()
+                        && pool.getQueue().offer(stage, stageStartTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RejectedExecutionException("No import pipeline thread free within " + stageStartTimeout);
+        });
+        executor.setThreadNamePrefix("import-pipeline-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Single worker for recategorization jobs, so at most one pass over the transactions runs at a time
+     */
+    @Bean
+    public ThreadPoolTaskExecutor recategorizationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("recategorization-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Single worker for rule set evaluations, each a full pass over the transactions; evaluations beyond the
+     * queue capacity are rejected
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ruleEvaluationExecutor(
+            @Value("${app.categories.evaluation.queue-capacity:4}") int queueCapacity) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("rule-evaluation-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Pool that categorizes the batches of recategorization and rule evaluation jobs, apart from the parse pool so
+     * that a pass over every stored transaction cannot hold the workers uploads are waiting for. Half the cores
+     * by default.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool categorizationJobPool(
+            @Value("${app.categories.recategorization.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0
+                ? parallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+}
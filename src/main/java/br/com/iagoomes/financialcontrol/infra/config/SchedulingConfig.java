@@ -0,0 +1,12 @@
+package br.com.iagoomes.financialcontrol.infra.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables background maintenance tasks such as reloading the categorization rules
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -5,16 +5,24 @@ import br.com.iagoomes.financialcontrol.domain.CategoryProvider;
 import br.com.iagoomes.financialcontrol.domain.mapper.CategoryMapper;
 import br.com.iagoomes.financialcontrol.infra.repository.CategoryDataRepository;
 import br.com.iagoomes.financialcontrol.infra.repository.entity.CategoryData;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.EntityIds;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.UuidV7Generator;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
- * Implementation of CategoryProvider using JPA Repository
+ * Implementation of CategoryProvider using JPA Repository.
+ * Reads are served from the {@link CategoryRegistry}; writes go to the database and then to the registry.
  */
 @Slf4j
 @Component
@@ -23,6 +31,15 @@ public class CategoryDataProvider implements CategoryProvider {
 
     private final CategoryDataRepository categoryDataRepository;
     private final CategoryMapper categoryMapper;
+    private final CategoryRegistry categoryRegistry;
+
+    @PostConstruct
+    void loadRegistry() {
+        categoryRegistry.load(categoryDataRepository.findAll().stream()
+                .map(categoryMapper::toCategoryDomain)
+                .toList());
+        log.info("Loaded {} categories into the registry", categoryRegistry.size());
+    }
 
     @Override
     public Category save(Category category) {
@@ -32,68 +49,111 @@ public class CategoryDataProvider implements CategoryProvider {
         CategoryData savedData = categoryDataRepository.save(categoryData);
 
         Category savedCategory = categoryMapper.toCategoryDomain(savedData);
+        afterCommit(() -> categoryRegistry.put(savedCategory));
         log.info("Successfully saved category: {} with ID: {}", savedCategory.getName(), savedCategory.getId());
 
         return savedCategory;
     }
 
+    /**
+     * Resolved through the registry; imports meeting the same new category at once may each run the
+     * insert-if-absent, which creates one row and reads that same row back for all of them, also when another
+     * application instance inserts it
+     */
+    @Override
+    public Category findOrCreate(Category category) {
+        return categoryRegistry.findOrRegister(category.getName(), () -> insertIfAbsent(category));
+    }
+
+    private Category insertIfAbsent(Category category) {
+        try {
+            int inserted = categoryDataRepository.insertIfAbsent(UuidV7Generator.next(), category.getName(),
+                    category.getColor(), category.getIcon(), EntityIds.toUuid(category.getParentCategoryId()),
+                    LocalDateTime.now());
+            if (inserted > 0) {
+                log.info("Created category: {}", category.getName());
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Only a concurrent insert of the same name leaves a category to read back; anything else is rethrown
+            log.debug("Category {} may have been created concurrently, reading it back", category.getName());
+            return categoryDataRepository.findByNameIgnoreCase(category.getName())
+                    .map(categoryMapper::toCategoryDomain)
+                    .orElseThrow(() -> e);
+        }
+
+        return categoryDataRepository.findByNameIgnoreCase(category.getName())
+                .map(categoryMapper::toCategoryDomain)
+                .orElseThrow(() -> new IllegalStateException("Category not found after insert: " + category.getName()));
+    }
+
     @Override
     public Optional<Category> findById(String id) {
         log.debug("Finding category by ID: {}", id);
 
-        return categoryDataRepository.findById(id)
-                .map(categoryMapper::toCategoryDomain);
+        return categoryRegistry.findById(id);
     }
 
     @Override
     public Optional<Category> findByName(String name) {
         log.debug("Finding category by name: {}", name);
 
-        return categoryDataRepository.findByNameIgnoreCase(name)
-                .map(categoryMapper::toCategoryDomain);
+        return categoryRegistry.findByName(name);
     }
 
     @Override
     public List<Category> findAll() {
         log.debug("Finding all categories");
 
-        return categoryDataRepository.findAllByOrderByNameAsc()
-                .stream()
-                .map(categoryMapper::toCategoryDomain)
-                .collect(Collectors.toList());
+        return categoryRegistry.findAll();
     }
 
     @Override
     public List<Category> findByParentCategoryId(String parentCategoryId) {
         log.debug("Finding categories by parent ID: {}", parentCategoryId);
 
-        return categoryDataRepository.findByParentCategoryIdOrderByNameAsc(parentCategoryId)
-                .stream()
-                .map(categoryMapper::toCategoryDomain)
-                .collect(Collectors.toList());
+        return categoryRegistry.findAll().stream()
+                .filter(category -> Objects.equals(category.getParentCategoryId(), parentCategoryId))
+                .toList();
     }
 
     @Override
     public List<Category> findRootCategories() {
         log.debug("Finding root categories");
 
-        return categoryDataRepository.findByParentCategoryIdIsNullOrderByNameAsc()
-                .stream()
-                .map(categoryMapper::toCategoryDomain)
-                .collect(Collectors.toList());
+        return categoryRegistry.findAll().stream()
+                .filter(category -> category.getParentCategoryId() == null)
+                .toList();
     }
 
     @Override
     public void deleteById(String id) {
         log.info("Deleting category with ID: {}", id);
 
-        categoryDataRepository.deleteById(id);
+        categoryDataRepository.deleteById(EntityIds.toUuid(id));
+        afterCommit(() -> categoryRegistry.remove(id));
     }
 
     @Override
     public boolean existsByName(String name) {
         log.debug("Checking if category exists by name: {}", name);
 
-        return categoryDataRepository.existsByNameIgnoreCase(name);
+        return categoryRegistry.findByName(name).isPresent();
+    }
+
+    /**
+     * Apply a registry change once the surrounding transaction commits, or right away when there is none,
+     * so a rolled back write never becomes visible to readers
+     */
+    private void afterCommit(Runnable registryUpdate) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    registryUpdate.run();
+                }
+            });
+        } else {
+            registryUpdate.run();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package br.com.iagoomes.financialcontrol.infra.dataprovider;
+
+import br.com.iagoomes.financialcontrol.domain.entity.Category;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent in-memory view of the categories table, indexed by id and by normalized name.
+ * It is loaded once at startup and kept in sync by {@link CategoryDataProvider} writes, so category reads
+ * (categorization of every imported row, category listing) never reach the database.
+ */
+@Component
+public class CategoryRegistry {
+
+    private final Map<String, Category> categoriesById = new ConcurrentHashMap<>();
+    private final Map<String, Category> categoriesByName = new ConcurrentHashMap<>();
+
+    /**
+     * Replace the registry contents with the given categories
+     */
+    public void load(Collection<Category> categories) {
+        categoriesById.clear();
+        categoriesByName.clear();
+        categories.forEach(this::put);
+    }
+
+    public Optional<Category> findById(String id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(categoriesById.get(id));
+    }
+
+    /**
+     * Find by name ignoring case and surrounding blanks, like the database lookup it replaces
+     */
+    public Optional<Category> findByName(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(categoriesByName.get(normalize(name)));
+    }
+
+    /**
+     * All categories ordered by name
+     */
+    public List<Category> findAll() {
+        return categoriesById.values().stream()
+                .sorted(Comparator.comparing(Category::getName))
+                .toList();
+    }
+
+    /**
+     * The category registered under this name, or the one returned by the loader, which is then registered.
+     * The loader runs outside the map, so its database round trips hold no lock; concurrent callers for a
+     * missing name may each call it, and the first result registered wins. Lookups of existing names take no lock.
+     */
+    public Category findOrRegister(String name, Supplier<Category> loader) {
+        String key = normalize(name);
+        Category existing = categoriesByName.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        Category loaded = loader.get();
+        Category registered = categoriesByName.putIfAbsent(key, loaded);
+        if (registered != null) {
+            return registered;
+        }
+        categoriesById.put(loaded.getId(), loaded);
+        return loaded;
+    }
+
+    public void put(Category category) {
+        Category previous = categoriesById.put(category.getId(), category);
+        if (previous != null) {
+            categoriesByName.remove(normalize(previous.getName()), previous);
+        }
+        categoriesByName.put(normalize(category.getName()), category);
+    }
+
+    public void remove(String id) {
+        Category removed = categoriesById.remove(id);
+        if (removed != null) {
+            categoriesByName.remove(normalize(removed.getName()), removed);
+        }
+    }
+
+    public int size() {
+        return categoriesById.size();
+    }
+
+    static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
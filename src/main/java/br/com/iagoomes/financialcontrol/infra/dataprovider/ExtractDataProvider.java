@@ -3,76 +3,196 @@ package br.com.iagoomes.financialcontrol.infra.dataprovider;
 import br.com.iagoomes.financialcontrol.domain.ExtractProvider;
 import br.com.iagoomes.financialcontrol.domain.entity.BankType;
 import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractCursor;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractStatus;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
 import br.com.iagoomes.financialcontrol.domain.mapper.ExtractMapper;
 import br.com.iagoomes.financialcontrol.infra.repository.ExtractDataRepository;
+import br.com.iagoomes.financialcontrol.infra.repository.ExtractDataRepository.ExtractSummaryView;
+import br.com.iagoomes.financialcontrol.infra.repository.TransactionDataRepository;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.EntityIds;
 import br.com.iagoomes.financialcontrol.infra.repository.entity.ExtractData;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
 public class ExtractDataProvider implements ExtractProvider {
 
+    private static final String PERIOD_CONSTRAINT = "uk_extracts_bank_period";
+
     private final ExtractDataRepository extractRepository;
+    private final TransactionDataRepository transactionRepository;
     private final ExtractMapper extractMapper;
+    private final TransactionBulkInserter transactionBulkInserter;
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Extract> findByBankAndPeriod(BankType bankType, Integer month, Integer year) {
-        Optional<ExtractData> extractData = extractRepository.findByBankAndReferenceMonthAndReferenceYear(
-                bankType, month, year);
-
-        return extractData.map(extractMapper::toExtractDomain);
+        return extractRepository.findSummaryByBankAndPeriod(bankType, month, year, ExtractStatus.COMPLETE)
+                .map(extractMapper::toExtractHeader);
     }
 
     @Override
-    public List<Extract> findByBank(BankType bankType) {
-        List<ExtractData> extractDataList = extractRepository.findByBank(bankType);
+    @Transactional(readOnly = true)
+    public Optional<Extract> findReservation(BankType bankType, Integer month, Integer year) {
+        Optional<ExtractData> extractData = extractRepository.findByBankAndReferenceMonthAndReferenceYear(
+                bankType, month, year);
 
-        return extractDataList.stream()
-                .map(extractMapper::toExtractDomain)
-                .toList();
+        return extractData.map(extractMapper::toExtractHeader);
     }
 
     @Override
-    public List<Extract> findByYear(Integer year) {
-        List<ExtractData> extractDataList = extractRepository.findByReferenceYear(year);
-
-        return extractDataList.stream()
-                .map(extractMapper::toExtractDomain)
-                .toList();
+    @Transactional(readOnly = true)
+    public Optional<Extract> findById(String extractId) {
+        return EntityIds.parse(extractId)
+                .flatMap(id -> extractRepository.findSummaryById(id, ExtractStatus.COMPLETE))
+                .map(extractMapper::toExtractHeader);
     }
 
     @Override
-    public List<Extract> findAll() {
-        List<ExtractData> extractDataList = extractRepository.findAll();
-
-        return extractDataList.stream()
-                .map(extractMapper::toExtractDomain)
+    @Transactional(readOnly = true)
+    public List<Extract> findPage(BankType bankType, Integer year, Integer month, ExtractCursor after, int limit) {
+        List<ExtractSummaryView> page = after == null
+                ? extractRepository.findFirstSummaryPage(bankType, year, month, ExtractStatus.COMPLETE,
+                        PageRequest.ofSize(limit))
+                : extractRepository.findSummaryPageAfter(bankType, year, month, ExtractStatus.COMPLETE,
+                        after.referenceYear(), after.referenceMonth(), EntityIds.toUuid(after.id()),
+                        PageRequest.ofSize(limit));
+
+        return page.stream()
+                .map(extractMapper::toExtractHeader)
                 .toList();
     }
 
     @Override
     public Optional<Extract> findByIdWithTransactions(String extractId) {
-        Optional<ExtractData> extractData = extractRepository.findByIdWithTransactions(extractId);
+        Optional<ExtractData> extractData = EntityIds.parse(extractId)
+                .flatMap(id -> extractRepository.findByIdWithTransactions(id, ExtractStatus.COMPLETE));
 
         return extractData.map(extractMapper::toExtractDomain);
     }
 
+    /**
+     * Saves the header through JPA and the transactions through the bulk inserter; the given extract is returned
+     * with its id and transaction ids set rather than read back
+     */
     @Override
+    @Transactional
     public Extract save(Extract extract) {
         ExtractData extractData = extractMapper.toExtractData(extract);
+        extractData.setTransactions(new ArrayList<>());
         ExtractData savedExtractData = extractRepository.save(extractData);
-        return extractMapper.toExtractDomain(savedExtractData);
+
+        extract.setId(EntityIds.toString(savedExtractData.getId()));
+        if (extract.getTransactions() != null) {
+            transactionBulkInserter.insert(extract.getId(), extract.getTransactions());
+        }
+        return extract;
+    }
+
+    /**
+     * Not transactional on purpose: the insert runs and is flushed in its own repository transaction,
+     * so a unique constraint violation surfaces here instead of poisoning a surrounding transaction.
+     * Only a violation of the period's unique key means the period is taken; any other is rethrown.
+     */
+    @Override
+    public Optional<Extract> reservePeriod(Extract extract) {
+        try {
+            ExtractData savedExtractData = extractRepository.saveAndFlush(extractMapper.toExtractData(extract));
+            return Optional.of(extractMapper.toExtractDomain(savedExtractData));
+        } catch (DataIntegrityViolationException e) {
+            if (!violates(e, PERIOD_CONSTRAINT)) {
+                throw e;
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether the violated constraint is the given one. Databases qualify and quote the name differently
+     * (H2 reports PUBLIC.UK_..._INDEX_x, MySQL extracts.uk_...), so it is matched as a case-insensitive part.
+     */
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(constraint);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The transactions, the totals they were already added to and the checkpoint commit together, so the stored
+     * totals, transaction count and source position always match the rows an interrupted import left behind.
+     * The batch is rolled back if the import lost its lease to another one.
+     */
+    @Override
+    @Transactional
+    public void saveTransactions(Extract extract, List<Transaction> transactions) {
+        transactionBulkInserter.insert(extract.getId(), transactions);
+        updateProgress(extract);
+    }
+
+    @Override
+    @Transactional
+    public void complete(Extract extract) {
+        updateProgress(extract);
+        extractRepository.updateStatus(EntityIds.toUuid(extract.getId()), ExtractStatus.COMPLETE);
+        extract.setStatus(ExtractStatus.COMPLETE);
+        extract.setLeaseOwner(null);
+        extract.setLeaseExpiresAt(null);
+    }
+
+    @Override
+    @Transactional
+    public boolean claimLease(Extract extract, LocalDateTime now) {
+        return extractRepository.claimLease(EntityIds.toUuid(extract.getId()), ExtractStatus.IMPORTING,
+                extract.getLeaseOwner(), extract.getLeaseExpiresAt(), now) == 1;
+    }
+
+    @Override
+    @Transactional
+    public void releaseLease(Extract extract) {
+        extractRepository.releaseLease(EntityIds.toUuid(extract.getId()), extract.getLeaseOwner());
+    }
+
+    private void updateProgress(Extract extract) {
+        int updated = extractRepository.updateProgress(EntityIds.toUuid(extract.getId()), extract.getTotalIncome(),
+                extract.getTotalExpenses(), extract.getTransactionCount(), extract.getSourcePosition(),
+                extract.getLeaseOwner(), extract.getLeaseExpiresAt());
+        if (updated == 0) {
+            throw new IllegalStateException("Import of extract " + extract.getId() + " lost its lease");
+        }
+    }
+
+    /**
+     * Transactions are removed with one bulk delete rather than loaded and cascaded one by one
+     */
+    @Override
+    @Transactional
+    public void deleteById(String extractId) {
+        UUID id = EntityIds.toUuid(extractId);
+        transactionRepository.deleteByExtractId(id);
+        extractRepository.deleteById(id);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Extract> findByPeriod(Integer year, Integer month) {
-        List<ExtractData> extractDataList = extractRepository.findByReferenceYearAndReferenceMonth(year, month);
+        List<ExtractData> extractDataList = extractRepository.findByReferenceYearAndReferenceMonthAndStatus(year, month,
+                ExtractStatus.COMPLETE);
 
         return extractDataList.stream()
                 .map(extractMapper::toExtractDomain)
@@ -0,0 +1,117 @@
+package br.com.iagoomes.financialcontrol.infra.dataprovider;
+
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.EntityIds;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.UuidV7Generator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Writes imported transactions straight through JDBC, bypassing the persistence context: ids are generated here,
+ * rows go out as multi-row INSERT statements of a fixed size sent in one JDBC batch, and nothing is read back.
+ * The ids are time-ordered UUIDv7, so an import appends to the end of the primary key index.
+ */
+@Component
+public class TransactionBulkInserter {
+
+    private static final String INSERT_PREFIX = "INSERT INTO transactions (id, date, title, amount, original_description, "
+            + "transaction_type, extract_id, category_id, confidence) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int COLUMNS = 9;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int rowsPerStatement;
+    private final String fullStatementSql;
+
+    public TransactionBulkInserter(JdbcTemplate jdbcTemplate,
+                                   @Value("${app.imports.persistence.rows-per-statement:100}") int rowsPerStatement) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowsPerStatement = Math.max(1, rowsPerStatement);
+        this.fullStatementSql = insertSql(this.rowsPerStatement);
+    }
+
+    /**
+     * Insert the transactions into the extract, assigning ids to those that have none.
+     * Runs in the caller's transaction.
+     */
+    public void insert(String extractId, List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        transactions.forEach(transaction -> {
+            if (transaction.getId() == null) {
+                transaction.setId(UuidV7Generator.next().toString());
+            }
+        });
+        byte[] extractKey = EntityIds.toBytes(extractId);
+
+        int fullStatements = transactions.size() / rowsPerStatement;
+        if (fullStatements > 0) {
+            jdbcTemplate.batchUpdate(fullStatementSql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int index) throws SQLException {
+                    int offset = index * rowsPerStatement;
+                    for (int row = 0; row < rowsPerStatement; row++) {
+                        bind(statement, row * COLUMNS, extractKey, transactions.get(offset + row));
+                    }
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return fullStatements;
+                }
+            });
+        }
+
+        int remaining = transactions.size() - fullStatements * rowsPerStatement;
+        if (remaining > 0) {
+            int offset = fullStatements * rowsPerStatement;
+            jdbcTemplate.update(insertSql(remaining), statement -> {
+                for (int row = 0; row < remaining; row++) {
+                    bind(statement, row * COLUMNS, extractKey, transactions.get(offset + row));
+                }
+            });
+        }
+    }
+
+    private static void bind(PreparedStatement statement, int offset, byte[] extractKey, Transaction transaction)
+            throws SQLException {
+        statement.setBytes(offset + 1, EntityIds.toBytes(transaction.getId()));
+        statement.setTimestamp(offset + 2, new Timestamp(transaction.getDate().getTime()));
+        statement.setString(offset + 3, transaction.getTitle());
+        statement.setBigDecimal(offset + 4, transaction.getAmount());
+        statement.setString(offset + 5, transaction.getOriginalDescription());
+        if (transaction.getTransactionType() != null) {
+            statement.setString(offset + 6, transaction.getTransactionType().name());
+        } else {
+            statement.setNull(offset + 6, Types.VARCHAR);
+        }
+        statement.setBytes(offset + 7, extractKey);
+        if (transaction.getCategory() != null) {
+            statement.setBytes(offset + 8, EntityIds.toBytes(transaction.getCategory().getId()));
+        } else {
+            statement.setNull(offset + 8, Types.BINARY);
+        }
+        statement.setBigDecimal(offset + 9, transaction.getConfidence());
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2))
+                .append(INSERT_PREFIX);
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+}
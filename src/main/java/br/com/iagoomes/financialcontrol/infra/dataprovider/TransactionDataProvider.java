@@ -1,18 +1,39 @@
 package br.com.iagoomes.financialcontrol.infra.dataprovider;
 
 import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractDetail.CategoryTotal;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractStatus;
 import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionCursor;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionFilter;
+import br.com.iagoomes.financialcontrol.domain.mapper.CategoryMapper;
 import br.com.iagoomes.financialcontrol.domain.mapper.TransactionMapper;
 import br.com.iagoomes.financialcontrol.infra.repository.CategoryDataRepository;
 import br.com.iagoomes.financialcontrol.infra.repository.TransactionDataRepository;
+import br.com.iagoomes.financialcontrol.infra.repository.TransactionDataRepository.CategoryTotalView;
+import br.com.iagoomes.financialcontrol.infra.repository.TransactionDataRepository.ManualCategorization;
+import br.com.iagoomes.financialcontrol.infra.repository.TransactionDataSpecifications;
 import br.com.iagoomes.financialcontrol.infra.repository.entity.CategoryData;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.EntityIds;
 import br.com.iagoomes.financialcontrol.infra.repository.entity.TransactionData;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of TransactionProvider using JPA Repository
@@ -22,16 +43,25 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class TransactionDataProvider implements TransactionProvider {
 
+    private static final String UPDATE_CATEGORIZATION_SQL =
+            "UPDATE transactions SET category_id = ?, confidence = ?, transaction_type = ? WHERE id = ? "
+                    + "AND (category_id IS NULL OR confidence IS NULL OR confidence < ?)";
+
+    // All zero bytes, below every stored id
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
     private final TransactionDataRepository transactionDataRepository;
     private final CategoryDataRepository categoryDataRepository;
     private final TransactionMapper transactionMapper;
+    private final CategoryMapper categoryMapper;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     @Transactional(readOnly = true)
     public Optional<Transaction> findById(String id) {
         log.debug("Finding transaction by ID: {}", id);
 
-        Optional<TransactionData> transactionDataOpt = transactionDataRepository.findById(id);
+        Optional<TransactionData> transactionDataOpt = EntityIds.parse(id).flatMap(transactionDataRepository::findById);
 
         if (transactionDataOpt.isEmpty()) {
             log.debug("Transaction not found: {}", id);
@@ -51,9 +81,10 @@ public class TransactionDataProvider implements TransactionProvider {
 
         TransactionData transactionData;
 
-        if (transaction.getId() != null && transactionDataRepository.existsById(transaction.getId())) {
+        Optional<UUID> transactionId = EntityIds.parse(transaction.getId());
+        if (transactionId.isPresent() && transactionDataRepository.existsById(transactionId.get())) {
             // Update existing transaction
-            transactionData = transactionDataRepository.findById(transaction.getId())
+            transactionData = transactionDataRepository.findById(transactionId.get())
                     .orElseThrow(() -> new IllegalStateException("Transaction not found: " + transaction.getId()));
 
             // Update fields using mapper
@@ -61,7 +92,8 @@ public class TransactionDataProvider implements TransactionProvider {
 
             // Update category if changed
             if (transaction.getCategory() != null) {
-                CategoryData categoryData = categoryDataRepository.findById(transaction.getCategory().getId())
+                CategoryData categoryData = EntityIds.parse(transaction.getCategory().getId())
+                        .flatMap(categoryDataRepository::findById)
                         .orElseThrow(() -> new IllegalArgumentException("Category not found: " + transaction.getCategory().getId()));
                 transactionData.setCategory(categoryData);
             } else {
@@ -76,7 +108,8 @@ public class TransactionDataProvider implements TransactionProvider {
 
             // Set category if exists
             if (transaction.getCategory() != null) {
-                CategoryData categoryData = categoryDataRepository.findById(transaction.getCategory().getId())
+                CategoryData categoryData = EntityIds.parse(transaction.getCategory().getId())
+                        .flatMap(categoryDataRepository::findById)
                         .orElseThrow(() -> new IllegalArgumentException("Category not found: " + transaction.getCategory().getId()));
                 transactionData.setCategory(categoryData);
             }
@@ -91,4 +124,119 @@ public class TransactionDataProvider implements TransactionProvider {
 
         return savedTransaction;
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachManualCategorization(ManualCategorizationConsumer consumer) {
+        try (Stream<ManualCategorization> categorizations =
+                     transactionDataRepository.streamManualCategorizations(ExtractStatus.COMPLETE)) {
+            categorizations.forEach(categorization -> consumer.accept(categorization.getTitle(),
+                    categorization.getAmount(), EntityIds.toString(categorization.getCategoryId())));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countRecategorizationCandidates(BigDecimal maxConfidence) {
+        return transactionDataRepository.countRecategorizationCandidates(maxConfidence, ExtractStatus.COMPLETE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Transaction> findRecategorizationCandidates(BigDecimal maxConfidence, String afterId, int limit) {
+        return transactionDataRepository.findRecategorizationCandidates(maxConfidence, keysetStart(afterId),
+                        ExtractStatus.COMPLETE, PageRequest.ofSize(limit))
+                .stream()
+                .map(transactionMapper::toTransactionDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Transaction> findPage(String afterId, int limit) {
+        return transactionDataRepository.findPageAfter(keysetStart(afterId), ExtractStatus.COMPLETE,
+                        PageRequest.ofSize(limit))
+                .stream()
+                .map(transactionMapper::toTransactionDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Transaction> findByExtract(String extractId, TransactionCursor after, int limit) {
+        List<TransactionData> page = after == null
+                ? transactionDataRepository.findFirstExtractPage(EntityIds.toUuid(extractId), ExtractStatus.COMPLETE,
+                        PageRequest.ofSize(limit))
+                : transactionDataRepository.findExtractPageAfter(EntityIds.toUuid(extractId), Date.from(after.date()),
+                        EntityIds.toUuid(after.id()), ExtractStatus.COMPLETE, PageRequest.ofSize(limit));
+
+        return page.stream()
+                .map(transactionMapper::toTransactionDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Transaction> search(TransactionFilter filter, TransactionCursor after, int limit) {
+        return transactionDataRepository.findBy(
+                        TransactionDataSpecifications.search(filter, after, ExtractStatus.COMPLETE),
+                        query -> query.limit(limit).all())
+                .stream()
+                .map(transactionMapper::toTransactionDomain)
+                .toList();
+    }
+
+    /**
+     * Aggregated in the database; only the categories involved are loaded, in one query
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategoryTotal> sumByCategory(String extractId) {
+        List<CategoryTotalView> totals = transactionDataRepository.sumByCategory(EntityIds.toUuid(extractId),
+                ExtractStatus.COMPLETE);
+        if (totals.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, CategoryData> categories = categoryDataRepository.findAllById(
+                        totals.stream().map(CategoryTotalView::getCategoryId).toList())
+                .stream()
+                .collect(Collectors.toMap(CategoryData::getId, Function.identity()));
+
+        return totals.stream()
+                .map(total -> new CategoryTotal(categoryMapper.toCategoryDomain(categories.get(total.getCategoryId())),
+                        total.getTransactionCount(), total.getTotalAmount()))
+                .toList();
+    }
+
+    /**
+     * One JDBC batch instead of a load-and-merge per row. The candidate condition is checked again in each
+     * UPDATE, so a row categorized by hand after it was read keeps the user's choice.
+     */
+    @Override
+    @Transactional
+    public int updateCategorization(List<Transaction> transactions, BigDecimal maxConfidence) {
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_CATEGORIZATION_SQL, transactions, transactions.size(),
+                (statement, transaction) -> {
+                    statement.setBytes(1, transaction.getCategory() != null ? EntityIds.toBytes(transaction.getCategory().getId()) : null);
+                    statement.setBigDecimal(2, transaction.getConfidence());
+                    statement.setString(3, transaction.getTransactionType() != null ? transaction.getTransactionType().name() : null);
+                    statement.setBytes(4, EntityIds.toBytes(transaction.getId()));
+                    statement.setBigDecimal(5, maxConfidence);
+                });
+
+        int written = (int) Arrays.stream(counts)
+                .flatMapToInt(Arrays::stream)
+                .filter(count -> count > 0 || count == Statement.SUCCESS_NO_INFO)
+                .count();
+        log.debug("Updated categorization of {} of {} transactions", written, transactions.size());
+        return written;
+    }
+
+    /**
+     * Position after which a keyset page over ids starts: the given id, or the lowest one when none is given
+     */
+    private static UUID keysetStart(String afterId) {
+        return afterId == null || afterId.isEmpty() ? FIRST_ID : EntityIds.toUuid(afterId);
+    }
 }
@@ -0,0 +1,10 @@
+package br.com.iagoomes.financialcontrol.infra.exception;
+
+/**
+ * An Idempotency-Key already used for a different file, bank or period
+ */
+public class IdempotencyKeyReusedException extends BusinessException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.iagoomes.financialcontrol.infra.exception;
+
+/**
+ * Another import still holds the extract of the same bank and period
+ */
+public class ImportInProgressException extends BusinessException {
+    public ImportInProgressException(String message) {
+        super(message);
+    }
+}
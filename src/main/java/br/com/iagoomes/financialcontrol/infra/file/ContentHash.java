@@ -0,0 +1,54 @@
+package br.com.iagoomes.financialcontrol.infra.file;
+
+import br.com.iagoomes.financialcontrol.infra.exception.FileProcessingException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 of upload contents, used to recognise a file that was already imported
+ */
+public final class ContentHash {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ContentHash() {
+    }
+
+    /**
+     * Hash of the file contents, reusing the hash taken while spooling when there is one
+     */
+    public static String of(MultipartFile file) {
+        if (file instanceof SpooledMultipartFile spooledFile && spooledFile.getContentHash() != null) {
+            return spooledFile.getContentHash();
+        }
+
+        MessageDigest digest = newDigest();
+        try (InputStream in = file.getInputStream()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new FileProcessingException("Failed to read upload: " + e.getMessage(), e);
+        }
+        return toHex(digest);
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String toHex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.iagoomes.financialcontrol.infra.file;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+
+/**
+ * Upload copied to a local temp file so it outlives the HTTP request that carried it.
+ * Closing it deletes the temp file.
+ */
+@Slf4j
+public class SpooledMultipartFile implements MultipartFile, AutoCloseable {
+
+    private final Path path;
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final long size;
+    private final String contentHash;
+
+    private SpooledMultipartFile(Path path, String name, String originalFilename, String contentType, long size,
+                                 String contentHash) {
+        this.path = path;
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.size = size;
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Copy the upload into a new temp file inside the given directory, hashing it on the way
+     */
+    public static SpooledMultipartFile spool(MultipartFile source, Path directory) throws IOException {
+        Path absoluteDirectory = Files.createDirectories(directory.toAbsolutePath());
+        Path path = Files.createTempFile(absoluteDirectory, "upload-", ".tmp");
+        MessageDigest digest = ContentHash.newDigest();
+
+        try (InputStream in = new DigestInputStream(source.getInputStream(), digest)) {
+            Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+
+        return new SpooledMultipartFile(path, source.getName(), source.getOriginalFilename(),
+                source.getContentType(), Files.size(path), ContentHash.toHex(digest));
+    }
+
+    /**
+     * Wrap a file already on disk under the given original name
+     */
+    public static SpooledMultipartFile of(Path path, String originalFilename) throws IOException {
+        return new SpooledMultipartFile(path, "file", originalFilename, null, Files.size(path), null);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * SHA-256 of the contents when taken while spooling, otherwise null
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        transferTo(dest.toPath());
+    }
+
+    @Override
+    public void transferTo(Path dest) throws IOException {
+        Files.copy(path, dest, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}: {}", path, e.getMessage());
+        }
+    }
+}
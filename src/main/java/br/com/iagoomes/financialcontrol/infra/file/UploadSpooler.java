@@ -0,0 +1,128 @@
+package br.com.iagoomes.financialcontrol.infra.file;
+
+import br.com.iagoomes.financialcontrol.infra.exception.FileProcessingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Copies uploads into the upload directory so they can be processed after the request is gone
+ */
+@Slf4j
+@Component
+public class UploadSpooler {
+
+    private final Path uploadDirectory;
+    private final int maxArchiveEntries;
+    private final long maxEntrySize;
+    private final long maxArchiveSize;
+
+    public UploadSpooler(@Value("${app.file-storage.upload-dir:./uploads}") String uploadDir,
+                         @Value("${app.imports.batch.max-archive-entries:500}") int maxArchiveEntries,
+                         @Value("${app.imports.batch.max-entry-size:64MB}") DataSize maxEntrySize,
+                         @Value("${app.imports.batch.max-archive-size:512MB}") DataSize maxArchiveSize) {
+        this.uploadDirectory = Path.of(uploadDir);
+        this.maxArchiveEntries = maxArchiveEntries;
+        this.maxEntrySize = maxEntrySize.toBytes();
+        this.maxArchiveSize = maxArchiveSize.toBytes();
+    }
+
+    public SpooledMultipartFile spool(MultipartFile file) {
+        try {
+            return SpooledMultipartFile.spool(file, uploadDirectory);
+        } catch (IOException e) {
+            throw new FileProcessingException("Failed to store upload: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Extract every file entry of a ZIP upload into its own spooled file, named after the entry.
+     * Decompressed sizes are counted while copying, since the sizes declared in the archive can't be trusted.
+     *
+     * @throws IllegalArgumentException when the archive has too many files, or a file or the whole archive
+     *                                  decompresses beyond its limit
+     */
+    public List<SpooledMultipartFile> spoolArchiveEntries(MultipartFile archive) {
+        List<SpooledMultipartFile> entries = new ArrayList<>();
+
+        try (ZipInputStream zip = new ZipInputStream(archive.getInputStream())) {
+            Path directory = Files.createDirectories(uploadDirectory.toAbsolutePath());
+            long archiveSize = 0;
+            ZipEntry entry;
+
+            while ((entry = zip.getNextEntry()) != null) {
+                String entryName = fileName(entry.getName());
+                if (entry.isDirectory() || entryName.isEmpty() || entryName.startsWith(".")
+                        || entry.getName().startsWith("__MACOSX/")) {
+                    continue;
+                }
+
+                if (entries.size() >= maxArchiveEntries) {
+                    throw new IllegalArgumentException("ZIP archive has more than " + maxArchiveEntries + " files");
+                }
+
+                // Entry names are only used as labels, never as paths
+                Path path = Files.createTempFile(directory, "upload-", ".tmp");
+                try {
+                    archiveSize += copyEntry(zip, path, entryName, maxArchiveSize - archiveSize);
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(path);
+                    throw e;
+                }
+                entries.add(SpooledMultipartFile.of(path, entryName));
+            }
+
+            log.debug("Extracted {} files from archive {}", entries.size(), archive.getOriginalFilename());
+            return entries;
+
+        } catch (IOException | RuntimeException e) {
+            entries.forEach(SpooledMultipartFile::close);
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new FileProcessingException("Failed to read ZIP archive: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copy the current entry, failing as soon as it passes its own limit or the space left in the archive limit
+     */
+    private long copyEntry(InputStream zip, Path path, String entryName, long archiveSizeLeft) throws IOException {
+        byte[] buffer = new byte[8192];
+        long size = 0;
+
+        try (OutputStream out = Files.newOutputStream(path)) {
+            int read;
+            while ((read = zip.read(buffer)) != -1) {
+                size += read;
+                if (size > maxEntrySize) {
+                    throw new IllegalArgumentException("ZIP entry " + entryName + " decompresses to more than "
+                            + maxEntrySize + " bytes");
+                }
+                if (size > archiveSizeLeft) {
+                    throw new IllegalArgumentException("ZIP archive decompresses to more than "
+                            + maxArchiveSize + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return size;
+    }
+
+    private static String fileName(String entryName) {
+        int separator = Math.max(entryName.lastIndexOf('/'), entryName.lastIndexOf('\\'));
+        return entryName.substring(separator + 1);
+    }
+}
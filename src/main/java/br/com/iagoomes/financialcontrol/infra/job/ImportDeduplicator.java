@@ -0,0 +1,114 @@
+package br.com.iagoomes.financialcontrol.infra.job;
+
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.infra.exception.IdempotencyKeyReusedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index from an import key (content hash or Idempotency-Key) to the extract it produced.
+ * A repeated key is answered with the recorded extract without running the import again;
+ * a repeat that arrives while the first import is still running waits for its result.
+ * Each key is bound to the fingerprint of the request that first used it (bank, period and content hash),
+ * and a repeat with a different fingerprint is refused. Failed imports are forgotten so they can be retried.
+ * <p>
+ * The index lives in this process only: it deduplicates requests reaching the same instance, and is bounded
+ * both by the retention and by a maximum number of entries, past which the oldest finished ones are dropped.
+ * Running several instances needs a shared store for the keys instead.
+ */
+@Slf4j
+@Component
+public class ImportDeduplicator {
+
+    private final Duration retention;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ImportDeduplicator(@Value("${app.imports.idempotency.retention:24h}") Duration retention,
+                              @Value("${app.imports.idempotency.max-entries:10000}") int maxEntries) {
+        this.retention = retention;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Run the import unless the key has already produced an extract
+     */
+    public Extract importOnce(String key, Supplier<Extract> importer) {
+        return importOnce(key, key, importer);
+    }
+
+    /**
+     * Run the import unless the key has already produced an extract for the same fingerprint
+     *
+     * @throws IdempotencyKeyReusedException when the key was first used with a different fingerprint
+     */
+    public Extract importOnce(String key, String fingerprint, Supplier<Extract> importer) {
+        evictExpired();
+
+        Entry entry = new Entry(new CompletableFuture<>(), fingerprint, Instant.now());
+        Entry existing = entries.putIfAbsent(key, entry);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException("Import key already used for a different file or period");
+            }
+            log.info("Import key {} already seen, reusing its extract", key);
+            return await(existing.result());
+        }
+        evictOldest();
+
+        try {
+            Extract extract = importer.get();
+            entry.result().complete(extract);
+            return extract;
+        } catch (RuntimeException e) {
+            entries.remove(key, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Extract await(CompletableFuture<Extract> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void evictExpired() {
+        Instant threshold = Instant.now().minus(retention);
+        entries.values().removeIf(entry -> entry.result().isDone() && entry.createdAt().isBefore(threshold));
+    }
+
+    /**
+     * Drop the oldest finished entries beyond the bound; imports still running are kept so their repeats wait
+     */
+    private void evictOldest() {
+        int excess = entries.size() - maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        entries.entrySet().stream()
+                .filter(e -> e.getValue().result().isDone())
+                .sorted(Comparator.comparing(e -> e.getValue().createdAt()))
+                .limit(excess)
+                .toList()
+                .forEach(e -> entries.remove(e.getKey(), e.getValue()));
+    }
+
+    private record Entry(CompletableFuture<Extract> result, String fingerprint, Instant createdAt) {
+    }
+}
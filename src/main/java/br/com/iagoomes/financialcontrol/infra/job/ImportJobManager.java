@@ -0,0 +1,147 @@
+package br.com.iagoomes.financialcontrol.infra.job;
+
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.ImportJob;
+import br.com.iagoomes.financialcontrol.domain.entity.ImportStage;
+import br.com.iagoomes.financialcontrol.domain.usecase.ProcessExtractFileUseCase;
+import br.com.iagoomes.financialcontrol.infra.file.SpooledMultipartFile;
+import br.com.iagoomes.financialcontrol.infra.file.UploadSpooler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs extract imports in the background on the bounded import executor and keeps track of their jobs
+ */
+@Slf4j
+@Component
+public class ImportJobManager {
+
+    private final ProcessExtractFileUseCase processExtractFileUseCase;
+    private final TaskExecutor extractImportExecutor;
+    private final UploadSpooler uploadSpooler;
+    private final Duration jobRetention;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    // A key is reserved with an incomplete future before its upload is spooled and queued, outside any map lock
+    private final Map<String, CompletableFuture<ImportJob>> jobsByIdempotencyKey = new ConcurrentHashMap<>();
+
+    public ImportJobManager(ProcessExtractFileUseCase processExtractFileUseCase,
+                            @Qualifier("extractImportExecutor") TaskExecutor extractImportExecutor,
+                            UploadSpooler uploadSpooler,
+                            @Value("${app.imports.async.job-retention:1h}") Duration jobRetention) {
+        this.processExtractFileUseCase = processExtractFileUseCase;
+        this.extractImportExecutor = extractImportExecutor;
+        this.uploadSpooler = uploadSpooler;
+        this.jobRetention = jobRetention;
+    }
+
+    /**
+     * Spool the upload and queue its import. A repeated idempotency key returns the job it already created,
+     * waiting for it to be queued if needed, unless that job failed, in which case the import is queued again.
+     *
+     * @throws RejectedExecutionException when the import queue is full
+     */
+    public ImportJob submit(MultipartFile file, BankType bankType, Integer month, Integer year, String idempotencyKey) {
+        evictExpiredJobs();
+
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return queue(file, bankType, month, year);
+        }
+
+        CompletableFuture<ImportJob> reservation = new CompletableFuture<>();
+        while (true) {
+            CompletableFuture<ImportJob> previous = jobsByIdempotencyKey.putIfAbsent(idempotencyKey, reservation);
+            if (previous == null) {
+                break;
+            }
+            Optional<ImportJob> existing = reusableJob(previous);
+            if (existing.isPresent()) {
+                log.info("Idempotency key {} already used by job {}", idempotencyKey, existing.get().getId());
+                return existing.get();
+            }
+            if (jobsByIdempotencyKey.replace(idempotencyKey, previous, reservation)) {
+                break;
+            }
+        }
+
+        try {
+            ImportJob job = queue(file, bankType, month, year);
+            reservation.complete(job);
+            return job;
+        } catch (RuntimeException e) {
+            jobsByIdempotencyKey.remove(idempotencyKey, reservation);
+            reservation.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * The job of an earlier submission with the same key, once it is queued; empty when it could not be queued
+     * or its import failed
+     */
+    private static Optional<ImportJob> reusableJob(CompletableFuture<ImportJob> submission) {
+        try {
+            ImportJob job = submission.join();
+            return job.getStage() != ImportStage.FAILED ? Optional.of(job) : Optional.empty();
+        } catch (CompletionException | CancellationException e) {
+            return Optional.empty();
+        }
+    }
+
+    private ImportJob queue(MultipartFile file, BankType bankType, Integer month, Integer year) {
+        SpooledMultipartFile spooledFile = uploadSpooler.spool(file);
+
+        ImportJob job = ImportJob.queue(bankType, month, year, file.getOriginalFilename());
+        jobs.put(job.getId(), job);
+
+        try {
+            extractImportExecutor.execute(() -> run(job, spooledFile));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            spooledFile.close();
+            throw e;
+        }
+
+        log.info("Queued import job {} for {} {}/{}", job.getId(), bankType, month, year);
+        return job;
+    }
+
+    public Optional<ImportJob> findById(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void run(ImportJob job, SpooledMultipartFile spooledFile) {
+        try (spooledFile) {
+            Extract extract = processExtractFileUseCase.execute(spooledFile, job.getBank(),
+                    job.getReferenceMonth(), job.getReferenceYear(), job);
+            job.complete(extract.getId());
+            log.info("Import job {} finished with extract {}", job.getId(), extract.getId());
+
+        } catch (Exception e) {
+            log.error("Import job {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private void evictExpiredJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.getStage().isFinished() && job.getFinishedAt().isBefore(threshold));
+        jobsByIdempotencyKey.values().removeIf(submission -> submission.isDone()
+                && !submission.isCompletedExceptionally() && !jobs.containsKey(submission.join().getId()));
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.iagoomes.financialcontrol.infra.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for the import pipeline, aggregated over all imports running at the same time.
+ * Comparing how long each stage waits for input with how long it is blocked on its output
+ * shows which stage is the bottleneck.
+ */
+@Component
+public class ImportPipelineMetrics {
+
+    public static final String PARSE = "parse";
+    public static final String CATEGORIZE = "categorize";
+    public static final String PERSIST = "persist";
+
+    private final MeterRegistry registry;
+    private final Map<String, Set<Queue<?>>> inputQueues = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rows = new ConcurrentHashMap<>();
+    private final Map<String, Timer> waits = new ConcurrentHashMap<>();
+
+    public ImportPipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        for (String stage : new String[]{CATEGORIZE, PERSIST}) {
+            Set<Queue<?>> queues = ConcurrentHashMap.newKeySet();
+            inputQueues.put(stage, queues);
+            Gauge.builder("extract.import.pipeline.queue.depth", queues,
+                            q -> q.stream().mapToInt(Queue::size).sum())
+                    .description("Rows waiting in the input queues of a pipeline stage")
+                    .tag("stage", stage)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Include the queue feeding the given stage in the depth gauge until it is released
+     */
+    public void trackInputQueue(String stage, Queue<?> queue) {
+        inputQueues.get(stage).add(queue);
+    }
+
+    public void releaseInputQueue(String stage, Queue<?> queue) {
+        inputQueues.get(stage).remove(queue);
+    }
+
+    public void rowsProcessed(String stage, int count) {
+        rows.computeIfAbsent(stage, s -> Counter.builder("extract.import.pipeline.rows")
+                        .description("Rows that went through a pipeline stage")
+                        .tag("stage", s)
+                        .register(registry))
+                .increment(count);
+    }
+
+    /**
+     * Time a stage spent waiting for input ("input") or blocked on a full output queue ("output")
+     */
+    public void waited(String stage, String on, long nanos) {
+        waits.computeIfAbsent(stage + ':' + on, key -> Timer.builder("extract.import.pipeline.wait")
+                        .description("Time a pipeline stage spent waiting on its queues")
+                        .tag("stage", stage)
+                        .tag("on", on)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.iagoomes.financialcontrol.infra.job;
+
+import br.com.iagoomes.financialcontrol.domain.entity.RecategorizationJob;
+import br.com.iagoomes.financialcontrol.domain.usecase.RecategorizeTransactionsUseCase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs recategorization jobs in the background, one at a time, and keeps track of them
+ */
+@Slf4j
+@Component
+public class RecategorizationJobManager {
+
+    private final RecategorizeTransactionsUseCase recategorizeTransactionsUseCase;
+    private final TaskExecutor recategorizationExecutor;
+    private final Duration jobRetention;
+
+    private final Map<String, RecategorizationJob> jobs = new ConcurrentHashMap<>();
+    private RecategorizationJob activeJob;
+
+    public RecategorizationJobManager(RecategorizeTransactionsUseCase recategorizeTransactionsUseCase,
+                                      @Qualifier("recategorizationExecutor") TaskExecutor recategorizationExecutor,
+                                      @Value("${app.imports.async.job-retention:1h}") Duration jobRetention) {
+        this.recategorizeTransactionsUseCase = recategorizeTransactionsUseCase;
+        this.recategorizationExecutor = recategorizationExecutor;
+        this.jobRetention = jobRetention;
+    }
+
+    /**
+     * Queue a recategorization, or return the one already queued or running
+     */
+    public synchronized RecategorizationJob submit(BigDecimal maxConfidence) {
+        evictExpiredJobs();
+
+        if (activeJob != null && !activeJob.isFinished()) {
+            log.info("Recategorization job {} is still running, not starting another", activeJob.getId());
+            return activeJob;
+        }
+
+        RecategorizationJob job = RecategorizationJob.queue(maxConfidence);
+        jobs.put(job.getId(), job);
+        activeJob = job;
+        recategorizationExecutor.execute(() -> run(job));
+
+        log.info("Queued recategorization job {} for confidence below {}", job.getId(), maxConfidence);
+        return job;
+    }
+
+    public Optional<RecategorizationJob> findById(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void run(RecategorizationJob job) {
+        try {
+            recategorizeTransactionsUseCase.execute(job);
+        } catch (Exception e) {
+            log.error("Recategorization job {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private void evictExpiredJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+    }
+}
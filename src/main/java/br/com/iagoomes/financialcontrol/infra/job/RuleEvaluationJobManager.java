@@ -0,0 +1,82 @@
+package br.com.iagoomes.financialcontrol.infra.job;
+
+import br.com.iagoomes.financialcontrol.domain.entity.RuleEvaluationJob;
+import br.com.iagoomes.financialcontrol.domain.usecase.EvaluateCategorizationRulesUseCase;
+import br.com.iagoomes.financialcontrol.infra.categorization.CategorizationRules;
+import br.com.iagoomes.financialcontrol.infra.categorization.TransactionClassifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs candidate rule set evaluations in the background and keeps track of them
+ */
+@Slf4j
+@Component
+public class RuleEvaluationJobManager {
+
+    private final EvaluateCategorizationRulesUseCase evaluateCategorizationRulesUseCase;
+    private final TaskExecutor ruleEvaluationExecutor;
+    private final Duration jobRetention;
+
+    private final Map<String, RuleEvaluationJob> jobs = new ConcurrentHashMap<>();
+
+    public RuleEvaluationJobManager(EvaluateCategorizationRulesUseCase evaluateCategorizationRulesUseCase,
+                                    @Qualifier("ruleEvaluationExecutor") TaskExecutor ruleEvaluationExecutor,
+                                    @Value("${app.imports.async.job-retention:1h}") Duration jobRetention) {
+        this.evaluateCategorizationRulesUseCase = evaluateCategorizationRulesUseCase;
+        this.ruleEvaluationExecutor = ruleEvaluationExecutor;
+        this.jobRetention = jobRetention;
+    }
+
+    /**
+     * Queue the evaluation of the candidate rules. The rules are compiled here, so invalid ones are refused
+     * before a job exists.
+     *
+     * @throws IllegalArgumentException   when the candidate rules do not compile
+     * @throws RejectedExecutionException when too many evaluations are already queued
+     */
+    public RuleEvaluationJob submit(CategorizationRules candidateRules) {
+        TransactionClassifier candidate = new TransactionClassifier(candidateRules);
+        evictExpiredJobs();
+
+        RuleEvaluationJob job = RuleEvaluationJob.queue();
+        jobs.put(job.getId(), job);
+        try {
+            ruleEvaluationExecutor.execute(() -> run(job, candidate));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+
+        log.info("Queued rule evaluation job {}", job.getId());
+        return job;
+    }
+
+    public Optional<RuleEvaluationJob> findById(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void run(RuleEvaluationJob job, TransactionClassifier candidate) {
+        try {
+            evaluateCategorizationRulesUseCase.execute(job, candidate);
+        } catch (Exception e) {
+            log.error("Rule evaluation job {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private void evictExpiredJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+    }
+}
@@ -2,35 +2,41 @@ package br.com.iagoomes.financialcontrol.infra.repository;
 
 import br.com.iagoomes.financialcontrol.infra.repository.entity.CategoryData;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
-public interface CategoryDataRepository extends JpaRepository<CategoryData, String> {
+public interface CategoryDataRepository extends JpaRepository<CategoryData, UUID> {
     /**
-     * Find category by name (case-insensitive)
+     * Find category by name (case-insensitive), through the indexed lower-cased name_key column
      */
-    Optional<CategoryData> findByNameIgnoreCase(String name);
+    @Query(value = "SELECT * FROM categories WHERE name_key = LOWER(:name)", nativeQuery = true)
+    Optional<CategoryData> findByNameIgnoreCase(@Param("name") String name);
 
     /**
-     * Check if category exists by name (case-insensitive)
+     * Insert the category unless one with the same name (ignoring case) exists, in a transaction of its own.
+     * Two concurrent inserts of the same name, in any case, can still both pass the check; the unique key on
+     * name_key then rejects the second one.
+     *
+     * @return 1 when the category was inserted, 0 when it already existed
      */
-    boolean existsByNameIgnoreCase(String name);
-
-    /**
-     * Find all categories ordered by name
-     */
-    List<CategoryData> findAllByOrderByNameAsc();
-
-    /**
-     * Find categories by parent category ID ordered by name
-     */
-    List<CategoryData> findByParentCategoryIdOrderByNameAsc(String parentCategoryId);
-
-    /**
-     * Find root categories (no parent) ordered by name
-     */
-    List<CategoryData> findByParentCategoryIdIsNullOrderByNameAsc();
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO categories (id, name, color, icon, parent_category_id, created_at, updated_at) " +
+            "SELECT :id, :name, :color, :icon, :parentCategoryId, :createdAt, :createdAt FROM (SELECT 1) AS one " +
+            "WHERE NOT EXISTS (SELECT 1 FROM categories WHERE name_key = LOWER(:name))", nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("name") String name,
+                       @Param("color") String color,
+                       @Param("icon") String icon,
+                       @Param("parentCategoryId") UUID parentCategoryId,
+                       @Param("createdAt") LocalDateTime createdAt);
 }
@@ -1,50 +1,153 @@
 package br.com.iagoomes.financialcontrol.infra.repository;
 
 import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractStatus;
 import br.com.iagoomes.financialcontrol.infra.repository.entity.ExtractData;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
-public interface ExtractDataRepository extends JpaRepository<ExtractData, String> {
+public interface ExtractDataRepository extends JpaRepository<ExtractData, UUID> {
+
+    String SUMMARY_COLUMNS = "e.id AS id, e.bank AS bank, e.referenceMonth AS referenceMonth, " +
+            "e.referenceYear AS referenceYear, e.totalIncome AS totalIncome, e.totalExpenses AS totalExpenses, " +
+            "e.transactionCount AS transactionCount, e.processedAt AS processedAt, e.contentHash AS contentHash";
+    String SUMMARY_FILTERS = " AND (:bank IS NULL OR e.bank = :bank) AND (:year IS NULL OR e.referenceYear = :year)" +
+            " AND (:month IS NULL OR e.referenceMonth = :month)";
 
     @Override
     @EntityGraph(attributePaths = {"transactions"})
-    Optional<ExtractData> findById(String id);
+    Optional<ExtractData> findById(UUID id);
 
     /**
-     * Find extract by bank, month and year
+     * Find extract by bank, month and year, whatever its status
      */
     Optional<ExtractData> findByBankAndReferenceMonthAndReferenceYear(
             BankType bank, Integer month, Integer year);
 
     /**
-     * Find extracts by year and month range
+     * First page of extract headers in the status, newest first; null filters match every extract
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM ExtractData e WHERE e.status = :status" + SUMMARY_FILTERS +
+            " ORDER BY e.referenceYear DESC, e.referenceMonth DESC, e.id DESC")
+    List<ExtractSummaryView> findFirstSummaryPage(@Param("bank") BankType bank,
+                                                  @Param("year") Integer year,
+                                                  @Param("month") Integer month,
+                                                  @Param("status") ExtractStatus status,
+                                                  Pageable page);
+
+    /**
+     * Page of extract headers following the (year, month, id) position, newest first
      */
-    @Query("SELECT e FROM ExtractData e WHERE e.referenceYear = :year " +
-            "AND e.referenceMonth BETWEEN :startMonth AND :endMonth " +
-            "ORDER BY e.referenceMonth ASC")
-    List<ExtractData> findByYearAndMonthRange(@Param("year") Integer year,
-                                              @Param("startMonth") Integer startMonth,
-                                              @Param("endMonth") Integer endMonth);
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM ExtractData e WHERE e.status = :status" + SUMMARY_FILTERS +
+            " AND e.referenceYear <= :afterYear AND (e.referenceYear < :afterYear OR e.referenceMonth < :afterMonth" +
+            " OR (e.referenceMonth = :afterMonth AND e.id < :afterId))" +
+            " ORDER BY e.referenceYear DESC, e.referenceMonth DESC, e.id DESC")
+    List<ExtractSummaryView> findSummaryPageAfter(@Param("bank") BankType bank,
+                                                  @Param("year") Integer year,
+                                                  @Param("month") Integer month,
+                                                  @Param("status") ExtractStatus status,
+                                                  @Param("afterYear") Integer afterYear,
+                                                  @Param("afterMonth") Integer afterMonth,
+                                                  @Param("afterId") UUID afterId,
+                                                  Pageable page);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM ExtractData e WHERE e.id = :extractId AND e.status = :status")
+    Optional<ExtractSummaryView> findSummaryById(@Param("extractId") UUID extractId,
+                                                 @Param("status") ExtractStatus status);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM ExtractData e WHERE e.bank = :bank AND e.referenceMonth = :month " +
+            "AND e.referenceYear = :year AND e.status = :status")
+    Optional<ExtractSummaryView> findSummaryByBankAndPeriod(@Param("bank") BankType bank,
+                                                            @Param("month") Integer month,
+                                                            @Param("year") Integer year,
+                                                            @Param("status") ExtractStatus status);
 
-    List<ExtractData> findByBank(BankType bankType);
+    @Query("SELECT e FROM ExtractData e LEFT JOIN FETCH e.transactions WHERE e.id = :extractId AND e.status = :status")
+    Optional<ExtractData> findByIdWithTransactions(@Param("extractId") UUID extractId,
+                                                   @Param("status") ExtractStatus status);
+
+    /**
+     * Write the totals and checkpoint of an import and renew its lease, provided the import still holds it.
+     * Clears the persistence context afterwards: when a request-scoped EntityManager still holds the header
+     * saved at the start of the import, a later read would otherwise return it with stale totals and no
+     * transactions.
+     *
+     * @return 0 when another import took the extract over
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ExtractData e SET e.totalIncome = :totalIncome, e.totalExpenses = :totalExpenses, " +
+            "e.transactionCount = :transactionCount, e.sourcePosition = :sourcePosition, " +
+            "e.leaseExpiresAt = :leaseExpiresAt WHERE e.id = :extractId AND e.leaseOwner = :leaseOwner")
+    int updateProgress(@Param("extractId") UUID extractId,
+                       @Param("totalIncome") BigDecimal totalIncome,
+                       @Param("totalExpenses") BigDecimal totalExpenses,
+                       @Param("transactionCount") Integer transactionCount,
+                       @Param("sourcePosition") Long sourcePosition,
+                       @Param("leaseOwner") String leaseOwner,
+                       @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    /**
+     * Hand an extract in the status over to a new lease owner, provided its current lease has expired
+     *
+     * @return 0 when the extract is gone, in another status, or still leased
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ExtractData e SET e.leaseOwner = :leaseOwner, e.leaseExpiresAt = :leaseExpiresAt " +
+            "WHERE e.id = :extractId AND e.status = :status AND (e.leaseExpiresAt IS NULL OR e.leaseExpiresAt < :now)")
+    int claimLease(@Param("extractId") UUID extractId,
+                   @Param("status") ExtractStatus status,
+                   @Param("leaseOwner") String leaseOwner,
+                   @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+                   @Param("now") LocalDateTime now);
 
-    List<ExtractData> findByReferenceYear(Integer referenceYear);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ExtractData e SET e.leaseExpiresAt = NULL WHERE e.id = :extractId AND e.leaseOwner = :leaseOwner")
+    int releaseLease(@Param("extractId") UUID extractId, @Param("leaseOwner") String leaseOwner);
 
-    @Query("SELECT e FROM ExtractData e LEFT JOIN FETCH e.transactions WHERE e.id = :extractId")
-    Optional<ExtractData> findByIdWithTransactions(@Param("extractId") String extractId);
+    /**
+     * Set the status and release the lease, which only guards an import in progress
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ExtractData e SET e.status = :status, e.leaseOwner = NULL, e.leaseExpiresAt = NULL " +
+            "WHERE e.id = :extractId")
+    int updateStatus(@Param("extractId") UUID extractId, @Param("status") ExtractStatus status);
 
     /**
      * Find extracts by specific year and month
      */
     @EntityGraph(attributePaths = {"transactions"})
-    List<ExtractData> findByReferenceYearAndReferenceMonth(Integer referenceYear, Integer referenceMonth);
+    List<ExtractData> findByReferenceYearAndReferenceMonthAndStatus(Integer referenceYear, Integer referenceMonth,
+                                                                    ExtractStatus status);
+
+    interface ExtractSummaryView {
+        UUID getId();
+
+        BankType getBank();
+
+        Integer getReferenceMonth();
+
+        Integer getReferenceYear();
+
+        BigDecimal getTotalIncome();
+
+        BigDecimal getTotalExpenses();
+
+        Integer getTransactionCount();
+
+        LocalDateTime getProcessedAt();
 
-}
\ No newline at end of file
+        String getContentHash();
+    }
+}
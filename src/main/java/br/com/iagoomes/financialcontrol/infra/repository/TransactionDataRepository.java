@@ -1,45 +1,120 @@
 package br.com.iagoomes.financialcontrol.infra.repository;
 
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractStatus;
 import br.com.iagoomes.financialcontrol.infra.repository.entity.TransactionData;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionDataRepository extends JpaRepository<TransactionData, String> {
+public interface TransactionDataRepository extends JpaRepository<TransactionData, UUID>,
+        JpaSpecificationExecutor<TransactionData> {
 
     /**
-     * Find transactions by extract ID
+     * Title, amount and category of transactions categorized by hand (confidence 1.0), oldest first.
+     * Like every transaction read below, only rows of extracts in the given status are seen, so the rows of an
+     * import still in progress stay hidden.
      */
-    List<TransactionData> findByExtractIdOrderByDateDesc(String extractId);
+    @Query("SELECT t.title AS title, t.amount AS amount, t.category.id AS categoryId FROM TransactionData t " +
+            "JOIN t.extract e WHERE t.confidence >= 1 AND t.category IS NOT NULL AND e.status = :status " +
+            "ORDER BY t.date ASC")
+    Stream<ManualCategorization> streamManualCategorizations(@Param("status") ExtractStatus status);
 
     /**
-     * Find transactions by category ID
+     * Keyset page of transactions without category or with confidence below maxConfidence
      */
-    List<TransactionData> findByCategoryIdOrderByDateDesc(String categoryId);
+    @Query("SELECT t FROM TransactionData t JOIN t.extract e LEFT JOIN FETCH t.category WHERE t.id > :afterId " +
+            "AND (t.category IS NULL OR t.confidence IS NULL OR t.confidence < :maxConfidence) " +
+            "AND e.status = :status ORDER BY t.id")
+    List<TransactionData> findRecategorizationCandidates(@Param("maxConfidence") BigDecimal maxConfidence,
+                                                         @Param("afterId") UUID afterId,
+                                                         @Param("status") ExtractStatus status,
+                                                         Pageable page);
 
     /**
-     * Find transactions by extract ID and category ID
+     * Keyset page of all transactions with their category
      */
-    List<TransactionData> findByExtractIdAndCategoryIdOrderByDateDesc(String extractId, String categoryId);
+    @Query("SELECT t FROM TransactionData t JOIN t.extract e LEFT JOIN FETCH t.category WHERE t.id > :afterId " +
+            "AND e.status = :status ORDER BY t.id")
+    List<TransactionData> findPageAfter(@Param("afterId") UUID afterId, @Param("status") ExtractStatus status,
+                                        Pageable page);
 
     /**
-     * Find transactions without category (null category)
+     * First page of an extract's transactions with their category, newest first.
+     * The constant extract id leads the ORDER BY, descending like the (extract_id, date, id) index, so that H2
+     * reads that index in order and stops after the page; the ascending extract_id foreign key index, which would
+     * need the whole extract sorted, then no longer ties with it. The extract status is checked by an uncorrelated
+     * subquery on its primary key rather than a join, which would make the extract lead the plan.
      */
-    @Query("SELECT t FROM TransactionData t WHERE t.category IS NULL ORDER BY t.date DESC")
-    List<TransactionData> findUncategorizedTransactions();
+    @Query("SELECT t FROM TransactionData t LEFT JOIN FETCH t.category WHERE t.extract.id = :extractId " +
+            "AND EXISTS (SELECT 1 FROM ExtractData e WHERE e.id = :extractId AND e.status = :status) " +
+            "ORDER BY t.extract.id DESC, t.date DESC, t.id DESC")
+    List<TransactionData> findFirstExtractPage(@Param("extractId") UUID extractId,
+                                               @Param("status") ExtractStatus status,
+                                               Pageable page);
 
     /**
-     * Count transactions by category ID
+     * Page of an extract's transactions following the (date, id) position, newest first.
+     * The redundant {@code t.date <= :afterDate} bound lets the (extract_id, date, id) index seek to the position
+     * instead of scanning the extract from its newest row.
      */
-    long countByCategoryId(String categoryId);
+    @Query("SELECT t FROM TransactionData t LEFT JOIN FETCH t.category WHERE t.extract.id = :extractId " +
+            "AND EXISTS (SELECT 1 FROM ExtractData e WHERE e.id = :extractId AND e.status = :status) " +
+            "AND t.date <= :afterDate AND (t.date < :afterDate OR t.id < :afterId) " +
+            "ORDER BY t.extract.id DESC, t.date DESC, t.id DESC")
+    List<TransactionData> findExtractPageAfter(@Param("extractId") UUID extractId,
+                                               @Param("afterDate") Date afterDate,
+                                               @Param("afterId") UUID afterId,
+                                               @Param("status") ExtractStatus status,
+                                               Pageable page);
+
+    /**
+     * Count and signed amount sum of an extract's categorized transactions, per category
+     */
+    @Query("SELECT t.category.id AS categoryId, COUNT(t) AS transactionCount, SUM(t.amount) AS totalAmount " +
+            "FROM TransactionData t WHERE t.extract.id = :extractId AND t.category IS NOT NULL " +
+            "AND EXISTS (SELECT 1 FROM ExtractData e WHERE e.id = :extractId AND e.status = :status) " +
+            "GROUP BY t.category.id")
+    List<CategoryTotalView> sumByCategory(@Param("extractId") UUID extractId, @Param("status") ExtractStatus status);
+
+    @Query("SELECT COUNT(t) FROM TransactionData t JOIN t.extract e WHERE e.status = :status " +
+            "AND (t.category IS NULL OR t.confidence IS NULL OR t.confidence < :maxConfidence)")
+    long countRecategorizationCandidates(@Param("maxConfidence") BigDecimal maxConfidence,
+                                         @Param("status") ExtractStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TransactionData t WHERE t.extract.id = :extractId")
+    int deleteByExtractId(@Param("extractId") UUID extractId);
 
     /**
      * Check if transaction exists by ID
      */
-    boolean existsById(String id);
+    boolean existsById(UUID id);
+
+    interface CategoryTotalView {
+        UUID getCategoryId();
+
+        long getTransactionCount();
+
+        BigDecimal getTotalAmount();
+    }
+
+    interface ManualCategorization {
+        String getTitle();
+
+        BigDecimal getAmount();
+
+        UUID getCategoryId();
+    }
 }
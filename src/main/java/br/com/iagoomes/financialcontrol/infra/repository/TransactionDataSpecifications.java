@@ -0,0 +1,90 @@
+package br.com.iagoomes.financialcontrol.infra.repository;
+
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractStatus;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionCursor;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionFilter;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.EntityIds;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.ExtractData;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.TransactionData;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criteria queries over transactions whose filters vary per request.
+ * Only the given filters become predicates, so the planner can pick the index that matches them
+ * instead of facing {@code (:param IS NULL OR ...)} conditions.
+ */
+public final class TransactionDataSpecifications {
+
+    private TransactionDataSpecifications() {
+    }
+
+    /**
+     * Transactions of extracts in the given status matching the filter with their category fetched, newest first
+     * on (date, id) and starting after the cursor when one is given
+     */
+    public static Specification<TransactionData> search(TransactionFilter filter, TransactionCursor after,
+                                                        ExtractStatus status) {
+        return (root, query, builder) -> {
+            root.fetch("category", JoinType.LEFT);
+            Join<TransactionData, ExtractData> extract = root.join("extract");
+            Path<UUID> categoryId = root.get("category").get("id");
+            Path<Date> date = root.get("date");
+            Path<UUID> id = root.get("id");
+
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(builder.equal(extract.get("status"), status));
+            if (filter.categoryId() != null) {
+                predicates.add(builder.equal(categoryId, EntityIds.toUuid(filter.categoryId())));
+            }
+            if (filter.from() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(date, startOf(filter.from())));
+            }
+            if (filter.to() != null) {
+                predicates.add(builder.lessThan(date, startOf(filter.to().plusDays(1))));
+            }
+            if (filter.type() != null) {
+                predicates.add(builder.equal(root.get("transactionType"), filter.type()));
+            }
+            if (filter.minAmount() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("amount"), filter.minAmount()));
+            }
+            if (filter.maxAmount() != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("amount"), filter.maxAmount()));
+            }
+            if (after != null) {
+                // Same seekable form as the extract pages: the redundant bound on date lets the index start there
+                Date afterDate = Date.from(after.date());
+                predicates.add(builder.lessThanOrEqualTo(date, afterDate));
+                predicates.add(builder.or(builder.lessThan(date, afterDate), builder.lessThan(id, EntityIds.toUuid(after.id()))));
+            }
+
+            // With a category the (category_id, date, id) index is read; the constant category leads the ORDER BY,
+            // descending like that index, so that H2 prefers it over the category_id foreign key index
+            List<Order> orders = new ArrayList<>();
+            if (filter.categoryId() != null) {
+                orders.add(builder.desc(categoryId));
+            }
+            orders.add(builder.desc(date));
+            orders.add(builder.desc(id));
+            query.orderBy(orders);
+
+            return builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static Date startOf(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -2,8 +2,6 @@ package br.com.iagoomes.financialcontrol.infra.repository.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
@@ -12,8 +10,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * JPA Entity for Category
@@ -27,9 +29,10 @@ import java.time.LocalDateTime;
 public class CategoryData {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    @Column(name = "id")
-    private String id;
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "id", length = 16)
+    private UUID id;
 
     @Column(name = "name", nullable = false, length = 100, unique = true)
     private String name;
@@ -40,8 +43,9 @@ public class CategoryData {
     @Column(name = "icon", length = 10)
     private String icon;
 
-    @Column(name = "parent_category_id")
-    private String parentCategoryId;
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "parent_category_id", length = 16)
+    private UUID parentCategoryId;
 
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
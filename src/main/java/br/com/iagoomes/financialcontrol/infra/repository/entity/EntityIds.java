@@ -0,0 +1,52 @@
+package br.com.iagoomes.financialcontrol.infra.repository.entity;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Conversions between the string ids of the domain and the UUID ids of the data model, stored as BINARY(16)
+ */
+public final class EntityIds {
+
+    private EntityIds() {
+    }
+
+    /**
+     * @throws IllegalArgumentException when the id is not a UUID
+     */
+    public static UUID toUuid(String id) {
+        return id == null ? null : UUID.fromString(id);
+    }
+
+    /**
+     * The id as a UUID, or empty when it is null or not a UUID, and so cannot match any stored row
+     */
+    public static Optional<UUID> parse(String id) {
+        try {
+            return Optional.ofNullable(toUuid(id));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public static String toString(UUID id) {
+        return id == null ? null : id.toString();
+    }
+
+    /**
+     * The 16 bytes stored for the id, most significant first, for statements written through JDBC
+     *
+     * @throws IllegalArgumentException when the id is not a UUID
+     */
+    public static byte[] toBytes(String id) {
+        UUID uuid = toUuid(id);
+        if (uuid == null) {
+            return null;
+        }
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -1,30 +1,35 @@
 package br.com.iagoomes.financialcontrol.infra.repository.entity;
 
 import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractStatus;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Entity
-@Table(name = "extracts")
+@Table(name = "extracts", uniqueConstraints = @UniqueConstraint(
+        name = "uk_extracts_bank_period", columnNames = {"bank", "reference_month", "reference_year"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,9 +37,10 @@ import java.util.List;
 public class ExtractData {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    @Column(name = "id")
-    private String id;
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "id", length = 16)
+    private UUID id;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "bank", nullable = false)
@@ -58,6 +64,24 @@ public class ExtractData {
     @Column(name = "processed_at", nullable = false)
     private LocalDateTime processedAt;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Defaults to COMPLETE so extracts saved before imports were checkpointed stay visible
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, columnDefinition = "varchar(16) default 'COMPLETE' not null")
+    @Builder.Default
+    private ExtractStatus status = ExtractStatus.COMPLETE;
+
+    @Column(name = "source_position")
+    private Long sourcePosition;
+
+    @Column(name = "lease_owner", length = 36)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
     @OneToMany(mappedBy = "extract", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<TransactionData> transactions = new ArrayList<>();
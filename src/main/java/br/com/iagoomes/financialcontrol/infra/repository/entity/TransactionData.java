@@ -6,8 +6,6 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -16,11 +14,16 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.util.Date;
+import java.util.UUID;
 
 @Entity
+// Indexes are defined by the schema migrations in db/migration
 @Table(name = "transactions")
 @Data
 @NoArgsConstructor
@@ -29,9 +32,10 @@ import java.util.Date;
 public class TransactionData {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    @Column(name = "id")
-    private String id;
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "id", length = 16)
+    private UUID id;
 
     @Column(name = "date", nullable = false)
     private Date date;
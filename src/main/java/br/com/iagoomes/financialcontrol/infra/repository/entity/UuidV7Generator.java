@@ -0,0 +1,42 @@
+package br.com.iagoomes.financialcontrol.infra.repository.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDv7 ids (RFC 9562): a 48-bit Unix millisecond timestamp, a 12-bit counter and 62 random bits.
+ * Ids generated in this JVM always increase, also within the same millisecond, so new rows are appended at the
+ * end of the primary key index instead of landing on random pages of it.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long COUNTER_MASK = 0xFFFL;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT_RFC_9562 = 0x8000000000000000L;
+
+    // Millisecond timestamp shifted left by 12 bits plus the counter, as in the most significant half of the id.
+    // A counter overflowing within a millisecond carries into the timestamp, which then runs ahead briefly.
+    private static final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    /**
+     * The next id, greater than every id generated before it in this JVM
+     */
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long timestampAndCounter = lastTimestampAndCounter.updateAndGet(last -> Math.max(last + 1, now));
+
+        long mostSignificantBits = (timestampAndCounter >>> 12) << 16 | VERSION_7 | (timestampAndCounter & COUNTER_MASK);
+        long leastSignificantBits = ThreadLocalRandom.current().nextLong() & VARIANT_MASK | VARIANT_RFC_9562;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+}
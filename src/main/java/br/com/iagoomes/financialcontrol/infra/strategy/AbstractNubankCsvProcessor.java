@@ -0,0 +1,66 @@
+package br.com.iagoomes.financialcontrol.infra.strategy;
+
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Behaviour shared by the Nubank CSV parsers (date,title,amount layout)
+ */
+@Slf4j
+public abstract class AbstractNubankCsvProcessor implements FileProcessorStrategy {
+
+    @Override
+    public Extract processFile(MultipartFile file, Integer month, Integer year) {
+        log.info("Starting to process Nubank CSV file: {}", file.getOriginalFilename());
+
+        validateFile(file);
+
+        try {
+            Extract extract = Extract.open(BankType.NUBANK, month, year);
+            streamTransactions(file, extract::addTransaction);
+
+            log.info("Successfully processed {} transactions from Nubank CSV with automatic categorization",
+                    extract.getTransactionCount());
+            return extract;
+
+        } catch (Exception e) {
+            log.error("Error processing Nubank CSV file", e);
+            throw new RuntimeException("Failed to process Nubank CSV: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void validateFile(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+
+        String filename = file.getOriginalFilename();
+        if (filename == null || !filename.toLowerCase().endsWith(".csv")) {
+            throw new IllegalArgumentException("File must be a CSV file");
+        }
+
+        long maxFileSize = maxFileSize();
+        if (file.getSize() > maxFileSize) {
+            throw new IllegalArgumentException("File size must not exceed " + describeSize(maxFileSize));
+        }
+    }
+
+    /**
+     * Largest accepted upload in bytes
+     */
+    protected long maxFileSize() {
+        return 10 * 1024 * 1024;
+    }
+
+    /**
+     * Whole megabytes when the limit is a multiple of one, bytes otherwise
+     */
+    private static String describeSize(long bytes) {
+        long megabyte = DataSize.ofMegabytes(1).toBytes();
+        return bytes % megabyte == 0 ? bytes / megabyte + "MB" : bytes + " bytes";
+    }
+}
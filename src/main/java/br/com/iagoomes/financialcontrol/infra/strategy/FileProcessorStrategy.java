@@ -1,10 +1,34 @@
 package br.com.iagoomes.financialcontrol.infra.strategy;
 
 import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.function.Consumer;
+
 public interface FileProcessorStrategy {
     Extract processFile(MultipartFile file, Integer month, Integer year);
 
+    /**
+     * Parse the file record by record, handing each transaction to the consumer as soon as it is read
+     */
+    void streamTransactions(MultipartFile file, Consumer<Transaction> consumer);
+
+    /**
+     * Parse the records after a source position, as set on the transactions this processor emits: each one
+     * carries the position just past its record, and starting from it continues with the next record.
+     * Position 0 parses the whole file. This default numbers the records and re-reads the file up to the
+     * position; processors reading a seekable layout override it to jump there directly.
+     */
+    default void streamTransactions(MultipartFile file, long fromPosition, Consumer<Transaction> consumer) {
+        long[] records = {0};
+        streamTransactions(file, transaction -> {
+            transaction.setSourcePosition(++records[0]);
+            if (records[0] > fromPosition) {
+                consumer.accept(transaction);
+            }
+        });
+    }
+
     void validateFile(MultipartFile file);
 }
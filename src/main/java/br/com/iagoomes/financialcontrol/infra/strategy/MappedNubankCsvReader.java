@@ -0,0 +1,119 @@
+package br.com.iagoomes.financialcontrol.infra.strategy;
+
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Parses a Nubank CSV file on disk by memory-mapping it in newline-aligned chunks that are parsed in parallel.
+ * Transactions are handed to the consumer on the calling thread, in file order.
+ * Only a bounded number of chunks is in flight at once, so heap use does not grow with the file size.
+ * Chunks are split at the first newline after the nominal boundary, which assumes quoted fields never span lines
+ * (true for Nubank exports).
+ */
+@Slf4j
+final class MappedNubankCsvReader {
+
+    private static final int BOUNDARY_SCAN_SIZE = 8 * 1024;
+
+    private final ForkJoinPool pool;
+    private final long chunkSize;
+    private final int maxChunksInFlight;
+
+    MappedNubankCsvReader(ForkJoinPool pool, long chunkSize) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = pool.getParallelism() * 2;
+    }
+
+    void read(Path path, Consumer<Transaction> consumer) throws IOException {
+        read(path, 0, consumer);
+    }
+
+    /**
+     * Parse the records starting at a byte offset, which is either 0 or the position just past a record
+     */
+    void read(Path path, long fromPosition, Consumer<Transaction> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Deque<ForkJoinTask<List<Transaction>>> inFlight = new ArrayDeque<>();
+            long start = fromPosition;
+            int chunks = 0;
+
+            try {
+                while (start < size || !inFlight.isEmpty()) {
+                    while (start < size && inFlight.size() < maxChunksInFlight) {
+                        long end = nextBoundary(channel, start + chunkSize, size);
+                        inFlight.add(pool.submit(parseChunk(channel, start, end, start == 0)));
+                        start = end;
+                        chunks++;
+                    }
+
+                    inFlight.removeFirst().join().forEach(consumer);
+                }
+            } finally {
+                // Chunks still queued after a failure are of no use anymore
+                inFlight.forEach(task -> task.cancel(false));
+            }
+
+            log.debug("Parsed {} bytes of {} in {} chunks", size, path.getFileName(), chunks);
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static ForkJoinTask<List<Transaction>> parseChunk(FileChannel channel, long start, long end,
+                                                              boolean firstChunk) {
+        return ForkJoinTask.adapt(() -> {
+            MappedByteBuffer buffer;
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            List<Transaction> transactions = new ArrayList<>();
+            new NubankCsvByteParser(firstChunk, 1, start).parse(buffer, 0, buffer.limit(), true, transactions::add);
+            return transactions;
+        });
+    }
+
+    /**
+     * Position just after the first newline at or past {@code from}, or the end of the file
+     */
+    private static long nextBoundary(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        long position = from;
+
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+
+        return size;
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.iagoomes.financialcontrol.infra.strategy;
+
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.infra.exception.FileProcessingException;
+import br.com.iagoomes.financialcontrol.infra.file.SpooledMultipartFile;
+import br.com.iagoomes.financialcontrol.infra.file.UploadSpooler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Service for processing Nubank CSV files by scanning the raw UTF-8 bytes instead of going through opencsv.
+ * In large-file mode the size cap is raised to the large-file maximum and files above the threshold are
+ * memory-mapped and parsed in parallel.
+ * Source positions are byte offsets, so a resumed import seeks straight to the record after its checkpoint.
+ */
+@Slf4j
+@Service
+public class NubankByteCsvProcessor extends AbstractNubankCsvProcessor {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UploadSpooler uploadSpooler;
+    private final MappedNubankCsvReader mappedReader;
+    private final boolean largeFileEnabled;
+    private final long largeFileThreshold;
+    private final long largeFileMaxSize;
+
+    public NubankByteCsvProcessor(@Qualifier("fileParsePool") ForkJoinPool fileParsePool,
+                                  UploadSpooler uploadSpooler,
+                                  @Value("${app.imports.large-file.enabled:true}") boolean largeFileEnabled,
+                                  @Value("${app.imports.large-file.threshold:8MB}") DataSize largeFileThreshold,
+                                  @Value("${app.imports.large-file.chunk-size:4MB}") DataSize chunkSize,
+                                  @Value("${app.imports.large-file.max-size:512MB}") DataSize largeFileMaxSize) {
+        this.uploadSpooler = uploadSpooler;
+        this.mappedReader = new MappedNubankCsvReader(fileParsePool, chunkSize.toBytes());
+        this.largeFileEnabled = largeFileEnabled;
+        this.largeFileThreshold = largeFileThreshold.toBytes();
+        this.largeFileMaxSize = largeFileMaxSize.toBytes();
+    }
+
+    @Override
+    public void streamTransactions(MultipartFile file, Consumer<Transaction> consumer) {
+        streamTransactions(file, 0, consumer);
+    }
+
+    @Override
+    public void streamTransactions(MultipartFile file, long fromPosition, Consumer<Transaction> consumer) {
+        if (largeFileEnabled && file.getSize() > largeFileThreshold) {
+            streamMappedTransactions(file, fromPosition, consumer);
+            return;
+        }
+
+        // Past the start the header has already been read, and line numbers count from the position
+        NubankCsvByteParser parser = new NubankCsvByteParser(fromPosition == 0, 1);
+
+        try (InputStream in = file.getInputStream()) {
+            in.skipNBytes(fromPosition);
+            long offset = fromPosition;
+            byte[] bytes = new byte[BUFFER_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            int filled = 0;
+            boolean endOfInput = false;
+
+            while (!endOfInput) {
+                int read = in.read(bytes, filled, bytes.length - filled);
+                if (read < 0) {
+                    endOfInput = true;
+                } else {
+                    filled += read;
+                }
+
+                int consumed = parser.parse(buffer, 0, filled, endOfInput, offset, consumer);
+
+                // Keep the incomplete trailing record for the next read
+                offset += consumed;
+                filled -= consumed;
+                System.arraycopy(bytes, consumed, bytes, 0, filled);
+
+                if (filled == bytes.length) {
+                    // A single record larger than the buffer
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                    buffer = ByteBuffer.wrap(bytes);
+                }
+            }
+
+        } catch (IOException e) {
+            throw new FileProcessingException("Failed to read Nubank CSV: " + e.getMessage(), e);
+        }
+
+        log.debug("Scanned {} lines from Nubank CSV {}", parser.getLineNumber(), file.getOriginalFilename());
+    }
+
+    @Override
+    protected long maxFileSize() {
+        return largeFileEnabled ? largeFileMaxSize : super.maxFileSize();
+    }
+
+    /**
+     * Parse a large file from disk, spooling it first unless it already is a local file
+     */
+    private void streamMappedTransactions(MultipartFile file, long fromPosition, Consumer<Transaction> consumer) {
+        log.info("Parsing large Nubank CSV {} ({} bytes) in parallel chunks from byte {}",
+                file.getOriginalFilename(), file.getSize(), fromPosition);
+
+        try {
+            if (file instanceof SpooledMultipartFile spooledFile) {
+                mappedReader.read(spooledFile.getPath(), fromPosition, consumer);
+            } else {
+                try (SpooledMultipartFile spooledFile = uploadSpooler.spool(file)) {
+                    mappedReader.read(spooledFile.getPath(), fromPosition, consumer);
+                }
+            }
+        } catch (IOException e) {
+            throw new FileProcessingException("Failed to read Nubank CSV: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package br.com.iagoomes.financialcontrol.infra.strategy;
+
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Byte-level scanner for the Nubank date,title,amount layout.
+ * Dates and amounts are decoded straight from the UTF-8 bytes; the title is the only string allocated per row.
+ * Each transaction carries the byte offset in the file just past its record as its source position.
+ * Instances keep scratch state and must not be shared between threads.
+ */
+@Slf4j
+final class NubankCsvByteParser {
+
+    private static final int FIELD_COUNT = 3;
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final int[] fieldStart = new int[FIELD_COUNT];
+    private final int[] fieldEnd = new int[FIELD_COUNT];
+    private final boolean[] fieldEscaped = new boolean[FIELD_COUNT];
+
+    private final long chunkOffset;
+
+    private byte[] scratch = new byte[256];
+    private boolean headerPending;
+    private long lineNumber;
+
+    NubankCsvByteParser(boolean skipHeader, long firstLineNumber) {
+        this(skipHeader, firstLineNumber, -1);
+    }
+
+    /**
+     * @param chunkOffset byte offset of the chunk in the file when parsing one chunk of a larger file, or -1.
+     *                    Line numbers are then relative to the chunk, since earlier chunks have not been counted.
+     */
+    NubankCsvByteParser(boolean skipHeader, long firstLineNumber, long chunkOffset) {
+        this.headerPending = skipHeader;
+        this.lineNumber = firstLineNumber - 1;
+        this.chunkOffset = chunkOffset;
+    }
+
+    /**
+     * Parse every complete record in [from, to) and hand the transactions to the consumer.
+     * Index 0 of the buffer is the start of the chunk, or of the file when not parsing a chunk.
+     *
+     * @param endOfInput whether bytes after the last newline form a final record or are still incomplete
+     * @return index of the first byte not consumed (start of a trailing incomplete record)
+     */
+    int parse(ByteBuffer buffer, int from, int to, boolean endOfInput, Consumer<Transaction> consumer) {
+        return parse(buffer, from, to, endOfInput, Math.max(chunkOffset, 0), consumer);
+    }
+
+    /**
+     * Same as {@link #parse(ByteBuffer, int, int, boolean, Consumer)} for a buffer whose index 0 is at the
+     * given byte offset in the file
+     */
+    int parse(ByteBuffer buffer, int from, int to, boolean endOfInput, long bufferOffset,
+              Consumer<Transaction> consumer) {
+        int recordStart = from;
+        boolean inQuotes = false;
+
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == '"') {
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                handleRecord(buffer, recordStart, i, bufferOffset + i + 1, consumer);
+                recordStart = i + 1;
+            }
+        }
+
+        if (endOfInput && recordStart < to) {
+            handleRecord(buffer, recordStart, to, bufferOffset + to, consumer);
+            recordStart = to;
+        }
+
+        return recordStart;
+    }
+
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    private void handleRecord(ByteBuffer buffer, int start, int end, long sourcePosition,
+                              Consumer<Transaction> consumer) {
+        lineNumber++;
+
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+
+        if (headerPending) {
+            headerPending = false;
+            return;
+        }
+
+        if (isBlank(buffer, start, end)) {
+            return;
+        }
+
+        Transaction transaction;
+        try {
+            transaction = parseRecord(buffer, start, end);
+        } catch (Exception e) {
+            if (chunkOffset < 0) {
+                log.warn("Failed to parse transaction at line {}: {}", lineNumber, e.getMessage());
+            } else {
+                log.warn("Failed to parse transaction at line {} of chunk at byte {}: {}",
+                        lineNumber, chunkOffset, e.getMessage());
+            }
+            // Continue processing other transactions
+            return;
+        }
+
+        transaction.setSourcePosition(sourcePosition);
+        consumer.accept(transaction);
+    }
+
+    private Transaction parseRecord(ByteBuffer buffer, int start, int end) {
+        int fields = splitFields(buffer, start, end);
+        if (fields < FIELD_COUNT) {
+            throw new IllegalArgumentException("Invalid CSV format at line " + lineNumber +
+                    ": expected 3 columns, got " + fields);
+        }
+
+        LocalDate date = parseDate(buffer, fieldStart[0], fieldEnd[0]);
+        String title = decodeString(buffer, fieldStart[1], fieldEnd[1], fieldEscaped[1]);
+        BigDecimal amount = parseAmount(buffer, fieldStart[2], fieldEnd[2]);
+
+        return Transaction.create(date, title, amount, title, TransactionTypes.fromAmount(amount));
+    }
+
+    /**
+     * Record the trimmed (and unquoted) bounds of the first three fields, returning how many fields were found
+     */
+    private int splitFields(ByteBuffer buffer, int start, int end) {
+        int pos = start;
+        int count = 0;
+
+        while (count < FIELD_COUNT && pos <= end) {
+            while (pos < end && isWhitespace(buffer.get(pos))) {
+                pos++;
+            }
+
+            int fs;
+            int fe;
+            boolean escaped = false;
+
+            if (pos < end && buffer.get(pos) == '"') {
+                fs = ++pos;
+                while (pos < end) {
+                    if (buffer.get(pos) == '"') {
+                        if (pos + 1 < end && buffer.get(pos + 1) == '"') {
+                            escaped = true;
+                            pos += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    pos++;
+                }
+                fe = pos;
+                while (pos < end && buffer.get(pos) != ',') {
+                    pos++;
+                }
+            } else {
+                fs = pos;
+                while (pos < end && buffer.get(pos) != ',') {
+                    pos++;
+                }
+                fe = pos;
+            }
+
+            while (fe > fs && isWhitespace(buffer.get(fe - 1))) {
+                fe--;
+            }
+            while (fs < fe && isWhitespace(buffer.get(fs))) {
+                fs++;
+            }
+
+            fieldStart[count] = fs;
+            fieldEnd[count] = fe;
+            fieldEscaped[count] = escaped;
+            count++;
+            pos++; // skip the comma
+        }
+
+        return count;
+    }
+
+    /**
+     * Decode a yyyy-MM-dd date from its ASCII digits
+     */
+    private LocalDate parseDate(ByteBuffer buffer, int start, int end) {
+        if (end - start != 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+            throw invalidDate(buffer, start, end);
+        }
+
+        int year = digits(buffer, start, start + 4);
+        int month = digits(buffer, start + 5, start + 7);
+        int day = digits(buffer, start + 8, start + 10);
+        if (year < 0 || month < 0 || day < 0) {
+            throw invalidDate(buffer, start, end);
+        }
+
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            throw invalidDate(buffer, start, end);
+        }
+    }
+
+    /**
+     * Decode a plain decimal (optional sign, optional fraction) into an unscaled long.
+     * Anything unusual (exponents, more than 18 digits) falls back to BigDecimal's own parser.
+     */
+    private BigDecimal parseAmount(ByteBuffer buffer, int start, int end) {
+        int pos = start;
+        boolean negative = false;
+
+        if (pos < end && (buffer.get(pos) == '-' || buffer.get(pos) == '+')) {
+            negative = buffer.get(pos) == '-';
+            pos++;
+        }
+
+        long unscaled = 0;
+        int digitCount = 0;
+        int scale = 0;
+        boolean seenPoint = false;
+
+        for (; pos < end; pos++) {
+            byte b = buffer.get(pos);
+            if (b >= '0' && b <= '9') {
+                if (++digitCount > MAX_LONG_DIGITS) {
+                    return parseAmountFallback(buffer, start, end);
+                }
+                unscaled = unscaled * 10 + (b - '0');
+                if (seenPoint) {
+                    scale++;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return parseAmountFallback(buffer, start, end);
+            }
+        }
+
+        if (digitCount == 0) {
+            throw invalidAmount(buffer, start, end);
+        }
+
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+    }
+
+    private BigDecimal parseAmountFallback(ByteBuffer buffer, int start, int end) {
+        try {
+            return new BigDecimal(decodeString(buffer, start, end, false));
+        } catch (NumberFormatException e) {
+            throw invalidAmount(buffer, start, end);
+        }
+    }
+
+    private String decodeString(ByteBuffer buffer, int start, int end, boolean escaped) {
+        int length = end - start;
+
+        if (!escaped && buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+
+        int n = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            scratch[n++] = b;
+            if (escaped && b == '"' && i + 1 < end && buffer.get(i + 1) == '"') {
+                i++; // collapse "" into "
+            }
+        }
+        return new String(scratch, 0, n, StandardCharsets.UTF_8);
+    }
+
+    private static int digits(ByteBuffer buffer, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int d = buffer.get(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isWhitespace(buffer.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private IllegalArgumentException invalidDate(ByteBuffer buffer, int start, int end) {
+        return new IllegalArgumentException("Invalid date format at line " + lineNumber + ": "
+                + decodeString(buffer, start, end, false));
+    }
+
+    private IllegalArgumentException invalidAmount(ByteBuffer buffer, int start, int end) {
+        return new IllegalArgumentException("Invalid amount format at line " + lineNumber + ": "
+                + decodeString(buffer, start, end, false));
+    }
+}
@@ -1,11 +1,11 @@
 package br.com.iagoomes.financialcontrol.infra.strategy;
 
-import br.com.iagoomes.financialcontrol.domain.entity.Extract;
 import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
 import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import br.com.iagoomes.financialcontrol.infra.exception.FileProcessingException;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
-import com.opencsv.exceptions.CsvException;
+import com.opencsv.exceptions.CsvValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,63 +18,46 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.function.Consumer;
 
 /**
- * Service for processing Nubank CSV files with automatic categorization
+ * Service for processing Nubank CSV files through opencsv
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class NubankCsvProcessor implements FileProcessorStrategy {
+public class NubankCsvProcessor extends AbstractNubankCsvProcessor {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     @Override
-    public Extract processFile(MultipartFile file, Integer month, Integer year) {
-        log.info("Starting to process Nubank CSV file: {}", file.getOriginalFilename());
-
-        validateFile(file);
-
-        try {
-            List<Transaction> transactions = parseTransactions(file);
-            Extract extract = Extract.create(transactions, month, year);
-
-            log.info("Successfully processed {} transactions from Nubank CSV with automatic categorization",
-                    transactions.size());
-            return extract;
-
-        } catch (Exception e) {
-            log.error("Error processing Nubank CSV file", e);
-            throw new RuntimeException("Failed to process Nubank CSV: " + e.getMessage(), e);
-        }
-    }
-
-    private List<Transaction> parseTransactions(MultipartFile file) throws IOException, CsvException {
-        List<Transaction> transactions = new ArrayList<>();
-
+    public void streamTransactions(MultipartFile file, Consumer<Transaction> consumer) {
         try (CSVReader reader = new CSVReaderBuilder(
                 new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))
                 .withSkipLines(1) // Skip header
                 .build()) {
 
-            List<String[]> records = reader.readAll();
+            int lineNumber = 1;
+            String[] record;
 
-            for (int i = 0; i < records.size(); i++) {
-                String[] record = records.get(i);
+            while ((record = reader.readNext()) != null) {
+                lineNumber++;
 
+                Transaction transaction;
                 try {
-                    Transaction transaction = parseTransactionRecord(record, i + 2);
-                    transactions.add(transaction);
+                    transaction = parseTransactionRecord(record, lineNumber);
                 } catch (Exception e) {
-                    log.warn("Failed to parse transaction at line {}: {}", i + 2, e.getMessage());
+                    log.warn("Failed to parse transaction at line {}: {}", lineNumber, e.getMessage());
                     // Continue processing other transactions
+                    continue;
                 }
+
+                consumer.accept(transaction);
             }
-        }
 
-        return transactions;
+        } catch (IOException | CsvValidationException e) {
+            throw new FileProcessingException("Failed to read Nubank CSV: " + e.getMessage(), e);
+        }
     }
 
     private Transaction parseTransactionRecord(String[] record, int lineNumber) {
@@ -104,52 +87,9 @@ public class NubankCsvProcessor implements FileProcessorStrategy {
         }
 
         // Determine transaction type
-        TransactionType transactionType = determineTransactionType(title, amount);
+        TransactionType transactionType = TransactionTypes.fromAmount(amount);
 
         // Create transaction
         return Transaction.create(date, title, amount, title, transactionType);
     }
-
-    private TransactionType determineTransactionType(String title, BigDecimal amount) {
-        String titleLower = title.toLowerCase();
-
-        // Check for specific patterns
-        if (titleLower.contains("pix")) {
-            return TransactionType.PIX;
-        }
-        if (titleLower.contains("ted")) {
-            return TransactionType.TED;
-        }
-        if (titleLower.contains("doc")) {
-            return TransactionType.DOC;
-        }
-        if (titleLower.contains("boleto")) {
-            return TransactionType.BOLETO;
-        }
-        if (titleLower.contains("transferência") || titleLower.contains("transfer")) {
-            return TransactionType.TRANSFER;
-        }
-        if (titleLower.contains("pagamento")) {
-            return TransactionType.PAYMENT;
-        }
-
-        // Default based on amount (Nubank usually uses positive for expenses, negative for income)
-        return amount.compareTo(BigDecimal.ZERO) >= 0 ? TransactionType.DEBIT : TransactionType.CREDIT;
-    }
-
-    @Override
-    public void validateFile(MultipartFile file) {
-        if (file.isEmpty()) {
-            throw new IllegalArgumentException("File is empty");
-        }
-
-        String filename = file.getOriginalFilename();
-        if (filename == null || !filename.toLowerCase().endsWith(".csv")) {
-            throw new IllegalArgumentException("File must be a CSV file");
-        }
-
-        if (file.getSize() > 10 * 1024 * 1024) {
-            throw new IllegalArgumentException("File size must be less than 10MB");
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,227 @@
+package br.com.iagoomes.financialcontrol.infra.strategy;
+
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import br.com.iagoomes.financialcontrol.infra.exception.FileProcessingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Processor for OFX exports (1.x SGML and 2.x XML), used by the banks that offer OFX downloads.
+ * Each transaction is emitted when its STMTTRN element closes, so memory use does not depend on the file size.
+ * One instance is registered per bank so the extract records where it came from.
+ */
+@Slf4j
+public class OfxFileProcessor implements FileProcessorStrategy {
+
+    private static final int HEADER_SNIFF_SIZE = 1024;
+    private static final Pattern SGML_CHARSET = Pattern.compile("CHARSET:\\s*([\\w-]+)");
+    private static final Pattern SGML_ENCODING = Pattern.compile("ENCODING:\\s*([\\w-]+)");
+    private static final Pattern XML_ENCODING = Pattern.compile("encoding=[\"']([\\w.-]+)[\"']");
+
+    private final BankType bank;
+
+    public OfxFileProcessor(BankType bank) {
+        this.bank = bank;
+    }
+
+    @Override
+    public Extract processFile(MultipartFile file, Integer month, Integer year) {
+        log.info("Starting to process {} OFX file: {}", bank, file.getOriginalFilename());
+
+        validateFile(file);
+
+        try {
+            Extract extract = Extract.open(bank, month, year);
+            streamTransactions(file, extract::addTransaction);
+
+            log.info("Successfully processed {} transactions from {} OFX", extract.getTransactionCount(), bank);
+            return extract;
+
+        } catch (Exception e) {
+            log.error("Error processing {} OFX file", bank, e);
+            throw new RuntimeException("Failed to process OFX: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void streamTransactions(MultipartFile file, Consumer<Transaction> consumer) {
+        try (InputStream in = new BufferedInputStream(file.getInputStream())) {
+            Charset charset = detectCharset(in);
+            OfxPullParser parser = new OfxPullParser(new InputStreamReader(in, charset));
+
+            Map<String, String> fields = new HashMap<>();
+            boolean inTransaction = false;
+            String field = null;
+            int count = 0;
+
+            for (OfxPullParser.Event event = parser.next(); event != OfxPullParser.Event.END_DOCUMENT; event = parser.next()) {
+                switch (event) {
+                    case START_TAG -> {
+                        if ("STMTTRN".equals(parser.getName())) {
+                            inTransaction = true;
+                            fields.clear();
+                        }
+                        field = inTransaction ? parser.getName() : null;
+                    }
+                    case TEXT -> {
+                        if (field != null) {
+                            fields.put(field, parser.getText());
+                            field = null;
+                        }
+                    }
+                    case END_TAG -> {
+                        field = null;
+                        if (inTransaction && "STMTTRN".equals(parser.getName())) {
+                            inTransaction = false;
+                            count++;
+                            emit(fields, count, consumer);
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+
+            log.debug("Read {} OFX transactions from {}", count, file.getOriginalFilename());
+
+        } catch (IOException e) {
+            throw new FileProcessingException("Failed to read OFX: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void validateFile(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+
+        String filename = file.getOriginalFilename();
+        if (filename == null || !(filename.toLowerCase().endsWith(".ofx") || filename.toLowerCase().endsWith(".xml"))) {
+            throw new IllegalArgumentException("File must be an OFX file");
+        }
+    }
+
+    private void emit(Map<String, String> fields, int index, Consumer<Transaction> consumer) {
+        Transaction transaction;
+        try {
+            transaction = toTransaction(fields);
+        } catch (Exception e) {
+            log.warn("Failed to parse OFX transaction #{} ({}): {}", index, fields.get("FITID"), e.getMessage());
+            // Continue processing other transactions
+            return;
+        }
+
+        consumer.accept(transaction);
+    }
+
+    private static Transaction toTransaction(Map<String, String> fields) {
+        String name = fields.get("NAME");
+        String memo = fields.get("MEMO");
+        String title = name != null && !name.isBlank() ? name : memo;
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("Missing NAME/MEMO");
+        }
+
+        LocalDate date = parseDate(fields.get("DTPOSTED"));
+
+        // OFX amounts are negative for debits; transactions use positive for expenses and negative for income
+        String amountValue = fields.get("TRNAMT");
+        if (amountValue == null) {
+            throw new IllegalArgumentException("Missing TRNAMT");
+        }
+        BigDecimal amount = new BigDecimal(amountValue.replace(',', '.')).negate();
+
+        String description = memo != null && !memo.isBlank() ? memo : title;
+        return Transaction.create(date, title, amount, description,
+                transactionType(fields.get("TRNTYPE"), amount));
+    }
+
+    /**
+     * The OFX transaction type, then the sign of the amount; keywords in the title are applied on categorization
+     */
+    private static TransactionType transactionType(String trnType, BigDecimal amount) {
+        TransactionType fromAmount = TransactionTypes.fromAmount(amount);
+        if (trnType == null) {
+            return fromAmount;
+        }
+        return switch (trnType.toUpperCase(Locale.ROOT)) {
+            case "PAYMENT", "DIRECTDEBIT", "REPEATPMT" -> TransactionType.PAYMENT;
+            case "XFER" -> TransactionType.TRANSFER;
+            default -> fromAmount;
+        };
+    }
+
+    /**
+     * DTPOSTED is YYYYMMDD optionally followed by time and timezone, e.g. 20250703120000[-3:BRT]
+     */
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.length() < 8) {
+            throw new IllegalArgumentException("Invalid DTPOSTED: " + value);
+        }
+        try {
+            return LocalDate.of(Integer.parseInt(value.substring(0, 4)),
+                    Integer.parseInt(value.substring(4, 6)),
+                    Integer.parseInt(value.substring(6, 8)));
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid DTPOSTED: " + value);
+        }
+    }
+
+    /**
+     * Read the charset from the SGML header or the XML declaration without consuming the stream.
+     * SGML exports from Brazilian banks are usually Windows-1252 even when they declare USASCII.
+     */
+    private static Charset detectCharset(InputStream in) throws IOException {
+        in.mark(HEADER_SNIFF_SIZE);
+        byte[] header = in.readNBytes(HEADER_SNIFF_SIZE);
+        in.reset();
+
+        String headerText = new String(header, StandardCharsets.ISO_8859_1);
+
+        Matcher xmlEncoding = XML_ENCODING.matcher(headerText);
+        if (headerText.startsWith("<?xml") && xmlEncoding.find()) {
+            return charset(xmlEncoding.group(1), StandardCharsets.UTF_8);
+        }
+
+        if (headerText.contains("OFXHEADER:")) {
+            Matcher encoding = SGML_ENCODING.matcher(headerText);
+            if (encoding.find() && encoding.group(1).equalsIgnoreCase("UTF-8")) {
+                return StandardCharsets.UTF_8;
+            }
+            Matcher sgmlCharset = SGML_CHARSET.matcher(headerText);
+            if (sgmlCharset.find() && sgmlCharset.group(1).contains("8859")) {
+                return StandardCharsets.ISO_8859_1;
+            }
+            return Charset.forName("windows-1252");
+        }
+
+        return StandardCharsets.UTF_8;
+    }
+
+    private static Charset charset(String name, Charset fallback) {
+        try {
+            return Charset.forName(name);
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
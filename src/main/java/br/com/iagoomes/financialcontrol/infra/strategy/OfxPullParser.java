@@ -0,0 +1,193 @@
+package br.com.iagoomes.financialcontrol.infra.strategy;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * Minimal pull tokenizer for OFX, covering both OFX 1.x (SGML, leaf elements without closing tags)
+ * and OFX 2.x (XML). Only tags and text are reported; headers, processing instructions, comments
+ * and attributes are skipped. Nothing is kept beyond the current token.
+ */
+final class OfxPullParser {
+
+    enum Event { START_TAG, END_TAG, TEXT, END_DOCUMENT }
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder token = new StringBuilder();
+    private int position;
+    private int limit;
+
+    private String name;
+    private String text;
+
+    OfxPullParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Advance to the next tag or non-blank text
+     */
+    Event next() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c < 0) {
+                return Event.END_DOCUMENT;
+            }
+
+            if (c != '<') {
+                readText();
+                if (!text.isEmpty()) {
+                    return Event.TEXT;
+                }
+                continue;
+            }
+
+            position++; // consume '<'
+            int first = peek();
+            if (first == '?' || first == '!') {
+                skipPast(first == '!' && startsWith("!--") ? "-->" : ">");
+                continue;
+            }
+
+            boolean end = first == '/';
+            if (end) {
+                position++;
+            }
+            readTagName();
+            return end ? Event.END_TAG : Event.START_TAG;
+        }
+    }
+
+    /**
+     * Upper-cased name of the current tag
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Trimmed text with entities decoded
+     */
+    String getText() {
+        return text;
+    }
+
+    private void readText() throws IOException {
+        token.setLength(0);
+        int c;
+        while ((c = peek()) >= 0 && c != '<') {
+            position++;
+            if (c == '&') {
+                token.append(readEntity());
+            } else {
+                token.append((char) c);
+            }
+        }
+        text = token.toString().trim();
+    }
+
+    private void readTagName() throws IOException {
+        token.setLength(0);
+        int c;
+        while ((c = peek()) >= 0 && c != '>' && c != '/' && !Character.isWhitespace(c)) {
+            position++;
+            token.append((char) c);
+        }
+        name = token.toString().toUpperCase(Locale.ROOT);
+
+        // Attributes and the self-closing slash are irrelevant for OFX
+        skipPast(">");
+    }
+
+    private String readEntity() throws IOException {
+        StringBuilder entity = new StringBuilder();
+        int c;
+        while ((c = peek()) >= 0 && c != ';' && c != '<' && entity.length() < 10) {
+            position++;
+            entity.append((char) c);
+        }
+        if (c != ';') {
+            return "&" + entity; // Not an entity, keep as written
+        }
+        position++;
+
+        String value = entity.toString();
+        return switch (value) {
+            case "amp" -> "&";
+            case "lt" -> "<";
+            case "gt" -> ">";
+            case "quot" -> "\"";
+            case "apos" -> "'";
+            default -> decodeNumericEntity(value);
+        };
+    }
+
+    private static String decodeNumericEntity(String value) {
+        try {
+            if (value.startsWith("#x") || value.startsWith("#X")) {
+                return Character.toString(Integer.parseInt(value.substring(2), 16));
+            }
+            if (value.startsWith("#")) {
+                return Character.toString(Integer.parseInt(value.substring(1)));
+            }
+        } catch (IllegalArgumentException e) {
+            // Fall through and keep the entity as written
+        }
+        return "&" + value + ";";
+    }
+
+    private boolean startsWith(String prefix) throws IOException {
+        for (int i = 0; i < prefix.length(); i++) {
+            if (peek(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void skipPast(String terminator) throws IOException {
+        int matched = 0;
+        int c;
+        while ((c = peek()) >= 0) {
+            position++;
+            matched = c == terminator.charAt(matched) ? matched + 1 : (c == terminator.charAt(0) ? 1 : 0);
+            if (matched == terminator.length()) {
+                return;
+            }
+        }
+    }
+
+    private int peek() throws IOException {
+        return peek(0);
+    }
+
+    private int peek(int offset) throws IOException {
+        if (position + offset >= limit && !fill(offset + 1)) {
+            return -1;
+        }
+        return buffer[position + offset];
+    }
+
+    /**
+     * Make at least {@code needed} characters available from the current position
+     */
+    private boolean fill(int needed) throws IOException {
+        int remaining = limit - position;
+        System.arraycopy(buffer, position, buffer, 0, remaining);
+        position = 0;
+        limit = remaining;
+
+        while (limit < needed) {
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                return false;
+            }
+            limit += read;
+        }
+        return true;
+    }
+}
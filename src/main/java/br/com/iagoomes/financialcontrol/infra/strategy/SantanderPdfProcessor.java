@@ -0,0 +1,199 @@
+package br.com.iagoomes.financialcontrol.infra.strategy;
+
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.infra.exception.FileProcessingException;
+import br.com.iagoomes.financialcontrol.infra.file.SpooledMultipartFile;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service for processing Santander account statements in PDF.
+ * Pages are split into contiguous ranges whose text is extracted in parallel, each worker loading its own
+ * PDDocument since PDFBox documents are not thread-safe. Transactions are emitted in page order.
+ */
+@Slf4j
+@Service
+public class SantanderPdfProcessor implements FileProcessorStrategy {
+
+    /**
+     * Statement line: date, description, amount and optionally the running balance, e.g.
+     * "03/07/2025 COMPRA CARTAO DEB PADARIA -45,50 2.300,17"
+     */
+    private static final Pattern TRANSACTION_LINE = Pattern.compile(
+            "^(\\d{2}/\\d{2}/\\d{4})\\s+(.+?)\\s+(-?\\d{1,3}(?:\\.\\d{3})*,\\d{2}-?)(?:\\s+-?\\d{1,3}(?:\\.\\d{3})*,\\d{2}-?)?$");
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final int MIN_PAGES_PER_TASK = 4;
+
+    private final ForkJoinPool fileParsePool;
+
+    public SantanderPdfProcessor(@Qualifier("fileParsePool") ForkJoinPool fileParsePool) {
+        this.fileParsePool = fileParsePool;
+    }
+
+    @Override
+    public Extract processFile(MultipartFile file, Integer month, Integer year) {
+        log.info("Starting to process Santander PDF file: {}", file.getOriginalFilename());
+
+        validateFile(file);
+
+        try {
+            Extract extract = Extract.open(BankType.SANTANDER, month, year);
+            streamTransactions(file, extract::addTransaction);
+
+            log.info("Successfully processed {} transactions from Santander PDF", extract.getTransactionCount());
+            return extract;
+
+        } catch (Exception e) {
+            log.error("Error processing Santander PDF file", e);
+            throw new RuntimeException("Failed to process Santander PDF: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void streamTransactions(MultipartFile file, Consumer<Transaction> consumer) {
+        try {
+            DocumentSource source = documentSource(file);
+
+            int pageCount;
+            try (PDDocument document = source.load()) {
+                pageCount = document.getNumberOfPages();
+            }
+
+            int tasks = Math.max(1, Math.min(fileParsePool.getParallelism(),
+                    (pageCount + MIN_PAGES_PER_TASK - 1) / MIN_PAGES_PER_TASK));
+            int pagesPerTask = (pageCount + tasks - 1) / tasks;
+
+            List<ForkJoinTask<List<Transaction>>> ranges = new ArrayList<>();
+            for (int first = 1; first <= pageCount; first += pagesPerTask) {
+                int startPage = first;
+                int endPage = Math.min(pageCount, first + pagesPerTask - 1);
+                ranges.add(fileParsePool.submit(() -> parsePages(source, startPage, endPage)));
+            }
+
+            for (ForkJoinTask<List<Transaction>> range : ranges) {
+                range.join().forEach(consumer);
+            }
+
+            log.debug("Extracted {} pages of {} in {} ranges", pageCount, file.getOriginalFilename(), ranges.size());
+
+        } catch (IOException e) {
+            throw new FileProcessingException("Failed to read Santander PDF: " + e.getMessage(), e);
+        } catch (UncheckedIOException e) {
+            throw new FileProcessingException("Failed to read Santander PDF: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public void validateFile(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+
+        String filename = file.getOriginalFilename();
+        if (filename == null || !filename.toLowerCase().endsWith(".pdf")) {
+            throw new IllegalArgumentException("File must be a PDF file");
+        }
+
+        if (file.getSize() > 10 * 1024 * 1024) {
+            throw new IllegalArgumentException("File size must be less than 10MB");
+        }
+    }
+
+    private List<Transaction> parsePages(DocumentSource source, int startPage, int endPage) {
+        String text;
+        try (PDDocument document = source.load()) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setSortByPosition(true);
+            stripper.setStartPage(startPage);
+            stripper.setEndPage(endPage);
+            text = stripper.getText(document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (String line : text.split("\\R")) {
+            Matcher matcher = TRANSACTION_LINE.matcher(line.trim());
+            if (!matcher.matches()) {
+                continue;
+            }
+
+            try {
+                Transaction transaction = parseTransaction(matcher);
+                if (transaction != null) {
+                    transactions.add(transaction);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to parse transaction on pages {}-{}: {}", startPage, endPage, e.getMessage());
+                // Continue processing other transactions
+            }
+        }
+        return transactions;
+    }
+
+    private Transaction parseTransaction(Matcher matcher) {
+        String title = matcher.group(2).trim();
+        if (title.toUpperCase().startsWith("SALDO")) {
+            return null; // Balance lines are not transactions
+        }
+
+        LocalDate date;
+        try {
+            date = LocalDate.parse(matcher.group(1), DATE_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format: " + matcher.group(1));
+        }
+
+        // Statements show debits as negative; transactions use positive for expenses and negative for income
+        BigDecimal amount = parseAmount(matcher.group(3)).negate();
+
+        return Transaction.create(date, title, amount, title, TransactionTypes.fromAmount(amount));
+    }
+
+    /**
+     * Parse a Brazilian formatted amount such as "1.234,56", "-45,50" or "45,50-"
+     */
+    private static BigDecimal parseAmount(String value) {
+        boolean negative = value.startsWith("-") || value.endsWith("-");
+        String digits = value.replace("-", "").replace(".", "").replace(',', '.');
+        BigDecimal amount = new BigDecimal(digits);
+        return negative ? amount.negate() : amount;
+    }
+
+    private static DocumentSource documentSource(MultipartFile file) throws IOException {
+        if (file instanceof SpooledMultipartFile spooledFile) {
+            return () -> Loader.loadPDF(spooledFile.getPath().toFile());
+        }
+        byte[] bytes = file.getBytes();
+        return () -> Loader.loadPDF(bytes);
+    }
+
+    /**
+     * Opens a fresh document over the same PDF for each worker
+     */
+    @FunctionalInterface
+    private interface DocumentSource {
+        PDDocument load() throws IOException;
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.iagoomes.financialcontrol.infra.strategy;
+
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+
+import java.math.BigDecimal;
+
+/**
+ * Default transaction type shared by the file processors. Keyword types (PIX, payments, transfers) are not
+ * looked up here: the single classification pass of categorization refines the type with the configured rules.
+ */
+final class TransactionTypes {
+
+    private TransactionTypes() {
+    }
+
+    /**
+     * The type given by the sign of the amount: positive for expenses, negative for income
+     */
+    static TransactionType fromAmount(BigDecimal amount) {
+        return amount.compareTo(BigDecimal.ZERO) >= 0 ? TransactionType.DEBIT : TransactionType.CREDIT;
+    }
+}
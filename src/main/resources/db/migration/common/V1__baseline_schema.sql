@@ -0,0 +1,48 @@
+-- Schema as previously created by Hibernate (ddl-auto: update).
+-- Existing databases are baselined at this version and start from V2.
+
+CREATE TABLE categories (
+    id                 VARCHAR(255) NOT NULL,
+    name               VARCHAR(100) NOT NULL,
+    color              VARCHAR(7),
+    icon               VARCHAR(10),
+    parent_category_id VARCHAR(255),
+    created_at         TIMESTAMP(6) NOT NULL,
+    updated_at         TIMESTAMP(6),
+    CONSTRAINT pk_categories PRIMARY KEY (id),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+CREATE TABLE extracts (
+    id                VARCHAR(255) NOT NULL,
+    bank              ENUM ('BB', 'BRADESCO', 'CAIXA', 'ITAU', 'NUBANK', 'SANTANDER') NOT NULL,
+    reference_month   INTEGER NOT NULL,
+    reference_year    INTEGER NOT NULL,
+    total_income      NUMERIC(15, 2),
+    total_expenses    NUMERIC(15, 2),
+    transaction_count INTEGER,
+    processed_at      TIMESTAMP(6) NOT NULL,
+    content_hash      VARCHAR(64),
+    status            VARCHAR(16) DEFAULT 'COMPLETE' NOT NULL,
+    CONSTRAINT pk_extracts PRIMARY KEY (id),
+    CONSTRAINT uk_extracts_bank_period UNIQUE (bank, reference_month, reference_year)
+);
+
+CREATE TABLE transactions (
+    id                   VARCHAR(255) NOT NULL,
+    date                 TIMESTAMP(6) NOT NULL,
+    title                VARCHAR(500) NOT NULL,
+    amount               NUMERIC(15, 2) NOT NULL,
+    original_description VARCHAR(1000),
+    transaction_type     ENUM ('BOLETO', 'CREDIT', 'DEBIT', 'DOC', 'PAYMENT', 'PIX', 'TED', 'TRANSFER'),
+    extract_id           VARCHAR(255) NOT NULL,
+    category_id          VARCHAR(255),
+    confidence           NUMERIC(3, 2),
+    CONSTRAINT pk_transactions PRIMARY KEY (id)
+);
+
+-- Keyset pages of an extract's transactions, newest first; created before the foreign key so it also backs it
+CREATE INDEX idx_transactions_extract_date_id ON transactions (extract_id, date DESC, id DESC);
+
+ALTER TABLE transactions ADD CONSTRAINT fk_transactions_extract FOREIGN KEY (extract_id) REFERENCES extracts (id);
+ALTER TABLE transactions ADD CONSTRAINT fk_transactions_category FOREIGN KEY (category_id) REFERENCES categories (id);
@@ -0,0 +1,13 @@
+-- Completes the index set so that every repository query reads through an index (see RepositoryQueryPlanTest).
+-- Already covered: primary keys, uk_extracts_bank_period for period lookups, and the V1/V2 transaction indexes
+-- for extract pages, searches and the foreign keys.
+
+-- Extract listings and monthly reports: seek on the year (and month), read newest first
+CREATE INDEX idx_extracts_period ON extracts (reference_year DESC, reference_month DESC, id DESC);
+
+-- Manual categorizations (confidence 1.0) read to train the categorizers; few rows among the automatic ones
+CREATE INDEX idx_transactions_confidence ON transactions (confidence);
+
+-- Case-insensitive category name lookups, which cannot use the unique key on name
+ALTER TABLE categories ADD COLUMN name_key VARCHAR(100) GENERATED ALWAYS AS (LOWER(name));
+CREATE INDEX idx_categories_name_key ON categories (name_key);
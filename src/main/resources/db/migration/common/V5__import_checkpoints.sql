@@ -0,0 +1,9 @@
+-- Checkpoint and lease of an import in progress.
+-- source_position is where the parser stopped after the last committed batch (a byte offset or a record count,
+-- depending on the file format), so a resumed import seeks to it instead of parsing the file again.
+-- lease_owner and lease_expires_at tell which import holds an IMPORTING extract and until when; another import
+-- only resumes or discards the extract once the lease has expired. Both are cleared when the import completes.
+
+ALTER TABLE extracts ADD COLUMN source_position BIGINT;
+ALTER TABLE extracts ADD COLUMN lease_owner VARCHAR(36);
+ALTER TABLE extracts ADD COLUMN lease_expires_at TIMESTAMP(6);
@@ -0,0 +1,16 @@
+-- Indexes for GET /transactions, which filters by category, date range, type and amount range
+-- and pages newest first on (date, id).
+--
+-- H2 keeps a separate ascending index for each foreign key and, for an equality on the key, costs it the same
+-- as a composite index starting with that column. Leading the composite indexes with the key in descending
+-- order, matched by the ORDER BY of the queries, is what makes them win.
+
+-- Extract pages: recreated with extract_id descending
+DROP INDEX IF EXISTS idx_transactions_extract_date_id;
+CREATE INDEX idx_transactions_extract_date_id ON transactions (extract_id DESC, date DESC, id DESC);
+
+-- Category searches: seek on the category, then read the date range in page order
+CREATE INDEX idx_transactions_category_date_id ON transactions (category_id DESC, date DESC, id DESC);
+
+-- Searches without a category: read the date range in page order; type and amount are checked on the rows read
+CREATE INDEX idx_transactions_date_id ON transactions (date DESC, id DESC);
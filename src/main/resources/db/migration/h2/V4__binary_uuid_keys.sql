@@ -0,0 +1,20 @@
+-- Stores the ids and the columns referencing them as BINARY(16) instead of 36-character strings.
+-- Existing ids keep their value: each column is first read as a UUID, which parses the text, and then stored as
+-- its 16 bytes, most significant first, as Hibernate writes them. New ids are time-ordered UUIDv7.
+-- H2 rebuilds the indexes and keeps the foreign keys of each column it converts, whatever their names, which
+-- differ on databases created by Hibernate before V1.
+
+ALTER TABLE categories ALTER COLUMN id SET DATA TYPE UUID;
+ALTER TABLE categories ALTER COLUMN id SET DATA TYPE BINARY(16);
+ALTER TABLE categories ALTER COLUMN parent_category_id SET DATA TYPE UUID;
+ALTER TABLE categories ALTER COLUMN parent_category_id SET DATA TYPE BINARY(16);
+
+ALTER TABLE extracts ALTER COLUMN id SET DATA TYPE UUID;
+ALTER TABLE extracts ALTER COLUMN id SET DATA TYPE BINARY(16);
+
+ALTER TABLE transactions ALTER COLUMN id SET DATA TYPE UUID;
+ALTER TABLE transactions ALTER COLUMN id SET DATA TYPE BINARY(16);
+ALTER TABLE transactions ALTER COLUMN extract_id SET DATA TYPE UUID;
+ALTER TABLE transactions ALTER COLUMN extract_id SET DATA TYPE BINARY(16);
+ALTER TABLE transactions ALTER COLUMN category_id SET DATA TYPE UUID;
+ALTER TABLE transactions ALTER COLUMN category_id SET DATA TYPE BINARY(16);
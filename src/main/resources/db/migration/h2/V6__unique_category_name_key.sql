@@ -0,0 +1,24 @@
+-- Makes category names unique ignoring case, so that two concurrent inserts of "Mercado" and "MERCADO" cannot
+-- both succeed. The unique key on name only compares the exact text.
+-- Names already repeated with another case are merged first into the category with the smallest id, the oldest
+-- one for UUIDv7 ids: transactions and subcategories are moved to it and the other rows are deleted.
+
+UPDATE transactions
+SET category_id = (SELECT MIN(k.id)
+                   FROM categories c
+                   JOIN categories k ON k.name_key = c.name_key
+                   WHERE c.id = transactions.category_id)
+WHERE category_id IN (SELECT c.id FROM categories c JOIN categories k ON k.name_key = c.name_key AND k.id < c.id);
+
+UPDATE categories
+SET parent_category_id = (SELECT MIN(k.id)
+                          FROM categories c
+                          JOIN categories k ON k.name_key = c.name_key
+                          WHERE c.id = categories.parent_category_id)
+WHERE parent_category_id IN (SELECT c.id FROM categories c JOIN categories k ON k.name_key = c.name_key AND k.id < c.id);
+
+DELETE FROM categories
+WHERE EXISTS (SELECT 1 FROM categories k WHERE k.name_key = categories.name_key AND k.id < categories.id);
+
+DROP INDEX idx_categories_name_key;
+CREATE UNIQUE INDEX uk_categories_name_key ON categories (name_key);
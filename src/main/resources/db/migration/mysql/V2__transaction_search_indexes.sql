@@ -0,0 +1,24 @@
+-- Indexes for GET /transactions, which filters by category, date range, type and amount range
+-- and pages newest first on (date, id). Same indexes as the H2 version of this migration.
+--
+-- Extract pages: recreated with extract_id descending. The index comes from V1, so a database created by
+-- Hibernate and baselined at V1 does not have it; MySQL has no DROP INDEX IF EXISTS, so the statement is built
+-- from the catalog. Where it exists it backs the foreign key on extract_id, and MySQL only lets it be dropped in
+-- the statement that adds its replacement.
+SET @drop_extract_page_index = (
+    SELECT IF(COUNT(*) > 0, 'DROP INDEX idx_transactions_extract_date_id, ', '')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'transactions'
+      AND index_name = 'idx_transactions_extract_date_id');
+SET @extract_page_index = CONCAT('ALTER TABLE transactions ', @drop_extract_page_index,
+    'ADD INDEX idx_transactions_extract_date_id (extract_id DESC, date DESC, id DESC)');
+PREPARE extract_page_index FROM @extract_page_index;
+EXECUTE extract_page_index;
+DEALLOCATE PREPARE extract_page_index;
+
+-- Category searches: seek on the category, then read the date range in page order
+CREATE INDEX idx_transactions_category_date_id ON transactions (category_id DESC, date DESC, id DESC);
+
+-- Searches without a category: read the date range in page order; type and amount are checked on the rows read
+CREATE INDEX idx_transactions_date_id ON transactions (date DESC, id DESC);
@@ -0,0 +1,79 @@
+-- Stores the ids and the columns referencing them as BINARY(16) instead of 36-character strings.
+-- Existing ids keep their value: the hex digits of each UUID are stored as its 16 bytes, most significant first,
+-- as Hibernate writes them. New ids are time-ordered UUIDv7.
+-- MySQL cannot change a column from text to its bytes in place, so each column is copied into a BINARY(16)
+-- column that then takes its name. The foreign keys and the indexes holding these columns are dropped first
+-- and recreated at the end. MySQL commits each statement, so a failed run has to be repaired by hand.
+
+-- Foreign keys: their names differ on databases created by Hibernate before V1, so they are read from the catalog
+SET @drop_foreign_keys = COALESCE((
+    SELECT CONCAT('ALTER TABLE transactions ',
+                  GROUP_CONCAT(CONCAT('DROP FOREIGN KEY `', constraint_name, '`') SEPARATOR ', '))
+    FROM information_schema.referential_constraints
+    WHERE constraint_schema = DATABASE()
+      AND table_name = 'transactions'), 'DO 0');
+PREPARE drop_foreign_keys FROM @drop_foreign_keys;
+EXECUTE drop_foreign_keys;
+DEALLOCATE PREPARE drop_foreign_keys;
+
+-- Indexes from V2 and V3 holding a converted column
+ALTER TABLE transactions
+    DROP INDEX idx_transactions_extract_date_id,
+    DROP INDEX idx_transactions_category_date_id,
+    DROP INDEX idx_transactions_date_id;
+ALTER TABLE extracts DROP INDEX idx_extracts_period;
+
+-- Categories
+ALTER TABLE categories
+    ADD COLUMN id_bin BINARY(16),
+    ADD COLUMN parent_category_id_bin BINARY(16);
+UPDATE categories
+SET id_bin                 = UNHEX(REPLACE(id, '-', '')),
+    parent_category_id_bin = UNHEX(REPLACE(parent_category_id, '-', ''));
+ALTER TABLE categories
+    DROP PRIMARY KEY,
+    DROP COLUMN id,
+    DROP COLUMN parent_category_id;
+ALTER TABLE categories
+    CHANGE COLUMN id_bin id BINARY(16) NOT NULL FIRST,
+    CHANGE COLUMN parent_category_id_bin parent_category_id BINARY(16) AFTER icon,
+    ADD PRIMARY KEY (id);
+
+-- Extracts
+ALTER TABLE extracts ADD COLUMN id_bin BINARY(16);
+UPDATE extracts SET id_bin = UNHEX(REPLACE(id, '-', ''));
+ALTER TABLE extracts
+    DROP PRIMARY KEY,
+    DROP COLUMN id;
+ALTER TABLE extracts
+    CHANGE COLUMN id_bin id BINARY(16) NOT NULL FIRST,
+    ADD PRIMARY KEY (id);
+
+-- Transactions
+ALTER TABLE transactions
+    ADD COLUMN id_bin BINARY(16),
+    ADD COLUMN extract_id_bin BINARY(16),
+    ADD COLUMN category_id_bin BINARY(16);
+UPDATE transactions
+SET id_bin          = UNHEX(REPLACE(id, '-', '')),
+    extract_id_bin  = UNHEX(REPLACE(extract_id, '-', '')),
+    category_id_bin = UNHEX(REPLACE(category_id, '-', ''));
+ALTER TABLE transactions
+    DROP PRIMARY KEY,
+    DROP COLUMN id,
+    DROP COLUMN extract_id,
+    DROP COLUMN category_id;
+ALTER TABLE transactions
+    CHANGE COLUMN id_bin id BINARY(16) NOT NULL FIRST,
+    CHANGE COLUMN extract_id_bin extract_id BINARY(16) NOT NULL AFTER transaction_type,
+    CHANGE COLUMN category_id_bin category_id BINARY(16) AFTER extract_id,
+    ADD PRIMARY KEY (id);
+
+-- Indexes as in V2 and V3, created before the foreign keys so that they also back them
+CREATE INDEX idx_extracts_period ON extracts (reference_year DESC, reference_month DESC, id DESC);
+CREATE INDEX idx_transactions_extract_date_id ON transactions (extract_id DESC, date DESC, id DESC);
+CREATE INDEX idx_transactions_category_date_id ON transactions (category_id DESC, date DESC, id DESC);
+CREATE INDEX idx_transactions_date_id ON transactions (date DESC, id DESC);
+
+ALTER TABLE transactions ADD CONSTRAINT fk_transactions_extract FOREIGN KEY (extract_id) REFERENCES extracts (id);
+ALTER TABLE transactions ADD CONSTRAINT fk_transactions_category FOREIGN KEY (category_id) REFERENCES categories (id);
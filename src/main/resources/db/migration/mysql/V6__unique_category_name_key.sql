@@ -0,0 +1,30 @@
+-- Makes category names unique ignoring case, so that two concurrent inserts of "Mercado" and "MERCADO" cannot
+-- both succeed. The unique key on name only compares the exact text.
+-- Names already repeated with another case are merged first into the category with the smallest id, the oldest
+-- one for UUIDv7 ids: transactions and subcategories are moved to it and the other rows are deleted.
+-- MySQL does not let a statement read the table it changes in a subquery, so the ids to keep come from a
+-- grouped derived table, which is materialized before the change.
+
+UPDATE transactions t
+JOIN categories c ON c.id = t.category_id
+JOIN (SELECT name_key, MIN(id) AS id FROM categories GROUP BY name_key HAVING COUNT(*) > 1) k
+    ON k.name_key = c.name_key
+SET t.category_id = k.id
+WHERE t.category_id <> k.id;
+
+UPDATE categories c
+JOIN categories p ON p.id = c.parent_category_id
+JOIN (SELECT name_key, MIN(id) AS id FROM categories GROUP BY name_key HAVING COUNT(*) > 1) k
+    ON k.name_key = p.name_key
+SET c.parent_category_id = k.id
+WHERE c.parent_category_id <> k.id;
+
+DELETE c
+FROM categories c
+JOIN (SELECT name_key, MIN(id) AS id FROM categories GROUP BY name_key HAVING COUNT(*) > 1) k
+    ON k.name_key = c.name_key
+WHERE c.id <> k.id;
+
+ALTER TABLE categories
+    DROP INDEX idx_categories_name_key,
+    ADD UNIQUE INDEX uk_categories_name_key (name_key);
@@ -0,0 +1,186 @@
+package br.com.iagoomes.financialcontrol.app.resource;
+
+import br.com.iagoomes.financialcontrol.app.mapper.AppMapper;
+import br.com.iagoomes.financialcontrol.app.service.ExtractService;
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.usecase.ProcessExtractBatchUseCase;
+import br.com.iagoomes.financialcontrol.domain.usecase.ProcessExtractFileUseCase;
+import br.com.iagoomes.financialcontrol.infra.file.UploadSpooler;
+import br.com.iagoomes.financialcontrol.model.ExtractBatchItemResult;
+import br.com.iagoomes.financialcontrol.model.ExtractBatchResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste do upload em lote: arquivos avulsos e entradas de um ZIP, do endpoint até o processamento de cada arquivo
+ */
+@ExtendWith(MockitoExtension.class)
+class ExtractBatchResourceTest {
+
+    private static final String CSV = "date,title,amount\n2025-07-01,Mercado,10.00\n";
+
+    @Mock
+    private ProcessExtractFileUseCase processExtractFileUseCase;
+
+    @TempDir
+    private Path uploadDirectory;
+
+    @Test
+    void shouldProcessFilesAndArchiveEntries() throws Exception {
+        when(processExtractFileUseCase.execute(any(MultipartFile.class), eq(BankType.NUBANK), eq(7), eq(2025)))
+                .thenReturn(extract(3));
+        when(processExtractFileUseCase.execute(any(MultipartFile.class), eq(BankType.NUBANK), eq(8), eq(2025)))
+                .thenReturn(extract(5));
+
+        MockMultipartFile archive = zip("nubank-2025-08.csv", "sem-padrao.csv");
+
+        ResponseEntity<ExtractBatchResult> response = resource(new SyncTaskExecutor(), DataSize.ofKilobytes(1))
+                .uploadExtractBatch(List.of(csvFile("julho.csv")), "NUBANK", "7", "2025", archive).get();
+
+        assertEquals(200, response.getStatusCode().value());
+        ExtractBatchResult result = response.getBody();
+        assertEquals(2, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+
+        // Resultados na ordem dos arquivos: avulsos primeiro, depois as entradas do ZIP
+        List<ExtractBatchItemResult> items = result.getResults();
+        assertEquals(List.of("julho.csv", "nubank-2025-08.csv", "sem-padrao.csv"),
+                items.stream().map(ExtractBatchItemResult::getFileName).toList());
+        assertEquals(3, items.get(0).getTransactionCount());
+        assertEquals(8, items.get(1).getMonth());
+        assertEquals(5, items.get(1).getTransactionCount());
+        assertEquals(ExtractBatchItemResult.StatusEnum.FAILED, items.get(2).getStatus());
+
+        // As entradas do ZIP são apagadas ao fim da requisição
+        assertEquals(0, spooledFiles());
+    }
+
+    @Test
+    void shouldRejectMismatchedParameterLists() throws Exception {
+        ResponseEntity<ExtractBatchResult> response = resource(new SyncTaskExecutor(), DataSize.ofKilobytes(1))
+                .uploadExtractBatch(List.of(csvFile("julho.csv"), csvFile("agosto.csv")), "NUBANK", "7,8", "2025",
+                        null).get();
+
+        assertEquals(400, response.getStatusCode().value());
+    }
+
+    @Test
+    void shouldRejectArchiveBeyondSizeLimit() throws Exception {
+        ResponseEntity<ExtractBatchResult> response = resource(new SyncTaskExecutor(), DataSize.ofBytes(10))
+                .uploadExtractBatch(null, null, null, null, zip("nubank-2025-08.csv")).get();
+
+        assertEquals(400, response.getStatusCode().value());
+        assertEquals(0, spooledFiles());
+    }
+
+    @Test
+    void shouldAnswerServiceUnavailableWhenBatchExecutorIsFull() throws Exception {
+        TaskExecutor fullExecutor = task -> {
+            throw new RejectedExecutionException("fila cheia");
+        };
+
+        ResponseEntity<ExtractBatchResult> response = resource(fullExecutor, DataSize.ofKilobytes(1))
+                .uploadExtractBatch(null, null, null, null, zip("nubank-2025-08.csv")).get();
+
+        assertEquals(503, response.getStatusCode().value());
+        assertEquals(0, spooledFiles());
+    }
+
+    @Test
+    void shouldReportFilesLeftOutWhenBatchExecutorFillsUpMidway() throws Exception {
+        when(processExtractFileUseCase.execute(any(MultipartFile.class), eq(BankType.NUBANK), eq(7), eq(2025)))
+                .thenReturn(extract(3));
+        // Aceita só a primeira tarefa, como uma fila que enche no meio do lote
+        AtomicInteger accepted = new AtomicInteger();
+        TaskExecutor fillingExecutor = task -> {
+            if (accepted.getAndIncrement() > 0) {
+                throw new RejectedExecutionException("fila cheia");
+            }
+            task.run();
+        };
+
+        ResponseEntity<ExtractBatchResult> response = resource(fillingExecutor, DataSize.ofKilobytes(1))
+                .uploadExtractBatch(List.of(csvFile("julho.csv"), csvFile("agosto.csv"), csvFile("setembro.csv")),
+                        "NUBANK,NUBANK,NUBANK", "7,8,9", "2025,2025,2025", null).get();
+
+        assertEquals(200, response.getStatusCode().value());
+        ExtractBatchResult result = response.getBody();
+        assertEquals(1, result.getSucceeded());
+        assertEquals(0, result.getFailed());
+        assertEquals(2, result.getRejected());
+
+        List<ExtractBatchItemResult> items = result.getResults();
+        assertEquals(ExtractBatchItemResult.StatusEnum.SUCCESS, items.get(0).getStatus());
+        assertEquals(ExtractBatchItemResult.StatusEnum.REJECTED, items.get(1).getStatus());
+        assertEquals("agosto.csv", items.get(1).getFileName());
+        assertEquals(ExtractBatchItemResult.StatusEnum.REJECTED, items.get(2).getStatus());
+        verify(processExtractFileUseCase, times(1)).execute(any(MultipartFile.class), any(), any(), any());
+    }
+
+    private ExtractionResource resource(TaskExecutor batchExecutor, DataSize maxEntrySize) {
+        UploadSpooler spooler = new UploadSpooler(uploadDirectory.toString(), 500, maxEntrySize,
+                DataSize.ofMegabytes(1));
+        ProcessExtractBatchUseCase batchUseCase = new ProcessExtractBatchUseCase(processExtractFileUseCase, batchExecutor);
+        ExtractService extractService = new ExtractService(processExtractFileUseCase, null, null, null,
+                batchUseCase, spooler, new AppMapper());
+        return new ExtractionResource(extractService);
+    }
+
+    private static Extract extract(int transactionCount) {
+        Extract extract = Extract.open(BankType.NUBANK, 7, 2025);
+        extract.setId(UUID.randomUUID().toString());
+        extract.setTransactionCount(transactionCount);
+        return extract;
+    }
+
+    private static MockMultipartFile csvFile(String name) {
+        return new MockMultipartFile("files", name, "text/csv", CSV.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockMultipartFile zip(String... entryNames) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (String entryName : entryNames) {
+                zip.putNextEntry(new ZipEntry(entryName));
+                zip.write(CSV.getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new MockMultipartFile("archive", "extratos.zip", "application/zip", bytes.toByteArray());
+    }
+
+    private long spooledFiles() throws IOException {
+        try (var files = Files.list(uploadDirectory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.iagoomes.financialcontrol.app.resource;
+
+import br.com.iagoomes.financialcontrol.app.service.ExtractService;
+import br.com.iagoomes.financialcontrol.model.ExtractImportJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste dos endpoints de importação assíncrona de extratos: submissão do job e consulta do seu andamento
+ */
+@ExtendWith(MockitoExtension.class)
+class ExtractImportJobResourceTest {
+
+    @Mock
+    private ExtractService extractService;
+
+    private ExtractionResource extractionResource;
+
+    private final MultipartFile csvFile = new MockMultipartFile("file", "nubank-2025-07.csv", "text/csv",
+            "date,title,amount\n".getBytes());
+
+    @BeforeEach
+    void setUp() {
+        extractionResource = new ExtractionResource(extractService);
+
+        // O Location da resposta é montado a partir da requisição corrente
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/extracts/jobs");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldAcceptJobAndPointToItsStatus() throws Exception {
+        ExtractImportJob job = queuedJob();
+        when(extractService.submitExtractFile(any(MultipartFile.class), eq("NUBANK"), eq(7), eq(2025), eq("key-1")))
+                .thenReturn(job);
+
+        ResponseEntity<ExtractImportJob> response =
+                extractionResource.submitExtractImportJob("key-1", csvFile, "NUBANK", 7, 2025).get();
+
+        assertEquals(202, response.getStatusCode().value());
+        assertSame(job, response.getBody());
+        assertEquals(URI.create("http://localhost/api/v1/extracts/jobs/" + job.getId()),
+                response.getHeaders().getLocation());
+    }
+
+    @Test
+    void shouldRejectInvalidJobRequest() throws Exception {
+        when(extractService.submitExtractFile(any(MultipartFile.class), eq("BANCO"), eq(7), eq(2025), any()))
+                .thenThrow(new IllegalArgumentException("Unsupported bank: BANCO"));
+
+        ResponseEntity<ExtractImportJob> response =
+                extractionResource.submitExtractImportJob(null, csvFile, "BANCO", 7, 2025).get();
+
+        assertEquals(400, response.getStatusCode().value());
+    }
+
+    @Test
+    void shouldAnswerServiceUnavailableWhenImportQueueIsFull() throws Exception {
+        when(extractService.submitExtractFile(any(MultipartFile.class), eq("NUBANK"), eq(7), eq(2025), any()))
+                .thenThrow(new RejectedExecutionException("fila cheia"));
+
+        ResponseEntity<ExtractImportJob> response =
+                extractionResource.submitExtractImportJob(null, csvFile, "NUBANK", 7, 2025).get();
+
+        assertEquals(503, response.getStatusCode().value());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void shouldReturnJobStatus() throws Exception {
+        ExtractImportJob job = queuedJob();
+        when(extractService.getImportJob(job.getId())).thenReturn(Optional.of(job));
+
+        ResponseEntity<ExtractImportJob> response = extractionResource.getExtractImportJob(job.getId()).get();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(ExtractImportJob.StatusEnum.QUEUED, response.getBody().getStatus());
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownJob() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(extractService.getImportJob(jobId)).thenReturn(Optional.empty());
+
+        ResponseEntity<ExtractImportJob> response = extractionResource.getExtractImportJob(jobId).get();
+
+        assertEquals(404, response.getStatusCode().value());
+        assertNull(response.getBody());
+    }
+
+    private static ExtractImportJob queuedJob() {
+        ExtractImportJob job = new ExtractImportJob();
+        job.setId(UUID.randomUUID());
+        job.setStatus(ExtractImportJob.StatusEnum.QUEUED);
+        job.setBank(ExtractImportJob.BankEnum.NUBANK);
+        job.setMonth(7);
+        job.setYear(2025);
+        return job;
+    }
+}
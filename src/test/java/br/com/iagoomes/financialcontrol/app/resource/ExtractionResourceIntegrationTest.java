@@ -25,6 +25,7 @@ import java.util.concurrent.CompletableFuture;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -57,12 +58,12 @@ class ExtractionResourceIntegrationTest {
 
         // Mock da resposta esperada baseada no CSV
         ExtractAnalysisResponse expectedResponse = createExpectedResponseFromCsv();
-        when(extractService.processExtractFile(any(MultipartFile.class), eq("NUBANK"), eq(7), eq(2025)))
+        when(extractService.processExtractFile(any(MultipartFile.class), eq("NUBANK"), eq(7), eq(2025), isNull()))
                 .thenReturn(expectedResponse);
 
         // Act
         CompletableFuture<org.springframework.http.ResponseEntity<ExtractAnalysisResponse>> future =
-                extractionResource.uploadExtract(csvFile, "NUBANK", 7, 2025);
+                extractionResource.uploadExtract(null, csvFile, "NUBANK", 7, 2025);
 
         // Assert
         var responseEntity = future.get();
@@ -269,10 +270,10 @@ class ExtractionResourceIntegrationTest {
         MultipartFile csvFile = new MockMultipartFile("file", "test.csv", "text/csv", csvBytes);
 
         ExtractAnalysisResponse mockResponse = createExpectedResponseFromCsv();
-        when(extractService.processExtractFile(any(), eq("NUBANK"), eq(7), eq(2025)))
+        when(extractService.processExtractFile(any(), eq("NUBANK"), eq(7), eq(2025), isNull()))
                 .thenReturn(mockResponse);
 
-        var future = extractionResource.uploadExtract(csvFile, "NUBANK", 7, 2025);
+        var future = extractionResource.uploadExtract(null, csvFile, "NUBANK", 7, 2025);
         var response = future.get().getBody();
 
         String json = objectMapper.writeValueAsString(response);
@@ -7,33 +7,53 @@ import br.com.iagoomes.financialcontrol.domain.ExtractProvider;
 import br.com.iagoomes.financialcontrol.domain.entity.BankType;
 import br.com.iagoomes.financialcontrol.domain.entity.Category;
 import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
 import br.com.iagoomes.financialcontrol.domain.usecase.CategorizeTransactionUseCase;
 import br.com.iagoomes.financialcontrol.domain.usecase.ProcessExtractFileUseCase;
+import br.com.iagoomes.financialcontrol.infra.categorization.MerchantCategoryMemo;
+import br.com.iagoomes.financialcontrol.infra.categorization.NaiveBayesCategorizer;
+import br.com.iagoomes.financialcontrol.infra.categorization.TransactionClassifier;
+import br.com.iagoomes.financialcontrol.infra.file.UploadSpooler;
+import br.com.iagoomes.financialcontrol.infra.job.ImportDeduplicator;
+import br.com.iagoomes.financialcontrol.infra.job.ImportPipelineMetrics;
 import br.com.iagoomes.financialcontrol.infra.strategy.FileProcessorStrategy;
 import br.com.iagoomes.financialcontrol.model.ExtractAnalysisResponse;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -55,19 +75,28 @@ class ExtractionResourceRealFlowTest {
     @Mock
     private FileProcessorStrategy nubankProcessor;
 
+    @TempDir
+    private Path uploadDirectory;
+
     private ExtractionResource extractionResource;
     private ObjectMapper objectMapper;
+    private final List<Transaction> savedTransactions = new java.util.ArrayList<>();
 
     @BeforeEach
     void setUp() {
         // Setup real instances with mocked dependencies
-        CategorizeTransactionUseCase categorizeTransactionUseCase = new CategorizeTransactionUseCase(categoryProvider);
+        CategorizeTransactionUseCase categorizeTransactionUseCase = new CategorizeTransactionUseCase(
+                categoryProvider, TransactionClassifier.builtIn(), new MerchantCategoryMemo(null, 10000),
+                new NaiveBayesCategorizer(null, 16384), 0.7);
         ProcessExtractFileUseCase processExtractFileUseCase = new ProcessExtractFileUseCase(
-                fileProcessors, extractProvider, categorizeTransactionUseCase);
+                fileProcessors, extractProvider, categorizeTransactionUseCase,
+                new ImportDeduplicator(Duration.ofHours(24), 10000), new SimpleAsyncTaskExecutor("import-pipeline-"),
+                new ImportPipelineMetrics(new SimpleMeterRegistry()), 1000, 500, Duration.ofMinutes(2));
 
         AppMapper appMapper = new AppMapper();
-        ExtractService extractService = new ExtractService(
-                processExtractFileUseCase, null, null, appMapper);
+        ExtractService extractService = new ExtractService(processExtractFileUseCase, null, null, null, null,
+                new UploadSpooler(uploadDirectory.toString(), 500, DataSize.ofMegabytes(64), DataSize.ofMegabytes(512)),
+                appMapper);
 
         extractionResource = new ExtractionResource(extractService);
         objectMapper = new ObjectMapper();
@@ -79,16 +108,20 @@ class ExtractionResourceRealFlowTest {
         // Mock file processor strategy
         when(fileProcessors.get(BankType.NUBANK)).thenReturn(nubankProcessor);
 
-        // Mock para não encontrar extrato existente
-        when(extractProvider.findByBankAndPeriod(any(), any(), any())).thenReturn(Optional.empty());
-
-        // Mock para salvar e retornar extrato com ID
-        when(extractProvider.save(any(Extract.class))).thenAnswer(invocation -> {
+        // Mock para reservar o período (nenhum extrato existente) e retornar extrato com ID
+        when(extractProvider.reservePeriod(any(Extract.class))).thenAnswer(invocation -> {
             Extract extract = invocation.getArgument(0);
             extract.setId(UUID.randomUUID().toString());
-            return extract;
+            return Optional.of(extract);
         });
 
+        // Transações chegam em lotes durante a importação; a resposta é montada sem lê-las de volta
+        doAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(1);
+            savedTransactions.addAll(batch);
+            return null;
+        }).when(extractProvider).saveTransactions(any(Extract.class), any());
+
         // Cache de categorias para garantir que mesmo nome = mesmo ID
         Map<String, Category> categoryCache = new java.util.HashMap<>();
 
@@ -115,12 +148,15 @@ class ExtractionResourceRealFlowTest {
         );
 
         // Mock do processamento real do CSV (simula o que o NubankFileProcessor faria)
-        when(nubankProcessor.processFile(any(MultipartFile.class), any(Integer.class), any(Integer.class)))
-                .thenAnswer(invocation -> createRealExtractFromCsv());
+        doAnswer(invocation -> {
+            Consumer<Transaction> consumer = invocation.getArgument(2);
+            createRealTransactionsFromCsv().forEach(consumer);
+            return null;
+        }).when(nubankProcessor).streamTransactions(any(MultipartFile.class), anyLong(), any());
 
         // Act - Executa o fluxo real
         CompletableFuture<org.springframework.http.ResponseEntity<ExtractAnalysisResponse>> future =
-                extractionResource.uploadExtract(csvFile, "NUBANK", 7, 2025);
+                extractionResource.uploadExtract(null, csvFile, "NUBANK", 7, 2025);
 
         // Assert
         var responseEntity = future.get();
@@ -134,12 +170,9 @@ class ExtractionResourceRealFlowTest {
         JsonNode jsonNode = objectMapper.readTree(jsonResponse);
 
         // Debug: Log das categorizações reais para entender o comportamento
-        JsonNode transactions = jsonNode.get("transactions");
         System.out.println("=== DEBUG: Categorizações Reais ===");
-        for (JsonNode transaction : transactions) {
-            String title = transaction.get("title").asText();
-            String categoryName = transaction.get("category").get("name").asText();
-            System.out.println(title + " -> " + categoryName);
+        for (Transaction transaction : savedTransactions) {
+            System.out.println(transaction.getTitle() + " -> " + transaction.getCategory().getName());
         }
 
         System.out.println("\n=== DEBUG: Category Breakdown ===");
@@ -158,7 +191,40 @@ class ExtractionResourceRealFlowTest {
         validateActualCategorization(jsonNode);
     }
 
-    private Extract createRealExtractFromCsv() throws IOException {
+    @Test
+    void shouldAnswerRepeatedKeyWithoutTouchingTheDatabaseAndRefuseItForAnotherFile() throws Exception {
+        ClassPathResource csvResource = new ClassPathResource("csv/test-extract-nubank-2025-07.csv");
+        byte[] csvBytes = Files.readAllBytes(csvResource.getFile().toPath());
+        MultipartFile csvFile = new MockMultipartFile("file", "test-extract-nubank-2025-07.csv", "text/csv", csvBytes);
+
+        doAnswer(invocation -> {
+            Consumer<Transaction> consumer = invocation.getArgument(2);
+            createRealTransactionsFromCsv().forEach(consumer);
+            return null;
+        }).when(nubankProcessor).streamTransactions(any(MultipartFile.class), anyLong(), any());
+
+        var first = extractionResource.uploadExtract("chave-1", csvFile, "NUBANK", 7, 2025).get();
+        assertEquals(200, first.getStatusCode().value());
+        clearInvocations(extractProvider);
+
+        // Reenvio com a mesma chave: a resposta vem da memória, sem nenhum acesso ao banco
+        var repeated = extractionResource.uploadExtract("chave-1", csvFile, "NUBANK", 7, 2025).get();
+        assertEquals(200, repeated.getStatusCode().value());
+        assertEquals(first.getBody().getId(), repeated.getBody().getId());
+        assertEquals(first.getBody().getCategoryBreakdown(), repeated.getBody().getCategoryBreakdown());
+        verifyNoInteractions(extractProvider);
+
+        // A mesma chave para outro período ou outro conteúdo é recusada
+        assertEquals(422, extractionResource.uploadExtract("chave-1", csvFile, "NUBANK", 8, 2025)
+                .get().getStatusCode().value());
+        MultipartFile otherFile = new MockMultipartFile("file", "outro.csv", "text/csv",
+                Arrays.copyOf(csvBytes, csvBytes.length - 1));
+        assertEquals(422, extractionResource.uploadExtract("chave-1", otherFile, "NUBANK", 7, 2025)
+                .get().getStatusCode().value());
+        verifyNoInteractions(extractProvider);
+    }
+
+    private List<Transaction> createRealTransactionsFromCsv() throws IOException {
         ClassPathResource csvResource = new ClassPathResource("csv/test-extract-nubank-2025-07.csv");
         String csvContent = Files.readString(csvResource.getFile().toPath());
 
@@ -190,7 +256,7 @@ class ExtractionResourceRealFlowTest {
             }
         }
 
-        return Extract.create(transactions, 7, 2025);
+        return transactions;
     }
 
     private Category createMockCategory(String categoryName) {
@@ -228,17 +294,15 @@ class ExtractionResourceRealFlowTest {
         assertEquals(7, period.get("month").asInt());
         assertEquals(2025, period.get("year").asInt());
 
-        // Valida que tem 12 transações do CSV
-        JsonNode transactions = jsonNode.get("transactions");
-        assertEquals(12, transactions.size());
+        // As 12 transações do CSV são gravadas, mas não voltam na resposta do upload: são lidas por páginas
+        assertEquals(12, savedTransactions.size());
+        assertEquals(0, jsonNode.get("transactions").size());
     }
 
     private void validateRealBusinessRules(JsonNode jsonNode) {
         JsonNode summary = jsonNode.get("summary");
-        JsonNode transactions = jsonNode.get("transactions");
 
         // Contagem de transações deve ser 12
-        assertEquals(12, transactions.size());
         assertEquals(12, summary.get("transactionCount").asInt());
 
         // Validar cálculos baseados no CSV real
@@ -252,7 +316,6 @@ class ExtractionResourceRealFlowTest {
     }
 
     private void validateActualCategorization(JsonNode jsonNode) {
-        JsonNode transactions = jsonNode.get("transactions");
         JsonNode categoryBreakdown = jsonNode.get("categoryBreakdown");
 
         // Contagem por categoria baseada no comportamento real observado
@@ -261,10 +324,9 @@ class ExtractionResourceRealFlowTest {
         int entretenimentoCount = 0;
         int outrosCount = 0;
 
-        for (JsonNode transaction : transactions) {
-            String title = transaction.get("title").asText();
-            JsonNode category = transaction.get("category");
-            String categoryName = category.get("name").asText();
+        for (Transaction transaction : savedTransactions) {
+            Category category = transaction.getCategory();
+            String categoryName = category.getName();
 
             switch (categoryName) {
                 case "Alimentação" -> alimentacaoCount++;
@@ -275,10 +337,10 @@ class ExtractionResourceRealFlowTest {
 
             // Valida que todas as transações têm categoria
             assertNotNull(category);
-            assertTrue(category.has("id"));
-            assertTrue(category.has("name"));
-            assertTrue(category.has("color"));
-            assertTrue(category.has("icon"));
+            assertNotNull(category.getId());
+            assertNotNull(category.getName());
+            assertNotNull(category.getColor());
+            assertNotNull(category.getIcon());
         }
 
         // Verifica que pelo menos algumas categorizações funcionaram
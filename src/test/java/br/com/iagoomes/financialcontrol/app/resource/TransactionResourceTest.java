@@ -49,10 +49,12 @@ class TransactionResourceTest {
     void setUp() {
         // Setup real instances following the same pattern as ExtractionResourceRealFlowTest
         var updateTransactionCategoryUseCase = new br.com.iagoomes.financialcontrol.domain.usecase.UpdateTransactionCategoryUseCase(
-                transactionProvider, categoryProvider);
+                transactionProvider, categoryProvider,
+                new br.com.iagoomes.financialcontrol.infra.categorization.MerchantCategoryMemo(transactionProvider, 10000),
+                new br.com.iagoomes.financialcontrol.infra.categorization.NaiveBayesCategorizer(transactionProvider, 16384));
 
         var appMapper = new br.com.iagoomes.financialcontrol.app.mapper.AppMapper();
-        var transactionService = new TransactionService(updateTransactionCategoryUseCase, appMapper);
+        var transactionService = new TransactionService(updateTransactionCategoryUseCase, null, appMapper, null);
 
         transactionResource = new TransactionResource(transactionService);
         objectMapper = new ObjectMapper();
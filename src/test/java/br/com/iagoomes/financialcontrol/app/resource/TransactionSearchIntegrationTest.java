@@ -0,0 +1,134 @@
+package br.com.iagoomes.financialcontrol.app.resource;
+
+import br.com.iagoomes.financialcontrol.infra.repository.entity.EntityIds;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.UuidV7Generator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * GET /transactions contra o banco criado pelas migrações: limites de data inclusivos, o sinal dos valores
+ * (gastos positivos, entradas negativas), filtros inválidos recusados com 400 e a continuação pelo cursor
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class TransactionSearchIntegrationTest {
+
+    private static final String MARCH = "from=2036-03-10&to=2036-03-20";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        byte[] extractId = EntityIds.toBytes(UuidV7Generator.next().toString());
+        jdbcTemplate.update("INSERT INTO extracts (id, bank, reference_month, reference_year, processed_at, status) "
+                + "VALUES (?, 'NUBANK', 3, 2036, ?, 'COMPLETE')", extractId, LocalDateTime.now());
+
+        insertTransaction(extractId, LocalDateTime.of(2036, 3, 9, 23, 59), "Véspera", "15.00", "PIX");
+        insertTransaction(extractId, LocalDateTime.of(2036, 3, 10, 0, 0), "Abertura", "20.00", "PIX");
+        insertTransaction(extractId, LocalDateTime.of(2036, 3, 15, 10, 0), "Salário", "-1000.00", "TED");
+        insertTransaction(extractId, LocalDateTime.of(2036, 3, 18, 10, 0), "Mercado", "80.00", "DEBIT");
+        insertTransaction(extractId, LocalDateTime.of(2036, 3, 20, 23, 30), "Jantar", "45.00", "PIX");
+        insertTransaction(extractId, LocalDateTime.of(2036, 3, 21, 0, 0), "Seguinte", "10.00", "PIX");
+    }
+
+    @Test
+    void shouldIncludeBothDaysOfTheDateRange() throws Exception {
+        assertEquals(List.of("Jantar", "Mercado", "Salário", "Abertura"), titles(search(MARCH)));
+    }
+
+    @Test
+    void shouldFilterExpensesAsPositiveAndIncomeAsNegativeAmounts() throws Exception {
+        assertEquals(List.of("Jantar", "Mercado", "Abertura"), titles(search(MARCH + "&minAmount=0")));
+        assertEquals(List.of("Salário"), titles(search(MARCH + "&maxAmount=0")));
+        // Os dois limites de valor são inclusivos
+        assertEquals(List.of("Jantar", "Abertura"), titles(search(MARCH + "&minAmount=20&maxAmount=45")));
+        assertEquals(List.of("Jantar", "Abertura"), titles(search(MARCH + "&type=pix")));
+    }
+
+    @Test
+    void shouldRejectUnknownTypeAndReversedRanges() throws Exception {
+        assertEquals(400, status(MARCH + "&type=CHEQUE"));
+        assertEquals(400, status("from=2036-03-20&to=2036-03-10"));
+        assertEquals(400, status(MARCH + "&minAmount=50&maxAmount=10"));
+        assertEquals(400, status(MARCH + "&cursor=not-a-cursor"));
+    }
+
+    @Test
+    void shouldContinueFromTheCursorUntilTheLastPage() throws Exception {
+        List<String> titles = new ArrayList<>();
+        JsonNode page = search(MARCH + "&limit=3");
+        int pages = 1;
+        while (page.hasNonNull("nextCursor")) {
+            assertEquals(3, page.get("items").size());
+            titles.addAll(titles(page));
+            page = search(MARCH + "&limit=3&cursor=" + page.get("nextCursor").asText());
+            pages++;
+        }
+        titles.addAll(titles(page));
+
+        assertEquals(2, pages);
+        assertEquals(List.of("Jantar", "Mercado", "Salário", "Abertura"), titles);
+    }
+
+    private void insertTransaction(byte[] extractId, LocalDateTime date, String title, String amount, String type) {
+        jdbcTemplate.update("INSERT INTO transactions (id, date, title, amount, transaction_type, extract_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                EntityIds.toBytes(UuidV7Generator.next().toString()), date, title, new BigDecimal(amount),
+                type, extractId);
+    }
+
+    private JsonNode search(String query) throws Exception {
+        MvcResult result = perform(query);
+        assertEquals(200, result.getResponse().getStatus(), () -> "GET /transactions?" + query);
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private int status(String query) throws Exception {
+        return perform(query).getResponse().getStatus();
+    }
+
+    /**
+     * The delegate answers with a CompletableFuture, so the response comes from the async dispatch
+     */
+    private MvcResult perform(String query) throws Exception {
+        MvcResult started = mockMvc.perform(get("/transactions?" + query))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andReturn();
+    }
+
+    private static List<String> titles(JsonNode page) {
+        List<String> titles = new ArrayList<>();
+        page.get("items").forEach(item -> titles.add(item.get("title").asText()));
+        return titles;
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.iagoomes.financialcontrol.domain.usecase;
+
+import br.com.iagoomes.financialcontrol.domain.CategoryProvider;
+import br.com.iagoomes.financialcontrol.domain.entity.Category;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import br.com.iagoomes.financialcontrol.infra.categorization.CategorizationRules;
+import br.com.iagoomes.financialcontrol.infra.categorization.MerchantCategoryMemo;
+import br.com.iagoomes.financialcontrol.infra.categorization.NaiveBayesCategorizer;
+import br.com.iagoomes.financialcontrol.infra.categorization.TransactionClassifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste do tipo da transação definido na mesma classificação que escolhe a categoria, com as regras configuradas
+ */
+@ExtendWith(MockitoExtension.class)
+class CategorizeTransactionUseCaseTest {
+
+    @Mock
+    private CategoryProvider categoryProvider;
+
+    private CategorizeTransactionUseCase useCase;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Regras fora do padrão embutido: "zelle" só é PIX por causa desta configuração
+        CategorizationRules rules = new ObjectMapper().readValue("""
+                {"transactionTypes": [
+                  {"type": "PIX", "keywords": ["zelle"]},
+                  {"type": "BOLETO", "keywords": ["boleto"]}
+                 ],
+                 "categories": [{"name": "Contas", "keywords": ["boleto"]}],
+                 "defaultCategory": {"name": "Outros"}}
+                """, CategorizationRules.class);
+
+        useCase = new CategorizeTransactionUseCase(categoryProvider, new TransactionClassifier(rules),
+                new MerchantCategoryMemo(null, 10000), new NaiveBayesCategorizer(null, 16384), 0.7);
+        when(categoryProvider.findByName(anyString()))
+                .thenAnswer(invocation -> Optional.of(Category.create(invocation.getArgument(0), "#000000", "📦")));
+    }
+
+    @Test
+    void shouldRefineParsedTypeWithConfiguredTypeKeywords() {
+        // O processador de arquivo só deu o tipo pelo sinal do valor
+        Transaction transaction = transaction("ZELLE RECEBIDO FULANO", "-150.00", TransactionType.CREDIT);
+
+        useCase.execute(transaction);
+
+        assertEquals(TransactionType.PIX, transaction.getTransactionType());
+    }
+
+    @Test
+    void shouldSetTypeAndCategoryFromTheSameMatch() {
+        Transaction transaction = transaction("PAGTO BOLETO ENERGIA", "89.90", TransactionType.DEBIT);
+
+        useCase.execute(transaction);
+
+        assertEquals(TransactionType.BOLETO, transaction.getTransactionType());
+        assertEquals("Contas", transaction.getCategory().getName());
+    }
+
+    @Test
+    void shouldKeepParsedTypeWithoutTypeKeyword() {
+        // Tipo vindo do arquivo (TRNTYPE do OFX), sem palavra-chave de tipo no título
+        Transaction transaction = transaction("ENVIO MESMA TITULARIDADE", "200.00", TransactionType.TRANSFER);
+
+        useCase.execute(transaction);
+
+        assertEquals(TransactionType.TRANSFER, transaction.getTransactionType());
+        assertEquals("Outros", transaction.getCategory().getName());
+    }
+
+    private static Transaction transaction(String title, String amount, TransactionType parsedType) {
+        return Transaction.create(LocalDate.of(2025, 7, 1), title, new BigDecimal(amount), title, parsedType);
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.iagoomes.financialcontrol.domain.usecase;
+
+import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
+import br.com.iagoomes.financialcontrol.domain.entity.Category;
+import br.com.iagoomes.financialcontrol.domain.entity.RuleEvaluationJob;
+import br.com.iagoomes.financialcontrol.domain.entity.RuleSetEvaluation;
+import br.com.iagoomes.financialcontrol.domain.entity.RuleSetEvaluation.ConfusionCell;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import br.com.iagoomes.financialcontrol.infra.categorization.CategorizationRules;
+import br.com.iagoomes.financialcontrol.infra.categorization.CategorizationRules.CategoryRule;
+import br.com.iagoomes.financialcontrol.infra.categorization.TransactionClassifier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste da avaliação de regras candidatas sem gravação
+ */
+@ExtendWith(MockitoExtension.class)
+class EvaluateCategorizationRulesUseCaseTest {
+
+    @Mock
+    private TransactionProvider transactionProvider;
+
+    @Test
+    void shouldCompareCandidateRulesWithStoredAndManualCategories() {
+        // Manual: o usuário colocou a padaria em Alimentação
+        Transaction padaria = transaction("tx-1", "Padaria Central", "Alimentação", BigDecimal.ONE);
+        Transaction uber = transaction("tx-2", "Uber viagem", "Transporte", BigDecimal.valueOf(0.85));
+        Transaction netflix = transaction("tx-3", "Netflix", null, null);
+
+        when(transactionProvider.findPage("", 2)).thenReturn(List.of(padaria, uber));
+        when(transactionProvider.findPage("tx-2", 2)).thenReturn(List.of(netflix));
+        when(transactionProvider.findPage("tx-3", 2)).thenReturn(List.of());
+
+        // Candidata: só conhece Transporte, todo o resto cai em Outros
+        CategorizationRules candidateRules = new CategorizationRules();
+        candidateRules.setCategories(List.of(rule("Transporte", "uber")));
+        candidateRules.setDefaultCategory(rule("Outros"));
+
+        var useCase = new EvaluateCategorizationRulesUseCase(transactionProvider, TransactionClassifier.builtIn(),
+                ForkJoinPool.commonPool(), 2);
+        RuleEvaluationJob job = RuleEvaluationJob.queue();
+        useCase.execute(job, new TransactionClassifier(candidateRules));
+
+        assertEquals(RuleEvaluationJob.Status.DONE, job.getStatus());
+        assertEquals(3, job.getProcessed());
+        RuleSetEvaluation evaluation = job.getResult();
+        assertEquals(3, evaluation.transactionsEvaluated());
+        // Padaria (Alimentação -> Outros) e Netflix (sem categoria -> Outros)
+        assertEquals(2, evaluation.changedFromCurrent());
+        assertTrue(evaluation.confusionMatrix().contains(new ConfusionCell("Alimentação", "Outros", 1)));
+        assertTrue(evaluation.confusionMatrix().contains(new ConfusionCell("Transporte", "Transporte", 1)));
+        assertTrue(evaluation.confusionMatrix().contains(new ConfusionCell(null, "Outros", 1)));
+
+        assertEquals(1, evaluation.manualLabels().labeled());
+        assertEquals(1, evaluation.manualLabels().activeMatches());
+        assertEquals(0, evaluation.manualLabels().candidateMatches());
+        assertEquals(3, evaluation.candidateRules().transactions());
+
+        // Avaliação não grava nada
+        verify(transactionProvider, never()).updateCategorization(any(), any());
+    }
+
+    private static Transaction transaction(String id, String title, String categoryName, BigDecimal confidence) {
+        Transaction transaction = Transaction.create(LocalDate.of(2025, 7, 10), title, BigDecimal.valueOf(25.90),
+                title, TransactionType.DEBIT);
+        transaction.setId(id);
+        if (categoryName != null) {
+            transaction.setCategory(Category.create(categoryName, "#000000", "?"));
+        }
+        transaction.setConfidence(confidence);
+        return transaction;
+    }
+
+    private static CategoryRule rule(String name, String... keywords) {
+        CategoryRule rule = new CategoryRule();
+        rule.setName(name);
+        rule.setKeywords(List.of(keywords));
+        return rule;
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.iagoomes.financialcontrol.domain.usecase;
+
+import br.com.iagoomes.financialcontrol.domain.ExtractProvider;
+import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.KeysetPage;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionCursor;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da paginação por chave das transações de um extrato
+ */
+@ExtendWith(MockitoExtension.class)
+class GetExtractDetailUseCaseTest {
+
+    @Mock
+    private ExtractProvider extractProvider;
+
+    @Mock
+    private TransactionProvider transactionProvider;
+
+    @Test
+    void shouldReadOneRowAheadToTellWhetherMorePagesFollow() {
+        GetExtractDetailUseCase useCase = new GetExtractDetailUseCase(extractProvider, transactionProvider, 50, 500);
+        TransactionCursor after = new TransactionCursor(LocalDate.of(2025, 7, 10).atStartOfDay()
+                .toInstant(ZoneOffset.UTC), "tx-10");
+        List<Transaction> rows = transactions(4);
+        when(extractProvider.findById("extract-1")).thenReturn(Optional.of(Extract.create(List.of(), BankType.NUBANK, 7, 2025)));
+        // Página de 3 itens: o provedor é consultado com limite 4 para saber se há uma próxima página
+        when(transactionProvider.findByExtract("extract-1", after, 4)).thenReturn(rows);
+
+        KeysetPage<Transaction> page = useCase.transactions("extract-1", after, 3).orElseThrow();
+
+        assertEquals(rows.subList(0, 3), page.items());
+        assertTrue(page.hasMore());
+        assertSame(rows.get(2), page.last());
+    }
+
+    @Test
+    void shouldRejectLimitAboveMaximumBeforeReading() {
+        GetExtractDetailUseCase useCase = new GetExtractDetailUseCase(extractProvider, transactionProvider, 50, 500);
+
+        assertThrows(IllegalArgumentException.class, () -> useCase.transactions("extract-1", null, 501));
+        assertThrows(IllegalArgumentException.class, () -> useCase.execute("extract-1", 0));
+        verifyNoInteractions(extractProvider, transactionProvider);
+    }
+
+    private static List<Transaction> transactions(int count) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = count; i >= 1; i--) {
+            Transaction transaction = Transaction.create(LocalDate.of(2025, 7, i), "Compra " + i, BigDecimal.TEN,
+                    "Compra " + i, TransactionType.DEBIT);
+            transaction.setId("tx-" + i);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+}
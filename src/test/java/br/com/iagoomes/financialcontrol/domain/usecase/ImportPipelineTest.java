@@ -0,0 +1,204 @@
+package br.com.iagoomes.financialcontrol.domain.usecase;
+
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.infra.config.ImportJobConfig;
+import br.com.iagoomes.financialcontrol.infra.job.ImportPipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste do pipeline de importação: contrapressão entre as etapas, propagação de falhas e liberação das threads
+ */
+class ImportPipelineTest {
+
+    private static final int QUEUE_CAPACITY = 2;
+
+    private ThreadPoolTaskExecutor stageExecutor;
+    private final ImportPipelineMetrics metrics = new ImportPipelineMetrics(new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        // O executor do bean, com threads para uma importação só
+        stageExecutor = new ImportJobConfig().importPipelineExecutor(2, Duration.ofMillis(200));
+        stageExecutor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stageExecutor.shutdown();
+    }
+
+    @Test
+    void shouldPersistEveryTransactionInOrderAndBatches() {
+        List<List<Transaction>> batches = new ArrayList<>();
+
+        pipeline(3).run("test", source(10, new AtomicInteger()), tx -> tx, batch -> batches.add(List.copyOf(batch)));
+
+        assertEquals(List.of(3, 3, 3, 1), batches.stream().map(List::size).toList());
+        List<String> titles = batches.stream().flatMap(List::stream).map(Transaction::getTitle).toList();
+        assertEquals(titles(10), titles);
+    }
+
+    @Test
+    void shouldRunImportsOneAfterTheOtherOnTheSameStageThreads() {
+        // Cada importação ocupa as duas threads; as seguintes esperam a liberação em vez de serem recusadas
+        for (int i = 0; i < 50; i++) {
+            List<Transaction> persisted = new ArrayList<>();
+            pipeline(4).run("test", source(10, new AtomicInteger()), tx -> tx, persisted::addAll);
+            assertEquals(10, persisted.size());
+        }
+    }
+
+    @Test
+    void shouldHoldBackParsingWhilePersistIsSlow() throws Exception {
+        AtomicInteger parsed = new AtomicInteger();
+        CountDownLatch persistBlocked = new CountDownLatch(1);
+        CountDownLatch releasePersist = new CountDownLatch(1);
+        List<Transaction> persisted = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<Void> run = CompletableFuture.runAsync(() -> pipeline(1).run("test",
+                source(1_000, parsed), tx -> tx, batch -> {
+                    persistBlocked.countDown();
+                    await(releasePersist);
+                    persisted.addAll(batch);
+                }));
+
+        assertTrue(persistBlocked.await(5, TimeUnit.SECONDS));
+        Thread.sleep(300);
+
+        // Com a gravação parada só avançam as linhas que cabem nas duas filas e nas mãos de cada etapa
+        assertTrue(parsed.get() <= 2 * QUEUE_CAPACITY + 3, () -> "Parsed " + parsed.get() + " rows");
+
+        releasePersist.countDown();
+        run.get(10, TimeUnit.SECONDS);
+        assertEquals(1_000, parsed.get());
+        assertEquals(1_000, persisted.size());
+    }
+
+    @Test
+    void shouldStopOtherStagesAndRethrowTheFirstFailure() {
+        AtomicInteger parsed = new AtomicInteger();
+        List<Transaction> persisted = Collections.synchronizedList(new ArrayList<>());
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> pipeline(1).run("test", source(1_000_000, parsed), tx -> {
+                    if (tx.getTitle().equals("tx-5")) {
+                        throw new IllegalStateException("categorização falhou");
+                    }
+                    return tx;
+                }, persisted::addAll));
+
+        assertEquals("categorização falhou", error.getMessage());
+        // A leitura para logo depois da falha, sem percorrer o arquivo todo
+        assertTrue(parsed.get() < 1_000, () -> "Parsed " + parsed.get() + " rows");
+        assertEquals(titles(5), persisted.stream().map(Transaction::getTitle).toList());
+        assertStageThreadsReleased();
+    }
+
+    @Test
+    void shouldRethrowFailureOfThePersistStage() {
+        AtomicInteger parsed = new AtomicInteger();
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> pipeline(1).run("test", source(1_000_000, parsed), tx -> tx, batch -> {
+                    throw new IllegalStateException("gravação falhou");
+                }));
+
+        assertEquals("gravação falhou", error.getMessage());
+        assertTrue(parsed.get() < 1_000, () -> "Parsed " + parsed.get() + " rows");
+        assertStageThreadsReleased();
+    }
+
+    @Test
+    void shouldRejectImportWhenNoStageThreadIsFree() throws Exception {
+        CountDownLatch releaseSource = new CountDownLatch(1);
+        CountDownLatch categorizing = new CountDownLatch(1);
+
+        // Uma importação ocupa as duas threads, com a leitura parada no meio do arquivo. Espera a categorização
+        // da primeira linha: só então as duas etapas estão de fato em threads do pool
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> pipeline(1).run("first", consumer -> {
+            consumer.accept(new Transaction());
+            await(releaseSource);
+        }, tx -> {
+            categorizing.countDown();
+            return tx;
+        }, batch -> { }));
+        assertTrue(categorizing.await(5, TimeUnit.SECONDS));
+
+        AtomicInteger parsed = new AtomicInteger();
+        List<Transaction> persisted = new ArrayList<>();
+        assertThrows(RejectedExecutionException.class,
+                () -> pipeline(1).run("second", source(10, parsed), tx -> tx, persisted::addAll));
+        assertTrue(persisted.isEmpty());
+
+        releaseSource.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldReleaseStageThreadsSoTheExecutorShutsDownPromptly() throws Exception {
+        pipeline(5).run("test", source(100, new AtomicInteger()), tx -> tx, batch -> { });
+
+        assertStageThreadsReleased();
+        stageExecutor.shutdown();
+        assertTrue(stageExecutor.getThreadPoolExecutor().awaitTermination(1, TimeUnit.SECONDS));
+
+        // Depois do desligamento, novas importações são recusadas em vez de ficarem presas
+        assertThrows(RejectedExecutionException.class,
+                () -> pipeline(5).run("test", source(10, new AtomicInteger()), tx -> tx, batch -> { }));
+    }
+
+    private ImportPipeline pipeline(int batchSize) {
+        return new ImportPipeline(QUEUE_CAPACITY, batchSize, stageExecutor, metrics);
+    }
+
+    private static Consumer<Consumer<Transaction>> source(int rows, AtomicInteger parsed) {
+        return consumer -> {
+            for (int i = 0; i < rows; i++) {
+                Transaction transaction = new Transaction();
+                transaction.setTitle("tx-" + i);
+                consumer.accept(transaction);
+                parsed.incrementAndGet();
+            }
+        };
+    }
+
+    private static List<String> titles(int count) {
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            titles.add("tx-" + i);
+        }
+        return titles;
+    }
+
+    private void assertStageThreadsReleased() {
+        // As etapas terminaram e as threads do pool voltam com o nome original
+        Thread.getAllStackTraces().keySet().stream()
+                .map(Thread::getName)
+                .forEach(name -> assertFalse(name.startsWith("test-"), () -> "Stage still named " + name));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
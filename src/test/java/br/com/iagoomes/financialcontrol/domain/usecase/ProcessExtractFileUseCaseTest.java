@@ -0,0 +1,158 @@
+package br.com.iagoomes.financialcontrol.domain.usecase;
+
+import br.com.iagoomes.financialcontrol.domain.CategoryProvider;
+import br.com.iagoomes.financialcontrol.domain.ExtractProvider;
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.Category;
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import br.com.iagoomes.financialcontrol.infra.categorization.MerchantCategoryMemo;
+import br.com.iagoomes.financialcontrol.infra.categorization.NaiveBayesCategorizer;
+import br.com.iagoomes.financialcontrol.infra.categorization.TransactionClassifier;
+import br.com.iagoomes.financialcontrol.infra.exception.ImportInProgressException;
+import br.com.iagoomes.financialcontrol.infra.file.ContentHash;
+import br.com.iagoomes.financialcontrol.infra.job.ImportDeduplicator;
+import br.com.iagoomes.financialcontrol.infra.job.ImportPipelineMetrics;
+import br.com.iagoomes.financialcontrol.infra.strategy.FileProcessorStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste da retomada de uma importação interrompida a partir do último lote confirmado, e da concessão que
+ * impede duas importações do mesmo período de disputarem o extrato
+ */
+@ExtendWith(MockitoExtension.class)
+class ProcessExtractFileUseCaseTest {
+
+    @Mock
+    private ExtractProvider extractProvider;
+
+    @Mock
+    private CategoryProvider categoryProvider;
+
+    @Mock
+    private FileProcessorStrategy processor;
+
+    @Test
+    void shouldResumeIncompleteImportOfSameFileFromItsSourcePosition() {
+        MockMultipartFile file = new MockMultipartFile("file", "extrato.csv", "text/csv", "conteudo".getBytes());
+
+        // Importação anterior do mesmo arquivo parou depois de confirmar 2 das 5 transações, com a concessão vencida
+        Extract incomplete = incompleteExtract(ContentHash.of(file));
+        incomplete.setTransactionCount(2);
+        incomplete.setTotalExpenses(BigDecimal.valueOf(20));
+        incomplete.setSourcePosition(2L);
+        when(extractProvider.reservePeriod(any(Extract.class))).thenReturn(Optional.empty());
+        when(extractProvider.findReservation(BankType.NUBANK, 7, 2025)).thenReturn(Optional.of(incomplete));
+        when(extractProvider.claimLease(eq(incomplete), any())).thenReturn(true);
+
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Transaction row = Transaction.create(LocalDate.of(2025, 7, i), "Compra " + i, BigDecimal.TEN,
+                    "Compra " + i, TransactionType.DEBIT);
+            row.setSourcePosition((long) i);
+            rows.add(row);
+        }
+        // O processador começa direto no registro seguinte à posição pedida
+        doAnswer(invocation -> {
+            long from = invocation.getArgument(1);
+            Consumer<Transaction> consumer = invocation.getArgument(2);
+            rows.stream().filter(row -> row.getSourcePosition() > from).forEach(consumer);
+            return null;
+        }).when(processor).streamTransactions(any(), anyLong(), any());
+
+        List<Transaction> saved = new ArrayList<>();
+        doAnswer(invocation -> saved.addAll(invocation.getArgument(1)))
+                .when(extractProvider).saveTransactions(any(Extract.class), any());
+        when(categoryProvider.findByName(anyString())).thenReturn(Optional.of(Category.create("Outros", "#95A5A6", "📦")));
+
+        Extract extract = useCase().execute(file, BankType.NUBANK, 7, 2025);
+
+        // Só as transações depois do ponto de retomada são lidas e gravadas, e os totais continuam dos já confirmados
+        verify(processor).streamTransactions(eq(file), eq(2L), any());
+        assertEquals(rows.subList(2, 5), saved);
+        assertSame(incomplete, extract);
+        assertEquals(5, extract.getTransactionCount());
+        assertEquals(5L, extract.getSourcePosition());
+        assertEquals(0, BigDecimal.valueOf(50).compareTo(extract.getTotalExpenses()));
+        verify(extractProvider).complete(incomplete);
+        verify(extractProvider, never()).deleteById(anyString());
+    }
+
+    @Test
+    void shouldLeaveIncompleteImportAloneWhileItsLeaseIsLive() {
+        MockMultipartFile file = new MockMultipartFile("file", "extrato.csv", "text/csv", "conteudo".getBytes());
+
+        // Outra instância ainda importa o período e renova a concessão a cada lote
+        Extract incomplete = incompleteExtract("outro-arquivo");
+        when(extractProvider.reservePeriod(any(Extract.class))).thenReturn(Optional.empty());
+        when(extractProvider.findReservation(BankType.NUBANK, 7, 2025)).thenReturn(Optional.of(incomplete));
+        when(extractProvider.claimLease(eq(incomplete), any())).thenReturn(false);
+
+        var useCase = useCase();
+        assertThrows(ImportInProgressException.class, () -> useCase.execute(file, BankType.NUBANK, 7, 2025));
+
+        verify(extractProvider, never()).deleteById(anyString());
+        verify(processor, never()).streamTransactions(any(), anyLong(), any());
+    }
+
+    @Test
+    void shouldReleaseTheLeaseWhenTheImportFails() {
+        MockMultipartFile file = new MockMultipartFile("file", "extrato.csv", "text/csv", "conteudo".getBytes());
+
+        Extract header = incompleteExtract(ContentHash.of(file));
+        when(extractProvider.reservePeriod(any(Extract.class))).thenReturn(Optional.of(header));
+        doAnswer(invocation -> {
+            throw new IllegalStateException("arquivo corrompido");
+        }).when(processor).streamTransactions(any(), anyLong(), any());
+
+        var useCase = useCase();
+        assertThrows(IllegalStateException.class, () -> useCase.execute(file, BankType.NUBANK, 7, 2025));
+
+        // Uma nova tentativa retoma o extrato sem esperar a concessão vencer
+        verify(extractProvider).releaseLease(header);
+        verify(extractProvider, never()).complete(any());
+    }
+
+    private static Extract incompleteExtract(String contentHash) {
+        Extract incomplete = Extract.open(BankType.NUBANK, 7, 2025);
+        incomplete.setId("extract-1");
+        incomplete.setContentHash(contentHash);
+        return incomplete;
+    }
+
+    private ProcessExtractFileUseCase useCase() {
+        var categorizeTransactionUseCase = new CategorizeTransactionUseCase(categoryProvider,
+                TransactionClassifier.builtIn(), new MerchantCategoryMemo(null, 10000),
+                new NaiveBayesCategorizer(null, 16384), 0.7);
+        return new ProcessExtractFileUseCase(Map.of(BankType.NUBANK, processor), extractProvider,
+                categorizeTransactionUseCase, new ImportDeduplicator(Duration.ofHours(24), 10000),
+                new SimpleAsyncTaskExecutor("import-pipeline-"), new ImportPipelineMetrics(new SimpleMeterRegistry()),
+                10, 2, Duration.ofMinutes(2));
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.iagoomes.financialcontrol.domain.usecase;
+
+import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.RecategorizationJob;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Recategorização contra o banco, com uma categorização manual feita entre a leitura de um lote e a sua gravação.
+ * Sem @Transactional: o job grava em transações próprias, e os dados são apagados ao fim do teste.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RecategorizeTransactionsUseCaseIntegrationTest {
+
+    private static final int YEAR = 2032;
+
+    @Autowired
+    private TransactionProvider transactionProvider;
+
+    @Autowired
+    private CategorizeTransactionUseCase categorizeTransactionUseCase;
+
+    @Autowired
+    private ProcessExtractFileUseCase processExtractFileUseCase;
+
+    @Autowired
+    @Qualifier("categorizationJobPool")
+    private ForkJoinPool categorizationJobPool;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM transactions WHERE extract_id IN "
+                + "(SELECT id FROM extracts WHERE reference_year = ?)", YEAR);
+        jdbcTemplate.update("DELETE FROM extracts WHERE reference_year = ?", YEAR);
+    }
+
+    @Test
+    void shouldKeepCategoryChosenByHandWhileTheJobRuns() {
+        String csv = "date,title,amount\n2032-01-10,Loja Alfa Recat,45.50\n2032-01-11,Loja Beta Recat,18.00\n";
+        processExtractFileUseCase.execute(new MockMultipartFile("file", "nubank-2032-01.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8)), BankType.NUBANK, 1, YEAR);
+
+        // As duas transações voltam a ficar sem categoria, candidatas da recategorização
+        jdbcTemplate.update("UPDATE transactions SET category_id = NULL, confidence = NULL WHERE extract_id IN "
+                + "(SELECT id FROM extracts WHERE reference_year = ?)", YEAR);
+        byte[] manualCategoryId = jdbcTemplate.queryForObject("SELECT id FROM categories FETCH FIRST 1 ROWS ONLY",
+                byte[].class);
+
+        // Depois de o lote ser lido, o usuário categoriza uma delas à mão
+        AtomicBoolean categorizedByHand = new AtomicBoolean();
+        TransactionProvider provider = mock(TransactionProvider.class, delegatesTo(transactionProvider));
+        doAnswer(invocation -> {
+            List<Transaction> batch = transactionProvider.findRecategorizationCandidates(
+                    invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            if (categorizedByHand.compareAndSet(false, true)) {
+                jdbcTemplate.update("UPDATE transactions SET category_id = ?, confidence = 1.00 WHERE title = ?",
+                        manualCategoryId, "Loja Alfa Recat");
+            }
+            return batch;
+        }).when(provider).findRecategorizationCandidates(any(), anyString(), anyInt());
+
+        RecategorizationJob job = RecategorizationJob.queue(BigDecimal.ONE);
+        new RecategorizeTransactionsUseCase(provider, categorizeTransactionUseCase, categorizationJobPool, 1000)
+                .execute(job);
+
+        assertEquals(RecategorizationJob.Status.DONE, job.getStatus());
+        assertEquals(1, job.getSkipped());
+
+        Map<String, Object> manual = row("Loja Alfa Recat");
+        assertArrayEquals(manualCategoryId, (byte[]) manual.get("CATEGORY_ID"));
+        assertEquals(0, BigDecimal.ONE.compareTo((BigDecimal) manual.get("CONFIDENCE")));
+
+        Map<String, Object> recategorized = row("Loja Beta Recat");
+        assertNotNull(recategorized.get("CATEGORY_ID"));
+        assertNotNull(recategorized.get("CONFIDENCE"));
+    }
+
+    private Map<String, Object> row(String title) {
+        return jdbcTemplate.queryForMap("SELECT category_id, confidence FROM transactions WHERE title = ?", title);
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.iagoomes.financialcontrol.domain.usecase;
+
+import br.com.iagoomes.financialcontrol.domain.CategoryProvider;
+import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
+import br.com.iagoomes.financialcontrol.domain.entity.Category;
+import br.com.iagoomes.financialcontrol.domain.entity.RecategorizationJob;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import br.com.iagoomes.financialcontrol.infra.categorization.MerchantCategoryMemo;
+import br.com.iagoomes.financialcontrol.infra.categorization.NaiveBayesCategorizer;
+import br.com.iagoomes.financialcontrol.infra.categorization.TransactionClassifier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste da recategorização em lote das transações já gravadas
+ */
+@ExtendWith(MockitoExtension.class)
+class RecategorizeTransactionsUseCaseTest {
+
+    @Mock
+    private TransactionProvider transactionProvider;
+
+    @Mock
+    private CategoryProvider categoryProvider;
+
+    @Test
+    void shouldWriteBackOnlyTransactionsWhoseCategorizationChanged() {
+        Category transporte = Category.create("Transporte", "#3498DB", "🚗");
+        transporte.setId("cat-transporte");
+        when(categoryProvider.findByName("Transporte")).thenReturn(Optional.of(transporte));
+
+        // Sem categoria: deve ser recategorizada
+        Transaction uncategorized = transaction("tx-1", "Uber *Trip", null, BigDecimal.ZERO);
+        // Já categorizada pelas regras com o mesmo resultado: não deve ser regravada
+        Transaction unchanged = transaction("tx-2", "Uber *Trip", transporte, BigDecimal.valueOf(0.85));
+
+        BigDecimal maxConfidence = BigDecimal.ONE;
+        when(transactionProvider.countRecategorizationCandidates(maxConfidence)).thenReturn(2L);
+        when(transactionProvider.findRecategorizationCandidates(maxConfidence, "", 2))
+                .thenReturn(List.of(uncategorized, unchanged));
+        when(transactionProvider.findRecategorizationCandidates(maxConfidence, "tx-2", 2)).thenReturn(List.of());
+        when(transactionProvider.updateCategorization(anyList(), eq(maxConfidence))).thenReturn(1);
+
+        RecategorizationJob job = RecategorizationJob.queue(maxConfidence);
+        useCase().execute(job);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaction>> written = ArgumentCaptor.forClass(List.class);
+        verify(transactionProvider).updateCategorization(written.capture(), eq(maxConfidence));
+
+        assertEquals(List.of(uncategorized), written.getValue());
+        assertEquals("cat-transporte", uncategorized.getCategory().getId());
+        assertEquals(0, BigDecimal.valueOf(0.85).compareTo(uncategorized.getConfidence()));
+
+        assertEquals(RecategorizationJob.Status.DONE, job.getStatus());
+        assertEquals(2, job.getTotalCandidates());
+        assertEquals(2, job.getProcessed());
+        assertEquals(1, job.getUpdated());
+        assertEquals(0, job.getSkipped());
+    }
+
+    @Test
+    void shouldCountChangedTransactionsTheGuardedUpdateSkipped() {
+        when(categoryProvider.findByName("Outros")).thenReturn(Optional.of(Category.create("Outros", "#95A5A6", "📦")));
+
+        Transaction uncategorized = transaction("tx-1", "Loja sem regra", null, null);
+
+        BigDecimal maxConfidence = BigDecimal.ONE;
+        when(transactionProvider.countRecategorizationCandidates(maxConfidence)).thenReturn(1L);
+        when(transactionProvider.findRecategorizationCandidates(maxConfidence, "", 2)).thenReturn(List.of(uncategorized));
+        when(transactionProvider.findRecategorizationCandidates(maxConfidence, "tx-1", 2)).thenReturn(List.of());
+        // Categorizada à mão depois de lida: o UPDATE não grava nada
+        when(transactionProvider.updateCategorization(anyList(), eq(maxConfidence))).thenReturn(0);
+
+        RecategorizationJob job = RecategorizationJob.queue(maxConfidence);
+        useCase().execute(job);
+
+        assertEquals(1, job.getProcessed());
+        assertEquals(0, job.getUpdated());
+        assertEquals(1, job.getSkipped());
+    }
+
+    private RecategorizeTransactionsUseCase useCase() {
+        var categorizeTransactionUseCase = new CategorizeTransactionUseCase(categoryProvider,
+                TransactionClassifier.builtIn(), new MerchantCategoryMemo(null, 10000),
+                new NaiveBayesCategorizer(null, 16384), 0.7);
+        return new RecategorizeTransactionsUseCase(transactionProvider, categorizeTransactionUseCase,
+                ForkJoinPool.commonPool(), 2);
+    }
+
+    private static Transaction transaction(String id, String title, Category category, BigDecimal confidence) {
+        Transaction transaction = Transaction.create(LocalDate.of(2025, 7, 10), title, BigDecimal.valueOf(25.90),
+                title, TransactionType.DEBIT);
+        transaction.setId(id);
+        transaction.setCategory(category);
+        transaction.setConfidence(confidence);
+        return transaction;
+    }
+}
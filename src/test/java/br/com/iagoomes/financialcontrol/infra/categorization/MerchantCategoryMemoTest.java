@@ -0,0 +1,119 @@
+package br.com.iagoomes.financialcontrol.infra.categorization;
+
+import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
+import br.com.iagoomes.financialcontrol.domain.TransactionProvider.ManualCategorizationConsumer;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Teste do índice de categorias aprendidas por estabelecimento
+ */
+class MerchantCategoryMemoTest {
+
+    private static final double THRESHOLD = 0.7;
+
+    @Test
+    void shouldLearnLastChoiceWithAgreementAsConfidence() {
+        MerchantCategoryMemo memo = new MerchantCategoryMemo(null, 100);
+
+        memo.learn("Padaria Pão Quente 12/07", "alimentacao");
+        memo.learn("PADARIA PAO QUENTE", "alimentacao");
+        assertEquals(1.0, memo.find("padaria pão quente").orElseThrow().confidence());
+
+        // Uma nova escolha passa a valer, mas com confiança menor: o histórico anterior pesa 1 + 0,25 vezes 0,25
+        memo.learn("Padaria Pão Quente", "compras");
+        MerchantCategoryMemo.LearnedCategory learned = memo.find("Padaria Pão Quente").orElseThrow();
+        assertEquals("compras", learned.categoryId());
+        assertEquals(1 / 1.3125, learned.confidence(), 0.0001);
+    }
+
+    @Test
+    void shouldKeepCorrectionAboveThresholdAfterLongHistory() {
+        MerchantCategoryMemo memo = new MerchantCategoryMemo(null, 100);
+
+        for (int i = 0; i < 3; i++) {
+            memo.learn("Posto Shell", "transporte");
+        }
+        memo.learn("Posto Shell", "carro");
+
+        MerchantCategoryMemo.LearnedCategory learned = memo.find("Posto Shell").orElseThrow();
+        assertEquals("carro", learned.categoryId());
+        assertTrue(learned.confidence() >= THRESHOLD, () -> "Confidence " + learned.confidence());
+
+        // Confirmar a correção volta a confiança para perto de 1
+        memo.learn("Posto Shell", "carro");
+        assertTrue(memo.find("Posto Shell").orElseThrow().confidence() > 0.9);
+    }
+
+    @Test
+    void shouldTakeBackEarlierChoiceWhenTheSameTransactionIsCorrectedAgain() {
+        MerchantCategoryMemo memo = new MerchantCategoryMemo(null, 100);
+
+        // Outra transação do mesmo estabelecimento, e depois uma transação corrigida duas vezes
+        memo.learn("Padaria Pão Quente", "alimentacao");
+        memo.learn("Padaria Pão Quente", "alimentacao");
+        memo.forget("Padaria Pão Quente", "alimentacao");
+        memo.learn("Padaria Pão Quente", "compras");
+        memo.forget("Padaria Pão Quente", "compras");
+        memo.learn("Padaria Pão Quente", "lazer");
+
+        // Só contam a outra transação e a correção final; das escolhas retiradas fica apenas o desconto de 0,25 que
+        // cada uma aplicou ao histórico. Sem as retiradas, a confiança seria 1 / 1,328125
+        MerchantCategoryMemo.LearnedCategory learned = memo.find("Padaria Pão Quente").orElseThrow();
+        assertEquals("lazer", learned.categoryId());
+        assertEquals(1 / 1.015625, learned.confidence(), 0.0001);
+
+        // Sem outra escolha, retirar a única remove o estabelecimento
+        memo.learn("Uber", "transporte");
+        memo.forget("Uber", "transporte");
+        assertTrue(memo.find("Uber").isEmpty());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedMerchant() {
+        MerchantCategoryMemo memo = new MerchantCategoryMemo(null, 2);
+
+        memo.learn("Uber", "transporte");
+        memo.learn("Netflix", "entretenimento");
+        memo.find("Uber");
+        memo.learn("Farmácia", "saude");
+
+        assertTrue(memo.find("Uber").isPresent());
+        assertTrue(memo.find("Netflix").isEmpty());
+        assertEquals(2, memo.size());
+    }
+
+    @Test
+    void shouldKeepServingPreviousMapWhileRebuilding() {
+        TransactionProvider transactionProvider = mock(TransactionProvider.class);
+        MerchantCategoryMemo memo = new MerchantCategoryMemo(transactionProvider, 100);
+        memo.learn("Uber", "transporte");
+
+        doAnswer(invocation -> {
+            ManualCategorizationConsumer consumer = invocation.getArgument(0);
+            consumer.accept("Netflix", new BigDecimal("39.90"), "entretenimento");
+
+            // No meio da reconstrução as consultas ainda veem o índice anterior inteiro
+            assertEquals("transporte", memo.find("Uber").orElseThrow().categoryId());
+            assertTrue(memo.find("Netflix").isEmpty());
+
+            // Uma escolha feita enquanto o banco é lido não se perde ao publicar o novo índice
+            memo.learn("Farmácia", "saude");
+            consumer.accept("Uber", new BigDecimal("18.00"), "transporte");
+            return null;
+        }).when(transactionProvider).forEachManualCategorization(any());
+
+        memo.rebuild();
+
+        assertEquals("entretenimento", memo.find("Netflix").orElseThrow().categoryId());
+        assertEquals("saude", memo.find("Farmácia").orElseThrow().categoryId());
+        assertEquals("transporte", memo.find("Uber").orElseThrow().categoryId());
+        assertEquals(3, memo.size());
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.iagoomes.financialcontrol.infra.categorization;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste do modelo naive-Bayes treinado com categorizações manuais
+ */
+class NaiveBayesCategorizerTest {
+
+    @Test
+    void shouldPredictCategoryOfUnseenMerchantFromSharedTokens() {
+        NaiveBayesCategorizer categorizer = new NaiveBayesCategorizer(null, 1024);
+
+        categorizer.train("Padaria Pão Quente", new BigDecimal("18.50"), "alimentacao");
+        categorizer.train("Padaria Bom Gosto 12/07", new BigDecimal("22.00"), "alimentacao");
+        categorizer.train("Posto Shell BR 101", new BigDecimal("250.00"), "combustivel");
+        categorizer.train("Posto Ipiranga Centro", new BigDecimal("180.00"), "combustivel");
+
+        // Estabelecimento nunca visto, mas com tokens conhecidos (acentos e caixa ignorados)
+        assertEquals("alimentacao", categorizer.mostLikelyCategory("PADARIA SÃO JOÃO", new BigDecimal("15.00")));
+        assertEquals("combustivel", categorizer.mostLikelyCategory("Posto Sao Joao", new BigDecimal("200.00")));
+
+        double confidence = categorizer.confidence("padaria sao joao", new BigDecimal("15.00"), "alimentacao");
+        assertTrue(confidence > 0.7 && confidence <= 1.0, "confiança: " + confidence);
+        assertEquals(1.0, confidence
+                + categorizer.confidence("padaria sao joao", new BigDecimal("15.00"), "combustivel"), 1e-9);
+    }
+
+    @Test
+    void shouldMatchAModelTrainedOnlyOnTheFinalCategoryAfterCorrections() {
+        NaiveBayesCategorizer corrected = new NaiveBayesCategorizer(null, 1024);
+        NaiveBayesCategorizer trainedOnce = new NaiveBayesCategorizer(null, 1024);
+        for (NaiveBayesCategorizer categorizer : List.of(corrected, trainedOnce)) {
+            categorizer.train("Padaria Pão Quente", new BigDecimal("18.50"), "alimentacao");
+            categorizer.train("Posto Shell BR 101", new BigDecimal("250.00"), "combustivel");
+        }
+
+        // A mesma transação corrigida duas vezes: cada correção retira o exemplo da categoria anterior
+        BigDecimal amount = new BigDecimal("22.00");
+        corrected.train("Padaria Bom Gosto", amount, "combustivel");
+        corrected.forget("Padaria Bom Gosto", amount, "combustivel");
+        corrected.train("Padaria Bom Gosto", amount, "lazer");
+        corrected.forget("Padaria Bom Gosto", amount, "lazer");
+        corrected.train("Padaria Bom Gosto", amount, "alimentacao");
+        trainedOnce.train("Padaria Bom Gosto", amount, "alimentacao");
+
+        assertEquals(2, corrected.categoryCount());
+        assertTrue(Double.isNaN(corrected.confidence("Padaria", amount, "lazer")));
+        for (String category : List.of("alimentacao", "combustivel")) {
+            assertEquals(trainedOnce.confidence("Padaria Bom Gosto", amount, category),
+                    corrected.confidence("Padaria Bom Gosto", amount, category), 1e-12);
+        }
+    }
+
+    @Test
+    void shouldNotPredictWithoutKnownTokensOrSecondCategory() {
+        NaiveBayesCategorizer categorizer = new NaiveBayesCategorizer(null, 1024);
+
+        // Com uma única categoria, qualquer previsão teria confiança 1.0
+        categorizer.train("Padaria Pão Quente", new BigDecimal("18.50"), "alimentacao");
+        assertNull(categorizer.mostLikelyCategory("Padaria Pão Quente", new BigDecimal("18.50")));
+
+        categorizer.train("Posto Shell", new BigDecimal("250.00"), "combustivel");
+        assertNull(categorizer.mostLikelyCategory("Netflix 123456", new BigDecimal("39.90")));
+        assertTrue(Double.isNaN(categorizer.confidence("Netflix", new BigDecimal("39.90"), "alimentacao")));
+        assertTrue(Double.isNaN(categorizer.confidence("Padaria", new BigDecimal("18.50"), "desconhecida")));
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.iagoomes.financialcontrol.infra.categorization;
+
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import br.com.iagoomes.financialcontrol.infra.categorization.TransactionClassifier.Classification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste do classificador de tipo e categoria por palavras-chave
+ */
+class TransactionClassifierTest {
+
+    private final TransactionClassifier classifier = TransactionClassifier.builtIn();
+
+    @Test
+    void shouldDetectTypeAndCategoryInOnePass() {
+        Classification classification = classifier.classify("Transferência enviada pelo Pix - UBER DO BRASIL");
+
+        // PIX tem prioridade sobre TRANSFER, como na ordem das regras
+        assertEquals(TransactionType.PIX, classification.transactionType());
+        assertEquals("Transporte", classification.category().getName());
+    }
+
+    @Test
+    void shouldKeepRulePriorityWhenKeywordsOverlap() {
+        // "uber eats" e "mercado livre" também contêm palavras de regras posteriores
+        assertEquals("Alimentação", classifier.classify("UBER EATS *PEDIDO").category().getName());
+        assertEquals("Alimentação", classifier.classify("MERCADO LIVRE").category().getName());
+        assertEquals("Compras", classifier.classify("Lojas Renner").category().getName());
+    }
+
+    @Test
+    void shouldFallBackToDefaultCategoryWithoutType() {
+        Classification classification = classifier.classify("Compra qualquer");
+
+        assertNull(classification.transactionType());
+        assertEquals("Outros", classification.category().getName());
+    }
+
+    @Test
+    void shouldMatchRegexAndAmountRulesByPriority() throws Exception {
+        CategorizationRules rules = rules("""
+                {"categories": [
+                  {"name": "Contas", "keywords": ["energia"]},
+                  {"name": "Salário", "priority": 1, "regexes": ["^sal[aá]rio"], "maxAmount": -1000},
+                  {"name": "Grandes compras", "priority": 2, "minAmount": 5000}
+                ],
+                 "defaultCategory": {"name": "Outros"}}
+                """);
+        TransactionClassifier ruleClassifier = new TransactionClassifier(rules);
+
+        assertEquals("Salário", ruleClassifier.classify("SALÁRIO EMPRESA X", new BigDecimal("-8000")).category().getName());
+        // Fora da faixa de valor a regra de salário não se aplica
+        assertEquals("Outros", ruleClassifier.classify("Salário EMPRESA X", new BigDecimal("-50")).category().getName());
+        // Prioridade explícita vence a ordem da lista
+        assertEquals("Grandes compras", ruleClassifier.classify("Conta de energia", new BigDecimal("6000")).category().getName());
+        assertEquals("Contas", ruleClassifier.classify("Conta de energia", new BigDecimal("300")).category().getName());
+    }
+
+    @Test
+    void shouldSwapInReloadedRulesAndKeepCurrentOnesWhenFileIsInvalid(@TempDir Path dir) throws Exception {
+        Path rulesFile = dir.resolve("rules.json");
+        Files.writeString(rulesFile, """
+                {"categories": [{"name": "Transporte", "keywords": ["uber"]}], "defaultCategory": {"name": "Outros"}}
+                """);
+        TransactionClassifier reloadable = new TransactionClassifier(
+                new DefaultResourceLoader(), new ObjectMapper(), rulesFile.toUri().toString());
+        assertEquals("Outros", reloadable.classify("Padaria Central").category().getName());
+
+        Files.writeString(rulesFile, """
+                {"categories": [{"name": "Alimentação", "keywords": ["padaria"]}], "defaultCategory": {"name": "Outros"}}
+                """);
+        assertTrue(reloadable.reload());
+        assertEquals("Alimentação", reloadable.classify("Padaria Central").category().getName());
+
+        // Regex inválida: a versão anterior continua em uso
+        Files.writeString(rulesFile, """
+                {"categories": [{"name": "Quebrada", "regexes": ["(unclosed"]}]}
+                """);
+        assertFalse(reloadable.reload());
+        assertEquals("Alimentação", reloadable.classify("Padaria Central").category().getName());
+    }
+
+    @Test
+    void shouldReportKeywordsEndingInsideOtherKeywords() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder()
+                .add("he", 0)
+                .add("she", 1)
+                .add("hers", 2)
+                .build();
+
+        List<Integer> matches = new ArrayList<>();
+        automaton.scan("uSHErs", matches::add);
+
+        assertEquals(List.of(1, 0, 2), matches);
+    }
+
+    private static CategorizationRules rules(String json) throws Exception {
+        return new ObjectMapper().readValue(json, CategorizationRules.class);
+    }
+}
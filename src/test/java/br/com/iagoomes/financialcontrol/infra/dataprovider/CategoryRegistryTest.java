@@ -0,0 +1,115 @@
+package br.com.iagoomes.financialcontrol.infra.dataprovider;
+
+import br.com.iagoomes.financialcontrol.domain.entity.Category;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste do registro de categorias em memória
+ */
+class CategoryRegistryTest {
+
+    private final CategoryRegistry registry = new CategoryRegistry();
+
+    @Test
+    void shouldFindCategoryByIdAndByNameIgnoringCase() {
+        registry.load(List.of(category("1", "Transporte"), category("2", "Alimentação")));
+
+        assertEquals("1", registry.findByName(" transporte ").orElseThrow().getId());
+        assertEquals("Alimentação", registry.findById("2").orElseThrow().getName());
+        assertEquals(List.of("Alimentação", "Transporte"),
+                registry.findAll().stream().map(Category::getName).toList());
+    }
+
+    @Test
+    void shouldReindexRenamedAndRemovedCategories() {
+        registry.load(List.of(category("1", "Outros")));
+
+        // Renomear deve remover o nome antigo do índice
+        registry.put(category("1", "Diversos"));
+        assertTrue(registry.findByName("outros").isEmpty());
+        assertEquals("1", registry.findByName("Diversos").orElseThrow().getId());
+
+        registry.remove("1");
+        assertTrue(registry.findByName("Diversos").isEmpty());
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void shouldRegisterOneCategoryUnderConcurrentLookups() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<Category>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                // Mesmo nome com caixa diferente deve resolver para a mesma categoria
+                String name = i % 2 == 0 ? "Educação" : "EDUCAÇÃO";
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return registry.findOrRegister(name, () -> {
+                        loads.incrementAndGet();
+                        // Como o insert-if-absent: cada chamada lê de volta a mesma linha
+                        return category("1", "Educação");
+                    });
+                }));
+            }
+            start.countDown();
+
+            Category first = results.get(0).get();
+            for (Future<Category> result : results) {
+                assertSame(first, result.get());
+            }
+        }
+
+        assertTrue(loads.get() >= 1);
+        assertEquals(1, registry.size());
+        assertEquals("1", registry.findById("1").orElseThrow().getId());
+    }
+
+    @Test
+    void shouldNotHoldLockWhileLoadingCategory() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<Category> slow = executor.submit(() -> registry.findOrRegister("Saúde", () -> {
+                loading.countDown();
+                await(releaseLoad);
+                return category("1", "Saúde");
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // Outra categoria é registrada enquanto a primeira ainda está indo ao banco
+            Future<Category> other = executor.submit(() -> registry.findOrRegister("Lazer", () -> category("2", "Lazer")));
+            assertEquals("2", other.get(5, TimeUnit.SECONDS).getId());
+
+            releaseLoad.countDown();
+            assertEquals("1", slow.get(5, TimeUnit.SECONDS).getId());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Category category(String id, String name) {
+        Category category = Category.create(name, "#000000", "?");
+        category.setId(id);
+        return category;
+    }
+}
@@ -0,0 +1,194 @@
+package br.com.iagoomes.financialcontrol.infra.dataprovider;
+
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.usecase.ProcessExtractFileUseCase;
+import br.com.iagoomes.financialcontrol.infra.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reserva do período de um extrato disputada por importações simultâneas, e a concessão que decide qual importação
+ * segue com um extrato incompleto. Sem @Transactional: cada thread
+ * grava e confirma na sua própria transação, como em produção, e os dados são apagados ao fim de cada teste.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExtractDataProviderIntegrationTest {
+
+    private static final int MONTH = 1;
+    private static final int YEAR = 2031;
+
+    @Autowired
+    private ExtractDataProvider extractDataProvider;
+
+    @Autowired
+    private ProcessExtractFileUseCase processExtractFileUseCase;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setUp() {
+        clients = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+        jdbcTemplate.update("DELETE FROM transactions WHERE extract_id IN "
+                + "(SELECT id FROM extracts WHERE reference_year = ?)", YEAR);
+        jdbcTemplate.update("DELETE FROM extracts WHERE reference_year = ?", YEAR);
+    }
+
+    @Test
+    void shouldReserveThePeriodForOnlyOneOfTwoConcurrentInserts() throws Exception {
+        List<Optional<Extract>> reservations = runTogether(
+                () -> extractDataProvider.reservePeriod(header("hash-a")),
+                () -> extractDataProvider.reservePeriod(header("hash-b")));
+
+        assertEquals(1, reservations.stream().filter(Optional::isPresent).count());
+        assertEquals(1, extractCount());
+
+        // A reserva perdida não deixa transação pendente: o período segue legível pelo vencedor
+        Extract winner = reservations.stream().flatMap(Optional::stream).findFirst().orElseThrow();
+        assertEquals(winner.getId(),
+                extractDataProvider.findReservation(BankType.NUBANK, MONTH, YEAR).orElseThrow().getId());
+    }
+
+    @Test
+    void shouldRethrowViolationsOfOtherConstraintsThanThePeriodKey() {
+        // Hash maior que a coluna: a gravação falha por outro motivo, e o período continua livre
+        assertThrows(DataIntegrityViolationException.class,
+                () -> extractDataProvider.reservePeriod(header("x".repeat(65))));
+        assertEquals(0, extractCount());
+
+        assertTrue(extractDataProvider.reservePeriod(header("hash-a")).isPresent());
+        assertTrue(extractDataProvider.reservePeriod(header("hash-b")).isEmpty());
+    }
+
+    @Test
+    void shouldImportOnlyOneOfTwoDifferentFilesForTheSamePeriod() throws Exception {
+        List<Future<Extract>> imports = submitTogether(
+                () -> processExtractFileUseCase.execute(csvFile("Mercado Central"), BankType.NUBANK, MONTH, YEAR),
+                () -> processExtractFileUseCase.execute(csvFile("Padaria"), BankType.NUBANK, MONTH, YEAR));
+
+        List<Extract> imported = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<Extract> result : imports) {
+            try {
+                imported.add(result.get(30, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+
+        assertEquals(1, imported.size());
+        assertEquals(1, failures.size());
+        assertInstanceOf(BusinessException.class, failures.get(0));
+
+        assertEquals(1, extractCount());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE extract_id = "
+                + "(SELECT id FROM extracts WHERE reference_year = ?)", Integer.class, YEAR));
+        assertEquals("COMPLETE", jdbcTemplate.queryForObject(
+                "SELECT status FROM extracts WHERE reference_year = ?", String.class, YEAR));
+    }
+
+    @Test
+    void shouldHandAnIncompleteImportOverOnlyOnceItsLeaseHasExpired() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Extract first = header("hash-a");
+        first.setLeaseOwner("importacao-a");
+        first.setLeaseExpiresAt(now.plusMinutes(2));
+        extractDataProvider.reservePeriod(first).orElseThrow();
+
+        Extract second = extractDataProvider.findReservation(BankType.NUBANK, MONTH, YEAR).orElseThrow();
+        second.setLeaseOwner("importacao-b");
+        second.setLeaseExpiresAt(now.plusMinutes(2));
+
+        // Enquanto a concessão da primeira importação vale, a segunda não assume nem grava no extrato
+        assertFalse(extractDataProvider.claimLease(second, now));
+        assertThrows(IllegalStateException.class, () -> extractDataProvider.saveTransactions(second, List.of()));
+
+        // Vencida a concessão, a segunda assume o extrato e a primeira deixa de poder confirmar lotes
+        jdbcTemplate.update("UPDATE extracts SET lease_expires_at = ? WHERE reference_year = ?",
+                now.minusSeconds(1), YEAR);
+        assertTrue(extractDataProvider.claimLease(second, now));
+        assertThrows(IllegalStateException.class, () -> extractDataProvider.saveTransactions(first, List.of()));
+
+        second.setSourcePosition(42L);
+        extractDataProvider.saveTransactions(second, List.of());
+        Extract stored = extractDataProvider.findReservation(BankType.NUBANK, MONTH, YEAR).orElseThrow();
+        assertEquals("importacao-b", stored.getLeaseOwner());
+        assertEquals(42L, stored.getSourcePosition());
+
+        // Concluído, o extrato não tem mais concessão a disputar
+        extractDataProvider.complete(second);
+        assertNull(extractDataProvider.findReservation(BankType.NUBANK, MONTH, YEAR).orElseThrow().getLeaseOwner());
+    }
+
+    private long extractCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM extracts WHERE bank = 'NUBANK' "
+                + "AND reference_month = ? AND reference_year = ?", Long.class, MONTH, YEAR);
+    }
+
+    private static Extract header(String contentHash) {
+        Extract header = Extract.open(BankType.NUBANK, MONTH, YEAR);
+        header.setContentHash(contentHash);
+        return header;
+    }
+
+    private static MockMultipartFile csvFile(String title) {
+        String csv = "date,title,amount\n2031-01-10," + title + ",45.50\n2031-01-11,Uber,18.00\n";
+        return new MockMultipartFile("file", "nubank-2031-01.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private <T> List<T> runTogether(Callable<T> first, Callable<T> second) throws Exception {
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : submitTogether(first, second)) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    /**
+     * Start both calls at the same instant, each on its own thread
+     */
+    private <T> List<Future<T>> submitTogether(Callable<T> first, Callable<T> second) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (Callable<T> call : List.of(first, second)) {
+            futures.add(clients.submit(() -> {
+                start.await();
+                return call.call();
+            }));
+        }
+        start.countDown();
+        return futures;
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.iagoomes.financialcontrol.infra.dataprovider;
+
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractCursor;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.EntityIds;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.UuidV7Generator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Listagem paginada de extratos medida pelas estatísticas do Hibernate: cada página é uma única instrução SQL,
+ * e as transações dos extratos listados não são carregadas
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class ExtractListingIntegrationTest {
+
+    private static final int YEAR = 2035;
+    private static final int EXTRACTS = 3;
+
+    @Autowired
+    private ExtractDataProvider extractDataProvider;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int month = 1; month <= EXTRACTS; month++) {
+            byte[] extractId = EntityIds.toBytes(UuidV7Generator.next().toString());
+            jdbcTemplate.update("INSERT INTO extracts (id, bank, reference_month, reference_year, processed_at, "
+                    + "transaction_count, status) VALUES (?, 'NUBANK', ?, ?, ?, 2, 'COMPLETE')",
+                    extractId, month, YEAR, LocalDateTime.now());
+            for (int day = 1; day <= 2; day++) {
+                jdbcTemplate.update("INSERT INTO transactions (id, date, title, amount, extract_id) "
+                                + "VALUES (?, ?, 'Listagem', 10.00, ?)",
+                        EntityIds.toBytes(UuidV7Generator.next().toString()),
+                        LocalDate.of(YEAR, month, day).atStartOfDay(), extractId);
+            }
+        }
+    }
+
+    @Test
+    void shouldListAPageInOneStatementWithoutLoadingTransactions() {
+        statistics.clear();
+
+        List<Extract> page = extractDataProvider.findPage(BankType.NUBANK, YEAR, null, null, EXTRACTS);
+
+        assertEquals(EXTRACTS, page.size());
+        assertOneStatementWithoutTransactions();
+        page.forEach(extract -> {
+            assertEquals(2, extract.getTransactionCount());
+            assertTrue(extract.getTransactions().isEmpty());
+        });
+    }
+
+    @Test
+    void shouldListTheFollowingPageInOneStatementWithoutLoadingTransactions() {
+        Extract first = extractDataProvider.findPage(BankType.NUBANK, YEAR, null, null, 1).getFirst();
+        statistics.clear();
+
+        List<Extract> rest = extractDataProvider.findPage(BankType.NUBANK, YEAR, null,
+                new ExtractCursor(first.getReferenceYear(), first.getReferenceMonth(), first.getId()), EXTRACTS);
+
+        assertEquals(EXTRACTS - 1, rest.size());
+        assertOneStatementWithoutTransactions();
+    }
+
+    private void assertOneStatementWithoutTransactions() {
+        assertEquals(1, statistics.getPrepareStatementCount());
+        // Projeção das colunas do extrato: nenhuma entidade gerenciada, logo nenhuma coleção a inicializar
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+}
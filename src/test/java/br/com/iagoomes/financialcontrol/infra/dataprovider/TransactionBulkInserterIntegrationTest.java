@@ -0,0 +1,138 @@
+package br.com.iagoomes.financialcontrol.infra.dataprovider;
+
+import br.com.iagoomes.financialcontrol.domain.entity.Category;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.EntityIds;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.UuidV7Generator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Gravação em lote das transações importadas, lidas de volta do banco: instruções completas de várias linhas,
+ * a instrução do resto, a ordem dos parâmetros, os ids binários e as colunas que aceitam nulo
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TransactionBulkInserterIntegrationTest {
+
+    private static final int ROWS_PER_STATEMENT = 4;
+    // Duas instruções completas e uma de resto com três linhas
+    private static final int ROWS = 2 * ROWS_PER_STATEMENT + 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionBulkInserter inserter;
+    private String extractId;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        inserter = new TransactionBulkInserter(jdbcTemplate, ROWS_PER_STATEMENT);
+
+        extractId = UuidV7Generator.next().toString();
+        jdbcTemplate.update("INSERT INTO extracts (id, bank, reference_month, reference_year, processed_at, status) "
+                        + "VALUES (?, 'NUBANK', 3, 2033, ?, 'COMPLETE')",
+                EntityIds.toBytes(extractId), LocalDateTime.now());
+
+        category = Category.create("Inserção em Lote", "#000000", "?");
+        category.setId(UuidV7Generator.next().toString());
+        jdbcTemplate.update("INSERT INTO categories (id, name, created_at) VALUES (?, ?, ?)",
+                EntityIds.toBytes(category.getId()), category.getName(), LocalDateTime.now());
+    }
+
+    @Test
+    void shouldInsertFullStatementsAndTheRemainderWithEveryColumnInPlace() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(transaction(i));
+        }
+        // Um id já atribuído é mantido; os demais são gerados na gravação
+        String presetId = UuidV7Generator.next().toString();
+        transactions.get(5).setId(presetId);
+
+        inserter.insert(extractId, transactions);
+
+        assertEquals(presetId, transactions.get(5).getId());
+        assertEquals(ROWS, transactions.stream().map(Transaction::getId).distinct().count());
+
+        Map<String, Map<String, Object>> rows = jdbcTemplate.queryForList(
+                        "SELECT * FROM transactions WHERE extract_id = ?", (Object) EntityIds.toBytes(extractId))
+                .stream()
+                .collect(Collectors.toMap(row -> EntityIds.toString(uuid((byte[]) row.get("ID"))), Function.identity()));
+        assertEquals(ROWS, rows.size());
+
+        for (int i = 0; i < ROWS; i++) {
+            Transaction expected = transactions.get(i);
+            Map<String, Object> row = rows.get(expected.getId());
+            assertNotNull(row, "Row " + i + " was not inserted under its id");
+
+            assertEquals(expected.getDate().getTime(), ((Timestamp) row.get("DATE")).getTime(), "date of row " + i);
+            assertEquals(expected.getTitle(), row.get("TITLE"));
+            assertEquals(0, expected.getAmount().compareTo((BigDecimal) row.get("AMOUNT")), "amount of row " + i);
+            assertEquals(expected.getOriginalDescription(), row.get("ORIGINAL_DESCRIPTION"));
+            assertEquals(expected.getTransactionType() != null ? expected.getTransactionType().name() : null,
+                    row.get("TRANSACTION_TYPE"));
+            assertArrayEquals(EntityIds.toBytes(extractId), (byte[]) row.get("EXTRACT_ID"));
+
+            if (expected.getCategory() != null) {
+                assertArrayEquals(EntityIds.toBytes(category.getId()), (byte[]) row.get("CATEGORY_ID"));
+                assertEquals(0, expected.getConfidence().compareTo((BigDecimal) row.get("CONFIDENCE")));
+            } else {
+                assertNull(row.get("CATEGORY_ID"), "category of row " + i);
+                assertNull(row.get("CONFIDENCE"), "confidence of row " + i);
+            }
+        }
+    }
+
+    @Test
+    void shouldInsertFewerRowsThanOneStatement() {
+        List<Transaction> transactions = List.of(transaction(0), transaction(1));
+
+        inserter.insert(extractId, transactions);
+
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE extract_id = ?",
+                Integer.class, (Object) EntityIds.toBytes(extractId)));
+    }
+
+    /**
+     * Cada linha tem valores próprios em todas as colunas, para que um parâmetro na posição errada apareça;
+     * uma a cada três linhas fica sem categoria e uma a cada quatro sem tipo
+     */
+    private Transaction transaction(int i) {
+        TransactionType type = i % 4 == 3 ? null : TransactionType.values()[i % TransactionType.values().length];
+        Transaction transaction = Transaction.create(LocalDate.of(2033, 3, 1).plusDays(i), "Compra " + i,
+                new BigDecimal(i + ".25").negate(), "Descrição original " + i, type);
+        if (i % 3 != 2) {
+            transaction.setCategory(category);
+            transaction.setConfidence(new BigDecimal("0.5" + i % 10));
+        }
+        return transaction;
+    }
+
+    private static UUID uuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -168,7 +168,7 @@ class TransactionDataProviderIntegrationTest {
                 testCategory.getColor(),
                 testCategory.getIcon()
         );
-        category.setId(testCategory.getId());
+        category.setId(testCategory.getId().toString());
         category.setCreatedAt(testCategory.getCreatedAt());
         category.setUpdatedAt(testCategory.getUpdatedAt());
         return category;
@@ -0,0 +1,133 @@
+package br.com.iagoomes.financialcontrol.infra.dataprovider;
+
+import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractDetail.CategoryTotal;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionFilter;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.EntityIds;
+import br.com.iagoomes.financialcontrol.infra.repository.entity.UuidV7Generator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transações de um extrato ainda em importação não aparecem em nenhuma leitura: busca, páginas do extrato,
+ * totais por categoria, varreduras completas, candidatas da recategorização e histórico de categorizações manuais
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TransactionVisibilityIntegrationTest {
+
+    private static final int YEAR = 2034;
+
+    @Autowired
+    private TransactionProvider transactionProvider;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long candidatesBefore;
+    private String completeExtractId;
+    private String importingExtractId;
+
+    @BeforeEach
+    void setUp() {
+        candidatesBefore = transactionProvider.countRecategorizationCandidates(BigDecimal.ONE);
+
+        byte[] categoryId = EntityIds.toBytes(UuidV7Generator.next().toString());
+        jdbcTemplate.update("INSERT INTO categories (id, name, created_at) VALUES (?, 'Visibilidade', ?)",
+                categoryId, LocalDateTime.now());
+
+        completeExtractId = insertExtract(4, "COMPLETE");
+        insertTransaction(completeExtractId, 4, "Visível Sem Categoria", null);
+        insertTransaction(completeExtractId, 4, "Visível Manual", categoryId);
+
+        // Mesmas transações num extrato cuja importação ainda não terminou
+        importingExtractId = insertExtract(5, "IMPORTING");
+        insertTransaction(importingExtractId, 5, "Importando Sem Categoria", null);
+        insertTransaction(importingExtractId, 5, "Importando Manual", categoryId);
+    }
+
+    @Test
+    void shouldLeaveTransactionsOfImportingExtractOutOfSearch() {
+        TransactionFilter filter = new TransactionFilter(LocalDate.of(YEAR, 1, 1), LocalDate.of(YEAR, 12, 31),
+                null, null, null, null);
+
+        List<String> titles = titles(transactionProvider.search(filter, null, 100));
+
+        assertEquals(List.of("Visível Manual", "Visível Sem Categoria"), titles.stream().sorted().toList());
+    }
+
+    @Test
+    void shouldLeaveImportingExtractWithoutPagesOrTotals() {
+        assertEquals(2, transactionProvider.findByExtract(completeExtractId, null, 100).size());
+        assertEquals(1, transactionProvider.sumByCategory(completeExtractId).stream()
+                .mapToLong(CategoryTotal::transactionCount).sum());
+
+        assertTrue(transactionProvider.findByExtract(importingExtractId, null, 100).isEmpty());
+        assertTrue(transactionProvider.sumByCategory(importingExtractId).isEmpty());
+    }
+
+    @Test
+    void shouldLeaveTransactionsOfImportingExtractOutOfFullScans() {
+        List<String> page = titles(drain(transactionProvider::findPage));
+        assertTrue(page.containsAll(List.of("Visível Manual", "Visível Sem Categoria")));
+        assertFalse(page.stream().anyMatch(title -> title.startsWith("Importando")));
+
+        List<String> candidates = titles(drain((afterId, limit) ->
+                transactionProvider.findRecategorizationCandidates(BigDecimal.ONE, afterId, limit)));
+        assertTrue(candidates.contains("Visível Sem Categoria"));
+        assertFalse(candidates.stream().anyMatch(title -> title.startsWith("Importando")));
+        assertEquals(candidatesBefore + 1, transactionProvider.countRecategorizationCandidates(BigDecimal.ONE));
+
+        List<String> manual = new ArrayList<>();
+        transactionProvider.forEachManualCategorization((title, amount, categoryId) -> manual.add(title));
+        assertTrue(manual.contains("Visível Manual"));
+        assertFalse(manual.contains("Importando Manual"));
+    }
+
+    private String insertExtract(int month, String status) {
+        String id = UuidV7Generator.next().toString();
+        jdbcTemplate.update("INSERT INTO extracts (id, bank, reference_month, reference_year, processed_at, status) "
+                + "VALUES (?, 'NUBANK', ?, ?, ?, ?)", EntityIds.toBytes(id), month, YEAR, LocalDateTime.now(), status);
+        return id;
+    }
+
+    /**
+     * Sem categoria a transação é candidata da recategorização; com categoria e confiança 1.00, é manual
+     */
+    private void insertTransaction(String extractId, int month, String title, byte[] categoryId) {
+        jdbcTemplate.update("INSERT INTO transactions (id, date, title, amount, original_description, extract_id, "
+                        + "category_id, confidence) VALUES (?, ?, ?, 10.00, ?, ?, ?, ?)",
+                EntityIds.toBytes(UuidV7Generator.next().toString()), LocalDate.of(YEAR, month, 10).atStartOfDay(),
+                title, title, EntityIds.toBytes(extractId), categoryId, categoryId != null ? BigDecimal.ONE : null);
+    }
+
+    private static List<Transaction> drain(BiFunction<String, Integer, List<Transaction>> pages) {
+        List<Transaction> all = new ArrayList<>();
+        List<Transaction> page = pages.apply(null, 500);
+        while (!page.isEmpty()) {
+            all.addAll(page);
+            page = pages.apply(page.getLast().getId(), 500);
+        }
+        return all;
+    }
+
+    private static List<String> titles(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getTitle).toList();
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.iagoomes.financialcontrol.infra.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste da expansão de arquivos ZIP enviados no upload em lote
+ */
+class UploadSpoolerTest {
+
+    @TempDir
+    private Path uploadDirectory;
+
+    @Test
+    void shouldSpoolEveryFileEntryUnderItsName() throws Exception {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("extratos/", "");
+        entries.put("extratos/nubank-2025-07.csv", "date,title,amount\n2025-07-01,Mercado,10.00\n");
+        entries.put("extratos/.DS_Store", "lixo");
+        entries.put("__MACOSX/extratos/._nubank-2025-07.csv", "lixo");
+        entries.put("itau_2025_8.ofx", "<OFX></OFX>");
+
+        List<SpooledMultipartFile> spooled = spooler(500, DataSize.ofKilobytes(1), DataSize.ofKilobytes(4))
+                .spoolArchiveEntries(zip(entries));
+
+        try {
+            assertEquals(List.of("nubank-2025-07.csv", "itau_2025_8.ofx"),
+                    spooled.stream().map(SpooledMultipartFile::getOriginalFilename).toList());
+            assertEquals("date,title,amount\n2025-07-01,Mercado,10.00\n",
+                    new String(spooled.get(0).getBytes(), StandardCharsets.UTF_8));
+            assertEquals(11, spooled.get(1).getSize());
+        } finally {
+            spooled.forEach(SpooledMultipartFile::close);
+        }
+        assertEquals(0, spooledFiles());
+    }
+
+    @Test
+    void shouldRejectArchiveWithTooManyFiles() throws Exception {
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 1; i <= 3; i++) {
+            entries.put("nubank-2025-0" + i + ".csv", "date,title,amount\n");
+        }
+
+        UploadSpooler spooler = spooler(2, DataSize.ofKilobytes(1), DataSize.ofKilobytes(4));
+
+        assertThrows(IllegalArgumentException.class, () -> spooler.spoolArchiveEntries(zip(entries)));
+        assertEquals(0, spooledFiles());
+    }
+
+    @Test
+    void shouldRejectEntryDecompressingBeyondItsLimit() throws Exception {
+        // Altamente compressível: poucos bytes no ZIP, muitos depois de descompactado
+        Map<String, String> entries = Map.of("nubank-2025-07.csv", "0".repeat(2048));
+
+        UploadSpooler spooler = spooler(500, DataSize.ofKilobytes(1), DataSize.ofKilobytes(64));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> spooler.spoolArchiveEntries(zip(entries)));
+        assertTrue(error.getMessage().contains("nubank-2025-07.csv"));
+        assertEquals(0, spooledFiles());
+    }
+
+    @Test
+    void shouldRejectArchiveDecompressingBeyondItsLimit() throws Exception {
+        // Cada arquivo cabe no limite por entrada, mas juntos passam do limite do arquivo ZIP
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 1; i <= 5; i++) {
+            entries.put("nubank-2025-0" + i + ".csv", "0".repeat(1000));
+        }
+
+        UploadSpooler spooler = spooler(500, DataSize.ofKilobytes(1), DataSize.ofKilobytes(4));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> spooler.spoolArchiveEntries(zip(entries)));
+        assertTrue(error.getMessage().startsWith("ZIP archive"));
+        // Os arquivos já extraídos são apagados junto com o parcial
+        assertEquals(0, spooledFiles());
+    }
+
+    private UploadSpooler spooler(int maxEntries, DataSize maxEntrySize, DataSize maxArchiveSize) {
+        return new UploadSpooler(uploadDirectory.toString(), maxEntries, maxEntrySize, maxArchiveSize);
+    }
+
+    private static MockMultipartFile zip(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new MockMultipartFile("archive", "extratos.zip", "application/zip", bytes.toByteArray());
+    }
+
+    private long spooledFiles() throws IOException {
+        try (var files = Files.list(uploadDirectory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.iagoomes.financialcontrol.infra.job;
+
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.infra.exception.IdempotencyKeyReusedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste do índice de importações idempotentes
+ */
+class ImportDeduplicatorTest {
+
+    private final ImportDeduplicator deduplicator = new ImportDeduplicator(Duration.ofHours(24), 10000);
+
+    @Test
+    void shouldRunImportOnlyOnceForRepeatedKey() {
+        AtomicInteger imports = new AtomicInteger();
+        Extract extract = Extract.open(BankType.NUBANK, 7, 2025);
+
+        Extract first = deduplicator.importOnce("key:abc", () -> {
+            imports.incrementAndGet();
+            return extract;
+        });
+        Extract second = deduplicator.importOnce("key:abc", () -> {
+            imports.incrementAndGet();
+            return Extract.open(BankType.NUBANK, 7, 2025);
+        });
+
+        assertSame(extract, first);
+        assertSame(extract, second);
+        assertEquals(1, imports.get());
+    }
+
+    @Test
+    void shouldAllowRetryAfterFailedImport() {
+        assertThrows(IllegalStateException.class, () -> deduplicator.importOnce("key:abc", () -> {
+            throw new IllegalStateException("falha no processamento");
+        }));
+
+        Extract extract = Extract.open(BankType.NUBANK, 7, 2025);
+
+        // Uma importação com falha não deve ficar registrada para a chave
+        assertSame(extract, deduplicator.importOnce("key:abc", () -> extract));
+    }
+
+    @Test
+    void shouldRefuseKeyReusedForAnotherFingerprint() {
+        Extract extract = Extract.open(BankType.NUBANK, 7, 2025);
+        deduplicator.importOnce("key:abc", "NUBANK:2025-7:hash-a", () -> extract);
+
+        assertSame(extract, deduplicator.importOnce("key:abc", "NUBANK:2025-7:hash-a",
+                () -> fail("a importação não deve rodar de novo")));
+        // Mesma chave com outro conteúdo ou outro período
+        assertThrows(IdempotencyKeyReusedException.class, () -> deduplicator.importOnce("key:abc",
+                "NUBANK:2025-7:hash-b", () -> fail("a importação não deve rodar")));
+        assertThrows(IdempotencyKeyReusedException.class, () -> deduplicator.importOnce("key:abc",
+                "NUBANK:2025-8:hash-a", () -> fail("a importação não deve rodar")));
+    }
+
+    @Test
+    void shouldDropOldestFinishedEntriesBeyondTheBound() {
+        ImportDeduplicator bounded = new ImportDeduplicator(Duration.ofHours(24), 2);
+        AtomicInteger imports = new AtomicInteger();
+
+        for (String key : new String[]{"key:1", "key:2", "key:3"}) {
+            bounded.importOnce(key, () -> {
+                imports.incrementAndGet();
+                return Extract.open(BankType.NUBANK, 7, 2025);
+            });
+        }
+        // A chave mais antiga saiu do índice e volta a importar; as mais recentes continuam registradas
+        bounded.importOnce("key:3", () -> {
+            imports.incrementAndGet();
+            return Extract.open(BankType.NUBANK, 7, 2025);
+        });
+        assertEquals(3, imports.get());
+        bounded.importOnce("key:1", () -> {
+            imports.incrementAndGet();
+            return Extract.open(BankType.NUBANK, 7, 2025);
+        });
+        assertEquals(4, imports.get());
+    }
+}
@@ -0,0 +1,212 @@
+package br.com.iagoomes.financialcontrol.infra.job;
+
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.ImportJob;
+import br.com.iagoomes.financialcontrol.domain.entity.ImportStage;
+import br.com.iagoomes.financialcontrol.domain.usecase.ProcessExtractFileUseCase;
+import br.com.iagoomes.financialcontrol.infra.file.UploadSpooler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste do ciclo de vida dos jobs de importação em segundo plano
+ */
+@ExtendWith(MockitoExtension.class)
+class ImportJobManagerTest {
+
+    @Mock
+    private ProcessExtractFileUseCase processExtractFileUseCase;
+
+    @TempDir
+    private Path uploadDirectory;
+
+    // Guarda as tarefas em vez de executá-las, para observar o job antes e depois de rodar
+    private final List<Runnable> queuedTasks = new ArrayList<>();
+    private final TaskExecutor capturingExecutor = queuedTasks::add;
+
+    @Test
+    void shouldQueueJobAndCompleteItWithTheImportedExtract() throws Exception {
+        ImportJobManager manager = newManager(capturingExecutor, Duration.ofHours(1));
+        Extract extract = Extract.open(BankType.NUBANK, 7, 2025);
+        extract.setId(UUID.randomUUID().toString());
+        when(processExtractFileUseCase.execute(any(MultipartFile.class), eq(BankType.NUBANK), eq(7), eq(2025),
+                any(ImportJob.class))).thenReturn(extract);
+
+        ImportJob job = manager.submit(csvFile(), BankType.NUBANK, 7, 2025, null);
+
+        assertEquals(ImportStage.QUEUED, job.getStage());
+        assertSame(job, manager.findById(job.getId()).orElseThrow());
+        assertEquals(1, spooledFiles());
+
+        queuedTasks.get(0).run();
+
+        assertEquals(ImportStage.DONE, job.getStage());
+        assertEquals(extract.getId(), job.getExtractId());
+        assertNotNull(job.getFinishedAt());
+        // O arquivo temporário da requisição é apagado ao fim do job
+        assertEquals(0, spooledFiles());
+    }
+
+    @Test
+    void shouldFailJobWhenImportThrows() throws Exception {
+        ImportJobManager manager = newManager(capturingExecutor, Duration.ofHours(1));
+        when(processExtractFileUseCase.execute(any(MultipartFile.class), any(), any(), any(), any(ImportJob.class)))
+                .thenThrow(new IllegalStateException("arquivo inválido"));
+
+        ImportJob job = manager.submit(csvFile(), BankType.NUBANK, 7, 2025, null);
+        queuedTasks.get(0).run();
+
+        assertEquals(ImportStage.FAILED, job.getStage());
+        assertEquals("arquivo inválido", job.getErrorMessage());
+        assertNull(job.getExtractId());
+        assertEquals(0, spooledFiles());
+    }
+
+    @Test
+    void shouldNotFindUnknownJob() {
+        ImportJobManager manager = newManager(capturingExecutor, Duration.ofHours(1));
+
+        assertTrue(manager.findById(UUID.randomUUID().toString()).isEmpty());
+    }
+
+    @Test
+    void shouldReturnSameJobForRepeatedIdempotencyKey() {
+        ImportJobManager manager = newManager(capturingExecutor, Duration.ofHours(1));
+
+        ImportJob first = manager.submit(csvFile(), BankType.NUBANK, 7, 2025, "key-1");
+        ImportJob second = manager.submit(csvFile(), BankType.NUBANK, 7, 2025, "key-1");
+
+        assertSame(first, second);
+        assertEquals(1, queuedTasks.size());
+    }
+
+    @Test
+    void shouldQueueOneJobForConcurrentSubmissionsWithTheSameKey() throws Exception {
+        List<Runnable> tasks = Collections.synchronizedList(new ArrayList<>());
+        ImportJobManager manager = newManager(tasks::add, Duration.ofHours(1));
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+
+        try {
+            // Uploads lentos: o primeiro ainda está sendo gravado em disco quando os outros chegam
+            List<Future<ImportJob>> submissions = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                submissions.add(clients.submit(() -> manager.submit(slowCsvFile(), BankType.NUBANK, 7, 2025, "key-1")));
+            }
+
+            ImportJob job = submissions.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<ImportJob> submission : submissions) {
+                assertSame(job, submission.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, tasks.size());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldEvictFinishedJobsAfterRetention() throws Exception {
+        ImportJobManager manager = newManager(capturingExecutor, Duration.ZERO);
+        when(processExtractFileUseCase.execute(any(MultipartFile.class), any(), any(), any(), any(ImportJob.class)))
+                .thenThrow(new IllegalStateException("falha"));
+
+        ImportJob finished = manager.submit(csvFile(), BankType.NUBANK, 7, 2025, "key-1");
+        queuedTasks.get(0).run();
+        Thread.sleep(5);
+
+        // Jobs terminados saem do mapa na próxima submissão; os ainda na fila continuam visíveis
+        ImportJob queued = manager.submit(csvFile(), BankType.NUBANK, 8, 2025, null);
+
+        assertTrue(manager.findById(finished.getId()).isEmpty());
+        assertTrue(manager.findById(queued.getId()).isPresent());
+
+        // A chave do job removido fica livre para uma nova importação
+        ImportJob retried = manager.submit(csvFile(), BankType.NUBANK, 7, 2025, "key-1");
+        assertNotEquals(finished.getId(), retried.getId());
+    }
+
+    @Test
+    void shouldForgetJobAndDeleteUploadWhenQueueIsFull() throws Exception {
+        AtomicBoolean full = new AtomicBoolean(true);
+        TaskExecutor executor = task -> {
+            if (full.get()) {
+                throw new RejectedExecutionException("fila cheia");
+            }
+            queuedTasks.add(task);
+        };
+        ImportJobManager manager = newManager(executor, Duration.ofHours(1));
+
+        assertThrows(RejectedExecutionException.class,
+                () -> manager.submit(csvFile(), BankType.NUBANK, 7, 2025, "key-1"));
+        assertEquals(0, spooledFiles());
+
+        // A chave não fica presa a um job que nunca foi aceito
+        full.set(false);
+        ImportJob job = manager.submit(csvFile(), BankType.NUBANK, 7, 2025, "key-1");
+        assertEquals(ImportStage.QUEUED, job.getStage());
+        assertEquals(1, queuedTasks.size());
+    }
+
+    private ImportJobManager newManager(TaskExecutor executor, Duration retention) {
+        UploadSpooler spooler = new UploadSpooler(uploadDirectory.toString(), 500,
+                DataSize.ofMegabytes(64), DataSize.ofMegabytes(512));
+        return new ImportJobManager(processExtractFileUseCase, executor, spooler, retention);
+    }
+
+    private static MultipartFile csvFile() {
+        return new MockMultipartFile("file", "nubank-2025-07.csv", "text/csv",
+                "date,title,amount\n2025-07-01,Mercado,10.00\n".getBytes());
+    }
+
+    private static MultipartFile slowCsvFile() {
+        return new MockMultipartFile("file", "nubank-2025-07.csv", "text/csv", new byte[0]) {
+            @Override
+            public InputStream getInputStream() {
+                sleep(50);
+                return new ByteArrayInputStream("date,title,amount\n".getBytes());
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long spooledFiles() throws Exception {
+        try (var files = Files.list(uploadDirectory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.iagoomes.financialcontrol.infra.job;
+
+import br.com.iagoomes.financialcontrol.domain.TransactionProvider;
+import br.com.iagoomes.financialcontrol.domain.entity.RuleEvaluationJob;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import br.com.iagoomes.financialcontrol.domain.usecase.EvaluateCategorizationRulesUseCase;
+import br.com.iagoomes.financialcontrol.infra.categorization.CategorizationRules;
+import br.com.iagoomes.financialcontrol.infra.categorization.CategorizationRules.CategoryRule;
+import br.com.iagoomes.financialcontrol.infra.categorization.TransactionClassifier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste do ciclo de vida dos jobs de avaliação de regras em segundo plano
+ */
+@ExtendWith(MockitoExtension.class)
+class RuleEvaluationJobManagerTest {
+
+    @Mock
+    private TransactionProvider transactionProvider;
+
+    // Guarda as tarefas em vez de executá-las, para observar o job antes e depois de rodar
+    private final List<Runnable> queuedTasks = new ArrayList<>();
+    private final TaskExecutor capturingExecutor = queuedTasks::add;
+
+    @Test
+    void shouldAnswerBeforeScanningAndKeepTheResultInTheJob() {
+        Transaction uber = Transaction.create(LocalDate.of(2025, 7, 10), "Uber viagem", BigDecimal.TEN,
+                "Uber viagem", TransactionType.DEBIT);
+        uber.setId("tx-1");
+        when(transactionProvider.findPage("", 100)).thenReturn(List.of(uber));
+        when(transactionProvider.findPage("tx-1", 100)).thenReturn(List.of());
+
+        RuleEvaluationJobManager manager = newManager(capturingExecutor);
+        RuleEvaluationJob job = manager.submit(rules("uber"));
+
+        // O envio só enfileira: nenhuma transação foi lida ainda
+        assertEquals(RuleEvaluationJob.Status.QUEUED, job.getStatus());
+        assertNull(job.getResult());
+        assertSame(job, manager.findById(job.getId()).orElseThrow());
+
+        queuedTasks.forEach(Runnable::run);
+
+        assertEquals(RuleEvaluationJob.Status.DONE, job.getStatus());
+        assertEquals(1, job.getProcessed());
+        assertEquals(1, job.getResult().transactionsEvaluated());
+        assertNotNull(job.getFinishedAt());
+    }
+
+    @Test
+    void shouldRefuseInvalidRulesWithoutQueueingAJob() {
+        RuleEvaluationJobManager manager = newManager(capturingExecutor);
+
+        assertThrows(IllegalArgumentException.class, () -> manager.submit(rules("(sem fechamento")));
+        assertTrue(queuedTasks.isEmpty());
+        verifyNoInteractions(transactionProvider);
+    }
+
+    @Test
+    void shouldMarkJobFailedWhenTheScanFails() {
+        when(transactionProvider.findPage(anyString(), anyInt())).thenThrow(new IllegalStateException("banco fora"));
+
+        RuleEvaluationJob job = newManager(capturingExecutor).submit(rules("uber"));
+        queuedTasks.forEach(Runnable::run);
+
+        assertEquals(RuleEvaluationJob.Status.FAILED, job.getStatus());
+        assertEquals("banco fora", job.getErrorMessage());
+    }
+
+    @Test
+    void shouldPropagateRejectionWhenTheQueueIsFull() {
+        TaskExecutor fullExecutor = task -> {
+            throw new RejectedExecutionException("fila cheia");
+        };
+
+        assertThrows(RejectedExecutionException.class, () -> newManager(fullExecutor).submit(rules("uber")));
+    }
+
+    private RuleEvaluationJobManager newManager(TaskExecutor executor) {
+        var useCase = new EvaluateCategorizationRulesUseCase(transactionProvider, TransactionClassifier.builtIn(),
+                ForkJoinPool.commonPool(), 100);
+        return new RuleEvaluationJobManager(useCase, executor, Duration.ofHours(1));
+    }
+
+    private static CategorizationRules rules(String regex) {
+        CategoryRule transporte = new CategoryRule();
+        transporte.setName("Transporte");
+        transporte.setRegexes(List.of(regex));
+
+        CategoryRule outros = new CategoryRule();
+        outros.setName("Outros");
+
+        CategorizationRules rules = new CategorizationRules();
+        rules.setCategories(List.of(transporte));
+        rules.setDefaultCategory(outros);
+        return rules;
+    }
+}
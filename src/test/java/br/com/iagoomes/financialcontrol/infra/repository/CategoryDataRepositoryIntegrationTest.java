@@ -0,0 +1,95 @@
+package br.com.iagoomes.financialcontrol.infra.repository;
+
+import br.com.iagoomes.financialcontrol.infra.repository.entity.UuidV7Generator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Inserção condicional de categoria disputada por várias threads. Sem @Transactional: cada chamada grava na
+ * sua própria transação, como em produção, e a categoria é apagada ao fim do teste.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CategoryDataRepositoryIntegrationTest {
+
+    private static final String NAME = "Categoria Concorrente";
+    private static final int THREADS = 8;
+
+    @Autowired
+    private CategoryDataRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM categories WHERE name_key = LOWER(?)", NAME);
+    }
+
+    @Test
+    void shouldInsertExactlyOneRowUnderConcurrentInserts() throws Exception {
+        assertEquals(1, insertConcurrently(i -> NAME));
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM categories WHERE name_key = LOWER(?)",
+                Integer.class, NAME));
+        assertTrue(categoryRepository.findByNameIgnoreCase(NAME.toUpperCase()).isPresent());
+    }
+
+    @Test
+    void shouldInsertExactlyOneRowUnderConcurrentInsertsOfTheSameNameInAnotherCase() throws Exception {
+        // Metade das threads grava o nome em maiúsculas: a chave única de name não as distingue, a de name_key sim
+        assertEquals(1, insertConcurrently(i -> i % 2 == 0 ? NAME : NAME.toUpperCase()));
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM categories WHERE name_key = LOWER(?)",
+                Integer.class, NAME));
+    }
+
+    /**
+     * Dispara as inserções juntas e devolve quantas gravaram uma linha
+     */
+    private int insertConcurrently(IntFunction<String> names) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                String name = names.apply(i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return categoryRepository.insertIfAbsent(UuidV7Generator.next(), name, "#000000", "?",
+                            null, LocalDateTime.now());
+                }));
+            }
+            start.countDown();
+
+            int inserted = 0;
+            for (Future<Integer> result : results) {
+                try {
+                    inserted += result.get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    // Passou pela verificação junto com o vencedor e foi barrada pela chave única de name_key
+                    assertInstanceOf(DataIntegrityViolationException.class, e.getCause());
+                }
+            }
+            return inserted;
+        }
+    }
+}
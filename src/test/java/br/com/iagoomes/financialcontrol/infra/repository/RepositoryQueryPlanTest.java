@@ -0,0 +1,174 @@
+package br.com.iagoomes.financialcontrol.infra.repository;
+
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.ExtractStatus;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionCursor;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionFilter;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Planos de execução das consultas dos repositórios, obtidos com EXPLAIN sobre o SQL gerado pelo Hibernate:
+ * cada consulta deve ler pelo índice escolhido para ela nas migrações, e as páginas na ordem desse índice.
+ * <p>
+ * Cobre apenas o H2, com as migrações de db/migration/common e db/migration/h2. Os planos do MySQL de produção,
+ * com as migrações de db/migration/mysql, não são verificados aqui: o formato do EXPLAIN e as escolhas do
+ * otimizador são outros, e conferi-los exige um MySQL real.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "br.com.iagoomes.financialcontrol.infra.repository.RepositoryQueryPlanTest$SqlRecorder")
+@ActiveProfiles("test")
+@Transactional
+class RepositoryQueryPlanTest {
+
+    private static final UUID ID = new UUID(0, 0);
+    private static final PageRequest PAGE = PageRequest.ofSize(51);
+
+    @Autowired
+    private ExtractDataRepository extractRepository;
+
+    @Autowired
+    private TransactionDataRepository transactionRepository;
+
+    @Autowired
+    private CategoryDataRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void extractQueriesShouldReadThroughIndexes() {
+        ExtractStatus complete = ExtractStatus.COMPLETE;
+
+        assertReadsThrough("PRIMARY_KEY", () -> extractRepository.findById(ID));
+        assertReadsThrough("PRIMARY_KEY", () -> extractRepository.findSummaryById(ID, complete));
+        assertReadsThrough("PRIMARY_KEY", () -> extractRepository.findByIdWithTransactions(ID, complete));
+        assertReadsThrough("PRIMARY_KEY", () -> extractRepository.updateProgress(ID, BigDecimal.ONE, BigDecimal.ONE, 1,
+                1L, "owner", LocalDateTime.now()));
+        assertReadsThrough("PRIMARY_KEY", () -> extractRepository.claimLease(ID, ExtractStatus.IMPORTING, "owner",
+                LocalDateTime.now(), LocalDateTime.now()));
+        assertReadsThrough("PRIMARY_KEY", () -> extractRepository.releaseLease(ID, "owner"));
+        assertReadsThrough("PRIMARY_KEY", () -> extractRepository.updateStatus(ID, complete));
+        assertReadsThrough("UK_EXTRACTS_BANK_PERIOD",
+                () -> extractRepository.findByBankAndReferenceMonthAndReferenceYear(BankType.NUBANK, 7, 2025));
+        assertReadsThrough("UK_EXTRACTS_BANK_PERIOD",
+                () -> extractRepository.findSummaryByBankAndPeriod(BankType.NUBANK, 7, 2025, complete));
+        assertReadsThrough("IDX_EXTRACTS_PERIOD",
+                () -> extractRepository.findByReferenceYearAndReferenceMonthAndStatus(2025, 7, complete));
+
+        // Listagem paginada: lida já na ordem do índice, sem ordenar os extratos
+        assertPagesThrough("IDX_EXTRACTS_PERIOD",
+                () -> extractRepository.findFirstSummaryPage(null, null, null, complete, PAGE));
+        assertPagesThrough("IDX_EXTRACTS_PERIOD",
+                () -> extractRepository.findSummaryPageAfter(null, 2025, null, complete, 2025, 7, ID, PAGE));
+    }
+
+    @Test
+    void transactionQueriesShouldReadThroughIndexes() {
+        Date date = Date.from(Instant.parse("2025-07-10T00:00:00Z"));
+        ExtractStatus complete = ExtractStatus.COMPLETE;
+
+        assertReadsThrough("PRIMARY_KEY", () -> transactionRepository.findById(ID));
+        assertReadsThrough("PRIMARY_KEY",
+                () -> transactionRepository.findRecategorizationCandidates(BigDecimal.ONE, ID, complete, PAGE));
+        assertReadsThrough("PRIMARY_KEY", () -> transactionRepository.findPageAfter(ID, complete, PAGE));
+        assertReadsThrough("IDX_TRANSACTIONS_CONFIDENCE", () -> {
+            try (Stream<TransactionDataRepository.ManualCategorization> rows =
+                         transactionRepository.streamManualCategorizations(complete)) {
+                rows.forEach(row -> { });
+            }
+        });
+        assertReadsThrough("EXTRACT", () -> transactionRepository.sumByCategory(ID, complete));
+        assertReadsThrough("EXTRACT", () -> transactionRepository.deleteByExtractId(ID));
+
+        assertPagesThrough("IDX_TRANSACTIONS_EXTRACT_DATE_ID",
+                () -> transactionRepository.findFirstExtractPage(ID, complete, PAGE));
+        assertPagesThrough("IDX_TRANSACTIONS_EXTRACT_DATE_ID",
+                () -> transactionRepository.findExtractPageAfter(ID, date, ID, complete, PAGE));
+
+        // Pesquisa: com categoria pelo índice da categoria, sem ela pelo índice de data
+        TransactionCursor after = new TransactionCursor(date.toInstant(), ID.toString());
+        assertPagesThrough("IDX_TRANSACTIONS_CATEGORY_DATE_ID",
+                () -> search(new TransactionFilter(null, null, ID.toString(), null, null, null), null));
+        assertPagesThrough("IDX_TRANSACTIONS_CATEGORY_DATE_ID",
+                () -> search(new TransactionFilter(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 31), ID.toString(),
+                        TransactionType.PIX, BigDecimal.ZERO, BigDecimal.TEN), after));
+        assertPagesThrough("IDX_TRANSACTIONS_DATE_ID",
+                () -> search(new TransactionFilter(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 31), null,
+                        null, null, null), null));
+        assertPagesThrough("IDX_TRANSACTIONS_DATE_ID",
+                () -> search(new TransactionFilter(null, null, null, TransactionType.PIX, BigDecimal.ZERO, null), after));
+
+        // countRecategorizationCandidates fica de fora: conta quase toda a tabela (categoria ausente OU confiança
+        // baixa), e uma leitura sequencial é o plano certo para isso
+    }
+
+    @Test
+    void categoryQueriesShouldReadThroughIndexes() {
+        assertReadsThrough("UK_CATEGORIES_NAME_KEY", () -> categoryRepository.findByNameIgnoreCase("Alimentação"));
+        assertReadsThrough("UK_CATEGORIES_NAME_KEY", () -> categoryRepository.insertIfAbsent(ID, "Plano de teste",
+                "#000000", "🧪", null, LocalDateTime.now()));
+    }
+
+    private void search(TransactionFilter filter, TransactionCursor after) {
+        transactionRepository.findBy(TransactionDataSpecifications.search(filter, after, ExtractStatus.COMPLETE), query -> query.limit(51).all());
+    }
+
+    private void assertReadsThrough(String index, Runnable query) {
+        List<String> plans = plansOf(query);
+
+        assertTrue(plans.stream().anyMatch(plan -> plan.contains(index)), () -> "Expected " + index + " in " + plans);
+        assertTrue(plans.stream().noneMatch(plan -> plan.contains(".tableScan")), () -> "Table scan in " + plans);
+    }
+
+    private void assertPagesThrough(String index, Runnable query) {
+        assertReadsThrough(index, query);
+        assertTrue(SqlRecorder.plans.get().stream().anyMatch(plan -> plan.contains("/* index sorted */")),
+                () -> "Expected rows read in " + index + " order in " + SqlRecorder.plans.get());
+    }
+
+    private List<String> plansOf(Runnable query) {
+        SqlRecorder.statements.get().clear();
+        query.run();
+
+        List<String> plans = SqlRecorder.statements.get().stream()
+                .map(sql -> jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class))
+                .toList();
+        SqlRecorder.plans.set(plans);
+        return plans;
+    }
+
+    /**
+     * Records the SQL that Hibernate sends from the test thread
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        static final ThreadLocal<List<String>> statements = ThreadLocal.withInitial(ArrayList::new);
+        static final ThreadLocal<List<String>> plans = ThreadLocal.withInitial(List::of);
+
+        @Override
+        public String inspect(String sql) {
+            statements.get().add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.iagoomes.financialcontrol.infra.repository.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste do gerador de ids UUIDv7 ordenados pelo tempo
+ */
+class UuidV7GeneratorTest {
+
+    @Test
+    void shouldGenerateVersion7IdsCarryingTheCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+
+        // Os 48 bits mais significativos são o instante em milissegundos
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= after + 1, () -> "Timestamp " + timestamp);
+    }
+
+    @Test
+    void shouldStoreEveryIdAfterThePreviousOne() {
+        // Muito mais ids do que cabem no mesmo milissegundo: o contador mantém a ordem dentro dele
+        int count = 100_000;
+        Set<UUID> ids = new HashSet<>();
+        byte[] previous = EntityIds.toBytes(UuidV7Generator.next().toString());
+
+        for (int i = 0; i < count; i++) {
+            UUID id = UuidV7Generator.next();
+            byte[] stored = EntityIds.toBytes(id.toString());
+
+            // Comparados como o banco compara BINARY(16): byte a byte, sem sinal
+            assertTrue(Arrays.compareUnsigned(previous, stored) < 0, () -> "Out of order: " + id);
+            ids.add(id);
+            previous = stored;
+        }
+        assertEquals(count, ids.size());
+    }
+
+    @Test
+    void shouldStoreIdsAsTheirSixteenBytes() {
+        UUID id = UUID.fromString("0189a8f3-1111-7abc-8def-0123456789ab");
+
+        byte[] stored = EntityIds.toBytes(id.toString());
+
+        assertEquals(16, stored.length);
+        assertEquals((byte) 0x01, stored[0]);
+        assertEquals((byte) 0xab, stored[15]);
+        assertEquals(id.toString(), EntityIds.toString(id));
+        assertTrue(EntityIds.parse("non-existent-id").isEmpty());
+    }
+}
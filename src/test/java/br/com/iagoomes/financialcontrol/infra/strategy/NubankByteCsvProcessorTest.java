@@ -0,0 +1,215 @@
+package br.com.iagoomes.financialcontrol.infra.strategy;
+
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import br.com.iagoomes.financialcontrol.infra.file.UploadSpooler;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste do parser byte a byte do CSV do Nubank comparado ao parser opencsv
+ */
+class NubankByteCsvProcessorTest {
+
+    // Pool próprio com vários workers, para os chunks serem lidos em paralelo mesmo em máquinas com um núcleo
+    private static final ForkJoinPool parsePool = new ForkJoinPool(4);
+
+    @TempDir
+    Path spoolDir;
+
+    private final NubankByteCsvProcessor byteProcessor = new NubankByteCsvProcessor(
+            ForkJoinPool.commonPool(), null, false, DataSize.ofMegabytes(8), DataSize.ofMegabytes(4),
+            DataSize.ofMegabytes(512));
+    private final NubankCsvProcessor openCsvProcessor = new NubankCsvProcessor();
+
+    @AfterAll
+    static void shutdownParsePool() {
+        parsePool.shutdown();
+    }
+
+    @Test
+    void shouldProduceSameTransactionsAsOpenCsvParser() throws Exception {
+        ClassPathResource csvResource = new ClassPathResource("csv/test-extract-nubank-2025-07.csv");
+        byte[] csvBytes = Files.readAllBytes(csvResource.getFile().toPath());
+        MockMultipartFile file = new MockMultipartFile("file", "extract.csv", "text/csv", csvBytes);
+
+        List<Transaction> expected = parse(openCsvProcessor, file);
+        List<Transaction> actual = parse(byteProcessor, file);
+
+        assertEquals(12, actual.size());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getDate(), actual.get(i).getDate());
+            assertEquals(expected.get(i).getTitle(), actual.get(i).getTitle());
+            assertEquals(expected.get(i).getAmount(), actual.get(i).getAmount());
+            assertEquals(expected.get(i).getTransactionType(), actual.get(i).getTransactionType());
+        }
+    }
+
+    @Test
+    void shouldHandleQuotedTitlesAndCrLfLineEndings() {
+        String csv = "date,title,amount\r\n"
+                + "2025-07-01,\"Padaria, Doces & Cia\",12.30\r\n"
+                + "2025-07-02,\"Loja \"\"Central\"\"\",-7\r\n"
+                + "2025-07-03,  Pix recebido  , -150.5 \r\n";
+
+        List<Transaction> transactions = parse(byteProcessor, csvFile(csv));
+
+        assertEquals(3, transactions.size());
+        assertEquals("Padaria, Doces & Cia", transactions.get(0).getTitle());
+        assertEquals(new BigDecimal("12.30"), transactions.get(0).getAmount());
+        assertEquals("Loja \"Central\"", transactions.get(1).getTitle());
+        assertEquals(new BigDecimal("-7"), transactions.get(1).getAmount());
+        assertEquals("Pix recebido", transactions.get(2).getTitle());
+        assertEquals(new BigDecimal("-150.5"), transactions.get(2).getAmount());
+        // O tipo vem do sinal; a palavra-chave "Pix" é aplicada na categorização
+        assertEquals(TransactionType.CREDIT, transactions.get(2).getTransactionType());
+    }
+
+    @Test
+    void shouldSkipInvalidRecordsAndKeepParsing() {
+        String csv = "date,title,amount\n"
+                + "2025-13-01,Mes invalido,10.00\n"
+                + "2025-07-02,Valor invalido,abc\n"
+                + "2025-07-03,Sem valor\n"
+                + "\n"
+                + "2025-07-04,Mercado,1.5E+2\n"
+                + "2025-07-05,Ultima linha sem quebra,3.00";
+
+        List<Transaction> transactions = parse(byteProcessor, csvFile(csv));
+
+        assertEquals(2, transactions.size());
+        assertEquals(0, new BigDecimal("150").compareTo(transactions.get(0).getAmount()));
+        assertEquals("Ultima linha sem quebra", transactions.get(1).getTitle());
+    }
+
+    @Test
+    void shouldParseRecordsSpanningBufferBoundaries() {
+        StringBuilder csv = new StringBuilder("date,title,amount\n");
+        csv.append("2025-07-01,").append("x".repeat(200_000)).append(",1.00\n");
+        for (int i = 0; i < 10_000; i++) {
+            csv.append("2025-07-02,Uber viagem ").append(i).append(",18.00\n");
+        }
+
+        List<Transaction> transactions = parse(byteProcessor, csvFile(csv.toString()));
+
+        assertEquals(10_001, transactions.size());
+        assertEquals(200_000, transactions.get(0).getTitle().length());
+        assertEquals("Uber viagem 9999", transactions.get(10_000).getTitle());
+    }
+
+    @Test
+    void shouldParseLargeFilesInParallelChunksInLineOrder() {
+        StringBuilder csv = new StringBuilder("date,title,amount\n");
+        for (int i = 0; i < 50_000; i++) {
+            csv.append("2025-07-").append(String.format("%02d", i % 28 + 1))
+                    .append(",\"Compra, loja ").append(i).append("\",").append(i).append(".50\n");
+        }
+        csv.append("2025-07-31,Linha invalida,abc\n");
+        csv.append("2025-07-31,Ultima linha sem quebra,1.00");
+
+        // Chunks de 16KB com limiar baixo para forçar o caminho mapeado em memória
+        UploadSpooler spooler = new UploadSpooler(spoolDir.toString(), 500, DataSize.ofMegabytes(64),
+                DataSize.ofMegabytes(512));
+        NubankByteCsvProcessor mappedProcessor = new NubankByteCsvProcessor(parsePool,
+                spooler, true, DataSize.ofKilobytes(1), DataSize.ofKilobytes(16), DataSize.ofMegabytes(512));
+
+        List<Transaction> transactions = parse(mappedProcessor, csvFile(csv.toString()));
+
+        assertEquals(50_001, transactions.size());
+        for (int i = 0; i < 50_000; i++) {
+            assertEquals("Compra, loja " + i, transactions.get(i).getTitle());
+        }
+        assertEquals(new BigDecimal("49999.50"), transactions.get(49_999).getAmount());
+        assertEquals("Ultima linha sem quebra", transactions.get(50_000).getTitle());
+        assertEquals(0, spoolDir.toFile().list().length);
+    }
+
+    @Test
+    void shouldResumeRightAfterTheRecordOfASourcePosition() {
+        StringBuilder csv = new StringBuilder("date,title,amount\n");
+        for (int i = 0; i < 20_000; i++) {
+            csv.append("2025-07-02,\"Compra, loja ").append(i).append("\",18.00\n");
+        }
+        MockMultipartFile file = csvFile(csv.toString());
+        UploadSpooler spooler = new UploadSpooler(spoolDir.toString(), 500, DataSize.ofMegabytes(64),
+                DataSize.ofMegabytes(512));
+        NubankByteCsvProcessor mappedProcessor = new NubankByteCsvProcessor(parsePool,
+                spooler, true, DataSize.ofKilobytes(1), DataSize.ofKilobytes(16), DataSize.ofMegabytes(512));
+
+        for (NubankByteCsvProcessor processor : List.of(byteProcessor, mappedProcessor)) {
+            List<Transaction> all = parse(processor, file);
+            // A posição é o byte logo depois do registro: retomar dela continua no registro seguinte
+            long checkpoint = all.get(12_344).getSourcePosition();
+            assertEquals(csv.indexOf("2025-07-02,\"Compra, loja 12345\""), checkpoint);
+
+            List<Transaction> resumed = new ArrayList<>();
+            processor.streamTransactions(file, checkpoint, resumed::add);
+
+            assertEquals(20_000 - 12_345, resumed.size());
+            assertEquals("Compra, loja 12345", resumed.get(0).getTitle());
+            assertEquals(all.getLast().getSourcePosition(), resumed.getLast().getSourcePosition());
+            assertEquals(file.getSize(), resumed.getLast().getSourcePosition());
+        }
+    }
+
+    @Test
+    void shouldRejectFilesAbove10MbWhenLargeFileModeIsDisabled() {
+        MockMultipartFile file = new MockMultipartFile("file", "extract.csv", "text/csv", new byte[11 * 1024 * 1024]);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> byteProcessor.validateFile(file));
+        assertEquals("File size must not exceed 10MB", error.getMessage());
+    }
+
+    @Test
+    void shouldCapLargeFileModeAtItsMaximumSize() {
+        NubankByteCsvProcessor largeFileProcessor = new NubankByteCsvProcessor(ForkJoinPool.commonPool(), null, true,
+                DataSize.ofMegabytes(8), DataSize.ofMegabytes(4), DataSize.ofMegabytes(12));
+
+        largeFileProcessor.validateFile(
+                new MockMultipartFile("file", "extract.csv", "text/csv", new byte[11 * 1024 * 1024]));
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> largeFileProcessor
+                .validateFile(new MockMultipartFile("file", "extract.csv", "text/csv", new byte[13 * 1024 * 1024])));
+        assertEquals("File size must not exceed 12MB", error.getMessage());
+    }
+
+    @Test
+    void shouldReportTheOverriddenLimitWhenRejectingAFile() {
+        NubankCsvProcessor smallLimitProcessor = new NubankCsvProcessor() {
+            @Override
+            protected long maxFileSize() {
+                return 2 * 1024 * 1024;
+            }
+        };
+        MockMultipartFile file = new MockMultipartFile("file", "extract.csv", "text/csv", new byte[3 * 1024 * 1024]);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> smallLimitProcessor.validateFile(file));
+        assertEquals("File size must not exceed 2MB", error.getMessage());
+    }
+
+    private static MockMultipartFile csvFile(String content) {
+        return new MockMultipartFile("file", "extract.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Transaction> parse(FileProcessorStrategy processor, MockMultipartFile file) {
+        List<Transaction> transactions = new ArrayList<>();
+        processor.streamTransactions(file, transactions::add);
+        return transactions;
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.iagoomes.financialcontrol.infra.strategy;
+
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste do importador OFX (SGML 1.x e XML 2.x)
+ */
+class OfxFileProcessorTest {
+
+    private final OfxFileProcessor processor = new OfxFileProcessor(BankType.ITAU);
+
+    @Test
+    void shouldParseSgmlOfxWithUnclosedLeafTags() {
+        String ofx = """
+                OFXHEADER:100
+                DATA:OFXSGML
+                VERSION:102
+                ENCODING:USASCII
+                CHARSET:1252
+
+                <OFX>
+                <BANKMSGSRSV1><STMTTRNRS><STMTRS>
+                <BANKTRANLIST>
+                <DTSTART>20250701
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20250703120000[-3:BRT]
+                <TRNAMT>-45.50
+                <FITID>1
+                <MEMO>PADARIA PÃO & CIA
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>CREDIT
+                <DTPOSTED>20250705
+                <TRNAMT>3500.00
+                <FITID>2
+                <MEMO>PIX RECEBIDO EMPRESA
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>XFER
+                <DTPOSTED>20250706
+                <TRNAMT>-200,00
+                <FITID>3
+                <MEMO>ENVIO MESMA TITULARIDADE
+                </STMTTRN>
+                </BANKTRANLIST>
+                </STMTRS></STMTTRNRS></BANKMSGSRSV1>
+                </OFX>
+                """;
+
+        List<Transaction> transactions = parse(ofx.getBytes(Charset.forName("windows-1252")));
+
+        assertEquals(3, transactions.size());
+        assertEquals("PADARIA PÃO & CIA", transactions.get(0).getTitle());
+        assertEquals(new BigDecimal("45.50"), transactions.get(0).getAmount());
+        assertEquals(TransactionType.DEBIT, transactions.get(0).getTransactionType());
+        assertEquals(new BigDecimal("-3500.00"), transactions.get(1).getAmount());
+        // O tipo vem do TRNTYPE; a palavra-chave "PIX" é aplicada na categorização
+        assertEquals(TransactionType.CREDIT, transactions.get(1).getTransactionType());
+        assertEquals(new BigDecimal("200.00"), transactions.get(2).getAmount());
+        assertEquals(TransactionType.TRANSFER, transactions.get(2).getTransactionType());
+    }
+
+    @Test
+    void shouldParseXmlOfxAndSkipInvalidTransactions() {
+        String ofx = """
+                <?xml version="1.0" encoding="UTF-8" standalone="no"?>
+                <?OFX OFXHEADER="200" VERSION="211" SECURITY="NONE" OLDFILEUID="NONE" NEWFILEUID="NONE"?>
+                <!-- exportado pelo internet banking -->
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                  <STMTTRN><TRNTYPE>PAYMENT</TRNTYPE><DTPOSTED>20250710</DTPOSTED><TRNAMT>-89.90</TRNAMT>
+                    <FITID>10</FITID><NAME>Conta de luz &amp; gás</NAME><MEMO>ENEL</MEMO></STMTTRN>
+                  <STMTTRN><TRNTYPE>DEBIT</TRNTYPE><DTPOSTED>2025</DTPOSTED><TRNAMT>-1.00</TRNAMT>
+                    <FITID>11</FITID><NAME>Data invalida</NAME></STMTTRN>
+                  <STMTTRN><TRNTYPE>DEBIT</TRNTYPE><DTPOSTED>20250711</DTPOSTED><TRNAMT>-12.00</TRNAMT>
+                    <FITID>12</FITID><NAME>Café</NAME></STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """;
+
+        List<Transaction> transactions = parse(ofx.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(2, transactions.size());
+        assertEquals("Conta de luz & gás", transactions.get(0).getTitle());
+        assertEquals("ENEL", transactions.get(0).getOriginalDescription());
+        assertEquals(TransactionType.PAYMENT, transactions.get(0).getTransactionType());
+        assertEquals("Café", transactions.get(1).getTitle());
+    }
+
+    @Test
+    void shouldRecordTheBankTheExtractCameFrom() {
+        String ofx = "<OFX><STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20250703<TRNAMT>-10.00<MEMO>MERCADO</STMTTRN></OFX>";
+        MockMultipartFile file = new MockMultipartFile("file", "extrato.ofx", "application/x-ofx",
+                ofx.getBytes(StandardCharsets.UTF_8));
+
+        Extract extract = new OfxFileProcessor(BankType.BB).processFile(file, 7, 2025);
+
+        assertEquals(BankType.BB, extract.getBank());
+        assertEquals(1, extract.getTransactionCount());
+        assertEquals(new BigDecimal("10.00"), extract.getTotalExpenses());
+    }
+
+    private List<Transaction> parse(byte[] content) {
+        List<Transaction> transactions = new ArrayList<>();
+        processor.streamTransactions(new MockMultipartFile("file", "extrato.ofx", "application/x-ofx", content),
+                transactions::add);
+        return transactions;
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.iagoomes.financialcontrol.infra.strategy;
+
+import br.com.iagoomes.financialcontrol.domain.entity.BankType;
+import br.com.iagoomes.financialcontrol.domain.entity.Extract;
+import br.com.iagoomes.financialcontrol.domain.entity.Transaction;
+import br.com.iagoomes.financialcontrol.domain.entity.TransactionType;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste do processador de extratos em PDF do Santander
+ */
+class SantanderPdfProcessorTest {
+
+    // Pool próprio com vários workers, para as páginas serem lidas em paralelo mesmo em máquinas com um núcleo
+    private static final ForkJoinPool parsePool = new ForkJoinPool(4);
+
+    private final SantanderPdfProcessor processor = new SantanderPdfProcessor(parsePool);
+
+    @AfterAll
+    static void shutdownParsePool() {
+        parsePool.shutdown();
+    }
+
+    @Test
+    void shouldExtractTransactionsFromAllPagesInOrder() throws IOException {
+        List<List<String>> pages = new ArrayList<>();
+        for (int page = 0; page < 20; page++) {
+            List<String> lines = new ArrayList<>();
+            lines.add("EXTRATO CONSOLIDADO - PAGINA " + (page + 1));
+            lines.add("Data Descricao Valor Saldo");
+            for (int row = 0; row < 10; row++) {
+                int n = page * 10 + row;
+                lines.add("03/07/2025 COMPRA CARTAO DEB LOJA " + n + " -1.2" + String.format("%02d", row) + ",50 9.999,99");
+            }
+            pages.add(lines);
+        }
+
+        List<Transaction> transactions = parse(pdf(pages));
+
+        assertEquals(200, transactions.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals("COMPRA CARTAO DEB LOJA " + i, transactions.get(i).getTitle());
+        }
+        assertEquals(new BigDecimal("1200.50"), transactions.get(0).getAmount());
+    }
+
+    @Test
+    void shouldConvertStatementSignsAndSkipBalanceLines() throws IOException {
+        List<String> lines = List.of(
+                "01/07/2025 SALDO ANTERIOR 2.000,00",
+                "02/07/2025 PIX RECEBIDO FULANO 1.500,00 3.500,00",
+                "03/07/2025 PAGAMENTO DE BOLETO 350,75- 3.149,25",
+                "04/07/2025 TARIFA MENSAL -25,00",
+                "Total de creditos 1.500,00");
+
+        List<Transaction> transactions = parse(pdf(List.of(lines)));
+
+        assertEquals(3, transactions.size());
+        assertEquals(new BigDecimal("-1500.00"), transactions.get(0).getAmount());
+        // O tipo vem do sinal; a palavra-chave "PIX" é aplicada na categorização
+        assertEquals(TransactionType.CREDIT, transactions.get(0).getTransactionType());
+        assertEquals(new BigDecimal("350.75"), transactions.get(1).getAmount());
+        assertEquals(new BigDecimal("25.00"), transactions.get(2).getAmount());
+        assertEquals(TransactionType.DEBIT, transactions.get(2).getTransactionType());
+    }
+
+    @Test
+    void shouldCreateSantanderExtract() throws IOException {
+        MockMultipartFile file = pdf(List.of(List.of("02/07/2025 PIX RECEBIDO 100,00")));
+
+        Extract extract = processor.processFile(file, 7, 2025);
+
+        assertEquals(BankType.SANTANDER, extract.getBank());
+        assertEquals(1, extract.getTransactionCount());
+        assertEquals(new BigDecimal("100.00"), extract.getTotalIncome());
+    }
+
+    @Test
+    void shouldRejectNonPdfFiles() {
+        MockMultipartFile file = new MockMultipartFile("file", "extract.csv", "text/csv", new byte[]{1});
+
+        assertThrows(IllegalArgumentException.class, () -> processor.validateFile(file));
+    }
+
+    private List<Transaction> parse(MockMultipartFile file) {
+        List<Transaction> transactions = new ArrayList<>();
+        processor.streamTransactions(file, transactions::add);
+        return transactions;
+    }
+
+    private static MockMultipartFile pdf(List<List<String>> pages) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+
+            for (List<String> lines : pages) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 9);
+                    content.setLeading(14);
+                    content.newLineAtOffset(40, 750);
+                    for (String line : lines) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+
+            document.save(out);
+            return new MockMultipartFile("file", "extract.pdf", "application/pdf", out.toByteArray());
+        }
+    }
+}